@@ -0,0 +1,213 @@
+package org.padaiyal.utilities.commandline;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Bounded pool of reusable byte buffers used to drain the output streams of processes. Buffers
+ * are pooled in power of two size classes, and the size of the buffer handed out for a command
+ * adapts to the volume of output observed for it previously, so that probes use small buffers
+ * while verbose commands get large ones. Acquiring and releasing buffers is lock free.
+ */
+public final class BufferPool {
+
+  /**
+   * Number of slots used to remember the output volume observed for commands. Commands whose
+   * keys collide share a slot, which only affects the buffer size chosen for them.
+   */
+  private static final int observedSizeSlotCount = 1024;
+
+  /**
+   * Size of the smallest size class, used for commands with no observed output volume.
+   */
+  private final int initialBufferSize;
+  /**
+   * Size of the largest size class.
+   */
+  private final int maximumBufferSize;
+  /**
+   * Pooled buffers, one array of slots per size class.
+   */
+  private final AtomicReferenceArray<byte[]>[] pooledBuffers;
+  /**
+   * Output volume last observed for the commands, indexed by their key.
+   */
+  private final AtomicIntegerArray observedSizes;
+  /**
+   * Number of acquisitions served by a pooled buffer.
+   */
+  private final LongAdder hitCount;
+  /**
+   * Number of acquisitions which required a new buffer to be allocated.
+   */
+  private final LongAdder missCount;
+
+  /**
+   * Constructor used to initialize a BufferPool object.
+   *
+   * @param initialBufferSize Size of the buffer to use for commands with no observed output
+   *                          volume. Rounded up to a power of two.
+   * @param maximumBufferSize Maximum size of the buffers. Rounded up to a power of two.
+   * @param capacity          Maximum number of buffers pooled per size class.
+   */
+  @SuppressWarnings("unchecked")
+  public BufferPool(int initialBufferSize, int maximumBufferSize, int capacity) {
+    validatePositive("Initial buffer size", initialBufferSize);
+    validatePositive("Maximum buffer size", maximumBufferSize);
+    validatePositive("Capacity", capacity);
+    this.initialBufferSize = roundUpToPowerOfTwo(initialBufferSize);
+    this.maximumBufferSize = Math.max(
+        this.initialBufferSize,
+        roundUpToPowerOfTwo(maximumBufferSize)
+    );
+    int sizeClassCount = Integer.numberOfTrailingZeros(this.maximumBufferSize)
+        - Integer.numberOfTrailingZeros(this.initialBufferSize) + 1;
+    // Arrays of a generic type can't be created, hence one of the wildcard type is cast.
+    AtomicReferenceArray<?>[] sizeClasses = new AtomicReferenceArray<?>[sizeClassCount];
+    this.pooledBuffers = (AtomicReferenceArray<byte[]>[]) sizeClasses;
+    for (int sizeClass = 0; sizeClass < sizeClassCount; sizeClass++) {
+      pooledBuffers[sizeClass] = new AtomicReferenceArray<>(capacity);
+    }
+    this.observedSizes = new AtomicIntegerArray(observedSizeSlotCount);
+    this.hitCount = new LongAdder();
+    this.missCount = new LongAdder();
+  }
+
+  /**
+   * Acquires a buffer sized for the output volume previously observed for the specified command.
+   *
+   * @param commandKey  Key identifying the command, for example the hash code of the command.
+   * @return            A buffer which must be released once the stream has been drained.
+   */
+  public byte[] acquire(int commandKey) {
+    int observedSize = observedSizes.get(getObservedSizeSlot(commandKey));
+    int bufferSize = roundUpToPowerOfTwo(
+        Math.min(Math.max(observedSize, initialBufferSize), maximumBufferSize)
+    );
+    AtomicReferenceArray<byte[]> sizeClassBuffers = pooledBuffers[getSizeClass(bufferSize)];
+    for (int slot = 0; slot < sizeClassBuffers.length(); slot++) {
+      byte[] buffer = sizeClassBuffers.get(slot);
+      if (buffer != null && sizeClassBuffers.compareAndSet(slot, buffer, null)) {
+        hitCount.increment();
+        return buffer;
+      }
+    }
+    missCount.increment();
+    return new byte[bufferSize];
+  }
+
+  /**
+   * Returns a buffer to the pool and records the volume of output drained for the command. The
+   * buffer is discarded if the pool is full or if it wasn't acquired from a pool of this size.
+   *
+   * @param commandKey          Key identifying the command the buffer was acquired for.
+   * @param buffer              Buffer to return.
+   * @param drainedSizeInBytes  Number of bytes drained from the stream.
+   */
+  public void release(int commandKey, byte[] buffer, long drainedSizeInBytes) {
+    observedSizes.set(
+        getObservedSizeSlot(commandKey),
+        (int) Math.min(drainedSizeInBytes, maximumBufferSize)
+    );
+    int bufferSize = buffer.length;
+    if (Integer.bitCount(bufferSize) != 1
+        || bufferSize < initialBufferSize
+        || bufferSize > maximumBufferSize) {
+      return;
+    }
+    AtomicReferenceArray<byte[]> sizeClassBuffers = pooledBuffers[getSizeClass(bufferSize)];
+    for (int slot = 0; slot < sizeClassBuffers.length(); slot++) {
+      if (sizeClassBuffers.get(slot) == null
+          && sizeClassBuffers.compareAndSet(slot, null, buffer)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Retrieves the number of acquisitions served by a pooled buffer.
+   *
+   * @return Number of acquisitions served by a pooled buffer.
+   */
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /**
+   * Retrieves the number of acquisitions which required a new buffer to be allocated.
+   *
+   * @return Number of acquisitions which required a new buffer to be allocated.
+   */
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  /**
+   * Retrieves the number of buffers currently held by the pool.
+   *
+   * @return Number of buffers currently held by the pool.
+   */
+  public int getPooledBufferCount() {
+    int pooledBufferCount = 0;
+    for (AtomicReferenceArray<byte[]> sizeClassBuffers : pooledBuffers) {
+      for (int slot = 0; slot < sizeClassBuffers.length(); slot++) {
+        if (sizeClassBuffers.get(slot) != null) {
+          pooledBufferCount++;
+        }
+      }
+    }
+    return pooledBufferCount;
+  }
+
+  /**
+   * Identifies the size class of the specified buffer size.
+   *
+   * @param bufferSize  Buffer size, a power of two within the range of this pool.
+   * @return            Index of the size class.
+   */
+  private int getSizeClass(int bufferSize) {
+    return Integer.numberOfTrailingZeros(bufferSize)
+        - Integer.numberOfTrailingZeros(initialBufferSize);
+  }
+
+  /**
+   * Identifies the slot in which the output volume observed for a command is stored.
+   *
+   * @param commandKey  Key identifying the command.
+   * @return            Index of the slot.
+   */
+  private static int getObservedSizeSlot(int commandKey) {
+    // Spread the higher bits, as the keys are typically hash codes.
+    return (commandKey ^ (commandKey >>> 16)) & (observedSizeSlotCount - 1);
+  }
+
+  /**
+   * Rounds the specified value up to the nearest power of two.
+   *
+   * @param value Value to round up.
+   * @return      The nearest power of two greater than or equal to the value.
+   */
+  private static int roundUpToPowerOfTwo(int value) {
+    return (value <= 1) ? 1 : Integer.highestOneBit(value - 1) << 1;
+  }
+
+  /**
+   * Validates that the specified value is positive.
+   *
+   * @param name  Name of the value.
+   * @param value Value to validate.
+   */
+  private static void validatePositive(String name, int value) {
+    if (value < 1) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.positive",
+              name,
+              value
+          )
+      );
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package org.padaiyal.utilities.commandline;
+
+import java.util.List;
+import java.util.OptionalInt;
+
+/**
+ * A command which can be executed within this JVM without spawning a process, producing the same
+ * return code and output as the command it replaces.
+ */
+@FunctionalInterface
+public interface Builtin {
+
+  /**
+   * Executes the builtin.
+   *
+   * @param arguments Arguments of the command, excluding the command name.
+   * @param stdout    Buffer to which the standard output is to be written.
+   * @param stderr    Buffer to which the standard error is to be written.
+   * @return          The return code, or an empty optional if the builtin cannot faithfully
+   *                  reproduce the command for the specified arguments. Nothing must be written to
+   *                  the buffers in the latter case, as the command is then executed as usual.
+   */
+  OptionalInt execute(List<String> arguments, StringBuilder stdout, StringBuilder stderr);
+}
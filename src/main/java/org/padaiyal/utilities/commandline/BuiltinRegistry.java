@@ -0,0 +1,414 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.padaiyal.utilities.I18nUtility;
+import org.padaiyal.utilities.commandline.abstractions.OperatingSystem;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+
+/**
+ * Registry of builtins, consulted before spawning a process. A command matches a builtin if its
+ * executable is the name of a registered builtin, or if it is a POSIX shell executing a simple
+ * command (plain words without any quoting, expansion or redirection) whose first word is the
+ * name of a registered builtin.
+ */
+public final class BuiltinRegistry {
+
+  /**
+   * Names of the POSIX shells whose simple commands can be matched against builtins. zsh isn't
+   * one of them, as the output of its own which and test differs from the executables.
+   */
+  private static final Set<String> posixShellNames = Set.of("bash", "dash", "ksh", "sh");
+  /**
+   * Environment variables which shells modify for the commands they execute.
+   */
+  private static final Set<String> shellModifiedEnvironmentVariables = Set.of(
+      "_",
+      "OLDPWD",
+      "PWD",
+      "SHLVL"
+  );
+
+  /**
+   * Used to store the registered builtins against their names.
+   */
+  private final ConcurrentHashMap<String, Builtin> builtins;
+
+  /**
+   * Constructor used to initialize an empty BuiltinRegistry object.
+   */
+  public BuiltinRegistry() {
+    builtins = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Creates a registry with the default builtins (echo, pwd, true, false, cat, which, test and
+   * printenv) registered, if the operating system supports POSIX commands.
+   *
+   * @return Registry with the default builtins registered.
+   */
+  public static BuiltinRegistry withDefaultBuiltins() {
+    BuiltinRegistry builtinRegistry = new BuiltinRegistry();
+    if (OperatingSystem.getOperatingSystem() != OperatingSystem.WINDOWS) {
+      // Registered directly, as this is invoked before the resource bundles are loaded.
+      ConcurrentHashMap<String, Builtin> defaultBuiltins = builtinRegistry.builtins;
+      defaultBuiltins.put("echo", BuiltinRegistry::echo);
+      defaultBuiltins.put("pwd", BuiltinRegistry::pwd);
+      defaultBuiltins.put(
+          "true",
+          (arguments, stdout, stderr) -> arguments.isEmpty()
+              ? OptionalInt.of(0)
+              : OptionalInt.empty()
+      );
+      defaultBuiltins.put(
+          "false",
+          (arguments, stdout, stderr) -> arguments.isEmpty()
+              ? OptionalInt.of(1)
+              : OptionalInt.empty()
+      );
+      defaultBuiltins.put("cat", BuiltinRegistry::cat);
+      defaultBuiltins.put("which", BuiltinRegistry::which);
+      defaultBuiltins.put("test", BuiltinRegistry::test);
+      defaultBuiltins.put("printenv", BuiltinRegistry::printenv);
+    }
+    return builtinRegistry;
+  }
+
+  /**
+   * Registers a builtin, replacing any builtin previously registered with the same name.
+   *
+   * @param name    Name of the command the builtin replaces.
+   * @param builtin Builtin to register.
+   */
+  public void register(String name, Builtin builtin) {
+    Objects.requireNonNull(
+        name,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Name"
+        )
+    );
+    Objects.requireNonNull(
+        builtin,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Builtin"
+        )
+    );
+    builtins.put(name, builtin);
+  }
+
+  /**
+   * Unregisters the builtin with the specified name, if any.
+   *
+   * @param name Name of the builtin to unregister.
+   */
+  public void unregister(String name) {
+    builtins.remove(name);
+  }
+
+  /**
+   * Unregisters all the builtins.
+   */
+  public void clear() {
+    builtins.clear();
+  }
+
+  /**
+   * Retrieves the builtin registered with the specified name.
+   *
+   * @param name  Name of the builtin.
+   * @return      The builtin, or an empty optional if none is registered with the name.
+   */
+  public Optional<Builtin> getBuiltin(String name) {
+    return Optional.ofNullable(builtins.get(name));
+  }
+
+  /**
+   * Executes the specified command in-process if it matches a registered builtin.
+   *
+   * @param splitCommand  Command to execute.
+   * @return              The response of the builtin, or an empty optional if the command doesn't
+   *                      match any builtin or the builtin declined to execute it.
+   */
+  public Optional<Response> execute(String[] splitCommand) {
+    if (builtins.isEmpty() || splitCommand.length == 0) {
+      return Optional.empty();
+    }
+    String[] arguments = getBuiltinArguments(splitCommand);
+    if (arguments == null) {
+      return Optional.empty();
+    }
+
+    Instant executionStartTimestamp = Instant.now();
+    long executionStartNanoTime = System.nanoTime();
+    StringBuilder stdout = new StringBuilder();
+    StringBuilder stderr = new StringBuilder();
+    OptionalInt returnCode = builtins.get(arguments[0])
+        .execute(
+            Collections.unmodifiableList(Arrays.asList(arguments).subList(1, arguments.length)),
+            stdout,
+            stderr
+        );
+    if (returnCode.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new Response(
+            returnCode.getAsInt(),
+            stdout.toString(),
+            stderr.toString(),
+            executionStartTimestamp,
+            Duration.ofNanos(System.nanoTime() - executionStartNanoTime)
+        )
+    );
+  }
+
+  /**
+   * Identifies the arguments (including the command name) with which a builtin is to be executed
+   * for the specified command.
+   *
+   * @param splitCommand  Command to execute.
+   * @return              The arguments with which a builtin is to be executed, or null if the
+   *                      command doesn't match any registered builtin.
+   */
+  private String[] getBuiltinArguments(String[] splitCommand) {
+    if (builtins.containsKey(splitCommand[0])) {
+      return splitCommand;
+    }
+    if (splitCommand.length == 3 && "-c".equals(splitCommand[1])) {
+      String shellPath = splitCommand[0];
+      String shellName = shellPath.substring(shellPath.lastIndexOf(File.separatorChar) + 1);
+      if (posixShellNames.contains(shellName)) {
+        String[] words = splitSimpleCommand(splitCommand[2]);
+        if (words != null && builtins.containsKey(words[0])) {
+          return words;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Splits a shell command into words, provided it is a simple command made up of plain words
+   * which the shell doesn't quote, expand or redirect.
+   *
+   * @param command Shell command to split.
+   * @return        The words in the command, or null if it isn't a simple command.
+   */
+  static String[] splitSimpleCommand(String command) {
+    for (int index = 0; index < command.length(); index++) {
+      char character = command.charAt(index);
+      boolean isPlainCharacter = (character >= 'a' && character <= 'z')
+          || (character >= 'A' && character <= 'Z')
+          || (character >= '0' && character <= '9')
+          || "_./,:=@%+- \t".indexOf(character) != -1;
+      if (!isPlainCharacter) {
+        return null;
+      }
+    }
+    String trimmedCommand = command.trim();
+    if (trimmedCommand.isEmpty()) {
+      return null;
+    }
+    String[] words = trimmedCommand.split("[ \t]+");
+    // A leading word with an '=' is a variable assignment.
+    return (words[0].indexOf('=') == -1) ? words : null;
+  }
+
+  /**
+   * Builtin for echo, when none of the arguments could be options.
+   *
+   * @param arguments Arguments of the command.
+   * @param stdout    Buffer to which the standard output is written.
+   * @param stderr    Buffer to which the standard error is written.
+   * @return          The return code, or an empty optional if the builtin declines.
+   */
+  private static OptionalInt echo(List<String> arguments, StringBuilder stdout,
+      StringBuilder stderr) {
+    if (arguments.stream().anyMatch(argument -> argument.startsWith("-"))) {
+      return OptionalInt.empty();
+    }
+    stdout.append(String.join(" ", arguments))
+        .append('\n');
+    return OptionalInt.of(0);
+  }
+
+  /**
+   * Builtin for pwd without arguments, when the logical and physical working directories match.
+   *
+   * @param arguments Arguments of the command.
+   * @param stdout    Buffer to which the standard output is written.
+   * @param stderr    Buffer to which the standard error is written.
+   * @return          The return code, or an empty optional if the builtin declines.
+   */
+  private static OptionalInt pwd(List<String> arguments, StringBuilder stdout,
+      StringBuilder stderr) {
+    String workingDirectory = System.getProperty("user.dir");
+    String logicalWorkingDirectory = System.getenv("PWD");
+    if (!arguments.isEmpty()
+        || (logicalWorkingDirectory != null
+        && !logicalWorkingDirectory.equals(workingDirectory))) {
+      return OptionalInt.empty();
+    }
+    stdout.append(workingDirectory)
+        .append('\n');
+    return OptionalInt.of(0);
+  }
+
+  /**
+   * Builtin for cat with readable regular files as arguments.
+   *
+   * @param arguments Arguments of the command.
+   * @param stdout    Buffer to which the standard output is written.
+   * @param stderr    Buffer to which the standard error is written.
+   * @return          The return code, or an empty optional if the builtin declines.
+   */
+  private static OptionalInt cat(List<String> arguments, StringBuilder stdout,
+      StringBuilder stderr) {
+    if (arguments.isEmpty()) {
+      return OptionalInt.empty();
+    }
+    StringBuilder content = new StringBuilder();
+    for (String argument : arguments) {
+      Path path = toPath(argument);
+      if (argument.startsWith("-") || path == null || !Files.isRegularFile(path)
+          || !Files.isReadable(path)) {
+        return OptionalInt.empty();
+      }
+      try {
+        content.append(new String(Files.readAllBytes(path)));
+      } catch (IOException e) {
+        return OptionalInt.empty();
+      }
+    }
+    stdout.append(content);
+    return OptionalInt.of(0);
+  }
+
+  /**
+   * Builtin for which with a single command name, when the command is found in the PATH.
+   *
+   * @param arguments Arguments of the command.
+   * @param stdout    Buffer to which the standard output is written.
+   * @param stderr    Buffer to which the standard error is written.
+   * @return          The return code, or an empty optional if the builtin declines.
+   */
+  private static OptionalInt which(List<String> arguments, StringBuilder stdout,
+      StringBuilder stderr) {
+    String pathVariable = System.getenv("PATH");
+    if (arguments.size() != 1 || pathVariable == null) {
+      return OptionalInt.empty();
+    }
+    String commandName = arguments.get(0);
+    if (commandName.startsWith("-") || commandName.indexOf(File.separatorChar) != -1) {
+      return OptionalInt.empty();
+    }
+    for (String directory : pathVariable.split(File.pathSeparator)) {
+      if (directory.isEmpty()) {
+        continue;
+      }
+      String commandPath = directory + File.separator + commandName;
+      Path path = toPath(commandPath);
+      if (path != null && Files.isRegularFile(path) && Files.isExecutable(path)) {
+        stdout.append(commandPath)
+            .append('\n');
+        return OptionalInt.of(0);
+      }
+    }
+    // Implementations of which differ in how they report a missing command.
+    return OptionalInt.empty();
+  }
+
+  /**
+   * Builtin for test with a single file operator (-e, -f or -d) and path.
+   *
+   * @param arguments Arguments of the command.
+   * @param stdout    Buffer to which the standard output is written.
+   * @param stderr    Buffer to which the standard error is written.
+   * @return          The return code, or an empty optional if the builtin declines.
+   */
+  private static OptionalInt test(List<String> arguments, StringBuilder stdout,
+      StringBuilder stderr) {
+    if (arguments.size() != 2) {
+      return OptionalInt.empty();
+    }
+    Path path = toPath(arguments.get(1));
+    if (path == null) {
+      return OptionalInt.empty();
+    }
+    boolean result;
+    switch (arguments.get(0)) {
+      case "-e" -> result = Files.exists(path);
+      case "-f" -> result = Files.isRegularFile(path);
+      case "-d" -> result = Files.isDirectory(path);
+      default -> {
+        return OptionalInt.empty();
+      }
+    }
+    return OptionalInt.of(result ? 0 : 1);
+  }
+
+  /**
+   * Builtin for printenv with one or more variable names.
+   *
+   * @param arguments Arguments of the command.
+   * @param stdout    Buffer to which the standard output is written.
+   * @param stderr    Buffer to which the standard error is written.
+   * @return          The return code, or an empty optional if the builtin declines.
+   */
+  private static OptionalInt printenv(List<String> arguments, StringBuilder stdout,
+      StringBuilder stderr) {
+    // Without arguments, printenv prints the variables in an order which isn't retained here.
+    if (arguments.isEmpty()
+        || arguments.stream().anyMatch(
+            argument -> argument.startsWith("-")
+                || shellModifiedEnvironmentVariables.contains(argument)
+        )) {
+      return OptionalInt.empty();
+    }
+    int returnCode = 0;
+    for (String argument : arguments) {
+      String value = System.getenv(argument);
+      if (value == null) {
+        returnCode = 1;
+      } else {
+        stdout.append(value)
+            .append('\n');
+      }
+    }
+    return OptionalInt.of(returnCode);
+  }
+
+  /**
+   * Converts a string to a path.
+   *
+   * @param path  String to convert.
+   * @return      The path, or null if the string isn't a valid path.
+   */
+  private static Path toPath(String path) {
+    // An empty string names no file, whereas the empty path is the current directory.
+    if (path.isEmpty()) {
+      return null;
+    }
+    try {
+      return Paths.get(path);
+    } catch (InvalidPathException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package org.padaiyal.utilities.commandline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Used to cancel command executions from another thread. Cancelling the token kills the process
+ * trees of the executions it was passed to, closing their pipes, and makes them throw a
+ * CancellationException. A token can't be reset once cancelled.
+ */
+public final class CancellationToken {
+
+  /**
+   * Actions to run on cancellation, guarded by this token.
+   */
+  private final List<Runnable> cancellationActions;
+  /**
+   * Whether the token has been cancelled.
+   */
+  private volatile boolean cancelled;
+
+  /**
+   * Constructor used to initialize a CancellationToken object.
+   */
+  public CancellationToken() {
+    this.cancellationActions = new ArrayList<>();
+  }
+
+  /**
+   * Cancels the executions the token was passed to. Cancelling an already cancelled token has
+   * no effect.
+   */
+  public void cancel() {
+    List<Runnable> actions;
+    synchronized (this) {
+      if (cancelled) {
+        return;
+      }
+      cancelled = true;
+      actions = new ArrayList<>(cancellationActions);
+      cancellationActions.clear();
+    }
+    // The actions are run outside the lock as killing process trees may take a while.
+    actions.forEach(Runnable::run);
+  }
+
+  /**
+   * Checks if the token has been cancelled.
+   *
+   * @return true if the token has been cancelled, else false.
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Registers an action to run on cancellation. The action is run right away if the token has
+   * already been cancelled.
+   *
+   * @param action Action to run on cancellation.
+   */
+  void register(Runnable action) {
+    synchronized (this) {
+      if (!cancelled) {
+        cancellationActions.add(action);
+        return;
+      }
+    }
+    action.run();
+  }
+
+  /**
+   * Unregisters an action registered to run on cancellation.
+   *
+   * @param action Action to unregister.
+   */
+  synchronized void unregister(Runnable action) {
+    cancellationActions.remove(action);
+  }
+}
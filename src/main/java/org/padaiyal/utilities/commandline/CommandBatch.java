@@ -0,0 +1,174 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.padaiyal.utilities.I18nUtility;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Combines multiple independent commands into a single POSIX shell script, and splits the output
+ * of the script back into one response per command. Each command is executed in a subshell and
+ * its output is delimited with unique markers on both STDOUT and STDERR, the STDOUT markers
+ * carrying the return code of the command.
+ */
+final class CommandBatch implements DrainListener {
+
+  /**
+   * Marker which delimits the outputs of the commands.
+   */
+  private final String marker;
+  /**
+   * Prefix of the marker lines.
+   */
+  private final String markerPrefix;
+  /**
+   * Script executing all the commands.
+   */
+  private final String script;
+  /**
+   * Number of commands in the batch.
+   */
+  private final int commandCount;
+  /**
+   * Timestamps at which the execution of each command began.
+   */
+  private final Instant[] executionStartTimestamps;
+  /**
+   * Timestamps at which the execution of each command ended.
+   */
+  private final Instant[] executionEndTimestamps;
+
+  /**
+   * Constructor used to initialize a CommandBatch object.
+   *
+   * @param commands Commands to combine.
+   */
+  CommandBatch(List<String> commands) {
+    this.marker = "__jCommandLine_" + UUID.randomUUID().toString().replace("-", "");
+    this.markerPrefix = marker + ":";
+    this.commandCount = commands.size();
+    this.executionStartTimestamps = new Instant[commandCount];
+    this.executionEndTimestamps = new Instant[commandCount];
+
+    StringBuilder scriptBuilder = new StringBuilder();
+    for (int index = 0; index < commandCount; index++) {
+      String beginMarker = marker + ":" + index + ":B";
+      String endMarker = marker + ":" + index + ":E";
+      scriptBuilder.append("printf '%s\\n' '").append(beginMarker).append("'; ")
+          .append("printf '%s\\n' '").append(beginMarker).append("' 1>&2\n")
+          .append("(\n")
+          .append(commands.get(index))
+          .append("\n)\n")
+          // The leading newline ensures the marker starts on its own line.
+          .append("__jCommandLineReturnCode=$?; ")
+          .append("printf '\\n%s\\n' \"").append(endMarker)
+          .append(":$__jCommandLineReturnCode\"; ")
+          .append("printf '\\n%s\\n' '").append(endMarker).append("' 1>&2\n");
+    }
+    this.script = scriptBuilder.toString();
+  }
+
+  /**
+   * Retrieves the script executing all the commands.
+   *
+   * @return Script executing all the commands.
+   */
+  String getScript() {
+    return script;
+  }
+
+  /**
+   * Reads the STDOUT of the script using a pooled buffer, timestamping the start and end of each
+   * command as their marker lines arrive.
+   *
+   * @param inputStream   STDOUT of the script.
+   * @param commandKey    Key identifying the script, used to size the buffer.
+   * @return              The complete STDOUT of the script.
+   * @throws IOException  Thrown if there is an issue reading from the stream.
+   */
+  String drainStdout(InputStream inputStream, int commandKey) throws IOException {
+    return StreamUtility.convertInputStreamToString(
+        inputStream,
+        StdType.STDOUT,
+        commandKey,
+        null,
+        this
+    );
+  }
+
+  /**
+   * Timestamps the start or end of a command if the specified line is one of its markers.
+   *
+   * @param line      Line read, without its line terminator.
+   * @param retained  true if the line is retained in the output, else false.
+   * @return          true to continue draining.
+   */
+  @Override
+  public boolean onLine(String line, boolean retained) {
+    if (line.startsWith(markerPrefix)) {
+      String[] fields = line.substring(markerPrefix.length()).split(":");
+      int index = Integer.parseInt(fields[0]);
+      if ("B".equals(fields[1])) {
+        executionStartTimestamps[index] = Instant.now();
+      } else {
+        executionEndTimestamps[index] = Instant.now();
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Splits the outputs of the script into one response per command.
+   *
+   * @param stdout        Complete STDOUT of the script.
+   * @param stderr        Complete STDERR of the script.
+   * @return              The responses of the commands, in the order they were specified.
+   * @throws IOException  Thrown if the outputs aren't delimited as expected, which happens if the
+   *                      script was terminated prematurely.
+   */
+  List<Response> split(String stdout, String stderr) throws IOException {
+    List<Response> responses = new ArrayList<>(commandCount);
+    for (int index = 0; index < commandCount; index++) {
+      String beginMarkerLine = marker + ":" + index + ":B\n";
+      String endMarkerPrefix = "\n" + marker + ":" + index + ":E";
+
+      int stdoutStart = stdout.indexOf(beginMarkerLine);
+      int stdoutEnd = (stdoutStart == -1)
+          ? -1
+          : stdout.indexOf(endMarkerPrefix + ":", stdoutStart + beginMarkerLine.length());
+      int stderrStart = stderr.indexOf(beginMarkerLine);
+      int stderrEnd = (stderrStart == -1)
+          ? -1
+          : stderr.indexOf(endMarkerPrefix + "\n", stderrStart + beginMarkerLine.length());
+      if (stdoutEnd == -1 || stderrEnd == -1) {
+        throw new IOException(
+            I18nUtility.getFormattedString(
+                "CommandLineUtility.exception.malformedBatchOutput",
+                index
+            )
+        );
+      }
+      int returnCodeStart = stdoutEnd + endMarkerPrefix.length() + 1;
+      int returnCode = Integer.parseInt(
+          stdout.substring(returnCodeStart, stdout.indexOf('\n', returnCodeStart))
+      );
+
+      responses.add(
+          new Response(
+              returnCode,
+              stdout.substring(stdoutStart + beginMarkerLine.length(), stdoutEnd),
+              stderr.substring(stderrStart + beginMarkerLine.length(), stderrEnd),
+              executionStartTimestamps[index],
+              Duration.between(executionStartTimestamps[index], executionEndTimestamps[index])
+          )
+      );
+    }
+    return responses;
+  }
+}
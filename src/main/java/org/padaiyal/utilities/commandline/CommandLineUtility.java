@@ -5,22 +5,51 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import jdk.jfr.FlightRecorder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.padaiyal.utilities.I18nUtility;
 import org.padaiyal.utilities.PropertyUtility;
+import org.padaiyal.utilities.commandline.abstractions.CaptureOptions;
 import org.padaiyal.utilities.commandline.abstractions.Command;
 import org.padaiyal.utilities.commandline.abstractions.CommandLine;
+import org.padaiyal.utilities.commandline.abstractions.ExecutionContext;
+import org.padaiyal.utilities.commandline.abstractions.ExecutionPriority;
+import org.padaiyal.utilities.commandline.abstractions.HedgingPolicy;
+import org.padaiyal.utilities.commandline.abstractions.LaunchRequest;
 import org.padaiyal.utilities.commandline.abstractions.OperatingSystem;
+import org.padaiyal.utilities.commandline.abstractions.OutputMergeMode;
+import org.padaiyal.utilities.commandline.abstractions.ResourceLimits;
+import org.padaiyal.utilities.commandline.abstractions.ResourceUsage;
 import org.padaiyal.utilities.commandline.abstractions.Response;
 import org.padaiyal.utilities.commandline.abstractions.StdType;
+import org.padaiyal.utilities.commandline.abstractions.StopCondition;
+import org.padaiyal.utilities.commandline.events.CommandExecutionEvent;
+import org.padaiyal.utilities.commandline.events.CommandSpawnEvent;
+import org.padaiyal.utilities.commandline.events.CommandTimeoutEvent;
 import org.padaiyal.utilities.commandline.exceptions.CommandLineNotFoundException;
 
 /**
@@ -49,11 +78,91 @@ public final class CommandLineUtility {
    * Flag to denote if dependant values have been initialized.
    */
   private static boolean areDependantValuesInitialized = false;
+  /**
+   * Backend used to spawn processes.
+   */
+  private static volatile ProcessLauncher processLauncher = new DefaultProcessLauncher();
+  /**
+   * Builtins consulted before spawning a process.
+   */
+  private static final BuiltinRegistry builtinRegistry = BuiltinRegistry.withDefaultBuiltins();
+  /**
+   * Options used to capture the outputs when none are specified.
+   */
+  private static final CaptureOptions defaultCaptureOptions = new CaptureOptions();
+  /**
+   * Used to drain the output streams of processes concurrently.
+   */
+  private static final ExecutorService streamDrainingExecutor = Executors.newCachedThreadPool(
+      runnable -> {
+        Thread thread = new Thread(runnable, "CommandLineUtility-stream-drainer");
+        thread.setDaemon(true);
+        return thread;
+      }
+  );
+  /**
+   * Command lines in which multiple commands can be combined into a single script.
+   */
+  private static final EnumSet<CommandLine> batchableCommandLines = EnumSet.of(
+      CommandLine.BASH,
+      CommandLine.KSH,
+      CommandLine.SH,
+      CommandLine.ZSH
+  );
+
+  /**
+   * Used to record the command executions in flight.
+   */
+  private static final ProcessRegistry processRegistry = new ProcessRegistry();
+  /**
+   * Number of command executions cancelled by an interrupt or a cancellation token.
+   */
+  private static final LongAdder cancelledExecutionCount = new LongAdder();
+  /**
+   * Used to admit command executions as per their priority class. Created once the properties
+   * are loaded, as locating the command lines already executes commands.
+   */
+  private static volatile ExecutionScheduler executionScheduler;
+  /**
+   * Journal the executed commands are recorded in, or null if they aren't recorded.
+   */
+  private static volatile ExecutionJournal executionJournal;
+  /**
+   * Replayer serving recorded responses instead of executing commands, or null if commands are
+   * executed.
+   */
+  private static volatile ExecutionReplayer executionReplayer;
 
   static {
     initializeDependantValues();
+    Runtime.getRuntime().addShutdownHook(
+        new Thread(
+            CommandLineUtility::terminateRunningExecutions,
+            "CommandLineUtility-shutdown"
+        )
+    );
   }
 
+  /**
+   * Used to track the recently observed latencies of hedged commands.
+   */
+  private static final LatencyTracker latencyTracker = new LatencyTracker(
+      PropertyUtility.getTypedProperty(
+          Integer.class,
+          "CommandLineUtility.hedging.latencyWindow.size"
+      )
+  );
+
+  /**
+   * Used to sample the resources used by commands, or null if sampling is disabled.
+   */
+  private static volatile ResourceSampler resourceSampler = createResourceSampler(
+      PropertyUtility.getTypedProperty(
+          Long.class,
+          "CommandLineUtility.resourceSampling.interval.millis"
+      )
+  );
+
   /**
    * Empty private constructor as this utility class is not meant to be used as an instance.
    */
@@ -87,6 +196,260 @@ public final class CommandLineUtility {
     return dependantValuesInitializationLock.isLocked();
   }
 
+  /**
+   * Returns the backend used to spawn processes.
+   *
+   * @return The backend used to spawn processes.
+   */
+  public static ProcessLauncher getProcessLauncher() {
+    return processLauncher;
+  }
+
+  /**
+   * Sets the backend used to spawn processes.
+   *
+   * @param processLauncher Backend to use to spawn processes.
+   */
+  public static void setProcessLauncher(ProcessLauncher processLauncher) {
+    CommandLineUtility.processLauncher = Objects.requireNonNull(
+        processLauncher,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "ProcessLauncher"
+        )
+    );
+  }
+
+  /**
+   * Returns the registry of builtins consulted before spawning a process.
+   *
+   * @return The registry of builtins.
+   */
+  public static BuiltinRegistry getBuiltinRegistry() {
+    return builtinRegistry;
+  }
+
+  /**
+   * Returns the tracker holding the recently observed latencies of hedged commands.
+   *
+   * @return The latency tracker used for hedged executions.
+   */
+  public static LatencyTracker getLatencyTracker() {
+    return latencyTracker;
+  }
+
+  /**
+   * Returns the sampler used to sample the resources used by commands.
+   *
+   * @return The resource sampler, or null if sampling is disabled.
+   */
+  public static ResourceSampler getResourceSampler() {
+    return resourceSampler;
+  }
+
+  /**
+   * Sets the sampler used to sample the resources used by commands. The previous sampler, if
+   * any, is closed. Sampling is only performed where a proc filesystem is available.
+   *
+   * @param resourceSampler Resource sampler to use, or null to disable sampling.
+   */
+  public static void setResourceSampler(ResourceSampler resourceSampler) {
+    ResourceSampler previousResourceSampler = CommandLineUtility.resourceSampler;
+    CommandLineUtility.resourceSampler = resourceSampler;
+    if (previousResourceSampler != null && previousResourceSampler != resourceSampler) {
+      previousResourceSampler.close();
+    }
+  }
+
+  /**
+   * Creates the resource sampler sampling at the specified interval.
+   *
+   * @param samplingIntervalInMillis  Sampling interval in milliseconds, or 0 to disable sampling.
+   * @return                          The resource sampler, or null if sampling is disabled.
+   */
+  private static ResourceSampler createResourceSampler(long samplingIntervalInMillis) {
+    return (samplingIntervalInMillis == 0)
+        ? null
+        : new ResourceSampler(Duration.ofMillis(samplingIntervalInMillis));
+  }
+
+  /**
+   * Returns the scheduler admitting command executions as per their priority class.
+   *
+   * @return The execution scheduler.
+   */
+  public static ExecutionScheduler getExecutionScheduler() {
+    return executionScheduler;
+  }
+
+  /**
+   * Sets the scheduler admitting command executions as per their priority class. Executions
+   * admitted by the previous scheduler are released to it.
+   *
+   * @param executionScheduler Execution scheduler to use.
+   */
+  public static void setExecutionScheduler(ExecutionScheduler executionScheduler) {
+    CommandLineUtility.executionScheduler = Objects.requireNonNull(
+        executionScheduler,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "ExecutionScheduler"
+        )
+    );
+  }
+
+  /**
+   * Returns the journal the executed commands are recorded in.
+   *
+   * @return The execution journal, or null if the executed commands aren't recorded.
+   */
+  public static ExecutionJournal getExecutionJournal() {
+    return executionJournal;
+  }
+
+  /**
+   * Sets the journal the executed commands are recorded in. Recording only queues the response
+   * of a command, which the journal writes asynchronously. The previous journal, if any, isn't
+   * closed.
+   *
+   * @param executionJournal Execution journal to use, or null to stop recording.
+   */
+  public static void setExecutionJournal(ExecutionJournal executionJournal) {
+    CommandLineUtility.executionJournal = executionJournal;
+  }
+
+  /**
+   * Returns the replayer serving recorded responses instead of executing commands.
+   *
+   * @return The execution replayer, or null if commands are executed.
+   */
+  public static ExecutionReplayer getExecutionReplayer() {
+    return executionReplayer;
+  }
+
+  /**
+   * Sets the replayer serving recorded responses instead of executing commands. Replayed
+   * executions aren't recorded in the execution journal.
+   *
+   * @param executionReplayer Execution replayer to use, or null to execute commands.
+   */
+  public static void setExecutionReplayer(ExecutionReplayer executionReplayer) {
+    CommandLineUtility.executionReplayer = executionReplayer;
+  }
+
+  /**
+   * Replays the recorded response of the specified command, if a replayer is set. Simulated
+   * latencies count towards the time out.
+   *
+   * @param splitCommand              Command and its arguments.
+   * @param timeOutDuration           Time out for the command execution.
+   * @return                          The recorded response, or an empty optional if the command
+   *                                  is to be executed.
+   * @throws IOException              Thrown if the command wasn't recorded and the replayer is
+   *                                  strict.
+   * @throws InterruptedException     Thrown if simulating the latency is interrupted.
+   * @throws TimeoutException         Thrown if the simulated latency exceeds the time out.
+   */
+  private static Optional<Response> replay(String[] splitCommand, Duration timeOutDuration)
+      throws IOException, InterruptedException, TimeoutException {
+    final ExecutionReplayer replayer = executionReplayer;
+    if (replayer == null) {
+      return Optional.empty();
+    }
+    Optional<Response> response = replayer.replay(splitCommand);
+    if (response.isPresent() && replayer.isLatencySimulated()) {
+      final long executionStartNanoTime = System.nanoTime();
+      Duration executionDuration = response.get().getExecutionDuration();
+      if (executionDuration.compareTo(timeOutDuration) > 0) {
+        TimeUnit.NANOSECONDS.sleep(timeOutDuration.toNanos());
+        throw createTimeoutException(splitCommand, executionStartNanoTime, timeOutDuration);
+      }
+      TimeUnit.NANOSECONDS.sleep(executionDuration.toNanos());
+    }
+    return response;
+  }
+
+  /**
+   * Records the executed command in the execution journal, if any.
+   *
+   * @param splitCommand  Command and its arguments.
+   * @param response      Response of the command.
+   * @return              The response.
+   */
+  private static Response recordInJournal(String[] splitCommand, Response response) {
+    final ExecutionJournal journal = executionJournal;
+    if (journal != null) {
+      journal.record(splitCommand, response);
+    }
+    return response;
+  }
+
+  /**
+   * Returns the registry of the command executions in flight.
+   *
+   * @return The process registry.
+   */
+  public static ProcessRegistry getProcessRegistry() {
+    return processRegistry;
+  }
+
+  /**
+   * Terminates the command executions in flight, giving them the configured grace period. Used
+   * on JVM shutdown so that no processes are leaked.
+   */
+  private static void terminateRunningExecutions() {
+    processRegistry.terminateAll(
+        Duration.ofMillis(
+            PropertyUtility.getTypedProperty(
+                Long.class,
+                "CommandLineUtility.shutdown.gracePeriod.millis"
+            )
+        )
+    );
+  }
+
+  /**
+   * Returns the number of command executions cancelled by an interrupt or a cancellation token.
+   *
+   * @return Number of cancelled executions.
+   */
+  public static long getCancelledExecutionCount() {
+    return cancelledExecutionCount.sum();
+  }
+
+  /**
+   * Creates the execution scheduler as per the configured concurrencies and queue capacities.
+   *
+   * @return The execution scheduler.
+   */
+  private static ExecutionScheduler createExecutionScheduler() {
+    EnumMap<ExecutionPriority, Integer> classConcurrencies = new EnumMap<>(
+        ExecutionPriority.class
+    );
+    EnumMap<ExecutionPriority, Integer> queueCapacities = new EnumMap<>(ExecutionPriority.class);
+    for (ExecutionPriority priority : ExecutionPriority.values()) {
+      classConcurrencies.put(
+          priority,
+          PropertyUtility.getTypedProperty(
+              Integer.class,
+              "CommandLineUtility.scheduler." + priority + ".concurrency"
+          )
+      );
+      queueCapacities.put(
+          priority,
+          PropertyUtility.getTypedProperty(
+              Integer.class,
+              "CommandLineUtility.scheduler." + priority + ".queueCapacity"
+          )
+      );
+    }
+    return new ExecutionScheduler(
+        PropertyUtility.getTypedProperty(Integer.class, "CommandLineUtility.scheduler.concurrency"),
+        classConcurrencies,
+        queueCapacities
+    );
+  }
+
   /**
    * Initialize static variables needed for this utility.
    */
@@ -107,6 +470,10 @@ public final class CommandLineUtility {
               Locale.US
           );
 
+          if (executionScheduler == null) {
+            executionScheduler = createExecutionScheduler();
+          }
+
           for (CommandLine commandLine : operatingSystem
               .getSupportedTypeOfCommandLines()) {
             try {
@@ -156,149 +523,1596 @@ public final class CommandLineUtility {
    * @throws InterruptedException Thrown if the execution of the command is interrupted.
    * @throws TimeoutException     Thrown f the command execution exceeds specified timeout.
    */
-  public static synchronized Response executeCommand(
+  public static Response executeCommand(
       String[] splitCommand,
       Duration timeOutDuration
   ) throws IOException, InterruptedException, TimeoutException {
-    Objects.requireNonNull(
+    return executeCommand(splitCommand, timeOutDuration, defaultCaptureOptions);
+  }
+
+  /**
+   * Executes the specified command, capturing its outputs as per the specified options. The
+   * outputs are drained while the command executes.
+   *
+   * @param splitCommand          Command to execute.
+   * @param timeOutDuration       Time out for the command execution.
+   * @param captureOptions        Options used to capture the outputs of the command.
+   * @return                      The response of the command.
+   * @throws IOException          Thrown if there is an issue executing the command.
+   * @throws InterruptedException Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException     Thrown if the command execution exceeds specified timeout.
+   */
+  public static Response executeCommand(
+      String[] splitCommand,
+      Duration timeOutDuration,
+      CaptureOptions captureOptions
+  ) throws IOException, InterruptedException, TimeoutException {
+    return executeCommand(splitCommand, timeOutDuration, captureOptions, null);
+  }
+
+  /**
+   * Executes the specified command with the specified resource limits, capturing its outputs as
+   * per the specified options. The outputs are drained while the command executes.
+   *
+   * @param splitCommand          Command to execute.
+   * @param timeOutDuration       Time out for the command execution.
+   * @param captureOptions        Options used to capture the outputs of the command.
+   * @param resourceLimits        Limits on the resources the command may use, or null if
+   *                              unlimited.
+   * @return                      The response of the command.
+   * @throws IOException          Thrown if there is an issue executing the command.
+   * @throws InterruptedException Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException     Thrown if the command execution exceeds specified timeout.
+   */
+  public static Response executeCommand(
+      String[] splitCommand,
+      Duration timeOutDuration,
+      CaptureOptions captureOptions,
+      ResourceLimits resourceLimits
+  ) throws IOException, InterruptedException, TimeoutException {
+    return executeCommand(
         splitCommand,
-        I18nUtility.getFormattedString(
-            "CommandLineUtility.input.validation.nonNull",
-            "Command"
-        )
-    );
-    Objects.requireNonNull(
         timeOutDuration,
-        I18nUtility.getFormattedString(
-            "CommandLineUtility.input.validation.nonNull",
-            "Duration"
-        )
+        captureOptions,
+        resourceLimits,
+        ExecutionPriority.NORMAL
     );
+  }
 
-    logger.info(
-        I18nUtility.getString("CommandLineUtility.executing"),
-        Arrays.toString(splitCommand)
+  /**
+   * Executes the specified command with the specified priority and resource limits, capturing
+   * its outputs as per the specified options. The execution waits to be admitted by the
+   * execution scheduler, and the time spent waiting counts towards the timeout.
+   *
+   * @param splitCommand                Command to execute.
+   * @param timeOutDuration             Time out for the command execution.
+   * @param captureOptions              Options used to capture the outputs of the command.
+   * @param resourceLimits              Limits on the resources the command may use, or null if
+   *                                    unlimited.
+   * @param priority                    Priority class of the execution.
+   * @return                            The response of the command.
+   * @throws IOException                Thrown if there is an issue executing the command.
+   * @throws InterruptedException       Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException           Thrown if the command execution exceeds specified timeout.
+   * @throws RejectedExecutionException Thrown if the queue of the priority class is full.
+   */
+  public static Response executeCommand(
+      String[] splitCommand,
+      Duration timeOutDuration,
+      CaptureOptions captureOptions,
+      ResourceLimits resourceLimits,
+      ExecutionPriority priority
+  ) throws IOException, InterruptedException, TimeoutException {
+    return executeCommand(
+        splitCommand,
+        timeOutDuration,
+        captureOptions,
+        resourceLimits,
+        priority,
+        null
     );
+  }
 
-    ProcessBuilder processBuilder = new ProcessBuilder(splitCommand);
-    final Instant executionStartTimestamp = Instant.now();
-    Process process = processBuilder.start();
-    boolean timedOut = !process.waitFor(timeOutDuration.getSeconds(), TimeUnit.SECONDS);
-    if (timedOut) {
-      Duration executionDuration = Duration.between(executionStartTimestamp, Instant.now());
-      throw new TimeoutException(
-          I18nUtility.getFormattedString("CommandLineUtility.exception.TimeoutException",
-              Arrays.toString(splitCommand),
-              executionDuration.getSeconds(),
-              timeOutDuration.getSeconds()
-          )
-      );
-    }
-    HashMap<StdType, String> output = new HashMap<>();
-    final int returnCode = process.waitFor();
-    final Instant executionEndTimestamp = Instant.now();
-    output.put(StdType.STDOUT,
-        StreamUtility.convertInputStreamToString(process.getInputStream()));
-    output.put(StdType.STDERR,
-        StreamUtility.convertInputStreamToString(process.getErrorStream()));
-    process.destroy();
-    return new Response(returnCode, output, executionStartTimestamp, executionEndTimestamp);
+  /**
+   * Executes the specified command with the specified priority and resource limits, capturing
+   * its outputs as per the specified options. The process tree of the command is killed if the
+   * execution is interrupted or the specified token is cancelled.
+   *
+   * @param splitCommand                Command to execute.
+   * @param timeOutDuration             Time out for the command execution.
+   * @param captureOptions              Options used to capture the outputs of the command.
+   * @param resourceLimits              Limits on the resources the command may use, or null if
+   *                                    unlimited.
+   * @param priority                    Priority class of the execution.
+   * @param cancellationToken           Token used to cancel the execution, or null if it can
+   *                                    only be cancelled by an interrupt.
+   * @return                            The response of the command.
+   * @throws IOException                Thrown if there is an issue executing the command.
+   * @throws InterruptedException       Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException           Thrown if the command execution exceeds specified timeout.
+   * @throws RejectedExecutionException Thrown if the queue of the priority class is full.
+   * @throws CancellationException      Thrown if the token is cancelled.
+   */
+  public static Response executeCommand(
+      String[] splitCommand,
+      Duration timeOutDuration,
+      CaptureOptions captureOptions,
+      ResourceLimits resourceLimits,
+      ExecutionPriority priority,
+      CancellationToken cancellationToken
+  ) throws IOException, InterruptedException, TimeoutException {
+    return executeCommand(
+        splitCommand,
+        timeOutDuration,
+        captureOptions,
+        resourceLimits,
+        priority,
+        cancellationToken,
+        ExecutionContext.inherited()
+    );
   }
 
   /**
-   * Executes the specified command.
+   * Executes the specified command in the specified context, using the time out of the context.
    *
-   * @param command               Command to execute.
-   * @param commandLine           Type of command line to use to execute the command.
-   * @param timeOutDuration       Time out for the command execution.
+   * @param executionContext      Context to execute the command in.
+   * @param splitCommand          Command to execute.
    * @return                      The response of the command.
    * @throws IOException          Thrown if there is an issue executing the command.
    * @throws InterruptedException Thrown if the execution of the command is interrupted.
    * @throws TimeoutException     Thrown if the command execution exceeds specified timeout.
    */
-  public static synchronized Response executeCommand(
-      String command,
-      CommandLine commandLine,
-      Duration timeOutDuration
+  public static Response executeCommand(
+      ExecutionContext executionContext,
+      String[] splitCommand
+  ) throws IOException, InterruptedException, TimeoutException {
+    return executeCommand(
+        executionContext,
+        splitCommand,
+        defaultCaptureOptions,
+        null,
+        ExecutionPriority.NORMAL,
+        null
+    );
+  }
+
+  /**
+   * Executes the specified command in the specified context with the specified priority and
+   * resource limits, capturing its outputs as per the specified options. The time out of the
+   * context is used.
+   *
+   * @param executionContext            Context to execute the command in.
+   * @param splitCommand                Command to execute.
+   * @param captureOptions              Options used to capture the outputs of the command.
+   * @param resourceLimits              Limits on the resources the command may use, or null if
+   *                                    unlimited.
+   * @param priority                    Priority class of the execution.
+   * @param cancellationToken           Token used to cancel the execution, or null if it can
+   *                                    only be cancelled by an interrupt.
+   * @return                            The response of the command.
+   * @throws IOException                Thrown if there is an issue executing the command.
+   * @throws InterruptedException       Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException           Thrown if the command execution exceeds specified timeout.
+   * @throws RejectedExecutionException Thrown if the queue of the priority class is full.
+   * @throws CancellationException      Thrown if the token is cancelled.
+   */
+  public static Response executeCommand(
+      ExecutionContext executionContext,
+      String[] splitCommand,
+      CaptureOptions captureOptions,
+      ResourceLimits resourceLimits,
+      ExecutionPriority priority,
+      CancellationToken cancellationToken
+  ) throws IOException, InterruptedException, TimeoutException {
+    return executeCommand(
+        splitCommand,
+        getTimeOutDuration(executionContext),
+        captureOptions,
+        resourceLimits,
+        priority,
+        cancellationToken,
+        executionContext
+    );
+  }
+
+  /**
+   * Executes the specified command in the specified context with the specified priority and
+   * resource limits, capturing its outputs as per the specified options.
+   *
+   * @param splitCommand                Command to execute.
+   * @param timeOutDuration             Time out for the command execution.
+   * @param captureOptions              Options used to capture the outputs of the command.
+   * @param resourceLimits              Limits on the resources the command may use, or null if
+   *                                    unlimited.
+   * @param priority                    Priority class of the execution.
+   * @param cancellationToken           Token used to cancel the execution, or null if it can
+   *                                    only be cancelled by an interrupt.
+   * @param executionContext            Context to execute the command in.
+   * @return                            The response of the command.
+   * @throws IOException                Thrown if there is an issue executing the command.
+   * @throws InterruptedException       Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException           Thrown if the command execution exceeds specified timeout.
+   * @throws RejectedExecutionException Thrown if the queue of the priority class is full.
+   * @throws CancellationException      Thrown if the token is cancelled.
+   */
+  private static Response executeCommand(
+      String[] splitCommand,
+      Duration timeOutDuration,
+      CaptureOptions captureOptions,
+      ResourceLimits resourceLimits,
+      ExecutionPriority priority,
+      CancellationToken cancellationToken,
+      ExecutionContext executionContext
   ) throws IOException, InterruptedException, TimeoutException {
     Objects.requireNonNull(
-        command,
-        I18nUtility.getFormattedString(
+        priority,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "ExecutionPriority"
+        )
+    );
+    Objects.requireNonNull(
+        splitCommand,
+        () -> I18nUtility.getFormattedString(
             "CommandLineUtility.input.validation.nonNull",
             "Command"
         )
     );
     Objects.requireNonNull(
         timeOutDuration,
-        I18nUtility.getFormattedString(
+        () -> I18nUtility.getFormattedString(
             "CommandLineUtility.input.validation.nonNull",
             "Duration"
         )
     );
-
-    String[] splitCommand;
-    splitCommand = new String[]{
-        // Path to command line
-        commandLines.get(commandLine)
-            .toAbsolutePath()
-            .toString(),
+    Objects.requireNonNull(
+        captureOptions,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "CaptureOptions"
+        )
+    );
+    Objects.requireNonNull(
+        executionContext,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "ExecutionContext"
+        )
+    );
+
+    if (logger.isInfoEnabled()) {
+      logger.info(
+          I18nUtility.getString("CommandLineUtility.executing"),
+          Arrays.toString(splitCommand)
+      );
+    }
+
+    final Optional<Response> replayedResponse = replay(splitCommand, timeOutDuration);
+    if (replayedResponse.isPresent()) {
+      return replayedResponse.get();
+    }
+
+    final Predicate<String> stdoutLineFilter = captureOptions.getLineFilter(StdType.STDOUT);
+    final Predicate<String> stderrLineFilter = captureOptions.getLineFilter(StdType.STDERR);
+    final List<StopCondition> stopConditions = captureOptions.getStopConditions();
+    final OutputMergeMode outputMergeMode = captureOptions.getOutputMergeMode();
+    // Builtins produce their outputs at once in this JVM and aren't limited, hence they only
+    // answer unrestricted executions capturing the separate outputs in the inherited context.
+    if (stdoutLineFilter == null && stderrLineFilter == null && stopConditions.isEmpty()
+        && outputMergeMode == OutputMergeMode.SEPARATE && resourceLimits == null
+        && executionContext.isInherited()) {
+      Optional<Response> builtinResponse = builtinRegistry.execute(splitCommand);
+      if (builtinResponse.isPresent()) {
+        logger.debug(I18nUtility.getString("CommandLineUtility.executedBuiltin"));
+        return recordInJournal(splitCommand, builtinResponse.get());
+      }
+    }
+
+    if (cancellationToken != null && cancellationToken.isCancelled()) {
+      throw recordCancellation(splitCommand);
+    }
+    final ExecutionScheduler scheduler = executionScheduler;
+    final long queuedNanos;
+    try {
+      queuedNanos = scheduler.acquire(priority, System.nanoTime() + timeOutDuration.toNanos());
+    } catch (InterruptedException e) {
+      recordCancellation(splitCommand);
+      throw e;
+    }
+    try {
+      if (queuedNanos > 0) {
+        // The time spent queued counts towards the timeout.
+        timeOutDuration = timeOutDuration.minusNanos(queuedNanos);
+      }
+      if (cancellationToken != null && cancellationToken.isCancelled()) {
+        throw recordCancellation(splitCommand);
+      }
+      LaunchRequest launchRequest = executionContext.createLaunchRequest(
+          (resourceLimits == null)
+              ? splitCommand
+              : ResourceLimiter.wrap(splitCommand, resourceLimits)
+      );
+      if (outputMergeMode == OutputMergeMode.REDIRECTED) {
+        launchRequest = launchRequest.withRedirectedErrorStream();
+      }
+      // The wall clock is read once, the duration is measured using the monotonic clock.
+      final Instant executionStartTimestamp = Instant.now();
+      final long executionStartNanoTime = System.nanoTime();
+      // Events aren't created at all unless the flight recorder has been started.
+      CommandExecutionEvent executionEvent = null;
+      if (FlightRecorder.isInitialized()) {
+        executionEvent = new CommandExecutionEvent();
+        executionEvent.begin();
+      }
+      Process process = launch(launchRequest, splitCommand);
+      final ResourceSampler sampler = resourceSampler;
+      final ResourceSampler.Tracker resourceTracker = (sampler == null)
+          ? null
+          : sampler.track(process);
+      final AtomicBoolean terminatedEarly;
+      DrainListener stdoutMonitor;
+      DrainListener stderrMonitor;
+      if (stopConditions.isEmpty()) {
+        terminatedEarly = null;
+        stdoutMonitor = null;
+        stderrMonitor = null;
+      } else {
+        terminatedEarly = new AtomicBoolean();
+        Runnable stopAction = () -> {
+          if (terminatedEarly.compareAndSet(false, true)) {
+            signalProcessTree(process);
+          }
+        };
+        stdoutMonitor = StopConditionMonitor.of(stopConditions, StdType.STDOUT, stopAction);
+        stderrMonitor = StopConditionMonitor.of(stopConditions, StdType.STDERR, stopAction);
+      }
+      final Duration idleTimeout = captureOptions.getIdleTimeout();
+      final AtomicLong lastOutputNanoTime;
+      if (idleTimeout == null) {
+        lastOutputNanoTime = null;
+      } else {
+        lastOutputNanoTime = new AtomicLong(executionStartNanoTime);
+        stdoutMonitor = new IdleOutputMonitor(lastOutputNanoTime, stdoutMonitor);
+        stderrMonitor = new IdleOutputMonitor(lastOutputNanoTime, stderrMonitor);
+      }
+      final MergedOutputRecorder stdoutRecorder;
+      final MergedOutputRecorder stderrRecorder;
+      if (outputMergeMode == OutputMergeMode.TIMESTAMPED) {
+        stdoutRecorder = new MergedOutputRecorder(StdType.STDOUT, stdoutMonitor);
+        stderrRecorder = new MergedOutputRecorder(StdType.STDERR, stderrMonitor);
+        stdoutMonitor = stdoutRecorder;
+        stderrMonitor = stderrRecorder;
+      } else {
+        stdoutRecorder = null;
+        stderrRecorder = null;
+      }
+      final RunningExecution runningExecution = processRegistry.register(
+          splitCommand,
+          process,
+          executionStartTimestamp
+      );
+      final Runnable cancellationAction;
+      if (cancellationToken == null) {
+        cancellationAction = null;
+      } else {
+        cancellationAction = runningExecution::cancel;
+        cancellationToken.register(cancellationAction);
+      }
+      boolean completed = false;
+      try {
+        // Both outputs are drained concurrently so that neither pipe fills up and blocks the
+        // process.
+        Future<String> stdout = streamDrainingExecutor.submit(
+            new OutputDrain(
+                StdType.STDOUT,
+                stdoutLineFilter,
+                stdoutMonitor,
+                runningExecution,
+                executionContext.getCharset()
+            )
+        );
+        Future<String> stderr = streamDrainingExecutor.submit(
+            new OutputDrain(
+                StdType.STDERR,
+                stderrLineFilter,
+                stderrMonitor,
+                runningExecution,
+                executionContext.getCharset()
+            )
+        );
+        waitForProcess(
+            process,
+            splitCommand,
+            executionStartNanoTime,
+            timeOutDuration,
+            idleTimeout,
+            lastOutputNanoTime
+        );
+        if (runningExecution.isCancelled()) {
+          throw recordCancellation(splitCommand);
+        }
+        final int returnCode = process.exitValue();
+        final Duration executionDuration = Duration.ofNanos(
+            System.nanoTime() - executionStartNanoTime
+        );
+        final String stdoutOutput = getDrainedOutput(
+            stdout,
+            splitCommand,
+            executionStartNanoTime,
+            timeOutDuration
+        );
+        final String stderrOutput = getDrainedOutput(
+            stderr,
+            splitCommand,
+            executionStartNanoTime,
+            timeOutDuration
+        );
+        final boolean isTerminatedEarly = terminatedEarly != null && terminatedEarly.get();
+        final ResourceUsage resourceUsage = (resourceTracker == null)
+            ? null
+            : sampler.stopTracking(resourceTracker);
+        Response response = new Response(
+            returnCode,
+            stdoutOutput,
+            stderrOutput,
+            executionStartTimestamp,
+            executionDuration,
+            isTerminatedEarly,
+            resourceUsage,
+            (resourceLimits == null)
+                ? null
+                : ResourceLimiter.detectExceededLimit(
+                    resourceLimits,
+                    returnCode,
+                    stderrOutput,
+                    isTerminatedEarly,
+                    resourceUsage
+                ),
+            (stdoutRecorder == null)
+                ? null
+                : MergedOutputRecorder.merge(stdoutRecorder, stderrRecorder)
+        );
+        if (executionEvent != null && executionEvent.shouldCommit()) {
+          executionEvent.setCommand(Arrays.toString(splitCommand));
+          executionEvent.setCommandLine(getCommandLineName(splitCommand));
+          executionEvent.setPid(process.pid());
+          executionEvent.setReturnCode(returnCode);
+          executionEvent.setStdoutBytes(runningExecution.getCapturedBytes(StdType.STDOUT));
+          executionEvent.setStderrBytes(runningExecution.getCapturedBytes(StdType.STDERR));
+          executionEvent.setTerminatedEarly(isTerminatedEarly);
+          executionEvent.commit();
+        }
+        completed = true;
+        return recordInJournal(splitCommand, response);
+      } catch (TimeoutException e) {
+        CommandTimeoutEvent timeoutEvent = FlightRecorder.isInitialized()
+            ? new CommandTimeoutEvent()
+            : null;
+        if (timeoutEvent != null && timeoutEvent.isEnabled()) {
+          final long elapsedNanos = System.nanoTime() - executionStartNanoTime;
+          // Only the idle timeout can be exceeded before the total timeout.
+          final boolean idle = (idleTimeout != null)
+              && (elapsedNanos < timeOutDuration.toNanos());
+          timeoutEvent.setCommand(Arrays.toString(splitCommand));
+          timeoutEvent.setCommandLine(getCommandLineName(splitCommand));
+          timeoutEvent.setPid(process.pid());
+          timeoutEvent.setTimeout(idle ? idleTimeout.toMillis() : timeOutDuration.toMillis());
+          timeoutEvent.setElapsed(Duration.ofNanos(elapsedNanos).toMillis());
+          timeoutEvent.setIdle(idle);
+          timeoutEvent.commit();
+        }
+        throw e;
+      } catch (InterruptedException e) {
+        recordCancellation(splitCommand);
+        throw e;
+      } catch (IOException e) {
+        // Killing the process tree on cancellation closes the outputs being drained.
+        if (runningExecution.isCancelled()) {
+          throw recordCancellation(splitCommand);
+        }
+        throw e;
+      } finally {
+        if (cancellationToken != null) {
+          cancellationToken.unregister(cancellationAction);
+        }
+        if (resourceTracker != null && !completed) {
+          sampler.stopTracking(resourceTracker);
+        }
+        if (completed) {
+          process.destroy();
+        } else {
+          destroyProcessTree(process);
+        }
+        processRegistry.unregister(runningExecution);
+      }
+    } finally {
+      scheduler.release(priority);
+    }
+  }
+
+  /**
+   * Waits for the specified process to exit, bound by the total timeout and, if specified, the
+   * idle timeout which is reset whenever the process produces output.
+   *
+   * @param process                 Process to wait for.
+   * @param splitCommand            Command executed by the process.
+   * @param executionStartNanoTime  Value of System.nanoTime() when the execution started.
+   * @param timeOutDuration         Total time out for the command execution.
+   * @param idleTimeout             Maximum duration without any output, or null if unbounded.
+   * @param lastOutputNanoTime      Value of System.nanoTime() when the process last produced
+   *                                output, or null if the idle timeout is unbounded.
+   * @throws InterruptedException   Thrown if waiting for the process is interrupted.
+   * @throws TimeoutException       Thrown if either of the timeouts is exceeded.
+   */
+  private static void waitForProcess(
+      Process process,
+      String[] splitCommand,
+      long executionStartNanoTime,
+      Duration timeOutDuration,
+      Duration idleTimeout,
+      AtomicLong lastOutputNanoTime
+  ) throws InterruptedException, TimeoutException {
+    if (idleTimeout == null) {
+      if (!process.waitFor(timeOutDuration.toNanos(), TimeUnit.NANOSECONDS)) {
+        throw createTimeoutException(splitCommand, executionStartNanoTime, timeOutDuration);
+      }
+      return;
+    }
+    final long totalDeadlineNanoTime = executionStartNanoTime + timeOutDuration.toNanos();
+    final long idleTimeoutNanos = idleTimeout.toNanos();
+    while (true) {
+      long currentNanoTime = System.nanoTime();
+      long idleDeadlineNanoTime = lastOutputNanoTime.get() + idleTimeoutNanos;
+      if (currentNanoTime - totalDeadlineNanoTime >= 0) {
+        throw createTimeoutException(splitCommand, executionStartNanoTime, timeOutDuration);
+      }
+      if (currentNanoTime - idleDeadlineNanoTime >= 0) {
+        throw new TimeoutException(
+            I18nUtility.getFormattedString("CommandLineUtility.exception.IdleTimeoutException",
+                Arrays.toString(splitCommand),
+                Duration.ofNanos(currentNanoTime - lastOutputNanoTime.get()).toMillis(),
+                idleTimeout.toMillis()
+            )
+        );
+      }
+      // Output arriving while waiting moves the idle deadline, which is checked on waking up.
+      long waitNanos = Math.min(
+          totalDeadlineNanoTime - currentNanoTime,
+          idleDeadlineNanoTime - currentNanoTime
+      );
+      if (process.waitFor(waitNanos, TimeUnit.NANOSECONDS)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Waits for the output being drained from a process. The output may remain open after the
+   * process exits if its descendants hold on to it, hence the wait is bound by the timeout.
+   *
+   * @param drainedOutput           Output being drained.
+   * @param splitCommand            Command producing the output.
+   * @param executionStartNanoTime  Value of System.nanoTime() when the execution started.
+   * @param timeOutDuration         Time out for the command execution.
+   * @return                        The drained output.
+   * @throws IOException            Thrown if there is an issue draining the output.
+   * @throws InterruptedException   Thrown if waiting for the output is interrupted.
+   * @throws TimeoutException       Thrown if the output isn't drained before the timeout.
+   */
+  private static String getDrainedOutput(
+      Future<String> drainedOutput,
+      String[] splitCommand,
+      long executionStartNanoTime,
+      Duration timeOutDuration
+  ) throws IOException, InterruptedException, TimeoutException {
+    try {
+      return drainedOutput.get(
+          executionStartNanoTime + timeOutDuration.toNanos() - System.nanoTime(),
+          TimeUnit.NANOSECONDS
+      );
+    } catch (TimeoutException e) {
+      throw createTimeoutException(splitCommand, executionStartNanoTime, timeOutDuration);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * Computes the time left out of a time out shared by several executions.
+   *
+   * @param splitCommand            Command to be executed next.
+   * @param executionStartNanoTime  Value of System.nanoTime() when the first execution started.
+   * @param timeOutDuration         Time out shared by the executions.
+   * @return                        The time left for the next execution.
+   * @throws TimeoutException       Thrown if no time is left.
+   */
+  private static Duration getRemainingDuration(
+      String[] splitCommand,
+      long executionStartNanoTime,
+      Duration timeOutDuration
+  ) throws TimeoutException {
+    Duration remainingDuration = timeOutDuration.minusNanos(
+        System.nanoTime() - executionStartNanoTime
+    );
+    if (remainingDuration.isNegative() || remainingDuration.isZero()) {
+      throw createTimeoutException(splitCommand, executionStartNanoTime, timeOutDuration);
+    }
+    return remainingDuration;
+  }
+
+  /**
+   * Creates the exception thrown when a command execution exceeds its timeout.
+   *
+   * @param splitCommand            Command which timed out.
+   * @param executionStartNanoTime  Value of System.nanoTime() when the execution started.
+   * @param timeOutDuration         Time out for the command execution.
+   * @return                        The exception to throw.
+   */
+  private static TimeoutException createTimeoutException(
+      String[] splitCommand,
+      long executionStartNanoTime,
+      Duration timeOutDuration
+  ) {
+    Duration executionDuration = Duration.ofNanos(System.nanoTime() - executionStartNanoTime);
+    return new TimeoutException(
+        I18nUtility.getFormattedString("CommandLineUtility.exception.TimeoutException",
+            Arrays.toString(splitCommand),
+            executionDuration.getSeconds(),
+            timeOutDuration.getSeconds()
+        )
+    );
+  }
+
+  /**
+   * Starts an interactive session with the specified command, which is sent input and whose
+   * outputs are searched for expected patterns while it runs. Unlike executions, sessions are
+   * neither answered by builtins nor replayed.
+   *
+   * @param splitCommand  Command to execute.
+   * @return              The session, which must be closed once done with.
+   * @throws IOException  Thrown if there is an issue launching the command.
+   */
+  public static InteractiveSession startInteractiveSession(String[] splitCommand)
+      throws IOException {
+    return startInteractiveSession(
+        splitCommand,
+        ExecutionContext.inherited(),
+        InteractiveSession.defaultScanBufferCapacity
+    );
+  }
+
+  /**
+   * Starts an interactive session with the specified command in the specified context, which is
+   * sent input and whose outputs are searched for expected patterns while it runs.
+   *
+   * @param splitCommand        Command to execute.
+   * @param executionContext    Context in which the command is executed.
+   * @param scanBufferCapacity  Number of characters buffered from each output, beyond which the
+   *                            command blocks on writing until the text is consumed.
+   * @return                    The session, which must be closed once done with.
+   * @throws IOException        Thrown if there is an issue launching the command.
+   */
+  public static InteractiveSession startInteractiveSession(
+      String[] splitCommand,
+      ExecutionContext executionContext,
+      int scanBufferCapacity
+  ) throws IOException {
+    Objects.requireNonNull(
+        splitCommand,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Command"
+        )
+    );
+    Objects.requireNonNull(
+        executionContext,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "ExecutionContext"
+        )
+    );
+    if (scanBufferCapacity < 2) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.range",
+              "Scan buffer capacity",
+              2,
+              Integer.MAX_VALUE,
+              scanBufferCapacity
+          )
+      );
+    }
+    if (logger.isInfoEnabled()) {
+      logger.info(
+          I18nUtility.getString("CommandLineUtility.executing"),
+          Arrays.toString(splitCommand)
+      );
+    }
+    Process process = launch(executionContext.createLaunchRequest(splitCommand), splitCommand);
+    return new InteractiveSession(
+        splitCommand,
+        process,
+        processRegistry.register(splitCommand, process, Instant.now()),
+        executionContext.getCharset(),
+        scanBufferCapacity,
+        streamDrainingExecutor
+    );
+  }
+
+  /**
+   * Launches a process as per the specified request, emitting a flight recorder event for it.
+   *
+   * @param launchRequest Request describing the process to launch.
+   * @param splitCommand  Command executed by the process, as specified by the caller.
+   * @return              The launched process.
+   * @throws IOException  Thrown if there is an issue launching the process.
+   */
+  private static Process launch(LaunchRequest launchRequest, String[] splitCommand)
+      throws IOException {
+    if (!FlightRecorder.isInitialized()) {
+      return processLauncher.launch(launchRequest);
+    }
+    CommandSpawnEvent spawnEvent = new CommandSpawnEvent();
+    spawnEvent.begin();
+    Process process = processLauncher.launch(launchRequest);
+    spawnEvent.end();
+    if (spawnEvent.shouldCommit()) {
+      spawnEvent.setCommand(Arrays.toString(splitCommand));
+      spawnEvent.setCommandLine(getCommandLineName(splitCommand));
+      spawnEvent.setPid(process.pid());
+      spawnEvent.commit();
+    }
+    return process;
+  }
+
+  /**
+   * Determines the type of command line executing the specified command.
+   *
+   * @param splitCommand  Command to determine the command line of.
+   * @return              Name of the command line, or null if the command isn't executed by one.
+   */
+  private static String getCommandLineName(String[] splitCommand) {
+    if (splitCommand.length == 0) {
+      return null;
+    }
+    for (var commandLineEntry : commandLines.entrySet()) {
+      if (commandLineEntry.getValue().toAbsolutePath().toString().equals(splitCommand[0])) {
+        return commandLineEntry.getKey().name();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Records the cancellation of a command execution and creates the exception thrown for it when
+   * it was cancelled by a token.
+   *
+   * @param splitCommand  Command whose execution was cancelled.
+   * @return              The exception to throw if the execution was cancelled by a token.
+   */
+  private static CancellationException recordCancellation(String[] splitCommand) {
+    cancelledExecutionCount.increment();
+    String message = I18nUtility.getFormattedString(
+        "CommandLineUtility.exception.cancelled",
+        Arrays.toString(splitCommand)
+    );
+    logger.info(message);
+    return new CancellationException(message);
+  }
+
+  /**
+   * Executes the specified idempotent command, hedging it as per the specified policy. If the
+   * first execution hasn't completed within the hedge delay, a second identical execution is
+   * launched. The response of whichever completes first is returned and the process tree of the
+   * other one is killed.
+   *
+   * @param splitCommand          Command to execute.
+   * @param timeOutDuration       Time out for the command execution.
+   * @param hedgingPolicy         Policy used to determine when to launch the hedged execution.
+   * @return                      The response of the command.
+   * @throws IOException          Thrown if there is an issue executing the command.
+   * @throws InterruptedException Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException     Thrown if the command execution exceeds specified timeout.
+   */
+  public static Response executeCommand(
+      String[] splitCommand,
+      Duration timeOutDuration,
+      HedgingPolicy hedgingPolicy
+  ) throws IOException, InterruptedException, TimeoutException {
+    return executeCommand(
+        splitCommand,
+        timeOutDuration,
+        hedgingPolicy,
+        ExecutionContext.inherited()
+    );
+  }
+
+  /**
+   * Executes the specified idempotent command in the specified context, hedging it as per the
+   * specified policy. The time out of the context is used.
+   *
+   * @param executionContext      Context to execute the command in.
+   * @param splitCommand          Command to execute.
+   * @param hedgingPolicy         Policy used to determine when to launch the hedged execution.
+   * @return                      The response of the command.
+   * @throws IOException          Thrown if there is an issue executing the command.
+   * @throws InterruptedException Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException     Thrown if the command execution exceeds specified timeout.
+   */
+  public static Response executeCommand(
+      ExecutionContext executionContext,
+      String[] splitCommand,
+      HedgingPolicy hedgingPolicy
+  ) throws IOException, InterruptedException, TimeoutException {
+    return executeCommand(
+        splitCommand,
+        getTimeOutDuration(executionContext),
+        hedgingPolicy,
+        executionContext
+    );
+  }
+
+  /**
+   * Executes the specified idempotent command in the specified context, hedging it as per the
+   * specified policy.
+   *
+   * @param splitCommand          Command to execute.
+   * @param timeOutDuration       Time out for the command execution.
+   * @param hedgingPolicy         Policy used to determine when to launch the hedged execution.
+   * @param executionContext      Context to execute the command in.
+   * @return                      The response of the command.
+   * @throws IOException          Thrown if there is an issue executing the command.
+   * @throws InterruptedException Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException     Thrown if the command execution exceeds specified timeout.
+   */
+  private static Response executeCommand(
+      String[] splitCommand,
+      Duration timeOutDuration,
+      HedgingPolicy hedgingPolicy,
+      ExecutionContext executionContext
+  ) throws IOException, InterruptedException, TimeoutException {
+    Objects.requireNonNull(
+        splitCommand,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Command"
+        )
+    );
+    Objects.requireNonNull(
+        timeOutDuration,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Duration"
+        )
+    );
+    Objects.requireNonNull(
+        hedgingPolicy,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "HedgingPolicy"
+        )
+    );
+    Objects.requireNonNull(
+        executionContext,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "ExecutionContext"
+        )
+    );
+
+    final String commandKey = Arrays.toString(splitCommand);
+    Duration hedgeDelay = hedgingPolicy.getInitialHedgeDelay();
+    if (latencyTracker.getSampleCount(commandKey) >= hedgingPolicy.getMinimumSampleCount()) {
+      hedgeDelay = latencyTracker.getPercentileLatency(
+          commandKey,
+          hedgingPolicy.getHedgePercentile()
+      ).orElse(hedgeDelay);
+    }
+
+    if (logger.isInfoEnabled()) {
+      logger.info(
+          I18nUtility.getString("CommandLineUtility.executing"),
+          commandKey
+      );
+    }
+
+    final Optional<Response> replayedResponse = replay(splitCommand, timeOutDuration);
+    if (replayedResponse.isPresent()) {
+      return replayedResponse.get();
+    }
+
+    if (executionContext.isInherited()) {
+      Optional<Response> builtinResponse = builtinRegistry.execute(splitCommand);
+      if (builtinResponse.isPresent()) {
+        logger.debug(I18nUtility.getString("CommandLineUtility.executedBuiltin"));
+        return recordInJournal(splitCommand, builtinResponse.get());
+      }
+    }
+
+    final long timeOutDeadlineInNanos = System.nanoTime() + timeOutDuration.toNanos();
+    final ExecutionScheduler scheduler = executionScheduler;
+    try {
+      scheduler.acquire(ExecutionPriority.NORMAL, timeOutDeadlineInNanos);
+    } catch (InterruptedException e) {
+      recordCancellation(splitCommand);
+      throw e;
+    }
+    boolean hedgedExecutionAdmitted = false;
+    try {
+      final Instant executionStartTimestamp = Instant.now();
+      final LaunchRequest launchRequest = executionContext.createLaunchRequest(splitCommand);
+      Process primaryProcess = launch(launchRequest, splitCommand);
+      final RunningExecution primaryExecution = processRegistry.register(
+          splitCommand,
+          primaryProcess,
+          executionStartTimestamp
+      );
+      // The outputs of both executions are drained while they run so that neither pipe fills up
+      // and blocks them, and only the outputs of the completed one are used.
+      final Future<String> primaryStdout = drainOutput(
+          StdType.STDOUT,
+          primaryExecution,
+          executionContext
+      );
+      final Future<String> primaryStderr = drainOutput(
+          StdType.STDERR,
+          primaryExecution,
+          executionContext
+      );
+      Process hedgedProcess = null;
+      RunningExecution hedgedExecution = null;
+      Future<String> hedgedStdout = null;
+      Future<String> hedgedStderr = null;
+      Instant hedgedExecutionStartTimestamp = null;
+      Process completedProcess = null;
+      try {
+        if (primaryProcess.waitFor(
+            Math.min(hedgeDelay.toNanos(), timeOutDeadlineInNanos - System.nanoTime()),
+            TimeUnit.NANOSECONDS
+        )) {
+          completedProcess = primaryProcess;
+        } else {
+          // Hedging is skipped rather than queued when the scheduler has no free slot, as the
+          // hedged execution would only add to the load delaying the primary one.
+          hedgedExecutionAdmitted = scheduler.tryAcquire(ExecutionPriority.NORMAL);
+          if (hedgedExecutionAdmitted) {
+            logger.info(
+                I18nUtility.getString("CommandLineUtility.hedging.launchingHedgedExecution"),
+                commandKey,
+                hedgeDelay.toMillis()
+            );
+            hedgedExecutionStartTimestamp = Instant.now();
+            hedgedProcess = launch(launchRequest, splitCommand);
+            hedgedExecution = processRegistry.register(
+                splitCommand,
+                hedgedProcess,
+                hedgedExecutionStartTimestamp
+            );
+            hedgedStdout = drainOutput(StdType.STDOUT, hedgedExecution, executionContext);
+            hedgedStderr = drainOutput(StdType.STDERR, hedgedExecution, executionContext);
+          }
+          try {
+            completedProcess = (Process) ((hedgedProcess == null)
+                ? primaryProcess.onExit()
+                : CompletableFuture.anyOf(primaryProcess.onExit(), hedgedProcess.onExit())
+            ).get(timeOutDeadlineInNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+          } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+          } catch (TimeoutException e) {
+            Duration executionDuration = Duration.between(executionStartTimestamp, Instant.now());
+            throw new TimeoutException(
+                I18nUtility.getFormattedString("CommandLineUtility.exception.TimeoutException",
+                    commandKey,
+                    executionDuration.getSeconds(),
+                    timeOutDuration.getSeconds()
+                )
+            );
+          }
+        }
+      } finally {
+        if (completedProcess != primaryProcess) {
+          destroyProcessTree(primaryProcess);
+          primaryStdout.cancel(true);
+          primaryStderr.cancel(true);
+        }
+        if (hedgedProcess != null && completedProcess != hedgedProcess) {
+          destroyProcessTree(hedgedProcess);
+          hedgedStdout.cancel(true);
+          hedgedStderr.cancel(true);
+        }
+        processRegistry.unregister(primaryExecution);
+        if (hedgedExecution != null) {
+          processRegistry.unregister(hedgedExecution);
+        }
+      }
+      if (primaryExecution.isCancelled()
+          || hedgedExecution != null && hedgedExecution.isCancelled()) {
+        throw recordCancellation(splitCommand);
+      }
+
+      final Instant executionEndTimestamp = Instant.now();
+      // The latency of the primary execution is recorded even when the hedged one completes
+      // first. Recording the hedged one instead would only feed back the fast latencies of a
+      // bimodal distribution, shrinking the hedge delay until every execution is hedged.
+      latencyTracker.recordLatency(
+          commandKey,
+          Duration.between(executionStartTimestamp, executionEndTimestamp)
+      );
+      final boolean primaryCompleted = completedProcess == primaryProcess;
+      final long executionStartNanoTime = timeOutDeadlineInNanos - timeOutDuration.toNanos();
+      final String stdout;
+      final String stderr;
+      boolean drained = false;
+      try {
+        stdout = getDrainedOutput(
+            primaryCompleted ? primaryStdout : hedgedStdout,
+            splitCommand,
+            executionStartNanoTime,
+            timeOutDuration
+        );
+        stderr = getDrainedOutput(
+            primaryCompleted ? primaryStderr : hedgedStderr,
+            splitCommand,
+            executionStartNanoTime,
+            timeOutDuration
+        );
+        drained = true;
+      } finally {
+        if (drained) {
+          completedProcess.destroy();
+        } else {
+          // Descendants holding on to the outputs past the timeout are terminated as well.
+          destroyProcessTree(completedProcess);
+        }
+      }
+      return recordInJournal(
+          splitCommand,
+          new Response(
+              completedProcess.exitValue(),
+              stdout,
+              stderr,
+              executionStartTimestamp,
+              Duration.between(executionStartTimestamp, executionEndTimestamp)
+          )
+      );
+    } catch (InterruptedException e) {
+      recordCancellation(splitCommand);
+      throw e;
+    } finally {
+      scheduler.release(ExecutionPriority.NORMAL);
+      if (hedgedExecutionAdmitted) {
+        scheduler.release(ExecutionPriority.NORMAL);
+      }
+    }
+  }
+
+  /**
+   * Starts draining the specified output of an execution, retaining all of it.
+   *
+   * @param stdType           Type of output to drain.
+   * @param runningExecution  Execution producing the output.
+   * @param executionContext  Context the command is executed in.
+   * @return                  The output being drained.
+   */
+  private static Future<String> drainOutput(
+      StdType stdType,
+      RunningExecution runningExecution,
+      ExecutionContext executionContext
+  ) {
+    return streamDrainingExecutor.submit(
+        new OutputDrain(stdType, null, null, runningExecution, executionContext.getCharset())
+    );
+  }
+
+  /**
+   * Forcibly terminates the specified process along with all its descendants.
+   *
+   * @param process Process to terminate.
+   */
+  static void destroyProcessTree(Process process) {
+    // Descendants are captured before the parent is terminated so that they aren't re-parented.
+    process.descendants()
+        .forEach(ProcessHandle::destroyForcibly);
+    process.destroyForcibly();
+  }
+
+  /**
+   * Forcibly terminates the specified process along with all its descendants, without closing
+   * its outputs. Unlike destroyProcessTree(Process), the outputs being drained reach their end
+   * instead of failing, hence the output captured until then is preserved.
+   *
+   * @param process Process to terminate.
+   */
+  private static void signalProcessTree(Process process) {
+    process.descendants()
+        .forEach(ProcessHandle::destroyForcibly);
+    process.toHandle().destroyForcibly();
+  }
+
+  /**
+   * Executes the specified command.
+   *
+   * @param command               Command to execute.
+   * @param commandLine           Type of command line to use to execute the command.
+   * @param timeOutDuration       Time out for the command execution.
+   * @return                      The response of the command.
+   * @throws IOException          Thrown if there is an issue executing the command.
+   * @throws InterruptedException Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException     Thrown if the command execution exceeds specified timeout.
+   */
+  public static Response executeCommand(
+      String command,
+      CommandLine commandLine,
+      Duration timeOutDuration
+  ) throws IOException, InterruptedException, TimeoutException {
+    Objects.requireNonNull(
+        command,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Command"
+        )
+    );
+    Objects.requireNonNull(
+        timeOutDuration,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Duration"
+        )
+    );
+
+    return executeCommand(getSplitCommand(command, commandLine), timeOutDuration);
+  }
+
+  /**
+   * Splits the specified command into the command line executable, its switch and the command.
+   *
+   * @param command     Command to execute.
+   * @param commandLine Type of command line to use to execute the command.
+   * @return            The split command to execute.
+   */
+  private static String[] getSplitCommand(String command, CommandLine commandLine) {
+    return new String[]{
+        // Path to command line
+        commandLines.get(commandLine)
+            .toAbsolutePath()
+            .toString(),
         // Command line switch
         CommandLine.getCommandLineSwitch(commandLine),
         // Command
         command.replaceAll("\"", "\\\"")
       };
+  }
+
+  /**
+   * Determines the time out for executions in the specified context.
+   *
+   * @param executionContext  Context the commands are executed in.
+   * @return                  The time out of the context, or the default time out if it has none.
+   */
+  private static Duration getTimeOutDuration(ExecutionContext executionContext) {
+    Objects.requireNonNull(
+        executionContext,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "ExecutionContext"
+        )
+    );
+    Duration timeOutDuration = executionContext.getTimeOutDuration();
+    return (timeOutDuration == null)
+        ? Duration.ofSeconds(
+            PropertyUtility.getTypedProperty(
+                Long.class,
+                "CommandLineUtility.timeout.seconds"
+            )
+        )
+        : timeOutDuration;
+  }
 
-    return executeCommand(splitCommand, timeOutDuration);
+  /**
+   * Executes the specified command.
+   *
+   * @param command                       Command to execute.
+   * @param timeOutDuration               Time out for the command execution.
+   * @return                              The response of the command.
+   * @throws IOException                  Thrown if there is an issue executing the command.
+   * @throws InterruptedException         Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException             Thrown if the command execution exceeds specified timeout.
+   * @throws CommandLineNotFoundException Thrown if the command line expected for the 
+   *                                      operating system is not available.
+   */
+  public static Response executeCommand(
+      Command command,
+      Duration timeOutDuration
+  ) throws IOException, InterruptedException, TimeoutException, CommandLineNotFoundException {
+    CommandLine[] supportedCommandLines
+        = operatingSystem.getSupportedTypeOfCommandLines();
+    Response response = null;
+    int index = 0;
+    boolean validResponse = false;
+    while (!validResponse) {
+      response = executeCommand(command, supportedCommandLines[index], timeOutDuration);
+      index++;
+      validResponse = true;
+    }
+
+    return response;
+  }
+
+  /**
+   * Executes the specified command.
+   *
+   * @param command                       Command to execute.
+   * @return                              The response of the command.
+   * @throws IOException                  Thrown if there is an issue executing the command.
+   * @throws InterruptedException         Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException             Thrown if the command execution exceeds specified timeout.
+   * @throws CommandLineNotFoundException Thrown if the command line expected for the 
+   *                                      operating system is not available.
+   */
+  public static Response executeCommand(Command command)
+      throws IOException,
+      InterruptedException,
+      TimeoutException, 
+      CommandLineNotFoundException {
+    return executeCommand(
+        command,
+        Duration.ofSeconds(
+            PropertyUtility.getTypedProperty(
+                Long.class,
+                "CommandLineUtility.timeout.seconds"
+            )
+        )
+    );
+  }
+
+  /**
+   * Executes the specified command.
+   *
+   * @param commandString                 Command string to execute.
+   * @param timeOutDuration               Command time out duration.
+   * @return                              The response of the command.
+   * @throws IOException                  Thrown if there is an issue executing the command.
+   * @throws InterruptedException         Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException             Thrown if the command execution exceeds specified timeout.
+   * @throws CommandLineNotFoundException Thrown if the command line expected for the 
+   *                                      operating system is not available.
+   */
+  public static Response executeCommand(String commandString, Duration timeOutDuration)
+      throws IOException,
+      InterruptedException,
+      TimeoutException,
+      CommandLineNotFoundException {
+    Command command = new Command();
+    Arrays.stream(operatingSystem.getSupportedTypeOfCommandLines())
+        .forEach(supportedTypeOfCommandLine
+            -> command.setCommand(supportedTypeOfCommandLine, commandString));
+    return executeCommand(command, timeOutDuration);
+  }
+
+  /**
+   * Executes the specified command.
+   *
+   * @param commandString                 Command string to execute.
+   * @return                              The response of the command.
+   * @throws IOException                  Thrown if there is an issue executing the command.
+   * @throws InterruptedException         Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException             Thrown if the command execution exceeds specified timeout.
+   * @throws CommandLineNotFoundException Thrown if the command line expected for the 
+   *                                      operating system is not available.
+   */
+  public static Response executeCommand(String commandString)
+      throws IOException,
+      InterruptedException,
+      TimeoutException,
+      CommandLineNotFoundException {
+    return executeCommand(
+        commandString,
+        Duration.ofSeconds(
+            PropertyUtility.getTypedProperty(
+                Long.class,
+                "CommandLineUtility.timeout.seconds"
+            )
+        )
+    );
+  }
+
+  /**
+   * Executes the specified command.
+   *
+   * @param command                       Command string to execute.
+   * @param commandLine                   The type of command line with which the command needs to
+   *                                      be executed.
+   * @param timeOutDuration               Time out for the command execution.
+   * @return                              The response of the command.
+   * @throws IOException                  Thrown if there is an issue executing the command.
+   * @throws InterruptedException         Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException             Thrown if the command execution exceeds specified timeout.
+   * @throws CommandLineNotFoundException Thrown if the specified command line is not available.
+   */
+  public static Response executeCommand(
+      Command command,
+      CommandLine commandLine,
+      Duration timeOutDuration
+  ) throws IOException, 
+      InterruptedException, 
+      CommandLineNotFoundException, 
+      TimeoutException {
+    Objects.requireNonNull(
+        command,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Command"
+        )
+    );
+    Objects.requireNonNull(
+        commandLine,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "TypeOfCommandLine"
+        )
+    );
+    Objects.requireNonNull(
+        timeOutDuration,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Duration"
+        )
+    );
+
+    if (commandLines.containsKey(commandLine)) {
+      return executeCommand(
+          command.getCommand(commandLine),
+          commandLine,
+          timeOutDuration
+      );
+    } else {
+      throw new CommandLineNotFoundException(commandLine);
+    }
+  }
+
+  /**
+   * Executes the specified idempotent command, hedging it as per the specified policy.
+   *
+   * @param command                       Command to execute.
+   * @param commandLine                   The type of command line with which the command needs to
+   *                                      be executed.
+   * @param timeOutDuration               Time out for the command execution.
+   * @param hedgingPolicy                 Policy used to determine when to launch the hedged
+   *                                      execution.
+   * @return                              The response of the command.
+   * @throws IOException                  Thrown if there is an issue executing the command.
+   * @throws InterruptedException         Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException             Thrown if the command execution exceeds specified timeout.
+   * @throws CommandLineNotFoundException Thrown if the specified command line is not available.
+   */
+  public static Response executeCommand(
+      Command command,
+      CommandLine commandLine,
+      Duration timeOutDuration,
+      HedgingPolicy hedgingPolicy
+  ) throws IOException,
+      InterruptedException,
+      CommandLineNotFoundException,
+      TimeoutException {
+    Objects.requireNonNull(
+        command,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Command"
+        )
+    );
+    Objects.requireNonNull(
+        commandLine,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "TypeOfCommandLine"
+        )
+    );
+
+    if (commandLines.containsKey(commandLine)) {
+      return executeCommand(
+          getSplitCommand(command.getCommand(commandLine), commandLine),
+          timeOutDuration,
+          hedgingPolicy
+      );
+    } else {
+      throw new CommandLineNotFoundException(commandLine);
+    }
+  }
+
+  /**
+   * Executes the specified command, capturing its outputs as per the specified options.
+   *
+   * @param command                       Command to execute.
+   * @param commandLine                   The type of command line with which the command needs to
+   *                                      be executed.
+   * @param timeOutDuration               Time out for the command execution.
+   * @param captureOptions                Options used to capture the outputs of the command.
+   * @return                              The response of the command.
+   * @throws IOException                  Thrown if there is an issue executing the command.
+   * @throws InterruptedException         Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException             Thrown if the command execution exceeds specified timeout.
+   * @throws CommandLineNotFoundException Thrown if the specified command line is not available.
+   */
+  public static Response executeCommand(
+      Command command,
+      CommandLine commandLine,
+      Duration timeOutDuration,
+      CaptureOptions captureOptions
+  ) throws IOException,
+      InterruptedException,
+      CommandLineNotFoundException,
+      TimeoutException {
+    return executeCommand(command, commandLine, timeOutDuration, captureOptions, null);
+  }
+
+  /**
+   * Executes the specified command with the specified resource limits, capturing its outputs as
+   * per the specified options.
+   *
+   * @param command                       Command to execute.
+   * @param commandLine                   The type of command line with which the command needs to
+   *                                      be executed.
+   * @param timeOutDuration               Time out for the command execution.
+   * @param captureOptions                Options used to capture the outputs of the command.
+   * @param resourceLimits                Limits on the resources the command may use, or null if
+   *                                      unlimited.
+   * @return                              The response of the command.
+   * @throws IOException                  Thrown if there is an issue executing the command.
+   * @throws InterruptedException         Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException             Thrown if the command execution exceeds specified timeout.
+   * @throws CommandLineNotFoundException Thrown if the specified command line is not available.
+   */
+  public static Response executeCommand(
+      Command command,
+      CommandLine commandLine,
+      Duration timeOutDuration,
+      CaptureOptions captureOptions,
+      ResourceLimits resourceLimits
+  ) throws IOException,
+      InterruptedException,
+      CommandLineNotFoundException,
+      TimeoutException {
+    return executeCommand(
+        command,
+        commandLine,
+        timeOutDuration,
+        captureOptions,
+        resourceLimits,
+        ExecutionPriority.NORMAL
+    );
+  }
+
+  /**
+   * Executes the specified command with the specified priority and resource limits, capturing
+   * its outputs as per the specified options.
+   *
+   * @param command                       Command to execute.
+   * @param commandLine                   The type of command line with which the command needs to
+   *                                      be executed.
+   * @param timeOutDuration               Time out for the command execution.
+   * @param captureOptions                Options used to capture the outputs of the command.
+   * @param resourceLimits                Limits on the resources the command may use, or null if
+   *                                      unlimited.
+   * @param priority                      Priority class of the execution.
+   * @return                              The response of the command.
+   * @throws IOException                  Thrown if there is an issue executing the command.
+   * @throws InterruptedException         Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException             Thrown if the command execution exceeds specified timeout.
+   * @throws CommandLineNotFoundException Thrown if the specified command line is not available.
+   * @throws RejectedExecutionException   Thrown if the queue of the priority class is full.
+   */
+  public static Response executeCommand(
+      Command command,
+      CommandLine commandLine,
+      Duration timeOutDuration,
+      CaptureOptions captureOptions,
+      ResourceLimits resourceLimits,
+      ExecutionPriority priority
+  ) throws IOException,
+      InterruptedException,
+      CommandLineNotFoundException,
+      TimeoutException {
+    return executeCommand(
+        command,
+        commandLine,
+        timeOutDuration,
+        captureOptions,
+        resourceLimits,
+        priority,
+        null
+    );
   }
 
   /**
-   * Executes the specified command.
+   * Executes the specified command with the specified priority and resource limits, capturing
+   * its outputs as per the specified options. The process tree of the command is killed if the
+   * execution is interrupted or the specified token is cancelled.
    *
    * @param command                       Command to execute.
+   * @param commandLine                   The type of command line with which the command needs to
+   *                                      be executed.
    * @param timeOutDuration               Time out for the command execution.
+   * @param captureOptions                Options used to capture the outputs of the command.
+   * @param resourceLimits                Limits on the resources the command may use, or null if
+   *                                      unlimited.
+   * @param priority                      Priority class of the execution.
+   * @param cancellationToken             Token used to cancel the execution, or null if it can
+   *                                      only be cancelled by an interrupt.
    * @return                              The response of the command.
    * @throws IOException                  Thrown if there is an issue executing the command.
    * @throws InterruptedException         Thrown if the execution of the command is interrupted.
    * @throws TimeoutException             Thrown if the command execution exceeds specified timeout.
-   * @throws CommandLineNotFoundException Thrown if the command line expected for the 
-   *                                      operating system is not available.
+   * @throws CommandLineNotFoundException Thrown if the specified command line is not available.
+   * @throws RejectedExecutionException   Thrown if the queue of the priority class is full.
+   * @throws CancellationException        Thrown if the token is cancelled.
    */
   public static Response executeCommand(
       Command command,
-      Duration timeOutDuration
-  ) throws IOException, InterruptedException, TimeoutException, CommandLineNotFoundException {
-    CommandLine[] supportedCommandLines
-        = operatingSystem.getSupportedTypeOfCommandLines();
-    Response response = null;
-    int index = 0;
-    boolean validResponse = false;
-    while (!validResponse) {
-      response = executeCommand(command, supportedCommandLines[index], timeOutDuration);
-      index++;
-      validResponse = true;
-    }
+      CommandLine commandLine,
+      Duration timeOutDuration,
+      CaptureOptions captureOptions,
+      ResourceLimits resourceLimits,
+      ExecutionPriority priority,
+      CancellationToken cancellationToken
+  ) throws IOException,
+      InterruptedException,
+      CommandLineNotFoundException,
+      TimeoutException {
+    Objects.requireNonNull(
+        command,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Command"
+        )
+    );
+    Objects.requireNonNull(
+        commandLine,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "TypeOfCommandLine"
+        )
+    );
 
-    return response;
+    if (commandLines.containsKey(commandLine)) {
+      return executeCommand(
+          getSplitCommand(command.getCommand(commandLine), commandLine),
+          timeOutDuration,
+          captureOptions,
+          resourceLimits,
+          priority,
+          cancellationToken
+      );
+    } else {
+      throw new CommandLineNotFoundException(commandLine);
+    }
   }
 
   /**
    * Executes the specified command.
    *
    * @param command                       Command to execute.
+   * @param commandLine                   The type of command line in which the command needs to
+   *                                      be executed in.
    * @return                              The response of the command.
    * @throws IOException                  Thrown if there is an issue executing the command.
    * @throws InterruptedException         Thrown if the execution of the command is interrupted.
-   * @throws TimeoutException             Thrown if the command execution exceeds specified timeout.
-   * @throws CommandLineNotFoundException Thrown if the command line expected for the 
-   *                                      operating system is not available.
+   * @throws TimeoutException             Thrown f the command execution exceeds specified timeout.
+   * @throws CommandLineNotFoundException Thrown if the specified command line is not available.
    */
-  public static Response executeCommand(Command command)
-      throws IOException,
-      InterruptedException,
+  public static Response executeCommand(
+      Command command,
+      CommandLine commandLine
+  ) throws IOException, 
+      InterruptedException, 
       TimeoutException, 
       CommandLineNotFoundException {
     return executeCommand(
         command,
+        commandLine,
         Duration.ofSeconds(
             PropertyUtility.getTypedProperty(
                 Long.class,
@@ -309,104 +2123,146 @@ public final class CommandLineUtility {
   }
 
   /**
-   * Executes the specified command.
+   * Executes the specified command in the specified context, using the time out of the context.
    *
-   * @param commandString                 Command string to execute.
-   * @param timeOutDuration               Command time out duration.
+   * @param executionContext              Context to execute the command in.
+   * @param command                       Command to execute.
+   * @param commandLine                   The type of command line with which the command needs to
+   *                                      be executed.
    * @return                              The response of the command.
    * @throws IOException                  Thrown if there is an issue executing the command.
    * @throws InterruptedException         Thrown if the execution of the command is interrupted.
    * @throws TimeoutException             Thrown if the command execution exceeds specified timeout.
-   * @throws CommandLineNotFoundException Thrown if the command line expected for the 
-   *                                      operating system is not available.
+   * @throws CommandLineNotFoundException Thrown if the specified command line is not available.
    */
-  public static Response executeCommand(String commandString, Duration timeOutDuration)
-      throws IOException,
+  public static Response executeCommand(
+      ExecutionContext executionContext,
+      Command command,
+      CommandLine commandLine
+  ) throws IOException,
       InterruptedException,
       TimeoutException,
       CommandLineNotFoundException {
-    Command command = new Command();
-    Arrays.stream(operatingSystem.getSupportedTypeOfCommandLines())
-        .forEach(supportedTypeOfCommandLine
-            -> command.setCommand(supportedTypeOfCommandLine, commandString));
-    return executeCommand(command, timeOutDuration);
+    return executeCommand(
+        executionContext,
+        command,
+        commandLine,
+        defaultCaptureOptions,
+        null,
+        ExecutionPriority.NORMAL,
+        null
+    );
   }
 
   /**
-   * Executes the specified command.
+   * Executes the specified idempotent command in the specified context, hedging it as per the
+   * specified policy. The time out of the context is used.
    *
-   * @param commandString                 Command string to execute.
+   * @param executionContext              Context to execute the command in.
+   * @param command                       Command to execute.
+   * @param commandLine                   The type of command line with which the command needs to
+   *                                      be executed.
+   * @param hedgingPolicy                 Policy used to determine when to launch the hedged
+   *                                      execution.
    * @return                              The response of the command.
    * @throws IOException                  Thrown if there is an issue executing the command.
    * @throws InterruptedException         Thrown if the execution of the command is interrupted.
    * @throws TimeoutException             Thrown if the command execution exceeds specified timeout.
-   * @throws CommandLineNotFoundException Thrown if the command line expected for the 
-   *                                      operating system is not available.
+   * @throws CommandLineNotFoundException Thrown if the specified command line is not available.
    */
-  public static Response executeCommand(String commandString)
-      throws IOException,
+  public static Response executeCommand(
+      ExecutionContext executionContext,
+      Command command,
+      CommandLine commandLine,
+      HedgingPolicy hedgingPolicy
+  ) throws IOException,
       InterruptedException,
       TimeoutException,
       CommandLineNotFoundException {
-    return executeCommand(
-        commandString,
-        Duration.ofSeconds(
-            PropertyUtility.getTypedProperty(
-                Long.class,
-                "CommandLineUtility.timeout.seconds"
-            )
+    Objects.requireNonNull(
+        command,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Command"
+        )
+    );
+    Objects.requireNonNull(
+        commandLine,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "TypeOfCommandLine"
         )
     );
+
+    if (commandLines.containsKey(commandLine)) {
+      return executeCommand(
+          executionContext,
+          getSplitCommand(command.getCommand(commandLine), commandLine),
+          hedgingPolicy
+      );
+    } else {
+      throw new CommandLineNotFoundException(commandLine);
+    }
   }
 
   /**
-   * Executes the specified command.
+   * Executes the specified command in the specified context with the specified priority and
+   * resource limits, capturing its outputs as per the specified options. The time out of the
+   * context is used.
    *
-   * @param command                       Command string to execute.
+   * @param executionContext              Context to execute the command in.
+   * @param command                       Command to execute.
    * @param commandLine                   The type of command line with which the command needs to
    *                                      be executed.
-   * @param timeOutDuration               Time out for the command execution.
+   * @param captureOptions                Options used to capture the outputs of the command.
+   * @param resourceLimits                Limits on the resources the command may use, or null if
+   *                                      unlimited.
+   * @param priority                      Priority class of the execution.
+   * @param cancellationToken             Token used to cancel the execution, or null if it can
+   *                                      only be cancelled by an interrupt.
    * @return                              The response of the command.
    * @throws IOException                  Thrown if there is an issue executing the command.
    * @throws InterruptedException         Thrown if the execution of the command is interrupted.
    * @throws TimeoutException             Thrown if the command execution exceeds specified timeout.
    * @throws CommandLineNotFoundException Thrown if the specified command line is not available.
+   * @throws RejectedExecutionException   Thrown if the queue of the priority class is full.
+   * @throws CancellationException        Thrown if the token is cancelled.
    */
   public static Response executeCommand(
+      ExecutionContext executionContext,
       Command command,
       CommandLine commandLine,
-      Duration timeOutDuration
-  ) throws IOException, 
-      InterruptedException, 
-      CommandLineNotFoundException, 
-      TimeoutException {
+      CaptureOptions captureOptions,
+      ResourceLimits resourceLimits,
+      ExecutionPriority priority,
+      CancellationToken cancellationToken
+  ) throws IOException,
+      InterruptedException,
+      TimeoutException,
+      CommandLineNotFoundException {
     Objects.requireNonNull(
         command,
-        I18nUtility.getFormattedString(
+        () -> I18nUtility.getFormattedString(
             "CommandLineUtility.input.validation.nonNull",
             "Command"
         )
     );
     Objects.requireNonNull(
         commandLine,
-        I18nUtility.getFormattedString(
+        () -> I18nUtility.getFormattedString(
             "CommandLineUtility.input.validation.nonNull",
             "TypeOfCommandLine"
         )
     );
-    Objects.requireNonNull(
-        timeOutDuration,
-        I18nUtility.getFormattedString(
-            "CommandLineUtility.input.validation.nonNull",
-            "Duration"
-        )
-    );
 
     if (commandLines.containsKey(commandLine)) {
       return executeCommand(
-          command.getCommand(commandLine),
-          commandLine,
-          timeOutDuration
+          executionContext,
+          getSplitCommand(command.getCommand(commandLine), commandLine),
+          captureOptions,
+          resourceLimits,
+          priority,
+          cancellationToken
       );
     } else {
       throw new CommandLineNotFoundException(commandLine);
@@ -414,26 +2270,193 @@ public final class CommandLineUtility {
   }
 
   /**
-   * Executes the specified command.
+   * Executes the specified command in the specified context using the command line of the
+   * operating system. The time out of the context is used.
    *
+   * @param executionContext              Context to execute the command in.
    * @param command                       Command to execute.
-   * @param commandLine                   The type of command line in which the command needs to
-   *                                      be executed in.
    * @return                              The response of the command.
    * @throws IOException                  Thrown if there is an issue executing the command.
    * @throws InterruptedException         Thrown if the execution of the command is interrupted.
-   * @throws TimeoutException             Thrown f the command execution exceeds specified timeout.
-   * @throws CommandLineNotFoundException Thrown if the specified command line is not available.
+   * @throws TimeoutException             Thrown if the command execution exceeds specified timeout.
+   * @throws CommandLineNotFoundException Thrown if the command line expected for the
+   *                                      operating system is not available.
    */
   public static Response executeCommand(
-      Command command,
-      CommandLine commandLine
-  ) throws IOException, 
-      InterruptedException, 
-      TimeoutException, 
-      CommandLineNotFoundException {
+      ExecutionContext executionContext,
+      Command command
+  ) throws IOException, InterruptedException, TimeoutException, CommandLineNotFoundException {
     return executeCommand(
+        executionContext,
         command,
+        operatingSystem.getSupportedTypeOfCommandLines()[0]
+    );
+  }
+
+  /**
+   * Executes the specified command string in the specified context using the command line of
+   * the operating system. The time out of the context is used.
+   *
+   * @param executionContext              Context to execute the command in.
+   * @param commandString                 Command string to execute.
+   * @return                              The response of the command.
+   * @throws IOException                  Thrown if there is an issue executing the command.
+   * @throws InterruptedException         Thrown if the execution of the command is interrupted.
+   * @throws TimeoutException             Thrown if the command execution exceeds specified timeout.
+   * @throws CommandLineNotFoundException Thrown if the command line expected for the
+   *                                      operating system is not available.
+   */
+  public static Response executeCommand(
+      ExecutionContext executionContext,
+      String commandString
+  ) throws IOException, InterruptedException, TimeoutException, CommandLineNotFoundException {
+    Command command = new Command();
+    Arrays.stream(operatingSystem.getSupportedTypeOfCommandLines())
+        .forEach(supportedTypeOfCommandLine
+            -> command.setCommand(supportedTypeOfCommandLine, commandString));
+    return executeCommand(executionContext, command);
+  }
+
+  /**
+   * Executes the specified independent commands, combining them into a single script to amortize
+   * the cost of spawning the command line. Each command is executed in its own subshell, hence
+   * changes to the shell state made by one command aren't visible to the others. Commands which
+   * can be executed in-process as builtins are excluded from the script. If the command line
+   * doesn't support batching, the commands are executed one after the other.
+   *
+   * @param commands                      Commands to execute.
+   * @param commandLine                   The type of command line with which the commands need
+   *                                      to be executed.
+   * @param timeOutDuration               Time out for the execution of all the commands.
+   * @return                              The responses of the commands, in the order they were
+   *                                      specified.
+   * @throws IOException                  Thrown if there is an issue executing the commands.
+   * @throws InterruptedException         Thrown if the execution of the commands is interrupted.
+   * @throws TimeoutException             Thrown if the execution of the commands exceeds specified
+   *                                      timeout.
+   * @throws CommandLineNotFoundException Thrown if the specified command line is not available.
+   */
+  public static List<Response> executeAll(
+      List<Command> commands,
+      CommandLine commandLine,
+      Duration timeOutDuration
+  ) throws IOException,
+      InterruptedException,
+      TimeoutException,
+      CommandLineNotFoundException {
+    Objects.requireNonNull(
+        commands,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Commands"
+        )
+    );
+    Objects.requireNonNull(
+        commandLine,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "TypeOfCommandLine"
+        )
+    );
+    Objects.requireNonNull(
+        timeOutDuration,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Duration"
+        )
+    );
+    if (!commandLines.containsKey(commandLine)) {
+      throw new CommandLineNotFoundException(commandLine);
+    }
+
+    // The time out covers all the commands, hence each execution is given the time left.
+    long executionStartNanoTime = System.nanoTime();
+    Response[] responses = new Response[commands.size()];
+    List<Integer> batchedCommandIndices = new ArrayList<>();
+    List<String> batchedCommands = new ArrayList<>();
+    for (int index = 0; index < responses.length; index++) {
+      Command command = Objects.requireNonNull(
+          commands.get(index),
+          () -> I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.nonNull",
+              "Command"
+          )
+      );
+      String commandString = command.getCommand(commandLine);
+      String[] splitCommand = getSplitCommand(commandString, commandLine);
+      Optional<Response> replayedResponse = replay(
+          splitCommand,
+          getRemainingDuration(splitCommand, executionStartNanoTime, timeOutDuration)
+      );
+      Optional<Response> builtinResponse = replayedResponse.isPresent()
+          ? Optional.empty()
+          : builtinRegistry.execute(splitCommand);
+      if (replayedResponse.isPresent()) {
+        responses[index] = replayedResponse.get();
+      } else if (builtinResponse.isPresent()) {
+        responses[index] = recordInJournal(splitCommand, builtinResponse.get());
+      } else {
+        batchedCommandIndices.add(index);
+        batchedCommands.add(commandString);
+      }
+    }
+
+    if (batchedCommands.size() == 1 || !batchableCommandLines.contains(commandLine)) {
+      for (int index = 0; index < batchedCommands.size(); index++) {
+        responses[batchedCommandIndices.get(index)] = executeCommand(
+            batchedCommands.get(index),
+            commandLine,
+            getRemainingDuration(
+                getSplitCommand(batchedCommands.get(index), commandLine),
+                executionStartNanoTime,
+                timeOutDuration
+            )
+        );
+      }
+    } else if (!batchedCommands.isEmpty()) {
+      CommandBatch commandBatch = new CommandBatch(batchedCommands);
+      List<Response> batchedResponses = executeBatch(
+          commandBatch,
+          commandLine,
+          getRemainingDuration(
+              getSplitCommand(commandBatch.getScript(), commandLine),
+              executionStartNanoTime,
+              timeOutDuration
+          )
+      );
+      for (int index = 0; index < batchedResponses.size(); index++) {
+        responses[batchedCommandIndices.get(index)] = recordInJournal(
+            getSplitCommand(batchedCommands.get(index), commandLine),
+            batchedResponses.get(index)
+        );
+      }
+    }
+    return List.of(responses);
+  }
+
+  /**
+   * Executes the specified independent commands, combining them into a single script.
+   *
+   * @param commands                      Commands to execute.
+   * @param commandLine                   The type of command line with which the commands need
+   *                                      to be executed.
+   * @return                              The responses of the commands, in the order they were
+   *                                      specified.
+   * @throws IOException                  Thrown if there is an issue executing the commands.
+   * @throws InterruptedException         Thrown if the execution of the commands is interrupted.
+   * @throws TimeoutException             Thrown if the execution of the commands exceeds the
+   *                                      default timeout.
+   * @throws CommandLineNotFoundException Thrown if the specified command line is not available.
+   */
+  public static List<Response> executeAll(
+      List<Command> commands,
+      CommandLine commandLine
+  ) throws IOException,
+      InterruptedException,
+      TimeoutException,
+      CommandLineNotFoundException {
+    return executeAll(
+        commands,
         commandLine,
         Duration.ofSeconds(
             PropertyUtility.getTypedProperty(
@@ -444,4 +2467,95 @@ public final class CommandLineUtility {
     );
   }
 
+  /**
+   * Executes the script of the specified command batch and splits its output into the responses
+   * of the individual commands. The outputs are drained while the script executes so that the
+   * execution of each command can be timestamped as its markers arrive.
+   *
+   * @param commandBatch          Batch of commands to execute.
+   * @param commandLine           Type of command line to use to execute the script.
+   * @param timeOutDuration       Time out for the execution of the script.
+   * @return                      The responses of the commands.
+   * @throws IOException          Thrown if there is an issue executing the script.
+   * @throws InterruptedException Thrown if the execution of the script is interrupted.
+   * @throws TimeoutException     Thrown if the execution of the script exceeds specified timeout.
+   */
+  private static List<Response> executeBatch(
+      CommandBatch commandBatch,
+      CommandLine commandLine,
+      Duration timeOutDuration
+  ) throws IOException, InterruptedException, TimeoutException {
+    String[] splitCommand = getSplitCommand(commandBatch.getScript(), commandLine);
+    if (logger.isInfoEnabled()) {
+      logger.info(
+          I18nUtility.getString("CommandLineUtility.executing"),
+          Arrays.toString(splitCommand)
+      );
+    }
+
+    final long deadline = System.nanoTime() + timeOutDuration.toNanos();
+    final ExecutionScheduler scheduler = executionScheduler;
+    try {
+      scheduler.acquire(ExecutionPriority.NORMAL, deadline);
+    } catch (InterruptedException e) {
+      recordCancellation(splitCommand);
+      throw e;
+    }
+    try {
+      final Instant executionStartTimestamp = Instant.now();
+      Process process = launch(new LaunchRequest(splitCommand), splitCommand);
+      final RunningExecution runningExecution = processRegistry.register(
+          splitCommand,
+          process,
+          executionStartTimestamp
+      );
+      try {
+        Future<String> stdout = streamDrainingExecutor.submit(
+            () -> commandBatch.drainStdout(
+                process.getInputStream(),
+                Arrays.hashCode(splitCommand)
+            )
+        );
+        Future<String> stderr = streamDrainingExecutor.submit(
+            () -> StreamUtility.convertInputStreamToString(
+                process.getErrorStream(),
+                StdType.STDERR,
+                Arrays.hashCode(splitCommand)
+            )
+        );
+        try {
+          if (!process.waitFor(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            throw new TimeoutException();
+          }
+          if (runningExecution.isCancelled()) {
+            throw recordCancellation(splitCommand);
+          }
+          return commandBatch.split(
+              stdout.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS),
+              stderr.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)
+          );
+        } catch (TimeoutException e) {
+          Duration executionDuration = Duration.between(executionStartTimestamp, Instant.now());
+          throw new TimeoutException(
+              I18nUtility.getFormattedString("CommandLineUtility.exception.TimeoutException",
+                  Arrays.toString(splitCommand),
+                  executionDuration.getSeconds(),
+                  timeOutDuration.getSeconds()
+              )
+          );
+        } catch (ExecutionException e) {
+          throw new IOException(e.getCause());
+        }
+      } finally {
+        destroyProcessTree(process);
+        processRegistry.unregister(runningExecution);
+      }
+    } catch (InterruptedException e) {
+      recordCancellation(splitCommand);
+      throw e;
+    } finally {
+      scheduler.release(ExecutionPriority.NORMAL);
+    }
+  }
+
 }
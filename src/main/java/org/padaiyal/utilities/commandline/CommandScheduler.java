@@ -0,0 +1,474 @@
+package org.padaiyal.utilities.commandline;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+import org.padaiyal.utilities.commandline.abstractions.CaptureOptions;
+import org.padaiyal.utilities.commandline.abstractions.ExecutionPriority;
+import org.padaiyal.utilities.commandline.abstractions.OutputDelivery;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+import org.padaiyal.utilities.commandline.abstractions.ScheduleMode;
+import org.padaiyal.utilities.commandline.abstractions.SchedulePolicy;
+import org.padaiyal.utilities.commandline.abstractions.ScheduledRun;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Runs commands periodically as per their schedule policies, such as polling disk or socket
+ * statistics. Runs are started by a single timer thread and executed on a pool of daemon
+ * threads, so that a slow command delays neither the other commands nor its own next run.
+ * Runs at a fixed rate are anchored to when the command was scheduled, hence they don't drift
+ * under load; runs missed while the timer was late are skipped rather than started in a burst.
+ */
+public final class CommandScheduler implements AutoCloseable {
+
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(CommandScheduler.class);
+
+  /**
+   * Starts the runs when they are due.
+   */
+  private final ScheduledExecutorService timer;
+  /**
+   * Executes the runs.
+   */
+  private final ExecutorService runExecutor;
+  /**
+   * Commands scheduled and not yet cancelled.
+   */
+  private final Set<ScheduledCommand> scheduledCommands;
+
+  /**
+   * Constructor used to initialize a CommandScheduler object.
+   */
+  public CommandScheduler() {
+    this.timer = Executors.newSingleThreadScheduledExecutor(
+        runnable -> {
+          Thread thread = new Thread(runnable, "CommandLineUtility-command-scheduler");
+          thread.setDaemon(true);
+          return thread;
+        }
+    );
+    this.runExecutor = Executors.newCachedThreadPool(
+        runnable -> {
+          Thread thread = new Thread(runnable, "CommandLineUtility-scheduled-command");
+          thread.setDaemon(true);
+          return thread;
+        }
+    );
+    this.scheduledCommands = ConcurrentHashMap.newKeySet();
+  }
+
+  /**
+   * Schedules the specified command. Its first run starts after the maximum jitter at most.
+   *
+   * @param splitCommand    Command to run and its arguments.
+   * @param schedulePolicy  Policy determining when the runs start.
+   * @param timeOutDuration Time out of each run.
+   * @param outputDelivery  What each run delivers.
+   * @param listener        Listener notified of the runs.
+   * @return                The scheduled command, used to cancel it.
+   */
+  public ScheduledCommand schedule(
+      String[] splitCommand,
+      SchedulePolicy schedulePolicy,
+      Duration timeOutDuration,
+      OutputDelivery outputDelivery,
+      ScheduledRunListener listener
+  ) {
+    Objects.requireNonNull(
+        splitCommand,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Command"
+        )
+    );
+    Objects.requireNonNull(
+        schedulePolicy,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "SchedulePolicy"
+        )
+    );
+    Objects.requireNonNull(
+        timeOutDuration,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Duration"
+        )
+    );
+    Objects.requireNonNull(
+        outputDelivery,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "OutputDelivery"
+        )
+    );
+    Objects.requireNonNull(
+        listener,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "ScheduledRunListener"
+        )
+    );
+    ScheduledCommand scheduledCommand = new ScheduledCommand(
+        splitCommand.clone(),
+        schedulePolicy,
+        timeOutDuration,
+        outputDelivery,
+        listener
+    );
+    scheduledCommands.add(scheduledCommand);
+    scheduledCommand.scheduleRun(scheduledCommand.startNanoTime + scheduledCommand.jitterNanos());
+    return scheduledCommand;
+  }
+
+  /**
+   * Cancels the scheduled commands, killing their running executions, and stops the threads
+   * running them.
+   */
+  @Override
+  public void close() {
+    new ArrayList<>(scheduledCommands).forEach(ScheduledCommand::cancel);
+    timer.shutdownNow();
+    runExecutor.shutdown();
+  }
+
+  /**
+   * Computes the lines present in the current output and not in the previous one, treating the
+   * lines as a multiset so that duplicated lines are accounted for.
+   *
+   * @param currentLines  Lines of the current output.
+   * @param previousLines Lines of the previous output.
+   * @return              The lines only present in the current output, in their order.
+   */
+  static List<String> subtractLines(List<String> currentLines, List<String> previousLines) {
+    Map<String, Integer> previousLineCounts = new HashMap<>(
+        (int) (previousLines.size() / 0.75f) + 1
+    );
+    previousLines.forEach(line -> previousLineCounts.merge(line, 1, Integer::sum));
+    List<String> subtractedLines = new ArrayList<>();
+    for (String line : currentLines) {
+      Integer count = previousLineCounts.get(line);
+      if (count == null) {
+        subtractedLines.add(line);
+      } else if (count == 1) {
+        previousLineCounts.remove(line);
+      } else {
+        previousLineCounts.put(line, count - 1);
+      }
+    }
+    return subtractedLines;
+  }
+
+  /**
+   * A command scheduled on a CommandScheduler.
+   */
+  public final class ScheduledCommand {
+
+    /**
+     * Command to run and its arguments.
+     */
+    private final String[] splitCommand;
+    /**
+     * Policy determining when the runs start.
+     */
+    private final SchedulePolicy schedulePolicy;
+    /**
+     * Time out of each run.
+     */
+    private final Duration timeOutDuration;
+    /**
+     * What each run delivers.
+     */
+    private final OutputDelivery outputDelivery;
+    /**
+     * Listener notified of the runs.
+     */
+    private final ScheduledRunListener listener;
+    /**
+     * Token cancelling the running executions once the command is cancelled.
+     */
+    private final CancellationToken cancellationToken;
+    /**
+     * Options used to capture the outputs of the runs.
+     */
+    private final CaptureOptions captureOptions;
+    /**
+     * Value of System.nanoTime() when the command was scheduled, which runs at a fixed rate are
+     * anchored to.
+     */
+    private final long startNanoTime;
+    /**
+     * Index of the next period a run at a fixed rate is due in, only accessed by the timer.
+     */
+    private long nextPeriodIndex;
+    /**
+     * Number of runs started.
+     */
+    private final AtomicLong startedRunCount;
+    /**
+     * Number of runs completed, successfully or not.
+     */
+    private final AtomicLong completedRunCount;
+    /**
+     * Number of runs skipped, either as the previous one was still running or as the timer was
+     * late.
+     */
+    private final AtomicLong skippedRunCount;
+    /**
+     * Number of runs in progress.
+     */
+    private final AtomicInteger runningCount;
+    /**
+     * STDOUT lines of the previous successful run, guarded by this object.
+     */
+    private List<String> previousLines;
+
+    /**
+     * Constructor used to initialize a ScheduledCommand object.
+     *
+     * @param splitCommand    Command to run and its arguments.
+     * @param schedulePolicy  Policy determining when the runs start.
+     * @param timeOutDuration Time out of each run.
+     * @param outputDelivery  What each run delivers.
+     * @param listener        Listener notified of the runs.
+     */
+    private ScheduledCommand(
+        String[] splitCommand,
+        SchedulePolicy schedulePolicy,
+        Duration timeOutDuration,
+        OutputDelivery outputDelivery,
+        ScheduledRunListener listener
+    ) {
+      this.splitCommand = splitCommand;
+      this.schedulePolicy = schedulePolicy;
+      this.timeOutDuration = timeOutDuration;
+      this.outputDelivery = outputDelivery;
+      this.listener = listener;
+      this.cancellationToken = new CancellationToken();
+      this.captureOptions = new CaptureOptions();
+      this.startNanoTime = System.nanoTime();
+      this.startedRunCount = new AtomicLong();
+      this.completedRunCount = new AtomicLong();
+      this.skippedRunCount = new AtomicLong();
+      this.runningCount = new AtomicInteger();
+      this.previousLines = List.of();
+    }
+
+    /**
+     * Cancels the command, killing its running executions. No run starts afterwards and the
+     * listener isn't notified of the killed executions.
+     */
+    public void cancel() {
+      cancellationToken.cancel();
+      scheduledCommands.remove(this);
+    }
+
+    /**
+     * Checks if the command has been cancelled.
+     *
+     * @return true if the command has been cancelled, else false.
+     */
+    public boolean isCancelled() {
+      return cancellationToken.isCancelled();
+    }
+
+    /**
+     * Retrieves the number of runs completed, successfully or not.
+     *
+     * @return Number of runs completed.
+     */
+    public long getCompletedRunCount() {
+      return completedRunCount.get();
+    }
+
+    /**
+     * Retrieves the number of runs skipped, either as the previous run was still running or as
+     * the scheduler was too late to start them on time.
+     *
+     * @return Number of runs skipped.
+     */
+    public long getSkippedRunCount() {
+      return skippedRunCount.get();
+    }
+
+    /**
+     * Computes a random jitter as per the schedule policy.
+     *
+     * @return The jitter in nanoseconds.
+     */
+    private long jitterNanos() {
+      long maximumJitterNanos = schedulePolicy.getMaximumJitter().toNanos();
+      return (maximumJitterNanos == 0)
+          ? 0
+          : ThreadLocalRandom.current().nextLong(maximumJitterNanos + 1);
+    }
+
+    /**
+     * Schedules a run on the timer.
+     *
+     * @param dueNanoTime Value of System.nanoTime() when the run is due.
+     */
+    private void scheduleRun(long dueNanoTime) {
+      if (isCancelled()) {
+        return;
+      }
+      try {
+        timer.schedule(this::startRun, dueNanoTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+      } catch (RejectedExecutionException e) {
+        // The scheduler is closed.
+        cancel();
+      }
+    }
+
+    /**
+     * Starts a run, unless it is to be skipped, and schedules the next run at a fixed rate.
+     */
+    private void startRun() {
+      if (isCancelled()) {
+        return;
+      }
+      if (schedulePolicy.getMode() == ScheduleMode.FIXED_RATE) {
+        final long periodNanos = schedulePolicy.getPeriod().toNanos();
+        // As the jitter is shorter than the period, the current period is the one the run was
+        // due in unless the timer was late.
+        final long currentPeriodIndex = (System.nanoTime() - startNanoTime) / periodNanos;
+        if (currentPeriodIndex > nextPeriodIndex) {
+          skippedRunCount.addAndGet(currentPeriodIndex - nextPeriodIndex);
+          nextPeriodIndex = currentPeriodIndex;
+        }
+        nextPeriodIndex++;
+        scheduleRun(startNanoTime + nextPeriodIndex * periodNanos + jitterNanos());
+        if (schedulePolicy.isSkippedIfRunning() && runningCount.get() > 0) {
+          skippedRunCount.incrementAndGet();
+          return;
+        }
+      }
+      runningCount.incrementAndGet();
+      final long runNumber = startedRunCount.incrementAndGet();
+      try {
+        runExecutor.execute(() -> run(runNumber));
+      } catch (RejectedExecutionException e) {
+        runningCount.decrementAndGet();
+        cancel();
+      }
+    }
+
+    /**
+     * Executes a run, notifies the listener of its outcome and schedules the next run at a fixed
+     * delay.
+     *
+     * @param runNumber Sequence number of the run.
+     */
+    private void run(long runNumber) {
+      try {
+        Response response;
+        try {
+          response = CommandLineUtility.executeCommand(
+              splitCommand,
+              timeOutDuration,
+              captureOptions,
+              null,
+              ExecutionPriority.NORMAL,
+              cancellationToken
+          );
+        } finally {
+          // The run is accounted for before the listener is notified of it.
+          completedRunCount.incrementAndGet();
+        }
+        deliver(runNumber, response);
+      } catch (CancellationException e) {
+        logger.debug(e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        cancel();
+      } catch (Exception e) {
+        synchronized (this) {
+          if (!isCancelled()) {
+            notifyListener(() -> listener.onFailure(runNumber, e));
+          }
+        }
+      } finally {
+        runningCount.decrementAndGet();
+        if (schedulePolicy.getMode() == ScheduleMode.FIXED_DELAY) {
+          scheduleRun(System.nanoTime() + schedulePolicy.getPeriod().toNanos() + jitterNanos());
+        }
+      }
+    }
+
+    /**
+     * Notifies the listener of a successful run, computing its delta against the previous
+     * successful run if deltas are delivered. Overlapping runs are delivered in the order they
+     * complete.
+     *
+     * @param runNumber Sequence number of the run.
+     * @param response  Response of the run.
+     */
+    private synchronized void deliver(long runNumber, Response response) {
+      if (isCancelled()) {
+        return;
+      }
+      ScheduledRun scheduledRun;
+      if (outputDelivery == OutputDelivery.DELTA) {
+        String stdout = response.getOutput(StdType.STDOUT);
+        List<String> currentLines = stdout.isEmpty()
+            ? List.of()
+            : Arrays.asList(stdout.split("\\R", -1));
+        // A trailing line terminator doesn't start another line.
+        if (!currentLines.isEmpty() && currentLines.get(currentLines.size() - 1).isEmpty()) {
+          currentLines = currentLines.subList(0, currentLines.size() - 1);
+        }
+        scheduledRun = new ScheduledRun(
+            runNumber,
+            response,
+            subtractLines(currentLines, previousLines),
+            subtractLines(previousLines, currentLines)
+        );
+        previousLines = currentLines;
+      } else {
+        scheduledRun = new ScheduledRun(runNumber, response, null, null);
+      }
+      notifyListener(() -> listener.onRun(scheduledRun));
+    }
+
+    /**
+     * Notifies the listener, logging the exceptions it throws so that they don't stop the
+     * command from being run.
+     *
+     * @param notification Notification of the listener.
+     */
+    private void notifyListener(Runnable notification) {
+      try {
+        notification.run();
+      } catch (RuntimeException e) {
+        logger.warn(
+            I18nUtility.getFormattedString(
+                "CommandLineUtility.scheduler.listenerFailure",
+                Arrays.toString(splitCommand)
+            ),
+            e
+        );
+      }
+    }
+  }
+}
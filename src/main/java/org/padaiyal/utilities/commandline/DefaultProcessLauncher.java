@@ -0,0 +1,59 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.file.Path;
+import java.util.Map;
+import org.padaiyal.utilities.commandline.abstractions.LaunchRequest;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Spawns processes directly from this JVM using a ProcessBuilder.
+ */
+public final class DefaultProcessLauncher implements ProcessLauncher {
+
+  /**
+   * Spawns a process from this JVM as per the specified request.
+   *
+   * @param launchRequest Arguments, environment, working directory and redirects of the process.
+   * @return              The spawned process.
+   * @throws IOException  Thrown if there is an issue spawning the process.
+   */
+  @Override
+  public Process launch(LaunchRequest launchRequest) throws IOException {
+    String[] environment = launchRequest.getEnvironment();
+    if (environment != null && launchRequest.getStdinRedirect() == Redirect.PIPE
+        && launchRequest.getOutputRedirect(StdType.STDOUT) == Redirect.PIPE
+        && launchRequest.getOutputRedirect(StdType.STDERR) == Redirect.PIPE
+        && !launchRequest.isRedirectErrorStream()) {
+      // Unlike ProcessBuilder.environment(), this doesn't copy the environment of this JVM only
+      // to replace it.
+      Path workingDirectory = launchRequest.getWorkingDirectory();
+      return Runtime.getRuntime().exec(
+          launchRequest.getCommand().toArray(new String[0]),
+          environment,
+          (workingDirectory == null) ? null : workingDirectory.toFile()
+      );
+    }
+    ProcessBuilder processBuilder = new ProcessBuilder(launchRequest.getCommand())
+        .redirectInput(launchRequest.getStdinRedirect())
+        .redirectOutput(launchRequest.getOutputRedirect(StdType.STDOUT))
+        .redirectError(launchRequest.getOutputRedirect(StdType.STDERR))
+        .redirectErrorStream(launchRequest.isRedirectErrorStream());
+    if (launchRequest.getWorkingDirectory() != null) {
+      processBuilder.directory(launchRequest.getWorkingDirectory().toFile());
+    }
+    if (environment != null) {
+      Map<String, String> processEnvironment = processBuilder.environment();
+      processEnvironment.clear();
+      for (String environmentVariable : environment) {
+        int separatorIndex = environmentVariable.indexOf('=');
+        processEnvironment.put(
+            environmentVariable.substring(0, separatorIndex),
+            environmentVariable.substring(separatorIndex + 1)
+        );
+      }
+    }
+    return processBuilder.start();
+  }
+}
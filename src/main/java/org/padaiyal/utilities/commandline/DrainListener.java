@@ -0,0 +1,39 @@
+package org.padaiyal.utilities.commandline;
+
+/**
+ * Listener notified by StreamUtility as it drains a stream, which can also stop the draining.
+ */
+public interface DrainListener {
+
+  /**
+   * Invoked after data is read from the stream.
+   *
+   * @param dataReadFromStreamInBytes Total number of bytes read from the stream so far.
+   * @return                          true to continue draining, false to stop once the data
+   *                                  already read has been processed.
+   */
+  default boolean onData(long dataReadFromStreamInBytes) {
+    return true;
+  }
+
+  /**
+   * Invoked for every line read from the stream, regardless of whether it is retained.
+   *
+   * @param line      Line read, without its line terminator.
+   * @param retained  true if the line is retained in the output, else false.
+   * @return          true to continue draining, false to stop right after this line.
+   */
+  default boolean onLine(String line, boolean retained) {
+    return true;
+  }
+
+  /**
+   * Checks if the listener needs to be notified of every line. Streams drained without a line
+   * filter are only split into lines if the listener needs it.
+   *
+   * @return true if the listener needs to be notified of every line, else false.
+   */
+  default boolean isNotifiedOfLines() {
+    return true;
+  }
+}
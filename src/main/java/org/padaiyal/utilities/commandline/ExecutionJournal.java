@@ -0,0 +1,862 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+import org.padaiyal.utilities.PropertyUtility;
+import org.padaiyal.utilities.commandline.abstractions.JournalEntry;
+import org.padaiyal.utilities.commandline.abstractions.JournalSyncPolicy;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Append-only journal of executed commands, their return codes, timings and truncated outputs.
+ * Recording an execution only queues it on a lock-free queue; a single writer thread writes the
+ * queued executions in batches to segment files, starting a new segment once the current one
+ * reaches the segment size and deleting the oldest segments beyond the retained count. The
+ * journal is read back with JournalReader.
+ *
+ * <p>Responses are journaled via ResponseSerializer, hence their merged output chunks aren't
+ * recorded, and neither read back nor replayed.
+ */
+public final class ExecutionJournal implements AutoCloseable {
+
+  /**
+   * Magic number identifying a journal segment, "PDJS" in ASCII.
+   */
+  static final int SEGMENT_MAGIC = 0x50444A53;
+  /**
+   * Version of the segment format written.
+   */
+  static final byte SEGMENT_FORMAT_VERSION = 1;
+  /**
+   * Number of bytes in the header of a segment - magic number and format version.
+   */
+  static final int SEGMENT_HEADER_SIZE = 5;
+  /**
+   * Prefix of the names of the segment files.
+   */
+  static final String SEGMENT_FILE_PREFIX = "journal-";
+  /**
+   * Suffix of the names of the segment files.
+   */
+  static final String SEGMENT_FILE_SUFFIX = ".seg";
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(ExecutionJournal.class);
+
+  static {
+    initializeDependantValues();
+  }
+
+  /**
+   * Directory holding the segment files.
+   */
+  private final Path directory;
+  /**
+   * Size a segment reaches before a new one is started.
+   */
+  private final long segmentSizeInBytes;
+  /**
+   * Maximum number of segments retained, or 0 to retain all of them.
+   */
+  private final int maxSegmentCount;
+  /**
+   * Maximum number of characters of each output recorded.
+   */
+  private final int maxOutputLength;
+  /**
+   * Maximum number of entries written at once.
+   */
+  private final int batchSize;
+  /**
+   * When the written entries are forced to storage.
+   */
+  private final JournalSyncPolicy syncPolicy;
+  /**
+   * Interval at which the written entries are forced to storage as per the PERIODIC policy.
+   */
+  private final Duration syncInterval;
+  /**
+   * Flag to denote if the outputs are compressed.
+   */
+  private final boolean compressed;
+  /**
+   * Entries recorded but not yet written.
+   */
+  private final ConcurrentLinkedQueue<JournalEntry> pendingEntries;
+  /**
+   * Number of entries recorded.
+   */
+  private final AtomicLong recordedEntryCount;
+  /**
+   * Highest number of recorded entries a flush waits to be forced to storage.
+   */
+  private final AtomicLong requestedSyncEntryCount;
+  /**
+   * Number of entries lost as they couldn't be written.
+   */
+  private final LongAdder droppedEntryCount;
+  /**
+   * Segments in the directory, from the oldest to the current one. Only used by the writer.
+   */
+  private final ArrayDeque<Path> segments;
+  /**
+   * Buffer the entries of a batch are serialized into. Only used by the writer.
+   */
+  private final BatchBuffer batchBuffer;
+  /**
+   * Stream serializing the commands of the entries into the batch buffer.
+   */
+  private final DataOutputStream batchOutputStream;
+  /**
+   * Channel serializing the responses of the entries into the batch buffer.
+   */
+  private final WritableByteChannel batchChannel;
+  /**
+   * Lock the flushes wait on for the writer to make progress.
+   */
+  private final Object progressLock;
+  /**
+   * Thread writing the recorded entries.
+   */
+  private final Thread writerThread;
+  /**
+   * Channel of the current segment. Only used by the writer.
+   */
+  private FileChannel segmentChannel;
+  /**
+   * Index of the current segment. Only used by the writer.
+   */
+  private long segmentIndex;
+  /**
+   * Number of bytes written to the current segment. Only used by the writer.
+   */
+  private long segmentBytes;
+  /**
+   * Number of recorded entries which were written, or dropped, and forced to storage.
+   */
+  private volatile long syncedEntryCount;
+  /**
+   * Last failure to write or force entries, or null if none occurred since the last flush.
+   */
+  private volatile IOException writeFailure;
+  /**
+   * Flag to denote if the journal is closed.
+   */
+  private volatile boolean closed;
+
+  /**
+   * Constructor used to initialize an ExecutionJournal object from a builder, starting a new
+   * segment after the existing ones.
+   *
+   * @param builder       Builder holding the properties of the journal.
+   * @throws IOException  Thrown if the directory or the first segment can't be created.
+   */
+  private ExecutionJournal(Builder builder) throws IOException {
+    this.directory = builder.directory;
+    this.segmentSizeInBytes = builder.segmentSizeInBytes;
+    this.maxSegmentCount = builder.maxSegmentCount;
+    this.maxOutputLength = builder.maxOutputLength;
+    this.batchSize = builder.batchSize;
+    this.syncPolicy = builder.syncPolicy;
+    this.syncInterval = builder.syncInterval;
+    this.compressed = builder.compressed;
+    this.pendingEntries = new ConcurrentLinkedQueue<>();
+    this.recordedEntryCount = new AtomicLong();
+    this.requestedSyncEntryCount = new AtomicLong();
+    this.droppedEntryCount = new LongAdder();
+    this.batchBuffer = new BatchBuffer();
+    this.batchOutputStream = new DataOutputStream(batchBuffer);
+    this.batchChannel = Channels.newChannel(batchBuffer);
+    this.progressLock = new Object();
+
+    Files.createDirectories(directory);
+    this.segments = new ArrayDeque<>(listSegments(directory));
+    this.segmentIndex = segments.isEmpty() ? 0 : getSegmentIndex(segments.getLast()) + 1;
+    startSegment();
+
+    writerThread = new Thread(this::writeEntries, "CommandLineUtility-journal-writer");
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  /**
+   * Initialize static variables needed for this utility.
+   */
+  public static void initializeDependantValues() {
+    try {
+      PropertyUtility.addPropertyFile(
+          ExecutionJournal.class,
+          ExecutionJournal.class.getSimpleName() + ".properties"
+      );
+
+      I18nUtility.addResourceBundle(
+          ExecutionJournal.class,
+          ExecutionJournal.class.getSimpleName(),
+          Locale.US
+      );
+    } catch (IOException e) {
+      logger.error(e);
+    }
+  }
+
+  /**
+   * Creates a builder for a journal writing its segments to the specified directory, configured
+   * with the default properties.
+   *
+   * @param directory Directory to write the segments to. Created if it doesn't exist.
+   * @return          The builder.
+   */
+  public static Builder builder(Path directory) {
+    return new Builder(
+        Objects.requireNonNull(
+            directory,
+            () -> I18nUtility.getFormattedString(
+                "CommandLineUtility.input.validation.nonNull",
+                "Path"
+            )
+        )
+    );
+  }
+
+  /**
+   * Lists the segments in the specified directory, from the oldest to the newest. Files not
+   * named as segments are ignored.
+   *
+   * @param directory     Directory holding the segments.
+   * @return              Paths of the segments.
+   * @throws IOException  Thrown if the directory can't be listed.
+   */
+  public static List<Path> listSegments(Path directory) throws IOException {
+    List<Path> segments = new ArrayList<>();
+    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(
+        directory,
+        SEGMENT_FILE_PREFIX + "*" + SEGMENT_FILE_SUFFIX
+    )) {
+      for (Path segment : directoryStream) {
+        if (getSegmentIndex(segment) >= 0) {
+          segments.add(segment);
+        }
+      }
+    }
+    // The indices are zero padded, hence the names sort in the order the segments were started.
+    Collections.sort(segments);
+    return segments;
+  }
+
+  /**
+   * Records an executed command. The entry is written asynchronously, with its outputs
+   * truncated to the maximum output length.
+   *
+   * @param splitCommand  Command and its arguments.
+   * @param response      Response of the command.
+   * @return              true if the entry was recorded, false if the journal is closed.
+   */
+  public boolean record(String[] splitCommand, Response response) {
+    Objects.requireNonNull(
+        splitCommand,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Command"
+        )
+    );
+    Objects.requireNonNull(
+        response,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Response"
+        )
+    );
+    if (closed) {
+      return false;
+    }
+    pendingEntries.offer(new JournalEntry(splitCommand, response));
+    recordedEntryCount.incrementAndGet();
+    LockSupport.unpark(writerThread);
+    return true;
+  }
+
+  /**
+   * Waits until every entry recorded before this call is written and forced to storage,
+   * regardless of the sync policy.
+   *
+   * @throws IOException          Thrown if entries failed to be written or forced since the last
+   *                              flush.
+   * @throws InterruptedException Thrown if the wait is interrupted.
+   */
+  public void flush() throws IOException, InterruptedException {
+    final long targetEntryCount = recordedEntryCount.get();
+    requestedSyncEntryCount.accumulateAndGet(targetEntryCount, Math::max);
+    LockSupport.unpark(writerThread);
+    synchronized (progressLock) {
+      while (syncedEntryCount < targetEntryCount && writerThread.isAlive()) {
+        progressLock.wait();
+      }
+    }
+    IOException failure = writeFailure;
+    if (failure != null) {
+      writeFailure = null;
+      throw new IOException(
+          I18nUtility.getFormattedString(
+              "ExecutionJournal.error.writeFailed",
+              droppedEntryCount.sum()
+          ),
+          failure
+      );
+    }
+  }
+
+  /**
+   * Retrieves the number of entries lost as they couldn't be written.
+   *
+   * @return Number of dropped entries.
+   */
+  public long getDroppedEntryCount() {
+    return droppedEntryCount.sum();
+  }
+
+  /**
+   * Retrieves the directory holding the segments.
+   *
+   * @return Directory holding the segments.
+   */
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Stops recording, writes the pending entries, forces them to storage and closes the current
+   * segment. Entries recorded concurrently with closing may be lost. If waiting for the pending
+   * entries to be written is interrupted, this returns with the interrupt status set, while the
+   * writer thread goes on writing them.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    LockSupport.unpark(writerThread);
+    try {
+      writerThread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Writes the recorded entries until the journal is closed. Runs on the writer thread.
+   */
+  private void writeEntries() {
+    long writtenEntryCount = 0;
+    long lastSyncNanos = System.nanoTime();
+    boolean unsynced = false;
+    while (true) {
+      // Read before draining, so that entries recorded before closing are written.
+      final boolean closing = closed;
+      int entryCount = 0;
+      JournalEntry entry;
+      while (entryCount < batchSize && (entry = pendingEntries.poll()) != null) {
+        serializeEntry(entry);
+        entryCount++;
+      }
+      if (entryCount > 0) {
+        try {
+          writeBatch();
+          unsynced = true;
+        } catch (IOException e) {
+          logger.error(e);
+          droppedEntryCount.add(entryCount);
+          writeFailure = e;
+          // The batch may have been partially written, so that nothing may be appended after it.
+          segmentBytes = segmentSizeInBytes;
+        } finally {
+          batchBuffer.reset();
+        }
+        writtenEntryCount += entryCount;
+      }
+
+      final long nowNanos = System.nanoTime();
+      if (unsynced && (requestedSyncEntryCount.get() > syncedEntryCount
+          || syncPolicy == JournalSyncPolicy.EVERY_BATCH
+          || syncPolicy == JournalSyncPolicy.PERIODIC
+              && nowNanos - lastSyncNanos >= syncInterval.toNanos())) {
+        try {
+          segmentChannel.force(false);
+        } catch (IOException e) {
+          logger.error(e);
+          writeFailure = e;
+        }
+        lastSyncNanos = nowNanos;
+        unsynced = false;
+      }
+      if (entryCount > 0 && segmentBytes >= segmentSizeInBytes) {
+        rotateSegment();
+        unsynced = false;
+      }
+      if (closing && pendingEntries.isEmpty()) {
+        closeSegment();
+        publishProgress(writtenEntryCount);
+        return;
+      }
+      if (!unsynced) {
+        publishProgress(writtenEntryCount);
+      }
+
+      if (entryCount == batchSize) {
+        continue;
+      }
+      if (unsynced && syncPolicy == JournalSyncPolicy.PERIODIC) {
+        LockSupport.parkNanos(this, syncInterval.toNanos() - (nowNanos - lastSyncNanos));
+      } else if (pendingEntries.isEmpty()) {
+        LockSupport.park(this);
+      }
+    }
+  }
+
+  /**
+   * Serializes an entry into the batch buffer, truncating its outputs.
+   *
+   * @param entry Entry to serialize.
+   */
+  private void serializeEntry(JournalEntry entry) {
+    final int batchPosition = batchBuffer.size();
+    try {
+      String[] splitCommand = entry.getSplitCommand();
+      batchOutputStream.writeInt(splitCommand.length);
+      for (String argument : splitCommand) {
+        byte[] argumentBytes = argument.getBytes(StandardCharsets.UTF_8);
+        batchOutputStream.writeInt(argumentBytes.length);
+        batchOutputStream.write(argumentBytes);
+      }
+      ResponseSerializer.write(truncate(entry.getResponse()), batchChannel, compressed);
+    } catch (IOException | RuntimeException e) {
+      // Only a malformed entry can fail to be serialized into memory, so the batch is kept.
+      logger.error(e);
+      batchBuffer.truncate(batchPosition);
+      droppedEntryCount.increment();
+    }
+  }
+
+  /**
+   * Truncates the outputs of the response to the maximum output length. The merged output chunks
+   * are dropped either way, as they aren't serialized.
+   *
+   * @param response  Response to truncate.
+   * @return          The response with its outputs truncated.
+   */
+  private Response truncate(Response response) {
+    String stdout = response.getOutput(StdType.STDOUT);
+    String stderr = response.getOutput(StdType.STDERR);
+    if ((stdout == null || stdout.length() <= maxOutputLength)
+        && (stderr == null || stderr.length() <= maxOutputLength)) {
+      return response;
+    }
+    return new Response(
+        response.getReturnCode(),
+        truncate(stdout),
+        truncate(stderr),
+        response.getExecutionStartTimestamp(),
+        response.getExecutionDuration(),
+        response.isTerminatedEarly(),
+        response.getResourceUsage(),
+        response.getExceededResourceLimit()
+    );
+  }
+
+  /**
+   * Truncates the output to the maximum output length.
+   *
+   * @param output  Output to truncate, or null.
+   * @return        The truncated output, or null if there is no output.
+   */
+  private String truncate(String output) {
+    return (output == null || output.length() <= maxOutputLength)
+        ? output
+        : output.substring(0, maxOutputLength);
+  }
+
+  /**
+   * Writes the serialized batch to the current segment.
+   *
+   * @throws IOException Thrown if the batch can't be written.
+   */
+  private void writeBatch() throws IOException {
+    if (segmentChannel == null) {
+      // A previous rotation failed, hence it is retried before writing.
+      startSegment();
+    }
+    ByteBuffer batch = batchBuffer.toByteBuffer();
+    segmentBytes += batch.remaining();
+    while (batch.hasRemaining()) {
+      segmentChannel.write(batch);
+    }
+  }
+
+  /**
+   * Makes the writer's progress visible to the flushes waiting on it.
+   *
+   * @param writtenEntryCount Number of recorded entries written or dropped so far.
+   */
+  private void publishProgress(long writtenEntryCount) {
+    if (syncedEntryCount == writtenEntryCount) {
+      return;
+    }
+    synchronized (progressLock) {
+      syncedEntryCount = writtenEntryCount;
+      progressLock.notifyAll();
+    }
+  }
+
+  /**
+   * Closes the current segment and starts the next one, deleting the oldest segments beyond the
+   * retained count.
+   */
+  private void rotateSegment() {
+    closeSegment();
+    try {
+      segmentIndex++;
+      startSegment();
+    } catch (IOException e) {
+      logger.error(e);
+      writeFailure = e;
+    }
+    while (maxSegmentCount > 0 && segments.size() > maxSegmentCount) {
+      Path oldestSegment = segments.removeFirst();
+      try {
+        Files.deleteIfExists(oldestSegment);
+      } catch (IOException e) {
+        logger.error(e);
+      }
+    }
+  }
+
+  /**
+   * Creates the segment with the current index and writes its header.
+   *
+   * @throws IOException Thrown if the segment can't be created.
+   */
+  private void startSegment() throws IOException {
+    Path segment = directory.resolve(
+        String.format("%s%020d%s", SEGMENT_FILE_PREFIX, segmentIndex, SEGMENT_FILE_SUFFIX)
+    );
+    FileChannel channel = FileChannel.open(
+        segment,
+        StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND
+    );
+    try {
+      ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE)
+          .putInt(SEGMENT_MAGIC)
+          .put(SEGMENT_FORMAT_VERSION)
+          .flip();
+      while (header.hasRemaining()) {
+        channel.write(header);
+      }
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    segments.addLast(segment);
+    segmentChannel = channel;
+    segmentBytes = SEGMENT_HEADER_SIZE;
+  }
+
+  /**
+   * Forces the current segment to storage, whatever the sync policy, and closes it.
+   */
+  private void closeSegment() {
+    if (segmentChannel == null) {
+      return;
+    }
+    try (FileChannel channel = segmentChannel) {
+      channel.force(false);
+    } catch (IOException e) {
+      logger.error(e);
+      writeFailure = e;
+    }
+    segmentChannel = null;
+  }
+
+  /**
+   * Parses the index of a segment from its file name.
+   *
+   * @param segment Path of the segment.
+   * @return        Index of the segment, or -1 if the file isn't named as a segment.
+   */
+  private static long getSegmentIndex(Path segment) {
+    String fileName = segment.getFileName().toString();
+    try {
+      return Long.parseLong(
+          fileName.substring(
+              SEGMENT_FILE_PREFIX.length(),
+              fileName.length() - SEGMENT_FILE_SUFFIX.length()
+          )
+      );
+    } catch (NumberFormatException | IndexOutOfBoundsException e) {
+      return -1;
+    }
+  }
+
+  /**
+   * In-memory buffer whose content is written without being copied.
+   */
+  private static final class BatchBuffer extends ByteArrayOutputStream {
+
+    /**
+     * Wraps the content of the buffer.
+     *
+     * @return Buffer wrapping the content.
+     */
+    ByteBuffer toByteBuffer() {
+      return ByteBuffer.wrap(buf, 0, count);
+    }
+
+    /**
+     * Discards the content after the specified position.
+     *
+     * @param position Number of bytes to keep.
+     */
+    void truncate(int position) {
+      count = position;
+    }
+  }
+
+  /**
+   * Builds execution journals.
+   */
+  public static final class Builder {
+
+    /**
+     * Directory holding the segment files.
+     */
+    private final Path directory;
+    /**
+     * Size a segment reaches before a new one is started.
+     */
+    private long segmentSizeInBytes;
+    /**
+     * Maximum number of segments retained, or 0 to retain all of them.
+     */
+    private int maxSegmentCount;
+    /**
+     * Maximum number of characters of each output recorded.
+     */
+    private int maxOutputLength;
+    /**
+     * Maximum number of entries written at once.
+     */
+    private int batchSize;
+    /**
+     * When the written entries are forced to storage.
+     */
+    private JournalSyncPolicy syncPolicy;
+    /**
+     * Interval at which the written entries are forced to storage as per the PERIODIC policy.
+     */
+    private Duration syncInterval;
+    /**
+     * Flag to denote if the outputs are compressed.
+     */
+    private boolean compressed;
+
+    /**
+     * Constructor used to initialize a Builder object with the default properties.
+     *
+     * @param directory Directory holding the segment files.
+     */
+    private Builder(Path directory) {
+      this.directory = directory;
+      segmentSizeInBytes = PropertyUtility.getTypedProperty(
+          Long.class,
+          "ExecutionJournal.segmentSize.bytes"
+      );
+      maxSegmentCount = PropertyUtility.getTypedProperty(
+          Integer.class,
+          "ExecutionJournal.maxSegmentCount"
+      );
+      maxOutputLength = PropertyUtility.getTypedProperty(
+          Integer.class,
+          "ExecutionJournal.maxOutputLength"
+      );
+      batchSize = PropertyUtility.getTypedProperty(Integer.class, "ExecutionJournal.batchSize");
+      syncPolicy = JournalSyncPolicy.valueOf(
+          PropertyUtility.getProperty("ExecutionJournal.syncPolicy").trim()
+      );
+      syncInterval = Duration.ofMillis(
+          PropertyUtility.getTypedProperty(Long.class, "ExecutionJournal.syncInterval.millis")
+      );
+      compressed = Boolean.parseBoolean(
+          PropertyUtility.getProperty("ExecutionJournal.compressed").trim()
+      );
+    }
+
+    /**
+     * Sets the size a segment reaches before a new one is started. A segment may exceed it by
+     * up to one batch.
+     *
+     * @param segmentSizeInBytes  Size of a segment in bytes.
+     * @return                    This builder.
+     */
+    public Builder setSegmentSizeInBytes(long segmentSizeInBytes) {
+      requirePositive("Segment size (bytes)", segmentSizeInBytes);
+      this.segmentSizeInBytes = segmentSizeInBytes;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of segments retained. The oldest segments are deleted beyond it.
+     *
+     * @param maxSegmentCount Maximum number of segments, or 0 to retain all of them.
+     * @return                This builder.
+     */
+    public Builder setMaxSegmentCount(int maxSegmentCount) {
+      requireNonNegative("Maximum segment count", maxSegmentCount);
+      this.maxSegmentCount = maxSegmentCount;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of characters of each output recorded.
+     *
+     * @param maxOutputLength Maximum number of characters of each output.
+     * @return                This builder.
+     */
+    public Builder setMaxOutputLength(int maxOutputLength) {
+      requireNonNegative("Maximum output length", maxOutputLength);
+      this.maxOutputLength = maxOutputLength;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of entries written at once.
+     *
+     * @param batchSize Maximum number of entries in a batch.
+     * @return          This builder.
+     */
+    public Builder setBatchSize(int batchSize) {
+      requirePositive("Batch size", batchSize);
+      this.batchSize = batchSize;
+      return this;
+    }
+
+    /**
+     * Sets when the written entries are forced to storage.
+     *
+     * @param syncPolicy  Sync policy.
+     * @return            This builder.
+     */
+    public Builder setSyncPolicy(JournalSyncPolicy syncPolicy) {
+      this.syncPolicy = Objects.requireNonNull(
+          syncPolicy,
+          () -> I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.nonNull",
+              "JournalSyncPolicy"
+          )
+      );
+      return this;
+    }
+
+    /**
+     * Sets the interval at which the written entries are forced to storage as per the PERIODIC
+     * policy.
+     *
+     * @param syncInterval  Sync interval.
+     * @return              This builder.
+     */
+    public Builder setSyncInterval(Duration syncInterval) {
+      Objects.requireNonNull(
+          syncInterval,
+          () -> I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.nonNull",
+              "Duration"
+          )
+      );
+      requirePositive("Sync interval (ms)", syncInterval.toMillis());
+      this.syncInterval = syncInterval;
+      return this;
+    }
+
+    /**
+     * Sets if the outputs are compressed.
+     *
+     * @param compressed  true to compress the outputs, else false.
+     * @return            This builder.
+     */
+    public Builder setCompressed(boolean compressed) {
+      this.compressed = compressed;
+      return this;
+    }
+
+    /**
+     * Builds the journal, starting a new segment after the existing ones in the directory.
+     *
+     * @return              The built journal.
+     * @throws IOException  Thrown if the directory or the first segment can't be created.
+     */
+    public ExecutionJournal build() throws IOException {
+      return new ExecutionJournal(this);
+    }
+
+    /**
+     * Validates that the specified value is positive.
+     *
+     * @param name  Name of the value.
+     * @param value Value to validate.
+     */
+    private static void requirePositive(String name, long value) {
+      if (value <= 0) {
+        throw new IllegalArgumentException(
+            I18nUtility.getFormattedString(
+                "CommandLineUtility.input.validation.positive",
+                name,
+                value
+            )
+        );
+      }
+    }
+
+    /**
+     * Validates that the specified value isn't negative.
+     *
+     * @param name  Name of the value.
+     * @param value Value to validate.
+     */
+    private static void requireNonNegative(String name, int value) {
+      if (value < 0) {
+        throw new IllegalArgumentException(
+            I18nUtility.getFormattedString(
+                "CommandLineUtility.input.validation.range",
+                name,
+                0,
+                Integer.MAX_VALUE,
+                value
+            )
+        );
+      }
+    }
+  }
+}
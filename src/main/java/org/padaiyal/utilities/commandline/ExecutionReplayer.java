@@ -0,0 +1,267 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.padaiyal.utilities.I18nUtility;
+import org.padaiyal.utilities.commandline.abstractions.JournalEntry;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+
+/**
+ * Serves recorded responses instead of executing commands, so that tests and load simulations
+ * run through CommandLineUtility without spawning processes. Executions are recorded with an
+ * ExecutionJournal set on CommandLineUtility, whose maximum output length has to cover the
+ * outputs to replay, and replayed by setting the replayer built from its segments. The recorded
+ * responses are indexed in memory by command; the executable of a command is matched by its file
+ * name, so that recordings are portable across machines locating the command lines differently.
+ * A command recorded several times is answered with its recorded responses in turn, cycling
+ * through them.
+ */
+public final class ExecutionReplayer {
+
+  /**
+   * Recorded responses indexed by the normalized command.
+   */
+  private final Map<List<String>, RecordedResponses> index;
+  /**
+   * Flag to denote if a replayed execution takes as long as the recorded one did.
+   */
+  private final boolean latencySimulated;
+  /**
+   * Flag to denote if commands without a recorded response fail instead of being executed.
+   */
+  private final boolean strict;
+
+  /**
+   * Constructor used to initialize an ExecutionReplayer object from a builder.
+   *
+   * @param index             Recorded responses indexed by the normalized command.
+   * @param latencySimulated  true if a replayed execution takes as long as the recorded one did,
+   *                          else false.
+   * @param strict            true if commands without a recorded response fail, false if they
+   *                          are executed.
+   */
+  private ExecutionReplayer(
+      Map<List<String>, RecordedResponses> index,
+      boolean latencySimulated,
+      boolean strict
+  ) {
+    this.index = index;
+    this.latencySimulated = latencySimulated;
+    this.strict = strict;
+  }
+
+  /**
+   * Creates a builder for a replayer serving the responses recorded in the journal segments in
+   * the specified directory.
+   *
+   * @param directory Directory holding the journal segments.
+   * @return          The builder.
+   */
+  public static Builder builder(Path directory) {
+    return new Builder(
+        Objects.requireNonNull(
+            directory,
+            () -> I18nUtility.getFormattedString(
+                "CommandLineUtility.input.validation.nonNull",
+                "Path"
+            )
+        )
+    );
+  }
+
+  /**
+   * Retrieves the next recorded response of the specified command.
+   *
+   * @param splitCommand  Command and its arguments.
+   * @return              The recorded response, or an empty optional if the command wasn't
+   *                      recorded and the replayer isn't strict.
+   * @throws IOException  Thrown if the command wasn't recorded and the replayer is strict.
+   */
+  public Optional<Response> replay(String[] splitCommand) throws IOException {
+    Objects.requireNonNull(
+        splitCommand,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Command"
+        )
+    );
+    RecordedResponses recordedResponses = index.get(normalize(splitCommand));
+    if (recordedResponses != null) {
+      return Optional.of(recordedResponses.next());
+    }
+    if (strict) {
+      throw new IOException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.exception.notRecorded",
+              Arrays.toString(splitCommand)
+          )
+      );
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Checks if a replayed execution takes as long as the recorded one did.
+   *
+   * @return true if the recorded latencies are simulated, else false.
+   */
+  public boolean isLatencySimulated() {
+    return latencySimulated;
+  }
+
+  /**
+   * Checks if commands without a recorded response fail instead of being executed.
+   *
+   * @return true if unrecorded commands fail, else false.
+   */
+  public boolean isStrict() {
+    return strict;
+  }
+
+  /**
+   * Retrieves the number of distinct commands recorded.
+   *
+   * @return Number of distinct commands recorded.
+   */
+  public int getRecordedCommandCount() {
+    return index.size();
+  }
+
+  /**
+   * Normalizes a command into the key it is indexed by, replacing its executable by its file
+   * name.
+   *
+   * @param splitCommand  Command and its arguments.
+   * @return              The normalized command.
+   */
+  private static List<String> normalize(String[] splitCommand) {
+    String[] normalizedCommand = splitCommand.clone();
+    if (normalizedCommand.length > 0) {
+      String executable = normalizedCommand[0];
+      normalizedCommand[0] = executable.substring(
+          Math.max(executable.lastIndexOf('/'), executable.lastIndexOf('\\')) + 1
+      );
+    }
+    return Arrays.asList(normalizedCommand);
+  }
+
+  /**
+   * Responses recorded for a command, served in turn.
+   */
+  private static final class RecordedResponses {
+
+    /**
+     * Responses in the order they were recorded.
+     */
+    private final Response[] responses;
+    /**
+     * Number of responses served so far.
+     */
+    private final AtomicLong servedCount;
+
+    /**
+     * Constructor used to initialize a RecordedResponses object.
+     *
+     * @param responses Responses in the order they were recorded.
+     */
+    private RecordedResponses(List<Response> responses) {
+      this.responses = responses.toArray(new Response[0]);
+      this.servedCount = new AtomicLong();
+    }
+
+    /**
+     * Retrieves the next response to serve.
+     *
+     * @return The next response.
+     */
+    private Response next() {
+      return responses[(int) (servedCount.getAndIncrement() % responses.length)];
+    }
+  }
+
+  /**
+   * Builds execution replayers.
+   */
+  public static final class Builder {
+
+    /**
+     * Directory holding the journal segments.
+     */
+    private final Path directory;
+    /**
+     * Flag to denote if a replayed execution takes as long as the recorded one did.
+     */
+    private boolean latencySimulated;
+    /**
+     * Flag to denote if commands without a recorded response fail instead of being executed.
+     */
+    private boolean strict;
+
+    /**
+     * Constructor used to initialize a Builder object. By default, replayed executions complete
+     * at once and unrecorded commands are executed.
+     *
+     * @param directory Directory holding the journal segments.
+     */
+    private Builder(Path directory) {
+      this.directory = directory;
+    }
+
+    /**
+     * Sets if a replayed execution takes as long as the recorded one did. The recorded duration
+     * then counts towards the time out of the replayed execution.
+     *
+     * @param latencySimulated  true to simulate the recorded latencies, else false.
+     * @return                  This builder.
+     */
+    public Builder setLatencySimulated(boolean latencySimulated) {
+      this.latencySimulated = latencySimulated;
+      return this;
+    }
+
+    /**
+     * Sets if commands without a recorded response fail instead of being executed.
+     *
+     * @param strict  true to fail unrecorded commands, false to execute them.
+     * @return        This builder.
+     */
+    public Builder setStrict(boolean strict) {
+      this.strict = strict;
+      return this;
+    }
+
+    /**
+     * Reads the journal segments and indexes the recorded responses.
+     *
+     * @return              The built replayer.
+     * @throws IOException  Thrown if the journal segments can't be read.
+     */
+    public ExecutionReplayer build() throws IOException {
+      Map<List<String>, List<Response>> responsesByCommand = new HashMap<>();
+      try (JournalReader journalReader = new JournalReader(directory)) {
+        Optional<JournalEntry> entry;
+        while ((entry = journalReader.read()).isPresent()) {
+          responsesByCommand.computeIfAbsent(
+              normalize(entry.get().getSplitCommand()),
+              command -> new ArrayList<>()
+          ).add(entry.get().getResponse());
+        }
+      }
+      Map<List<String>, RecordedResponses> index = new HashMap<>(
+          (int) (responsesByCommand.size() / 0.75f) + 1
+      );
+      responsesByCommand.forEach(
+          (command, responses) -> index.put(command, new RecordedResponses(responses))
+      );
+      return new ExecutionReplayer(index, latencySimulated, strict);
+    }
+  }
+}
@@ -0,0 +1,450 @@
+package org.padaiyal.utilities.commandline;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.padaiyal.utilities.I18nUtility;
+import org.padaiyal.utilities.commandline.abstractions.ExecutionPriority;
+
+/**
+ * Admits command executions as per their priority class. Each class has its own bounded queue
+ * and a share of the overall concurrency it may use. Whenever a slot frees up, it is handed to
+ * the oldest execution of the highest priority class which is within its share. Queued
+ * executions whose deadline has passed are dropped instead of being admitted.
+ */
+public final class ExecutionScheduler {
+
+  /**
+   * Maximum number of executions running at once.
+   */
+  private final int concurrency;
+  /**
+   * Maximum number of executions of each class running at once, indexed by ordinal.
+   */
+  private final int[] classConcurrencies;
+  /**
+   * Maximum number of queued executions of each class, indexed by ordinal.
+   */
+  private final int[] queueCapacities;
+  /**
+   * Queued executions of each class, indexed by ordinal.
+   */
+  private final ArrayDeque<Waiter>[] queues;
+  /**
+   * Number of running executions of each class, indexed by ordinal.
+   */
+  private final int[] runningCounts;
+  /**
+   * Used to guard the queues and running counts.
+   */
+  private final ReentrantLock lock;
+  /**
+   * Number of executions running.
+   */
+  private int runningCount;
+  /**
+   * Number of executions of each class admitted.
+   */
+  private final LongAdder[] admittedCounts;
+  /**
+   * Number of executions of each class rejected as the queue was full.
+   */
+  private final LongAdder[] rejectedCounts;
+  /**
+   * Number of executions of each class dropped as their deadline passed while queued.
+   */
+  private final LongAdder[] expiredCounts;
+  /**
+   * Total time executions of each class spent queued in nanoseconds.
+   */
+  private final LongAdder[] totalWaitNanos;
+  /**
+   * Maximum time an execution of each class spent queued in nanoseconds.
+   */
+  private final LongAccumulator[] maximumWaitNanos;
+
+  /**
+   * Constructor used to initialize an ExecutionScheduler object.
+   *
+   * @param concurrency         Maximum number of executions running at once.
+   * @param classConcurrencies  Maximum number of executions of each class running at once.
+   *                            Classes which aren't specified may use the whole concurrency.
+   * @param queueCapacities     Maximum number of queued executions of each class. Classes which
+   *                            aren't specified have an unbounded queue.
+   */
+  @SuppressWarnings("unchecked")
+  public ExecutionScheduler(
+      int concurrency,
+      Map<ExecutionPriority, Integer> classConcurrencies,
+      Map<ExecutionPriority, Integer> queueCapacities
+  ) {
+    validatePositive("Concurrency", concurrency);
+    Objects.requireNonNull(
+        classConcurrencies,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Class concurrencies"
+        )
+    );
+    Objects.requireNonNull(
+        queueCapacities,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Queue capacities"
+        )
+    );
+    ExecutionPriority[] priorities = ExecutionPriority.values();
+    this.concurrency = concurrency;
+    this.classConcurrencies = new int[priorities.length];
+    this.queueCapacities = new int[priorities.length];
+    this.queues = (ArrayDeque<Waiter>[]) new ArrayDeque<?>[priorities.length];
+    this.runningCounts = new int[priorities.length];
+    this.lock = new ReentrantLock();
+    this.admittedCounts = new LongAdder[priorities.length];
+    this.rejectedCounts = new LongAdder[priorities.length];
+    this.expiredCounts = new LongAdder[priorities.length];
+    this.totalWaitNanos = new LongAdder[priorities.length];
+    this.maximumWaitNanos = new LongAccumulator[priorities.length];
+    for (ExecutionPriority priority : priorities) {
+      int index = priority.ordinal();
+      this.classConcurrencies[index] = Math.min(
+          classConcurrencies.getOrDefault(priority, concurrency),
+          concurrency
+      );
+      this.queueCapacities[index] = queueCapacities.getOrDefault(priority, Integer.MAX_VALUE);
+      validatePositive(priority + " concurrency", this.classConcurrencies[index]);
+      validatePositive(priority + " queue capacity", this.queueCapacities[index]);
+      this.queues[index] = new ArrayDeque<>();
+      this.admittedCounts[index] = new LongAdder();
+      this.rejectedCounts[index] = new LongAdder();
+      this.expiredCounts[index] = new LongAdder();
+      this.totalWaitNanos[index] = new LongAdder();
+      this.maximumWaitNanos[index] = new LongAccumulator(Math::max, 0);
+    }
+  }
+
+  /**
+   * Constructor used to initialize an ExecutionScheduler object in which every class may use the
+   * whole concurrency and has an unbounded queue.
+   *
+   * @param concurrency Maximum number of executions running at once.
+   */
+  public ExecutionScheduler(int concurrency) {
+    this(
+        concurrency,
+        new EnumMap<>(ExecutionPriority.class),
+        new EnumMap<>(ExecutionPriority.class)
+    );
+  }
+
+  /**
+   * Waits until an execution of the specified class is admitted. Every admitted execution must
+   * be released once it completes.
+   *
+   * @param priority                    Priority class of the execution.
+   * @param deadlineNanoTime            Value of System.nanoTime() by which the execution must
+   *                                    complete.
+   * @return                            Time spent queued in nanoseconds, 0 if the execution was
+   *                                    admitted immediately.
+   * @throws InterruptedException       Thrown if waiting to be admitted is interrupted.
+   * @throws TimeoutException           Thrown if the deadline passes before the execution is
+   *                                    admitted.
+   * @throws RejectedExecutionException Thrown if the queue of the class is full.
+   */
+  long acquire(ExecutionPriority priority, long deadlineNanoTime)
+      throws InterruptedException, TimeoutException {
+    final int index = priority.ordinal();
+    lock.lock();
+    try {
+      // Queued executions of the class, and admissible ones of higher classes, go first.
+      dispatch();
+      if (queues[index].isEmpty() && isAdmissible(index)) {
+        admit(index);
+        admittedCounts[index].increment();
+        return 0;
+      }
+      if (queues[index].size() >= queueCapacities[index]) {
+        rejectedCounts[index].increment();
+        throw new RejectedExecutionException(
+            I18nUtility.getFormattedString(
+                "CommandLineUtility.exception.queueFull",
+                priority,
+                queueCapacities[index]
+            )
+        );
+      }
+
+      final long queuedNanoTime = System.nanoTime();
+      Waiter waiter = new Waiter(lock.newCondition(), deadlineNanoTime);
+      queues[index].addLast(waiter);
+      while (!waiter.admitted) {
+        long remainingNanos = deadlineNanoTime - System.nanoTime();
+        if (waiter.expired || remainingNanos <= 0) {
+          if (!waiter.expired) {
+            queues[index].remove(waiter);
+            expiredCounts[index].increment();
+          }
+          throw new TimeoutException(
+              I18nUtility.getFormattedString(
+                  "CommandLineUtility.exception.queueTimeout",
+                  priority,
+                  Duration.ofNanos(System.nanoTime() - queuedNanoTime).toMillis()
+              )
+          );
+        }
+        try {
+          waiter.condition.awaitNanos(remainingNanos);
+        } catch (InterruptedException e) {
+          if (waiter.admitted) {
+            release(priority);
+          } else {
+            queues[index].remove(waiter);
+          }
+          throw e;
+        }
+      }
+      long waitNanos = Math.max(System.nanoTime() - queuedNanoTime, 1);
+      admittedCounts[index].increment();
+      totalWaitNanos[index].add(waitNanos);
+      maximumWaitNanos[index].accumulate(waitNanos);
+      return waitNanos;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Admits an execution of the specified class only if it can run right away.
+   *
+   * @param priority  Priority class of the execution.
+   * @return          true if the execution was admitted, else false.
+   */
+  boolean tryAcquire(ExecutionPriority priority) {
+    final int index = priority.ordinal();
+    lock.lock();
+    try {
+      dispatch();
+      if (queues[index].isEmpty() && isAdmissible(index)) {
+        admit(index);
+        admittedCounts[index].increment();
+        return true;
+      }
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Releases the slot of a completed execution of the specified class, admitting the next queued
+   * execution if any.
+   *
+   * @param priority Priority class of the completed execution.
+   */
+  void release(ExecutionPriority priority) {
+    lock.lock();
+    try {
+      runningCount--;
+      runningCounts[priority.ordinal()]--;
+      dispatch();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Retrieves the maximum number of executions running at once.
+   *
+   * @return Maximum number of executions running at once.
+   */
+  public int getConcurrency() {
+    return concurrency;
+  }
+
+  /**
+   * Retrieves the number of queued executions of the specified class.
+   *
+   * @param priority  Priority class.
+   * @return          Number of queued executions.
+   */
+  public int getQueueDepth(ExecutionPriority priority) {
+    lock.lock();
+    try {
+      return queues[priority.ordinal()].size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Retrieves the number of running executions of the specified class.
+   *
+   * @param priority  Priority class.
+   * @return          Number of running executions.
+   */
+  public int getRunningCount(ExecutionPriority priority) {
+    lock.lock();
+    try {
+      return runningCounts[priority.ordinal()];
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Retrieves the number of admitted executions of the specified class.
+   *
+   * @param priority  Priority class.
+   * @return          Number of admitted executions.
+   */
+  public long getAdmittedCount(ExecutionPriority priority) {
+    return admittedCounts[priority.ordinal()].sum();
+  }
+
+  /**
+   * Retrieves the number of executions of the specified class rejected as the queue was full.
+   *
+   * @param priority  Priority class.
+   * @return          Number of rejected executions.
+   */
+  public long getRejectedCount(ExecutionPriority priority) {
+    return rejectedCounts[priority.ordinal()].sum();
+  }
+
+  /**
+   * Retrieves the number of executions of the specified class whose deadline passed while they
+   * were queued.
+   *
+   * @param priority  Priority class.
+   * @return          Number of expired executions.
+   */
+  public long getExpiredCount(ExecutionPriority priority) {
+    return expiredCounts[priority.ordinal()].sum();
+  }
+
+  /**
+   * Retrieves the average time the admitted executions of the specified class spent queued.
+   *
+   * @param priority  Priority class.
+   * @return          Average time spent queued.
+   */
+  public Duration getAverageWaitTime(ExecutionPriority priority) {
+    long admittedCount = getAdmittedCount(priority);
+    return (admittedCount == 0)
+        ? Duration.ZERO
+        : Duration.ofNanos(totalWaitNanos[priority.ordinal()].sum() / admittedCount);
+  }
+
+  /**
+   * Retrieves the maximum time an admitted execution of the specified class spent queued.
+   *
+   * @param priority  Priority class.
+   * @return          Maximum time spent queued.
+   */
+  public Duration getMaximumWaitTime(ExecutionPriority priority) {
+    return Duration.ofNanos(maximumWaitNanos[priority.ordinal()].get());
+  }
+
+  /**
+   * Admits queued executions, from the highest priority class to the lowest, while slots are
+   * available. Executions whose deadline has passed are dropped. Must be called with the lock
+   * held.
+   */
+  private void dispatch() {
+    for (int index = 0; index < queues.length && runningCount < concurrency; index++) {
+      while (!queues[index].isEmpty() && isAdmissible(index)) {
+        Waiter waiter = queues[index].pollFirst();
+        if (waiter.deadlineNanoTime - System.nanoTime() <= 0) {
+          // The execution would time out anyway, hence its slot is handed to the next one.
+          waiter.expired = true;
+          expiredCounts[index].increment();
+        } else {
+          admit(index);
+          waiter.admitted = true;
+        }
+        waiter.condition.signal();
+      }
+    }
+  }
+
+  /**
+   * Checks if an execution of the specified class can run right away. Must be called with the
+   * lock held.
+   *
+   * @param index Ordinal of the priority class.
+   * @return      true if an execution can run right away, else false.
+   */
+  private boolean isAdmissible(int index) {
+    return runningCount < concurrency && runningCounts[index] < classConcurrencies[index];
+  }
+
+  /**
+   * Occupies a slot for an execution of the specified class. Must be called with the lock held.
+   *
+   * @param index Ordinal of the priority class.
+   */
+  private void admit(int index) {
+    runningCount++;
+    runningCounts[index]++;
+  }
+
+  /**
+   * Validates that the specified value is positive.
+   *
+   * @param name  Name of the value.
+   * @param value Value to validate.
+   */
+  private static void validatePositive(String name, int value) {
+    if (value < 1) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.positive",
+              name,
+              value
+          )
+      );
+    }
+  }
+
+  /**
+   * Represents an execution waiting to be admitted.
+   */
+  private static final class Waiter {
+
+    /**
+     * Condition signalled once the execution is admitted or dropped.
+     */
+    private final Condition condition;
+    /**
+     * Value of System.nanoTime() by which the execution must complete.
+     */
+    private final long deadlineNanoTime;
+    /**
+     * Indicates if the execution has been admitted.
+     */
+    private boolean admitted;
+    /**
+     * Indicates if the execution has been dropped as its deadline passed.
+     */
+    private boolean expired;
+
+    /**
+     * Constructor used to initialize a Waiter object.
+     *
+     * @param condition         Condition signalled once the execution is admitted or dropped.
+     * @param deadlineNanoTime  Value of System.nanoTime() by which the execution must complete.
+     */
+    private Waiter(Condition condition, long deadlineNanoTime) {
+      this.condition = condition;
+      this.deadlineNanoTime = deadlineNanoTime;
+    }
+  }
+}
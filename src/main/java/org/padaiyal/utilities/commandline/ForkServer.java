@@ -0,0 +1,577 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Small helper process which spawns processes on behalf of a ForkServerProcessLauncher, so that a
+ * JVM with a large heap doesn't have to fork itself. Spawn requests are read from the standard
+ * input of this process, and the outputs and exit codes of the spawned processes are relayed via
+ * its standard output.
+ *
+ * <p>Both directions are flow controlled per process, so that a process which doesn't read its
+ * standard input, or whose outputs aren't read, only stalls itself. Data relayed to the standard
+ * input of a process is acknowledged once written, and the outputs of a process are only relayed
+ * up to the credit granted by the launcher as it consumes them.
+ *
+ * <p>This class is executed in a separate JVM with a minimal classpath, hence it must not depend
+ * on anything apart from the JDK and the classes of this library.
+ */
+public final class ForkServer {
+
+  /**
+   * Request to spawn a process.
+   */
+  static final byte REQUEST_SPAWN = 1;
+  /**
+   * Request to write data to the standard input of a spawned process.
+   */
+  static final byte REQUEST_STDIN = 2;
+  /**
+   * Request to close the standard input of a spawned process.
+   */
+  static final byte REQUEST_CLOSE_STDIN = 3;
+  /**
+   * Request to terminate the process tree of a spawned process.
+   */
+  static final byte REQUEST_DESTROY = 4;
+  /**
+   * Request to grant credit to relay more data from one of the standard outputs of a spawned
+   * process.
+   */
+  static final byte REQUEST_OUTPUT_CREDIT = 5;
+  /**
+   * Event denoting that a process has been spawned.
+   */
+  static final byte EVENT_SPAWNED = 1;
+  /**
+   * Event denoting that a process could not be spawned.
+   */
+  static final byte EVENT_SPAWN_FAILED = 2;
+  /**
+   * Event carrying data written by a spawned process to one of its standard outputs.
+   */
+  static final byte EVENT_OUTPUT = 3;
+  /**
+   * Event denoting the end of one of the standard outputs of a spawned process.
+   */
+  static final byte EVENT_END_OF_OUTPUT = 4;
+  /**
+   * Event denoting that a spawned process has exited.
+   */
+  static final byte EVENT_EXITED = 5;
+  /**
+   * Event acknowledging that data relayed to the standard input of a spawned process has been
+   * written, or dropped as the process no longer reads it.
+   */
+  static final byte EVENT_STDIN_WRITTEN = 6;
+  /**
+   * Maximum number of bytes relayed to or from a standard stream of a spawned process, and yet to
+   * be acknowledged or credited.
+   */
+  static final int RELAY_WINDOW_SIZE = 64 * 1024;
+  /**
+   * Credit of an output which isn't flow controlled.
+   */
+  private static final int unlimitedCredit = Integer.MAX_VALUE;
+  /**
+   * Marks the end of the data to write to the standard input of a spawned process.
+   */
+  private static final byte[] END_OF_INPUT = new byte[0];
+  /**
+   * Size of buffer to use to relay the outputs of spawned processes.
+   */
+  private static final int relayBufferSize = 8192;
+
+  /**
+   * Stream from which the requests are read.
+   */
+  private final DataInputStream requests;
+  /**
+   * Stream to which the events are written.
+   */
+  private final DataOutputStream events;
+  /**
+   * Used to store the running processes against their execution IDs.
+   */
+  private final Map<Integer, SpawnedProcess> processes;
+
+  /**
+   * Constructor used to initialize a ForkServer object.
+   *
+   * @param requests  Stream from which the requests are read.
+   * @param events    Stream to which the events are written.
+   */
+  ForkServer(InputStream requests, OutputStream events) {
+    this.requests = new DataInputStream(new BufferedInputStream(requests));
+    this.events = new DataOutputStream(new BufferedOutputStream(events));
+    this.processes = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Entry point of the fork server process.
+   *
+   * @param args          Command line arguments. Unused.
+   * @throws IOException  Thrown if there is an issue reading requests or writing events.
+   */
+  public static void main(String[] args) throws IOException {
+    OutputStream events = new FileOutputStream(FileDescriptor.out);
+    // Prevent stray writes to System.out from corrupting the events.
+    System.setOut(System.err);
+    new ForkServer(System.in, events).serve();
+  }
+
+  /**
+   * Serves requests until the request stream is closed, after which all the spawned process
+   * trees are terminated.
+   *
+   * @throws IOException Thrown if there is an issue reading requests or writing events.
+   */
+  void serve() throws IOException {
+    try {
+      while (true) {
+        byte requestType;
+        try {
+          requestType = requests.readByte();
+        } catch (EOFException e) {
+          break;
+        }
+        int executionId = requests.readInt();
+        switch (requestType) {
+          case REQUEST_SPAWN -> spawn(executionId);
+          case REQUEST_STDIN -> {
+            byte[] data = new byte[requests.readInt()];
+            requests.readFully(data);
+            SpawnedProcess spawnedProcess = processes.get(executionId);
+            if (spawnedProcess != null) {
+              spawnedProcess.stdinChunks.add(data);
+            } else {
+              // The process has exited, hence the data is dropped.
+              sendStdinWritten(executionId, data.length);
+            }
+          }
+          case REQUEST_CLOSE_STDIN -> {
+            SpawnedProcess spawnedProcess = processes.get(executionId);
+            if (spawnedProcess != null) {
+              spawnedProcess.stdinChunks.add(END_OF_INPUT);
+            }
+          }
+          case REQUEST_DESTROY -> {
+            boolean forcibly = requests.readBoolean();
+            SpawnedProcess spawnedProcess = processes.get(executionId);
+            if (spawnedProcess != null) {
+              // Whatever the process has written is relayed, so that its exit can be reported.
+              spawnedProcess.grantOutputCredit(StdType.STDOUT, unlimitedCredit);
+              spawnedProcess.grantOutputCredit(StdType.STDERR, unlimitedCredit);
+              destroy(spawnedProcess.process, forcibly);
+            }
+          }
+          case REQUEST_OUTPUT_CREDIT -> {
+            StdType stdType = StdType.values()[requests.readByte()];
+            int credit = requests.readInt();
+            SpawnedProcess spawnedProcess = processes.get(executionId);
+            if (spawnedProcess != null) {
+              spawnedProcess.grantOutputCredit(stdType, credit);
+            }
+          }
+          default -> throw new IOException("Unknown request type - " + requestType);
+        }
+      }
+    } finally {
+      processes.values()
+          .forEach(spawnedProcess -> destroy(spawnedProcess.process, true));
+    }
+  }
+
+  /**
+   * Reads a spawn request and spawns the process.
+   *
+   * @param executionId   ID of the execution.
+   * @throws IOException  Thrown if there is an issue reading the request or writing events.
+   */
+  private void spawn(int executionId) throws IOException {
+    String[] command = readStrings(requests);
+    String[] environment = readStrings(requests);
+    String workingDirectory = requests.readBoolean() ? readString(requests) : null;
+    ProcessBuilder processBuilder = new ProcessBuilder(command)
+        .redirectInput(readRedirect(requests))
+        .redirectOutput(readRedirect(requests))
+        .redirectError(readRedirect(requests))
+        .redirectErrorStream(requests.readBoolean());
+    boolean isStdoutFlowControlled = requests.readBoolean();
+    if (workingDirectory != null) {
+      processBuilder.directory(new File(workingDirectory));
+    }
+    if (environment != null) {
+      Map<String, String> processEnvironment = processBuilder.environment();
+      processEnvironment.clear();
+      for (String environmentVariable : environment) {
+        int separatorIndex = environmentVariable.indexOf('=');
+        processEnvironment.put(
+            environmentVariable.substring(0, separatorIndex),
+            environmentVariable.substring(separatorIndex + 1)
+        );
+      }
+    }
+
+    Process process;
+    try {
+      process = processBuilder.start();
+    } catch (IOException e) {
+      synchronized (events) {
+        events.writeByte(EVENT_SPAWN_FAILED);
+        events.writeInt(executionId);
+        writeString(events, String.valueOf(e.getMessage()));
+        events.flush();
+      }
+      return;
+    }
+    SpawnedProcess spawnedProcess = new SpawnedProcess(executionId, process);
+    if (!isStdoutFlowControlled) {
+      spawnedProcess.grantOutputCredit(StdType.STDOUT, unlimitedCredit);
+    }
+    processes.put(executionId, spawnedProcess);
+    synchronized (events) {
+      events.writeByte(EVENT_SPAWNED);
+      events.writeInt(executionId);
+      events.writeLong(process.pid());
+      events.flush();
+    }
+
+    Thread stdoutRelay = startDaemonThread(
+        () -> relayOutput(spawnedProcess, StdType.STDOUT, process.getInputStream())
+    );
+    Thread stderrRelay = startDaemonThread(
+        () -> relayOutput(spawnedProcess, StdType.STDERR, process.getErrorStream())
+    );
+    startDaemonThread(() -> writeStdin(spawnedProcess));
+    startDaemonThread(() -> {
+      try {
+        // Wait for the outputs to be relayed completely before reporting the exit.
+        stdoutRelay.join();
+        stderrRelay.join();
+        int exitCode = process.waitFor();
+        processes.remove(executionId);
+        spawnedProcess.stdinChunks.add(END_OF_INPUT);
+        synchronized (events) {
+          events.writeByte(EVENT_EXITED);
+          events.writeInt(executionId);
+          events.writeInt(exitCode);
+          events.flush();
+        }
+      } catch (InterruptedException | IOException e) {
+        // The fork server is shutting down, hence there is no one to report the exit to.
+      }
+    });
+  }
+
+  /**
+   * Writes the data relayed to the standard input of a spawned process, acknowledging each chunk
+   * once written, until the standard input is closed or the process exits.
+   *
+   * @param spawnedProcess Process to write to.
+   */
+  private void writeStdin(SpawnedProcess spawnedProcess) {
+    OutputStream stdin = spawnedProcess.process.getOutputStream();
+    boolean isWritable = true;
+    try {
+      byte[] chunk;
+      while ((chunk = spawnedProcess.stdinChunks.take()) != END_OF_INPUT) {
+        if (isWritable) {
+          try {
+            stdin.write(chunk);
+            stdin.flush();
+          } catch (IOException e) {
+            // The process has closed its standard input, hence the rest of the data is dropped.
+            isWritable = false;
+          }
+        }
+        sendStdinWritten(spawnedProcess.executionId, chunk.length);
+      }
+    } catch (InterruptedException | IOException e) {
+      // The fork server is shutting down.
+    }
+    try {
+      stdin.close();
+    } catch (IOException e) {
+      // The process has closed its standard input.
+    }
+  }
+
+  /**
+   * Acknowledges that data relayed to the standard input of a spawned process has been handled.
+   *
+   * @param executionId   ID of the execution.
+   * @param byteCount     Number of bytes handled.
+   * @throws IOException  Thrown if there is an issue writing the event.
+   */
+  private void sendStdinWritten(int executionId, int byteCount) throws IOException {
+    synchronized (events) {
+      events.writeByte(EVENT_STDIN_WRITTEN);
+      events.writeInt(executionId);
+      events.writeInt(byteCount);
+      events.flush();
+    }
+  }
+
+  /**
+   * Relays the data from an output stream of a spawned process as events.
+   *
+   * @param spawnedProcess  The spawned process.
+   * @param stdType         Type of the output stream.
+   * @param outputStream    Output stream of the spawned process.
+   */
+  private void relayOutput(SpawnedProcess spawnedProcess, StdType stdType,
+      InputStream outputStream) {
+    int executionId = spawnedProcess.executionId;
+    byte[] buffer = new byte[relayBufferSize];
+    int bytesRead;
+    try (outputStream) {
+      while ((bytesRead = outputStream.read(
+          buffer,
+          0,
+          Math.min(buffer.length, spawnedProcess.awaitOutputCredit(stdType))
+      )) != -1) {
+        spawnedProcess.consumeOutputCredit(stdType, bytesRead);
+        synchronized (events) {
+          events.writeByte(EVENT_OUTPUT);
+          events.writeInt(executionId);
+          events.writeByte(stdType.ordinal());
+          events.writeInt(bytesRead);
+          events.write(buffer, 0, bytesRead);
+          events.flush();
+        }
+      }
+    } catch (InterruptedException | IOException e) {
+      // The output stream of the process has been closed.
+    }
+    try {
+      synchronized (events) {
+        events.writeByte(EVENT_END_OF_OUTPUT);
+        events.writeInt(executionId);
+        events.writeByte(stdType.ordinal());
+        events.flush();
+      }
+    } catch (IOException e) {
+      // The fork server is shutting down, hence there is no one to report the end of output to.
+    }
+  }
+
+  /**
+   * Terminates the specified process along with its descendants.
+   *
+   * @param process   Process to terminate.
+   * @param forcibly  true if the processes are to be terminated forcibly, else false.
+   */
+  private static void destroy(Process process, boolean forcibly) {
+    process.descendants()
+        .forEach(forcibly ? ProcessHandle::destroyForcibly : ProcessHandle::destroy);
+    if (forcibly) {
+      process.destroyForcibly();
+    } else {
+      process.destroy();
+    }
+  }
+
+  /**
+   * Starts a daemon thread executing the specified runnable.
+   *
+   * @param runnable  Runnable to execute.
+   * @return          The started thread.
+   */
+  private static Thread startDaemonThread(Runnable runnable) {
+    Thread thread = new Thread(runnable);
+    thread.setDaemon(true);
+    thread.start();
+    return thread;
+  }
+
+  /**
+   * Writes a string as its length followed by its UTF-8 bytes.
+   *
+   * @param outputStream  Stream to write to.
+   * @param string        String to write.
+   * @throws IOException  Thrown if there is an issue writing to the stream.
+   */
+  static void writeString(DataOutputStream outputStream, String string) throws IOException {
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    outputStream.writeInt(bytes.length);
+    outputStream.write(bytes);
+  }
+
+  /**
+   * Reads a string written by writeString().
+   *
+   * @param inputStream   Stream to read from.
+   * @return              The string read.
+   * @throws IOException  Thrown if there is an issue reading from the stream.
+   */
+  static String readString(DataInputStream inputStream) throws IOException {
+    byte[] bytes = new byte[inputStream.readInt()];
+    inputStream.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes a nullable array of strings as its length (-1 if null) followed by its elements.
+   *
+   * @param outputStream  Stream to write to.
+   * @param strings       Strings to write.
+   * @throws IOException  Thrown if there is an issue writing to the stream.
+   */
+  static void writeStrings(DataOutputStream outputStream, String[] strings) throws IOException {
+    if (strings == null) {
+      outputStream.writeInt(-1);
+      return;
+    }
+    outputStream.writeInt(strings.length);
+    for (String string : strings) {
+      writeString(outputStream, string);
+    }
+  }
+
+  /**
+   * Reads a nullable array of strings written by writeStrings().
+   *
+   * @param inputStream   Stream to read from.
+   * @return              The strings read.
+   * @throws IOException  Thrown if there is an issue reading from the stream.
+   */
+  static String[] readStrings(DataInputStream inputStream) throws IOException {
+    int length = inputStream.readInt();
+    if (length == -1) {
+      return null;
+    }
+    String[] strings = new String[length];
+    for (int index = 0; index < length; index++) {
+      strings[index] = readString(inputStream);
+    }
+    return strings;
+  }
+
+  /**
+   * Writes a redirect as its type followed by its file, if any.
+   *
+   * @param outputStream  Stream to write to.
+   * @param redirect      Redirect to write.
+   * @throws IOException  Thrown if there is an issue writing to the stream.
+   */
+  static void writeRedirect(DataOutputStream outputStream, Redirect redirect)
+      throws IOException {
+    outputStream.writeByte(redirect.type().ordinal());
+    if (redirect.file() != null) {
+      writeString(outputStream, redirect.file().getPath());
+    }
+  }
+
+  /**
+   * Reads a redirect written by writeRedirect().
+   *
+   * @param inputStream   Stream to read from.
+   * @return              The redirect read.
+   * @throws IOException  Thrown if there is an issue reading from the stream.
+   */
+  static Redirect readRedirect(DataInputStream inputStream) throws IOException {
+    return switch (Redirect.Type.values()[inputStream.readByte()]) {
+      case PIPE -> Redirect.PIPE;
+      case INHERIT -> Redirect.INHERIT;
+      case READ -> Redirect.from(new File(readString(inputStream)));
+      case WRITE -> Redirect.to(new File(readString(inputStream)));
+      case APPEND -> Redirect.appendTo(new File(readString(inputStream)));
+    };
+  }
+
+  /**
+   * A process spawned by this fork server, along with the state needed to relay its streams.
+   */
+  private static final class SpawnedProcess {
+
+    /**
+     * ID of the execution.
+     */
+    private final int executionId;
+    /**
+     * The spawned process.
+     */
+    private final Process process;
+    /**
+     * Chunks of data yet to be written to the standard input of the process.
+     */
+    private final LinkedBlockingQueue<byte[]> stdinChunks;
+    /**
+     * Number of bytes which may still be relayed from each of the outputs of the process, indexed
+     * by the ordinal of their type.
+     */
+    private final int[] outputCredits;
+
+    /**
+     * Constructor used to initialize a SpawnedProcess object.
+     *
+     * @param executionId ID of the execution.
+     * @param process     The spawned process.
+     */
+    private SpawnedProcess(int executionId, Process process) {
+      this.executionId = executionId;
+      this.process = process;
+      this.stdinChunks = new LinkedBlockingQueue<>();
+      this.outputCredits = new int[StdType.values().length];
+      Arrays.fill(outputCredits, RELAY_WINDOW_SIZE);
+    }
+
+    /**
+     * Waits until some data may be relayed from the specified output.
+     *
+     * @param stdType               Type of the output.
+     * @return                      Number of bytes which may be relayed.
+     * @throws InterruptedException Thrown if the wait is interrupted.
+     */
+    private synchronized int awaitOutputCredit(StdType stdType) throws InterruptedException {
+      while (outputCredits[stdType.ordinal()] == 0) {
+        wait();
+      }
+      return outputCredits[stdType.ordinal()];
+    }
+
+    /**
+     * Deducts the data relayed from the credit of the specified output.
+     *
+     * @param stdType   Type of the output.
+     * @param byteCount Number of bytes relayed.
+     */
+    private synchronized void consumeOutputCredit(StdType stdType, int byteCount) {
+      if (outputCredits[stdType.ordinal()] != unlimitedCredit) {
+        outputCredits[stdType.ordinal()] -= byteCount;
+      }
+    }
+
+    /**
+     * Grants more credit to the specified output.
+     *
+     * @param stdType Type of the output.
+     * @param credit  Number of bytes which may additionally be relayed, or unlimitedCredit to stop
+     *                flow controlling the output.
+     */
+    private synchronized void grantOutputCredit(StdType stdType, int credit) {
+      int ordinal = stdType.ordinal();
+      boolean isUnlimited = credit == unlimitedCredit || outputCredits[ordinal] == unlimitedCredit;
+      outputCredits[ordinal] = isUnlimited ? unlimitedCredit : outputCredits[ordinal] + credit;
+      notifyAll();
+    }
+  }
+}
@@ -0,0 +1,809 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.lang.ProcessBuilder.Redirect;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+import org.padaiyal.utilities.PropertyUtility;
+import org.padaiyal.utilities.commandline.abstractions.LaunchRequest;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Spawns processes via a small fork server helper process, which is started once and reused.
+ * This avoids forking a JVM with a large heap for every process spawned. The standard streams and
+ * exit codes of the spawned processes are relayed by the fork server, so the processes returned
+ * behave like the ones spawned directly by a ProcessBuilder.
+ */
+public final class ForkServerProcessLauncher implements ProcessLauncher, Closeable {
+
+  /**
+   * Used to log information and errors for this class.
+   */
+  private static final Logger logger = LogManager.getLogger(ForkServerProcessLauncher.class);
+
+  static {
+    initializeDependantValues();
+  }
+
+  /**
+   * Used to store the processes spawned and yet to exit, against their execution IDs.
+   */
+  private final ConcurrentHashMap<Integer, RemoteProcess> remoteProcesses;
+  /**
+   * Used to generate execution IDs.
+   */
+  private final AtomicInteger executionIdGenerator;
+  /**
+   * Connection to the currently running fork server.
+   */
+  private HelperConnection helperConnection;
+  /**
+   * Flag to denote if this launcher has been closed.
+   */
+  private volatile boolean closed;
+
+  /**
+   * Constructor used to initialize a ForkServerProcessLauncher object. The fork server is
+   * started lazily when the first process is launched.
+   */
+  public ForkServerProcessLauncher() {
+    remoteProcesses = new ConcurrentHashMap<>();
+    executionIdGenerator = new AtomicInteger();
+  }
+
+  /**
+   * Initialize static variables needed for this utility.
+   */
+  public static void initializeDependantValues() {
+    try {
+      PropertyUtility.addPropertyFile(
+          ForkServerProcessLauncher.class,
+          ForkServerProcessLauncher.class.getSimpleName() + ".properties"
+      );
+
+      I18nUtility.addResourceBundle(
+          ForkServerProcessLauncher.class,
+          ForkServerProcessLauncher.class.getSimpleName(),
+          Locale.US
+      );
+    } catch (IOException e) {
+      logger.error(e);
+    }
+  }
+
+  /**
+   * Spawns a process via the fork server as per the specified request.
+   *
+   * @param launchRequest Arguments, environment, working directory and redirects of the process.
+   * @return              The spawned process.
+   * @throws IOException  Thrown if there is an issue spawning the process.
+   */
+  @Override
+  public Process launch(LaunchRequest launchRequest) throws IOException {
+    if (launchRequest.getStdinRedirect().type() == Redirect.Type.INHERIT) {
+      throw new IOException(
+          I18nUtility.getString("ForkServerProcessLauncher.error.inheritedStdinUnsupported")
+      );
+    }
+    // The standard output of the fork server carries its events, hence an inherited standard
+    // output is relayed and written to the standard output of this JVM instead.
+    Redirect stdoutRedirect = launchRequest.getOutputRedirect(StdType.STDOUT);
+    boolean isStdoutInherited = stdoutRedirect.type() == Redirect.Type.INHERIT;
+
+    HelperConnection connection = getHelperConnection();
+    RemoteProcess remoteProcess = new RemoteProcess(
+        executionIdGenerator.incrementAndGet(),
+        connection,
+        isStdoutInherited
+    );
+    remoteProcesses.put(remoteProcess.executionId, remoteProcess);
+    try {
+      synchronized (connection.requests) {
+        DataOutputStream requests = connection.requests;
+        requests.writeByte(ForkServer.REQUEST_SPAWN);
+        requests.writeInt(remoteProcess.executionId);
+        ForkServer.writeStrings(requests, launchRequest.getCommand().toArray(new String[0]));
+        ForkServer.writeStrings(requests, launchRequest.getEnvironment());
+        Path workingDirectory = launchRequest.getWorkingDirectory();
+        requests.writeBoolean(workingDirectory != null);
+        if (workingDirectory != null) {
+          ForkServer.writeString(requests, workingDirectory.toAbsolutePath().toString());
+        }
+        ForkServer.writeRedirect(requests, launchRequest.getStdinRedirect());
+        ForkServer.writeRedirect(requests, isStdoutInherited ? Redirect.PIPE : stdoutRedirect);
+        ForkServer.writeRedirect(requests, launchRequest.getOutputRedirect(StdType.STDERR));
+        requests.writeBoolean(launchRequest.isRedirectErrorStream());
+        // An inherited standard output is written out as it is relayed, hence it isn't flow
+        // controlled.
+        requests.writeBoolean(!isStdoutInherited);
+        requests.flush();
+      }
+      remoteProcess.spawnFuture.get();
+    } catch (IOException e) {
+      remoteProcesses.remove(remoteProcess.executionId);
+      throw e;
+    } catch (ExecutionException e) {
+      remoteProcesses.remove(remoteProcess.executionId);
+      throw new IOException(e.getCause().getMessage(), e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      remoteProcess.destroyForcibly();
+      throw new InterruptedIOException();
+    }
+    return remoteProcess;
+  }
+
+  /**
+   * Stops the fork server, which terminates the process trees of all the processes it spawned.
+   */
+  @Override
+  public void close() {
+    HelperConnection connection;
+    synchronized (this) {
+      closed = true;
+      connection = helperConnection;
+      helperConnection = null;
+    }
+    if (connection != null) {
+      try {
+        // Closing the request stream prompts the fork server to clean up and exit.
+        connection.requests.close();
+        connection.helperProcess.waitFor(
+            PropertyUtility.getTypedProperty(
+                Long.class,
+                "ForkServerProcessLauncher.helper.shutdownTimeout.milliseconds"
+            ),
+            TimeUnit.MILLISECONDS
+        );
+      } catch (IOException e) {
+        logger.warn(e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        connection.helperProcess.destroyForcibly();
+      }
+    }
+  }
+
+  /**
+   * Returns the connection to the running fork server, starting one if needed.
+   *
+   * @return              Connection to the running fork server.
+   * @throws IOException  Thrown if this launcher is closed or the fork server cannot be started.
+   */
+  private synchronized HelperConnection getHelperConnection() throws IOException {
+    if (closed) {
+      throw new IOException(I18nUtility.getString("ForkServerProcessLauncher.error.closed"));
+    }
+    if (helperConnection == null || !helperConnection.helperProcess.isAlive()) {
+      List<String> helperCommand = new ArrayList<>();
+      helperCommand.add(
+          Paths.get(System.getProperty("java.home"), "bin", "java").toString()
+      );
+      helperCommand.addAll(
+          Arrays.asList(
+              PropertyUtility.getProperty("ForkServerProcessLauncher.helper.jvmOptions")
+                  .trim()
+                  .split("\\s+")
+          )
+      );
+      helperCommand.add("-cp");
+      try {
+        helperCommand.add(
+            Paths.get(
+                ForkServer.class.getProtectionDomain()
+                    .getCodeSource()
+                    .getLocation()
+                    .toURI()
+            ).toString()
+        );
+      } catch (URISyntaxException e) {
+        throw new IOException(e);
+      }
+      helperCommand.add(ForkServer.class.getName());
+      logger.info(
+          I18nUtility.getString("ForkServerProcessLauncher.startingHelper"),
+          helperCommand
+      );
+
+      Process helperProcess = new ProcessBuilder(helperCommand)
+          .redirectError(Redirect.INHERIT)
+          .start();
+      HelperConnection connection = new HelperConnection(helperProcess);
+      Thread eventRelay = new Thread(
+          () -> relayEvents(connection),
+          ForkServerProcessLauncher.class.getSimpleName() + "-" + helperProcess.pid()
+      );
+      eventRelay.setDaemon(true);
+      eventRelay.start();
+      helperConnection = connection;
+    }
+    return helperConnection;
+  }
+
+  /**
+   * Reads the events sent by a fork server and relays them to the corresponding processes, until
+   * the fork server exits.
+   *
+   * @param connection Connection to the fork server.
+   */
+  private void relayEvents(HelperConnection connection) {
+    DataInputStream events = new DataInputStream(
+        new BufferedInputStream(connection.helperProcess.getInputStream())
+    );
+    try (events) {
+      while (true) {
+        byte eventType = events.readByte();
+        int executionId = events.readInt();
+        RemoteProcess remoteProcess = remoteProcesses.get(executionId);
+        switch (eventType) {
+          case ForkServer.EVENT_SPAWNED -> {
+            long pid = events.readLong();
+            if (remoteProcess != null) {
+              remoteProcess.spawnFuture.complete(pid);
+            }
+          }
+          case ForkServer.EVENT_SPAWN_FAILED -> {
+            String message = ForkServer.readString(events);
+            if (remoteProcess != null) {
+              remoteProcess.spawnFuture.completeExceptionally(new IOException(message));
+            }
+          }
+          case ForkServer.EVENT_OUTPUT -> {
+            StdType stdType = StdType.values()[events.readByte()];
+            byte[] data = new byte[events.readInt()];
+            events.readFully(data);
+            if (remoteProcess != null) {
+              remoteProcess.relayOutput(stdType, data);
+            }
+          }
+          case ForkServer.EVENT_END_OF_OUTPUT -> {
+            StdType stdType = StdType.values()[events.readByte()];
+            if (remoteProcess != null) {
+              remoteProcess.getRelayedInputStream(stdType).endOfStream();
+            }
+          }
+          case ForkServer.EVENT_STDIN_WRITTEN -> {
+            int byteCount = events.readInt();
+            if (remoteProcess != null) {
+              remoteProcess.stdin.acknowledge(byteCount);
+            }
+          }
+          case ForkServer.EVENT_EXITED -> {
+            int exitCode = events.readInt();
+            remoteProcesses.remove(executionId);
+            if (remoteProcess != null) {
+              remoteProcess.exitFuture.complete(exitCode);
+            }
+          }
+          default -> throw new IOException(
+              I18nUtility.getFormattedString(
+                  "ForkServerProcessLauncher.error.unknownEvent",
+                  eventType
+              )
+          );
+        }
+      }
+    } catch (IOException e) {
+      if (!closed) {
+        logger.error(
+            I18nUtility.getString("ForkServerProcessLauncher.error.helperTerminated"),
+            e
+        );
+      }
+    } finally {
+      // Release everything waiting on the processes spawned by this fork server.
+      remoteProcesses.values()
+          .stream()
+          .filter(remoteProcess -> remoteProcess.connection == connection)
+          .forEach(remoteProcess -> {
+            remoteProcesses.remove(remoteProcess.executionId);
+            remoteProcess.spawnFuture.completeExceptionally(
+                new IOException(
+                    I18nUtility.getString("ForkServerProcessLauncher.error.helperTerminated")
+                )
+            );
+            remoteProcess.getRelayedInputStream(StdType.STDOUT).endOfStream();
+            remoteProcess.getRelayedInputStream(StdType.STDERR).endOfStream();
+            remoteProcess.exitFuture.complete(
+                PropertyUtility.getTypedProperty(
+                    Integer.class,
+                    "ForkServerProcessLauncher.helperTerminated.returnCode"
+                )
+            );
+          });
+    }
+  }
+
+  /**
+   * Connection to a running fork server.
+   */
+  private static final class HelperConnection {
+
+    /**
+     * The fork server process.
+     */
+    private final Process helperProcess;
+    /**
+     * Stream to which requests to the fork server are written.
+     */
+    private final DataOutputStream requests;
+
+    /**
+     * Constructor used to initialize a HelperConnection object.
+     *
+     * @param helperProcess The fork server process.
+     */
+    private HelperConnection(Process helperProcess) {
+      this.helperProcess = helperProcess;
+      this.requests = new DataOutputStream(
+          new BufferedOutputStream(helperProcess.getOutputStream())
+      );
+    }
+
+    /**
+     * Sends a request without a payload, apart from an optional flag.
+     *
+     * @param requestType   Type of request.
+     * @param executionId   ID of the execution the request is meant for.
+     * @param flag          Flag to send, if not null.
+     * @throws IOException  Thrown if there is an issue sending the request.
+     */
+    private void sendRequest(byte requestType, int executionId, Boolean flag)
+        throws IOException {
+      synchronized (requests) {
+        requests.writeByte(requestType);
+        requests.writeInt(executionId);
+        if (flag != null) {
+          requests.writeBoolean(flag);
+        }
+        requests.flush();
+      }
+    }
+  }
+
+  /**
+   * A process spawned by the fork server, whose standard streams are relayed.
+   */
+  private static final class RemoteProcess extends Process {
+
+    /**
+     * Marks the end of the data relayed from an output stream.
+     */
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    /**
+     * ID of the execution.
+     */
+    private final int executionId;
+    /**
+     * Connection to the fork server which spawned this process.
+     */
+    private final HelperConnection connection;
+    /**
+     * Flag to denote if the standard output is to be written to the standard output of this JVM.
+     */
+    private final boolean isStdoutInherited;
+    /**
+     * Completed with the PID once the process is spawned.
+     */
+    private final CompletableFuture<Long> spawnFuture;
+    /**
+     * Completed with the exit code once the process exits.
+     */
+    private final CompletableFuture<Integer> exitFuture;
+    /**
+     * Relayed standard output of the process.
+     */
+    private final RelayedInputStream stdout;
+    /**
+     * Relayed standard error of the process.
+     */
+    private final RelayedInputStream stderr;
+    /**
+     * Standard input of the process.
+     */
+    private final RelayedOutputStream stdin;
+
+    /**
+     * Constructor used to initialize a RemoteProcess object.
+     *
+     * @param executionId       ID of the execution.
+     * @param connection        Connection to the fork server which spawns this process.
+     * @param isStdoutInherited true if the standard output is to be written to the standard
+     *                          output of this JVM, else false.
+     */
+    private RemoteProcess(int executionId, HelperConnection connection,
+        boolean isStdoutInherited) {
+      this.executionId = executionId;
+      this.connection = connection;
+      this.isStdoutInherited = isStdoutInherited;
+      this.spawnFuture = new CompletableFuture<>();
+      this.exitFuture = new CompletableFuture<>();
+      this.stdout = new RelayedInputStream(StdType.STDOUT);
+      this.stderr = new RelayedInputStream(StdType.STDERR);
+      this.stdin = new RelayedOutputStream();
+      // Writers waiting for acknowledgements needn't wait once the process has exited.
+      this.exitFuture.whenComplete((exitCode, throwable) -> stdin.acknowledge(0));
+    }
+
+    /**
+     * Relays data written by the process to the specified output stream.
+     *
+     * @param stdType Type of output stream.
+     * @param data    Data written by the process.
+     */
+    private void relayOutput(StdType stdType, byte[] data) {
+      if (stdType == StdType.STDOUT && isStdoutInherited) {
+        System.out.write(data, 0, data.length);
+        System.out.flush();
+      } else {
+        getRelayedInputStream(stdType).relay(data);
+      }
+    }
+
+    /**
+     * Retrieves the relayed input stream corresponding to the specified output stream.
+     *
+     * @param stdType Type of output stream.
+     * @return        The relayed input stream.
+     */
+    private RelayedInputStream getRelayedInputStream(StdType stdType) {
+      return (stdType == StdType.STDOUT) ? stdout : stderr;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+      return stdin;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      return stdout;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+      return stderr;
+    }
+
+    @Override
+    public int waitFor() throws InterruptedException {
+      try {
+        return exitFuture.get();
+      } catch (ExecutionException e) {
+        throw new IllegalStateException(e.getCause());
+      }
+    }
+
+    @Override
+    public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+      try {
+        exitFuture.get(timeout, unit);
+        return true;
+      } catch (TimeoutException e) {
+        return false;
+      } catch (ExecutionException e) {
+        throw new IllegalStateException(e.getCause());
+      }
+    }
+
+    @Override
+    public int exitValue() {
+      if (!exitFuture.isDone()) {
+        throw new IllegalThreadStateException();
+      }
+      return exitFuture.join();
+    }
+
+    @Override
+    public void destroy() {
+      sendDestroyRequest(false);
+    }
+
+    @Override
+    public Process destroyForcibly() {
+      sendDestroyRequest(true);
+      return this;
+    }
+
+    /**
+     * Requests the fork server to terminate the process tree of this process.
+     *
+     * @param forcibly true if the processes are to be terminated forcibly, else false.
+     */
+    private void sendDestroyRequest(boolean forcibly) {
+      if (exitFuture.isDone()) {
+        return;
+      }
+      try {
+        connection.sendRequest(ForkServer.REQUEST_DESTROY, executionId, forcibly);
+      } catch (IOException e) {
+        logger.warn(e);
+      }
+    }
+
+    @Override
+    public boolean isAlive() {
+      return !exitFuture.isDone();
+    }
+
+    @Override
+    public long pid() {
+      return spawnFuture.join();
+    }
+
+    /**
+     * Retrieves the handle of the process. Signals sent via the handle reach the process directly,
+     * bypassing the fork server, which still relays the resulting exit.
+     *
+     * @return Handle of the process.
+     * @throws IllegalStateException Thrown if the process no longer exists.
+     */
+    @Override
+    public ProcessHandle toHandle() {
+      return ProcessHandle.of(pid())
+          .orElseThrow(() -> new IllegalStateException(
+              I18nUtility.getFormattedString(
+                  "ForkServerProcessLauncher.error.processNotFound",
+                  pid()
+              )
+          ));
+    }
+
+    @Override
+    public CompletableFuture<Process> onExit() {
+      return exitFuture.thenApply(exitCode -> this);
+    }
+
+    @Override
+    public Stream<ProcessHandle> children() {
+      return ProcessHandle.of(pid())
+          .map(ProcessHandle::children)
+          .orElseGet(Stream::empty);
+    }
+
+    @Override
+    public Stream<ProcessHandle> descendants() {
+      return ProcessHandle.of(pid())
+          .map(ProcessHandle::descendants)
+          .orElseGet(Stream::empty);
+    }
+
+    /**
+     * Grants the fork server credit to relay more data from the specified output of this process.
+     *
+     * @param stdType   Type of the output.
+     * @param byteCount Number of bytes consumed from the output.
+     */
+    private void grantOutputCredit(StdType stdType, int byteCount) {
+      if (exitFuture.isDone()) {
+        return;
+      }
+      try {
+        synchronized (connection.requests) {
+          connection.requests.writeByte(ForkServer.REQUEST_OUTPUT_CREDIT);
+          connection.requests.writeInt(executionId);
+          connection.requests.writeByte(stdType.ordinal());
+          connection.requests.writeInt(byteCount);
+          connection.requests.flush();
+        }
+      } catch (IOException e) {
+        // The fork server has terminated, which ends the relayed outputs too.
+      }
+    }
+
+    /**
+     * Standard input of a remote process, relayed via the fork server. At most
+     * ForkServer.RELAY_WINDOW_SIZE bytes are relayed ahead of the fork server writing them to the
+     * process, hence writes block like they would on a pipe if the process doesn't read them.
+     */
+    private final class RelayedOutputStream extends OutputStream {
+
+      /**
+       * Flag to denote if this stream has been closed.
+       */
+      private boolean isClosed;
+      /**
+       * Used to wait for acknowledgements. It is separate from the lock serializing the writes,
+       * so that acknowledgements are never held up by a write.
+       */
+      private final Object acknowledgementLock = new Object();
+      /**
+       * Number of bytes relayed and yet to be acknowledged by the fork server.
+       */
+      private int unacknowledgedByteCount;
+
+      /**
+       * Marks data relayed as written by the fork server, and wakes up the writer waiting for it.
+       *
+       * @param byteCount Number of bytes written.
+       */
+      private void acknowledge(int byteCount) {
+        synchronized (acknowledgementLock) {
+          unacknowledgedByteCount -= byteCount;
+          acknowledgementLock.notifyAll();
+        }
+      }
+
+      @Override
+      public void write(int data) throws IOException {
+        write(new byte[]{(byte) data}, 0, 1);
+      }
+
+      @Override
+      public synchronized void write(byte[] data, int offset, int length) throws IOException {
+        Objects.checkFromIndexSize(offset, length, data.length);
+        int chunkOffset = offset;
+        int endOffset = offset + length;
+        while (chunkOffset < endOffset) {
+          if (isClosed) {
+            throw new IOException(
+                I18nUtility.getString("ForkServerProcessLauncher.error.streamClosed")
+            );
+          }
+          int chunkLength = endOffset - chunkOffset;
+          synchronized (acknowledgementLock) {
+            // Once the process has exited, the data is sent only to be dropped by the fork server.
+            if (!exitFuture.isDone()) {
+              int windowLeft = ForkServer.RELAY_WINDOW_SIZE - unacknowledgedByteCount;
+              if (windowLeft <= 0) {
+                try {
+                  acknowledgementLock.wait();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  throw new InterruptedIOException();
+                }
+                continue;
+              }
+              chunkLength = Math.min(chunkLength, windowLeft);
+            }
+            unacknowledgedByteCount += chunkLength;
+          }
+          synchronized (connection.requests) {
+            connection.requests.writeByte(ForkServer.REQUEST_STDIN);
+            connection.requests.writeInt(executionId);
+            connection.requests.writeInt(chunkLength);
+            connection.requests.write(data, chunkOffset, chunkLength);
+            connection.requests.flush();
+          }
+          chunkOffset += chunkLength;
+        }
+      }
+
+      @Override
+      public synchronized void close() throws IOException {
+        if (!isClosed) {
+          isClosed = true;
+          connection.sendRequest(ForkServer.REQUEST_CLOSE_STDIN, executionId, null);
+        }
+      }
+    }
+
+    /**
+     * Input stream of the data relayed by the fork server from an output stream of a process.
+     * Credit to relay more data is granted to the fork server as the data is read, hence at most
+     * ForkServer.RELAY_WINDOW_SIZE bytes are buffered.
+     */
+    private final class RelayedInputStream extends InputStream {
+
+      /**
+       * Type of the output stream relayed.
+       */
+      private final StdType stdType;
+      /**
+       * Chunks of relayed data yet to be read.
+       */
+      private final LinkedBlockingQueue<byte[]> chunks = new LinkedBlockingQueue<>();
+      /**
+       * Chunk currently being read.
+       */
+      private byte[] currentChunk;
+      /**
+       * Position of the next byte to read from the current chunk.
+       */
+      private int position;
+      /**
+       * Flag to denote if the end of the relayed data has been reached.
+       */
+      private boolean isEndOfStreamReached;
+      /**
+       * Number of bytes read and yet to be credited to the fork server.
+       */
+      private int uncreditedByteCount;
+
+      /**
+       * Constructor used to initialize a RelayedInputStream object.
+       *
+       * @param stdType Type of the output stream relayed.
+       */
+      private RelayedInputStream(StdType stdType) {
+        this.stdType = stdType;
+      }
+
+      /**
+       * Adds a chunk of relayed data.
+       *
+       * @param chunk Relayed data.
+       */
+      private void relay(byte[] chunk) {
+        chunks.add(chunk);
+      }
+
+      /**
+       * Marks the end of the relayed data.
+       */
+      private void endOfStream() {
+        chunks.add(END_OF_STREAM);
+      }
+
+      @Override
+      public int read() throws IOException {
+        byte[] data = new byte[1];
+        return (read(data, 0, 1) == -1) ? -1 : (data[0] & 0xFF);
+      }
+
+      @Override
+      public synchronized int read(byte[] data, int offset, int length) throws IOException {
+        if (length == 0) {
+          return 0;
+        }
+        while (currentChunk == null || position == currentChunk.length) {
+          if (isEndOfStreamReached) {
+            return -1;
+          }
+          try {
+            currentChunk = chunks.take();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+          }
+          position = 0;
+          if (currentChunk == END_OF_STREAM) {
+            isEndOfStreamReached = true;
+          }
+        }
+        int bytesRead = Math.min(length, currentChunk.length - position);
+        System.arraycopy(currentChunk, position, data, offset, bytesRead);
+        position += bytesRead;
+        // Credit is granted in batches to limit the number of requests.
+        uncreditedByteCount += bytesRead;
+        if (uncreditedByteCount >= ForkServer.RELAY_WINDOW_SIZE / 2) {
+          grantOutputCredit(stdType, uncreditedByteCount);
+          uncreditedByteCount = 0;
+        }
+        return bytesRead;
+      }
+
+      @Override
+      public synchronized int available() {
+        return (currentChunk == null) ? 0 : currentChunk.length - position;
+      }
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package org.padaiyal.utilities.commandline;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records when an output last produced data, so that commands which stop producing output can
+ * be timed out. Notifications are passed on to an optional delegate.
+ */
+final class IdleOutputMonitor implements DrainListener {
+
+  /**
+   * Value of System.nanoTime() when any of the outputs of the command last produced data.
+   */
+  private final AtomicLong lastOutputNanoTime;
+  /**
+   * Listener to pass the notifications on to, or null if none.
+   */
+  private final DrainListener delegate;
+
+  /**
+   * Constructor used to initialize an IdleOutputMonitor object.
+   *
+   * @param lastOutputNanoTime  Value of System.nanoTime() when any of the outputs of the command
+   *                            last produced data, shared by the monitors of all its outputs.
+   * @param delegate            Listener to pass the notifications on to, or null if none.
+   */
+  IdleOutputMonitor(AtomicLong lastOutputNanoTime, DrainListener delegate) {
+    this.lastOutputNanoTime = lastOutputNanoTime;
+    this.delegate = delegate;
+  }
+
+  /**
+   * Records that the output produced data.
+   *
+   * @param dataReadFromStreamInBytes Total number of bytes read from the stream so far.
+   * @return                          true to continue draining, else false.
+   */
+  @Override
+  public boolean onData(long dataReadFromStreamInBytes) {
+    lastOutputNanoTime.set(System.nanoTime());
+    return (delegate == null) || delegate.onData(dataReadFromStreamInBytes);
+  }
+
+  /**
+   * Passes the line on to the delegate.
+   *
+   * @param line      Line read, without its line terminator.
+   * @param retained  true if the line is retained in the output, else false.
+   * @return          true to continue draining, else false.
+   */
+  @Override
+  public boolean onLine(String line, boolean retained) {
+    return (delegate == null) || delegate.onLine(line, retained);
+  }
+
+  /**
+   * Checks if the delegate needs to be notified of every line.
+   *
+   * @return true if the delegate needs to be notified of every line, else false.
+   */
+  @Override
+  public boolean isNotifiedOfLines() {
+    return delegate != null && delegate.isNotifiedOfLines();
+  }
+}
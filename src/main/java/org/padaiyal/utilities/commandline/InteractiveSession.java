@@ -0,0 +1,526 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import org.padaiyal.utilities.I18nUtility;
+import org.padaiyal.utilities.commandline.abstractions.ExpectMatch;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Interactive session with a running command, which is sent input and whose outputs are
+ * searched for expected patterns as they are produced, in the manner of expect. Each output is
+ * read into a bounded scan buffer. Literal patterns are searched for by feeding the buffered text
+ * through the automaton of the matcher once, resuming where the previous search stopped. Only
+ * literal patterns are scanned incrementally, as a regular expression which fails to match can't
+ * in general be resumed. Hence regular expressions are searched for again in all the unconsumed
+ * text whenever more text is buffered, each search costing up to the capacity of the buffer.
+ * Once a buffer is full, the command blocks on writing to that output until text is consumed by a
+ * match or discarded by an ongoing search.
+ */
+public final class InteractiveSession implements AutoCloseable {
+
+  /**
+   * Default number of characters buffered from each output.
+   */
+  static final int defaultScanBufferCapacity = 64 * 1024;
+  /**
+   * Number of characters read from an output at once.
+   */
+  private static final int readChunkLength = 8192;
+  /**
+   * Command being executed.
+   */
+  private final String[] splitCommand;
+  /**
+   * Process executing the command.
+   */
+  private final Process process;
+  /**
+   * Execution of the command, as recorded in the process registry.
+   */
+  private final RunningExecution runningExecution;
+  /**
+   * Writer to the standard input of the process.
+   */
+  private final Writer stdinWriter;
+  /**
+   * Lock guarding the scan buffers, which is notified whenever their state changes.
+   */
+  private final Object scanLock;
+  /**
+   * Buffer holding the unconsumed STDOUT text.
+   */
+  private final ScanBuffer stdoutBuffer;
+  /**
+   * Buffer holding the unconsumed STDERR text.
+   */
+  private final ScanBuffer stderrBuffer;
+  /**
+   * Whether the session has been closed.
+   */
+  private volatile boolean closed;
+
+  /**
+   * Constructor used to initialize an InteractiveSession object, which starts reading the
+   * outputs of the process.
+   *
+   * @param splitCommand        Command being executed.
+   * @param process             Process executing the command.
+   * @param runningExecution    Execution of the command, as recorded in the process registry.
+   * @param charset             Charset used to encode the input and decode the outputs.
+   * @param scanBufferCapacity  Number of characters buffered from each output.
+   * @param readingExecutor     Executor used to read the outputs concurrently.
+   */
+  InteractiveSession(
+      String[] splitCommand,
+      Process process,
+      RunningExecution runningExecution,
+      Charset charset,
+      int scanBufferCapacity,
+      ExecutorService readingExecutor
+  ) {
+    this.splitCommand = splitCommand;
+    this.process = process;
+    this.runningExecution = runningExecution;
+    this.stdinWriter = new OutputStreamWriter(process.getOutputStream(), charset);
+    this.scanLock = new Object();
+    this.stdoutBuffer = new ScanBuffer(StdType.STDOUT, scanBufferCapacity);
+    this.stderrBuffer = new ScanBuffer(StdType.STDERR, scanBufferCapacity);
+    readingExecutor.execute(() -> read(process.getInputStream(), stdoutBuffer, charset));
+    readingExecutor.execute(() -> read(process.getErrorStream(), stderrBuffer, charset));
+  }
+
+  /**
+   * Retrieves the PID of the process executing the command.
+   *
+   * @return PID of the process.
+   */
+  public long getPid() {
+    return process.pid();
+  }
+
+  /**
+   * Checks if the process executing the command is alive.
+   *
+   * @return true if the process is alive, else false.
+   */
+  public boolean isAlive() {
+    return process.isAlive();
+  }
+
+  /**
+   * Sends the specified text to the standard input of the command.
+   *
+   * @param text          Text to send.
+   * @throws IOException  Thrown if there is an issue writing to the standard input.
+   */
+  public void send(String text) throws IOException {
+    Objects.requireNonNull(
+        text,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Text"
+        )
+    );
+    synchronized (stdinWriter) {
+      stdinWriter.write(text);
+      stdinWriter.flush();
+    }
+  }
+
+  /**
+   * Sends the specified line, followed by the line separator, to the standard input of the
+   * command.
+   *
+   * @param line          Line to send.
+   * @throws IOException  Thrown if there is an issue writing to the standard input.
+   */
+  public void sendLine(String line) throws IOException {
+    Objects.requireNonNull(
+        line,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Line"
+        )
+    );
+    send(line + System.lineSeparator());
+  }
+
+  /**
+   * Closes the standard input of the command, which then reads the end of its input.
+   *
+   * @throws IOException  Thrown if there is an issue closing the standard input.
+   */
+  public void closeInput() throws IOException {
+    synchronized (stdinWriter) {
+      stdinWriter.close();
+    }
+  }
+
+  /**
+   * Waits for any of the specified patterns to be found on STDOUT or STDERR, consuming the
+   * output up to the end of the match. Precompiled matchers are meant to be reused across
+   * expectations, as literal patterns are then searched for without rescanning any text.
+   *
+   * @param patterns              Patterns to search for.
+   * @param timeOutDuration       Maximum duration to wait for.
+   * @return                      The pattern found.
+   * @throws EOFException         Thrown if both outputs end before any of the patterns is found.
+   * @throws IOException          Thrown if there is an issue reading the outputs.
+   * @throws InterruptedException Thrown if waiting for the patterns is interrupted.
+   * @throws TimeoutException     Thrown if none of the patterns is found within the timeout.
+   */
+  public ExpectMatch expect(MultiPatternMatcher patterns, Duration timeOutDuration)
+      throws IOException, InterruptedException, TimeoutException {
+    Objects.requireNonNull(
+        patterns,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "MultiPatternMatcher"
+        )
+    );
+    Objects.requireNonNull(
+        timeOutDuration,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Duration"
+        )
+    );
+    final long deadlineNanoTime = System.nanoTime() + timeOutDuration.toNanos();
+    synchronized (scanLock) {
+      while (true) {
+        ExpectMatch match = stdoutBuffer.search(patterns);
+        if (match == null) {
+          match = stderrBuffer.search(patterns);
+        }
+        if (match != null) {
+          // Consuming text makes room for the readers waiting on a full buffer.
+          scanLock.notifyAll();
+          return match;
+        }
+        if (stdoutBuffer.ended && stderrBuffer.ended) {
+          IOException failure = (stdoutBuffer.failure != null)
+              ? stdoutBuffer.failure
+              : stderrBuffer.failure;
+          if (failure != null) {
+            throw new IOException(failure.getMessage(), failure);
+          }
+          throw new EOFException(
+              I18nUtility.getFormattedString(
+                  "CommandLineUtility.exception.sessionEnded",
+                  Arrays.toString(splitCommand),
+                  patterns.getPatternCount()
+              )
+          );
+        }
+        // Text already searched is discarded from full buffers, so that the command can proceed.
+        if (stdoutBuffer.discardOldestHalf() | stderrBuffer.discardOldestHalf()) {
+          scanLock.notifyAll();
+        }
+        long remainingNanos = deadlineNanoTime - System.nanoTime();
+        if (remainingNanos <= 0) {
+          throw new TimeoutException(
+              I18nUtility.getFormattedString(
+                  "CommandLineUtility.exception.expectTimeout",
+                  patterns.getPatternCount(),
+                  Arrays.toString(splitCommand),
+                  timeOutDuration.toMillis()
+              )
+          );
+        }
+        // Rounded up so that a remaining duration below a millisecond doesn't wait forever.
+        scanLock.wait((remainingNanos + 999_999) / 1_000_000);
+      }
+    }
+  }
+
+  /**
+   * Waits for the command to exit.
+   *
+   * @param timeOutDuration       Maximum duration to wait for.
+   * @return                      Return code of the command.
+   * @throws InterruptedException Thrown if waiting for the command is interrupted.
+   * @throws TimeoutException     Thrown if the command doesn't exit within the timeout.
+   */
+  public int awaitExit(Duration timeOutDuration)
+      throws InterruptedException, TimeoutException {
+    Objects.requireNonNull(
+        timeOutDuration,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Duration"
+        )
+    );
+    if (!process.waitFor(timeOutDuration.toNanos(), TimeUnit.NANOSECONDS)) {
+      throw new TimeoutException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.exception.exitTimeout",
+              Arrays.toString(splitCommand),
+              timeOutDuration.toMillis()
+          )
+      );
+    }
+    return process.exitValue();
+  }
+
+  /**
+   * Closes the session, terminating the process tree of the command if it is still alive.
+   */
+  @Override
+  public void close() {
+    synchronized (scanLock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      scanLock.notifyAll();
+    }
+    try {
+      closeInput();
+    } catch (IOException e) {
+      // The command may have exited and closed its input already.
+    }
+    CommandLineUtility.destroyProcessTree(process);
+    CommandLineUtility.getProcessRegistry().unregister(runningExecution);
+  }
+
+  /**
+   * Reads an output into its scan buffer until it ends, waiting while the buffer is full.
+   *
+   * @param inputStream Output to read.
+   * @param scanBuffer  Buffer to read the output into.
+   * @param charset     Charset used to decode the output.
+   */
+  private void read(InputStream inputStream, ScanBuffer scanBuffer, Charset charset) {
+    char[] chunk = new char[readChunkLength];
+    try (Reader reader = new InputStreamReader(inputStream, charset)) {
+      int readCount;
+      while ((readCount = reader.read(chunk)) != -1) {
+        synchronized (scanLock) {
+          int offset = 0;
+          while (offset < readCount) {
+            if (closed) {
+              return;
+            }
+            int appendedCount = scanBuffer.append(chunk, offset, readCount - offset);
+            if (appendedCount == 0) {
+              scanLock.wait();
+            } else {
+              offset += appendedCount;
+              scanLock.notifyAll();
+            }
+          }
+        }
+      }
+    } catch (IOException e) {
+      // Closing the session closes the outputs being read.
+      if (!closed) {
+        synchronized (scanLock) {
+          scanBuffer.failure = e;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      synchronized (scanLock) {
+        scanBuffer.ended = true;
+        scanLock.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Bounded buffer holding the unconsumed text of an output, along with the progress of the
+   * search for literal patterns in it. It is guarded by the scan lock of the session.
+   */
+  private static final class ScanBuffer {
+
+    /**
+     * Type of output buffered.
+     */
+    private final StdType stdType;
+    /**
+     * Characters buffered, the unconsumed ones being within [start, end).
+     */
+    private final char[] characters;
+    /**
+     * Index of the first unconsumed character.
+     */
+    private int start;
+    /**
+     * Index following the last buffered character.
+     */
+    private int end;
+    /**
+     * Index up to which the characters have been fed to the automaton of scannedPatterns.
+     */
+    private int scannedEnd;
+    /**
+     * State of the automaton of scannedPatterns after consuming the characters scanned.
+     */
+    private int automatonState;
+    /**
+     * Literal patterns last searched for, or null if none.
+     */
+    private MultiPatternMatcher scannedPatterns;
+    /**
+     * Regular expressions which didn't match the unconsumed text as it is, or null if none.
+     */
+    private MultiPatternMatcher unmatchedPatterns;
+    /**
+     * Whether the output has ended.
+     */
+    private boolean ended;
+    /**
+     * Failure which ended reading the output, or null if none.
+     */
+    private IOException failure;
+
+    /**
+     * Constructor used to initialize a ScanBuffer object.
+     *
+     * @param stdType   Type of output buffered.
+     * @param capacity  Number of characters which can be buffered.
+     */
+    private ScanBuffer(StdType stdType, int capacity) {
+      this.stdType = stdType;
+      this.characters = new char[capacity];
+    }
+
+    /**
+     * Searches for the specified patterns in the unconsumed text, consuming it up to the end of
+     * the match if any. Literal patterns are only searched for in the text buffered since the
+     * previous search, whereas regular expressions are searched for in all the unconsumed text
+     * unless it is unchanged since they last failed to match.
+     *
+     * @param patterns  Patterns to search for.
+     * @return          The pattern found, or null if none of the patterns is found.
+     */
+    private ExpectMatch search(MultiPatternMatcher patterns) {
+      if (!patterns.isLiteral()) {
+        if (start == end || patterns == unmatchedPatterns) {
+          return null;
+        }
+        Matcher matcher = patterns.find(CharBuffer.wrap(characters, start, end - start));
+        if (matcher == null) {
+          unmatchedPatterns = patterns;
+          return null;
+        }
+        return consume(
+            patterns.getMatchedPattern(matcher),
+            start + matcher.start(),
+            start + matcher.end()
+        );
+      }
+      if (patterns != scannedPatterns) {
+        scannedPatterns = patterns;
+        scannedEnd = start;
+        automatonState = 0;
+      }
+      int state = automatonState;
+      for (int index = scannedEnd; index < end; index++) {
+        state = patterns.getNextState(state, characters[index]);
+        int patternIndex = patterns.getMatchedPattern(state);
+        if (patternIndex != -1) {
+          // The beginning of the match may have been discarded from a full buffer.
+          return consume(
+              patternIndex,
+              Math.max(start, index + 1 - patterns.getPatternLength(patternIndex)),
+              index + 1
+          );
+        }
+      }
+      automatonState = state;
+      scannedEnd = end;
+      return null;
+    }
+
+    /**
+     * Consumes the text up to the end of the specified match.
+     *
+     * @param patternIndex  Index of the pattern found.
+     * @param matchStart    Index at which the match starts.
+     * @param matchEnd      Index at which the match ends.
+     * @return              The match.
+     */
+    private ExpectMatch consume(int patternIndex, int matchStart, int matchEnd) {
+      ExpectMatch match = new ExpectMatch(
+          stdType,
+          patternIndex,
+          new String(characters, matchStart, matchEnd - matchStart),
+          new String(characters, start, matchStart - start)
+      );
+      start = matchEnd;
+      scannedEnd = matchEnd;
+      automatonState = 0;
+      unmatchedPatterns = null;
+      if (start == end) {
+        start = 0;
+        end = 0;
+        scannedEnd = 0;
+      }
+      return match;
+    }
+
+    /**
+     * Appends the specified characters, as many as there is room for.
+     *
+     * @param chunk   Characters to append.
+     * @param offset  Index of the first character to append.
+     * @param count   Number of characters to append.
+     * @return        Number of characters appended.
+     */
+    private int append(char[] chunk, int offset, int count) {
+      if (end - start == characters.length) {
+        return 0;
+      }
+      if (end + count > characters.length && start > 0) {
+        System.arraycopy(characters, start, characters, 0, end - start);
+        scannedEnd -= start;
+        end -= start;
+        start = 0;
+      }
+      int appendedCount = Math.min(count, characters.length - end);
+      System.arraycopy(chunk, offset, characters, end, appendedCount);
+      end += appendedCount;
+      if (appendedCount > 0) {
+        unmatchedPatterns = null;
+      }
+      return appendedCount;
+    }
+
+    /**
+     * Discards the oldest half of the buffered text if the buffer is full. The automaton state
+     * summarizes the text discarded, hence literal patterns spanning it are still found, whereas
+     * regular expressions aren't.
+     *
+     * @return true if text was discarded, else false.
+     */
+    private boolean discardOldestHalf() {
+      if (end - start < characters.length) {
+        return false;
+      }
+      start += Math.max(1, characters.length / 2);
+      unmatchedPatterns = null;
+      if (scannedEnd < start) {
+        scannedEnd = start;
+        automatonState = 0;
+      }
+      return true;
+    }
+  }
+}
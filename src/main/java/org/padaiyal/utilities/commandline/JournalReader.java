@@ -0,0 +1,252 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+import org.padaiyal.utilities.commandline.abstractions.JournalEntry;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+
+/**
+ * Reads the entries of an execution journal in the order they were written, segment after
+ * segment. An entry cut short at the end of a segment, as left behind when the JVM writing the
+ * journal dies mid-write, ends that segment.
+ */
+public final class JournalReader implements AutoCloseable {
+
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(JournalReader.class);
+  /**
+   * Size of the buffer segments are read through.
+   */
+  private static final int readBufferSize = 65536;
+
+  static {
+    ExecutionJournal.initializeDependantValues();
+  }
+
+  /**
+   * Segments still to be read.
+   */
+  private final Iterator<Path> segments;
+  /**
+   * Stream of the segment being read, or null if none is open.
+   */
+  private DataInputStream segmentStream;
+  /**
+   * Channel reading the responses from the segment stream.
+   */
+  private ReadableByteChannel segmentChannel;
+  /**
+   * Segment being read, or null if none is open.
+   */
+  private Path segment;
+
+  /**
+   * Constructor used to initialize a JournalReader object reading the segments present in the
+   * specified directory. Segments started afterwards aren't read.
+   *
+   * @param directory     Directory holding the segments.
+   * @throws IOException  Thrown if the directory can't be listed.
+   */
+  public JournalReader(Path directory) throws IOException {
+    this(
+        ExecutionJournal.listSegments(
+            Objects.requireNonNull(
+                directory,
+                () -> I18nUtility.getFormattedString(
+                    "CommandLineUtility.input.validation.nonNull",
+                    "Path"
+                )
+            )
+        )
+    );
+  }
+
+  /**
+   * Constructor used to initialize a JournalReader object reading the specified segments.
+   *
+   * @param segments  Segments to read, in order.
+   */
+  public JournalReader(List<Path> segments) {
+    Objects.requireNonNull(
+        segments,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Segments"
+        )
+    );
+    this.segments = new ArrayList<>(segments).iterator();
+  }
+
+  /**
+   * Reads the next entry.
+   *
+   * @return              The next entry, or an empty optional if all the segments have been read.
+   * @throws IOException  Thrown if a segment can't be read or is corrupted.
+   */
+  public Optional<JournalEntry> read() throws IOException {
+    while (true) {
+      if (segmentStream == null && !openNextSegment()) {
+        return Optional.empty();
+      }
+      if (hasNextEntry()) {
+        try {
+          String[] splitCommand = readCommand();
+          Optional<Response> response = ResponseSerializer.read(segmentChannel);
+          if (response.isPresent()) {
+            return Optional.of(new JournalEntry(splitCommand, response.get()));
+          }
+        } catch (EOFException e) {
+          logger.debug(e);
+        }
+        logger.warn(I18nUtility.getString("ExecutionJournal.truncatedEntry"), segment);
+      }
+      closeSegment();
+    }
+  }
+
+  /**
+   * Closes the segment being read.
+   *
+   * @throws IOException Thrown if the segment can't be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    closeSegment();
+  }
+
+  /**
+   * Opens the next segment and validates its header.
+   *
+   * @return              true if a segment was opened, false if there are none left.
+   * @throws IOException  Thrown if the segment can't be opened or its header is invalid.
+   */
+  private boolean openNextSegment() throws IOException {
+    if (!segments.hasNext()) {
+      return false;
+    }
+    segment = segments.next();
+    segmentStream = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(segment), readBufferSize)
+    );
+    segmentChannel = Channels.newChannel(segmentStream);
+    try {
+      int magic = segmentStream.readInt();
+      if (magic != ExecutionJournal.SEGMENT_MAGIC) {
+        throw new IOException(
+            I18nUtility.getFormattedString(
+                "ExecutionJournal.error.invalidSegment",
+                segment,
+                Integer.toHexString(magic)
+            )
+        );
+      }
+      byte version = segmentStream.readByte();
+      if (version != ExecutionJournal.SEGMENT_FORMAT_VERSION) {
+        throw new IOException(
+            I18nUtility.getFormattedString(
+                "ExecutionJournal.error.unsupportedVersion",
+                segment,
+                version,
+                ExecutionJournal.SEGMENT_FORMAT_VERSION
+            )
+        );
+      }
+    } catch (EOFException e) {
+      // The segment was created but its header never made it to storage.
+      closeSegment();
+      return openNextSegment();
+    } catch (IOException e) {
+      closeSegment();
+      throw e;
+    }
+    return true;
+  }
+
+  /**
+   * Reads the command of the next entry.
+   *
+   * @return              Command and its arguments.
+   * @throws IOException  Thrown if the command can't be read or is corrupted.
+   */
+  private String[] readCommand() throws IOException {
+    int argumentCount = segmentStream.readInt();
+    if (argumentCount < 0) {
+      throw createCorruptedException();
+    }
+    List<String> splitCommand = new ArrayList<>(Math.min(argumentCount, 64));
+    for (int index = 0; index < argumentCount; index++) {
+      int argumentLength = segmentStream.readInt();
+      if (argumentLength < 0) {
+        throw createCorruptedException();
+      }
+      byte[] argumentBytes = segmentStream.readNBytes(argumentLength);
+      if (argumentBytes.length != argumentLength) {
+        throw new EOFException(
+            I18nUtility.getString("CommandLineUtility.serialization.error.truncated")
+        );
+      }
+      splitCommand.add(new String(argumentBytes, StandardCharsets.UTF_8));
+    }
+    return splitCommand.toArray(new String[0]);
+  }
+
+  /**
+   * Creates the exception thrown on reading a corrupted command.
+   *
+   * @return The exception.
+   */
+  private IOException createCorruptedException() {
+    return new IOException(
+        I18nUtility.getFormattedString(
+            "ExecutionJournal.error.corrupted",
+            segment
+        )
+    );
+  }
+
+  /**
+   * Checks if the segment being read holds another entry, without consuming it.
+   *
+   * @return              true if there is another entry, false if the segment ends.
+   * @throws IOException  Thrown if the segment can't be read.
+   */
+  private boolean hasNextEntry() throws IOException {
+    segmentStream.mark(1);
+    if (segmentStream.read() == -1) {
+      return false;
+    }
+    segmentStream.reset();
+    return true;
+  }
+
+  /**
+   * Closes the segment being read, if any.
+   *
+   * @throws IOException Thrown if the segment can't be closed.
+   */
+  private void closeSegment() throws IOException {
+    if (segmentStream != null) {
+      DataInputStream stream = segmentStream;
+      segmentStream = null;
+      segmentChannel = null;
+      stream.close();
+    }
+  }
+}
@@ -0,0 +1,176 @@
+package org.padaiyal.utilities.commandline;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Tracks a sliding window of recently observed execution latencies per command.
+ */
+public final class LatencyTracker {
+
+  /**
+   * Maximum number of latency samples retained per command.
+   */
+  private final int windowSize;
+  /**
+   * Used to store the latency window of every tracked command.
+   */
+  private final ConcurrentHashMap<String, LatencyWindow> latencyWindows;
+
+  /**
+   * Constructor used to initialize a LatencyTracker object.
+   *
+   * @param windowSize Maximum number of latency samples retained per command.
+   */
+  public LatencyTracker(int windowSize) {
+    if (windowSize < 1) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.positive",
+              "Window size",
+              windowSize
+          )
+      );
+    }
+    this.windowSize = windowSize;
+    this.latencyWindows = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Records an observed latency for the specified command.
+   *
+   * @param commandKey  Key identifying the command.
+   * @param latency     Observed latency of the command.
+   */
+  public void recordLatency(String commandKey, Duration latency) {
+    Objects.requireNonNull(
+        commandKey,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Command"
+        )
+    );
+    Objects.requireNonNull(
+        latency,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Duration"
+        )
+    );
+    latencyWindows.computeIfAbsent(commandKey, key -> new LatencyWindow(windowSize))
+        .record(latency.toNanos());
+  }
+
+  /**
+   * Retrieves the number of latency samples currently retained for the specified command.
+   *
+   * @param commandKey  Key identifying the command.
+   * @return            Number of latency samples retained for the command.
+   */
+  public int getSampleCount(String commandKey) {
+    LatencyWindow latencyWindow = latencyWindows.get(commandKey);
+    return (latencyWindow == null) ? 0 : latencyWindow.getSampleCount();
+  }
+
+  /**
+   * Computes the specified percentile of the latencies retained for the specified command.
+   *
+   * @param commandKey  Key identifying the command.
+   * @param percentile  Percentile (0, 100] to compute.
+   * @return            The latency at the specified percentile, or an empty optional if no
+   *                    latencies have been recorded for the command.
+   */
+  public Optional<Duration> getPercentileLatency(String commandKey, double percentile) {
+    if (percentile <= 0 || percentile > 100) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.percentile",
+              percentile
+          )
+      );
+    }
+    LatencyWindow latencyWindow = latencyWindows.get(commandKey);
+    return (latencyWindow == null)
+        ? Optional.empty()
+        : latencyWindow.getPercentile(percentile)
+            .map(Duration::ofNanos);
+  }
+
+  /**
+   * Discards all the recorded latencies.
+   */
+  public void clear() {
+    latencyWindows.clear();
+  }
+
+  /**
+   * Ring buffer of the most recent latency samples of a command.
+   */
+  private static final class LatencyWindow {
+
+    /**
+     * Latency samples in nanoseconds.
+     */
+    private final long[] samplesInNanos;
+    /**
+     * Index at which the next sample is to be stored.
+     */
+    private int nextIndex;
+    /**
+     * Number of valid samples in the buffer.
+     */
+    private int sampleCount;
+
+    /**
+     * Constructor used to initialize a LatencyWindow object.
+     *
+     * @param windowSize Maximum number of samples to retain.
+     */
+    private LatencyWindow(int windowSize) {
+      samplesInNanos = new long[windowSize];
+    }
+
+    /**
+     * Records a sample, overwriting the oldest one if the window is full.
+     *
+     * @param latencyInNanos Latency sample in nanoseconds.
+     */
+    private synchronized void record(long latencyInNanos) {
+      samplesInNanos[nextIndex] = latencyInNanos;
+      nextIndex = (nextIndex + 1) % samplesInNanos.length;
+      sampleCount = Math.min(sampleCount + 1, samplesInNanos.length);
+    }
+
+    /**
+     * Retrieves the number of valid samples in the window.
+     *
+     * @return Number of valid samples.
+     */
+    private synchronized int getSampleCount() {
+      return sampleCount;
+    }
+
+    /**
+     * Computes the specified percentile using the nearest-rank method.
+     *
+     * @param percentile  Percentile (0, 100] to compute.
+     * @return            The sample at the specified percentile in nanoseconds.
+     */
+    private Optional<Long> getPercentile(double percentile) {
+      long[] sortedSamples;
+      synchronized (this) {
+        if (sampleCount == 0) {
+          return Optional.empty();
+        }
+        sortedSamples = Arrays.copyOf(samplesInNanos, sampleCount);
+      }
+      Arrays.sort(sortedSamples);
+      int rank = (int) Math.ceil(percentile / 100 * sortedSamples.length);
+      return Optional.of(sortedSamples[Math.max(rank, 1) - 1]);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package org.padaiyal.utilities.commandline;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.padaiyal.utilities.commandline.abstractions.OutputChunk;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Records the retained lines of an output tagged with the time the data holding them was read,
+ * so that the lines of both outputs can be merged in the order they were produced.
+ * Notifications are passed on to an optional delegate.
+ */
+final class MergedOutputRecorder implements DrainListener {
+
+  /**
+   * Type of output recorded.
+   */
+  private final StdType stdType;
+  /**
+   * Listener to pass the notifications on to, or null if none.
+   */
+  private final DrainListener delegate;
+  /**
+   * Lines recorded so far, in the order they were read.
+   */
+  private final List<OutputChunk> chunks;
+  /**
+   * Value of System.nanoTime() when data was last read from the output.
+   */
+  private long lastDataNanoTime;
+
+  /**
+   * Constructor used to initialize a MergedOutputRecorder object.
+   *
+   * @param stdType   Type of output recorded.
+   * @param delegate  Listener to pass the notifications on to, or null if none.
+   */
+  MergedOutputRecorder(StdType stdType, DrainListener delegate) {
+    this.stdType = stdType;
+    this.delegate = delegate;
+    this.chunks = new ArrayList<>();
+  }
+
+  /**
+   * Merges the lines recorded from both outputs in the order they were read. Lines read at the
+   * same time keep STDOUT first, and the lines of each output keep their order.
+   *
+   * @param stdoutRecorder  Recorder of the STDOUT.
+   * @param stderrRecorder  Recorder of the STDERR.
+   * @return                The merged lines.
+   */
+  static List<OutputChunk> merge(
+      MergedOutputRecorder stdoutRecorder,
+      MergedOutputRecorder stderrRecorder
+  ) {
+    List<OutputChunk> stdoutChunks = stdoutRecorder.chunks;
+    List<OutputChunk> stderrChunks = stderrRecorder.chunks;
+    List<OutputChunk> mergedChunks = new ArrayList<>(stdoutChunks.size() + stderrChunks.size());
+    int stdoutIndex = 0;
+    int stderrIndex = 0;
+    // Both lists are ordered by time, hence they are merged in a single pass.
+    while (stdoutIndex < stdoutChunks.size() && stderrIndex < stderrChunks.size()) {
+      if (stderrChunks.get(stderrIndex).getNanoTime()
+          - stdoutChunks.get(stdoutIndex).getNanoTime() < 0) {
+        mergedChunks.add(stderrChunks.get(stderrIndex++));
+      } else {
+        mergedChunks.add(stdoutChunks.get(stdoutIndex++));
+      }
+    }
+    mergedChunks.addAll(stdoutChunks.subList(stdoutIndex, stdoutChunks.size()));
+    mergedChunks.addAll(stderrChunks.subList(stderrIndex, stderrChunks.size()));
+    return mergedChunks;
+  }
+
+  /**
+   * Records when the data was read and passes the notification on to the delegate.
+   *
+   * @param dataReadFromStreamInBytes Total number of bytes read from the stream so far.
+   * @return                          true to continue draining, else false.
+   */
+  @Override
+  public boolean onData(long dataReadFromStreamInBytes) {
+    lastDataNanoTime = System.nanoTime();
+    return (delegate == null) || delegate.onData(dataReadFromStreamInBytes);
+  }
+
+  /**
+   * Records the line if it is retained, and passes it on to the delegate.
+   *
+   * @param line      Line read, without its line terminator.
+   * @param retained  true if the line is retained in the output, else false.
+   * @return          true to continue draining, else false.
+   */
+  @Override
+  public boolean onLine(String line, boolean retained) {
+    if (retained) {
+      chunks.add(new OutputChunk(stdType, lastDataNanoTime, line));
+    }
+    return (delegate == null) || delegate.onLine(line, retained);
+  }
+}
@@ -0,0 +1,389 @@
+package org.padaiyal.utilities.commandline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Precompiled matcher which searches for multiple patterns in the input. Literal patterns are
+ * matched in a single pass using an Aho-Corasick automaton, whereas regular expressions are
+ * searched for separately, the earliest match winning. Combining the regular expressions into a
+ * single alternation would renumber their groups, breaking numbered backreferences.
+ */
+public final class MultiPatternMatcher implements Predicate<String> {
+
+  /**
+   * Number of patterns being searched for.
+   */
+  private final int patternCount;
+  /**
+   * Sorted transition characters of each state of the automaton. Null for regular expressions.
+   */
+  private final char[][] transitionCharacters;
+  /**
+   * Target states of the transitions of each state of the automaton, ordered as per
+   * transitionCharacters.
+   */
+  private final int[][] transitionStates;
+  /**
+   * Failure state of each state of the automaton.
+   */
+  private final int[] failureStates;
+  /**
+   * Index of the pattern matched on reaching each state of the automaton, or -1 if none.
+   */
+  private final int[] matchedPatterns;
+  /**
+   * Length of each literal pattern. Null for regular expressions.
+   */
+  private final int[] patternLengths;
+  /**
+   * Compiled regular expressions. Null for literal patterns.
+   */
+  private final Pattern[] regularExpressionPatterns;
+
+  /**
+   * Constructor used to initialize a MultiPatternMatcher object.
+   *
+   * @param patternCount              Number of patterns being searched for.
+   * @param transitionCharacters      Sorted transition characters of each state of the automaton.
+   * @param transitionStates          Target states of the transitions of each state.
+   * @param failureStates             Failure state of each state.
+   * @param matchedPatterns           Index of the pattern matched on reaching each state.
+   * @param patternLengths            Length of each literal pattern.
+   * @param regularExpressionPatterns Compiled regular expressions.
+   */
+  private MultiPatternMatcher(
+      int patternCount,
+      char[][] transitionCharacters,
+      int[][] transitionStates,
+      int[] failureStates,
+      int[] matchedPatterns,
+      int[] patternLengths,
+      Pattern[] regularExpressionPatterns
+  ) {
+    this.patternCount = patternCount;
+    this.transitionCharacters = transitionCharacters;
+    this.transitionStates = transitionStates;
+    this.failureStates = failureStates;
+    this.matchedPatterns = matchedPatterns;
+    this.patternLengths = patternLengths;
+    this.regularExpressionPatterns = regularExpressionPatterns;
+  }
+
+  /**
+   * Compiles a matcher searching for any of the specified literal strings.
+   *
+   * @param literals  Literal strings to search for.
+   * @return          The compiled matcher.
+   */
+  public static MultiPatternMatcher ofLiterals(String... literals) {
+    validatePatterns(literals);
+
+    // Build the trie.
+    List<TreeMap<Character, Integer>> transitions = new ArrayList<>();
+    List<Integer> trieMatchedPatterns = new ArrayList<>();
+    transitions.add(new TreeMap<>());
+    trieMatchedPatterns.add(-1);
+    for (int patternIndex = 0; patternIndex < literals.length; patternIndex++) {
+      int state = 0;
+      for (char character : literals[patternIndex].toCharArray()) {
+        Integer nextState = transitions.get(state).get(character);
+        if (nextState == null) {
+          nextState = transitions.size();
+          transitions.get(state).put(character, nextState);
+          transitions.add(new TreeMap<>());
+          trieMatchedPatterns.add(-1);
+        }
+        state = nextState;
+      }
+      if (trieMatchedPatterns.get(state) == -1) {
+        trieMatchedPatterns.set(state, patternIndex);
+      }
+    }
+
+    int stateCount = transitions.size();
+    char[][] transitionCharacters = new char[stateCount][];
+    int[][] transitionStates = new int[stateCount][];
+    int[] failureStates = new int[stateCount];
+    int[] matchedPatterns = new int[stateCount];
+    for (int state = 0; state < stateCount; state++) {
+      TreeMap<Character, Integer> stateTransitions = transitions.get(state);
+      transitionCharacters[state] = new char[stateTransitions.size()];
+      transitionStates[state] = new int[stateTransitions.size()];
+      int transitionIndex = 0;
+      for (Map.Entry<Character, Integer> transition : stateTransitions.entrySet()) {
+        transitionCharacters[state][transitionIndex] = transition.getKey();
+        transitionStates[state][transitionIndex] = transition.getValue();
+        transitionIndex++;
+      }
+      matchedPatterns[state] = trieMatchedPatterns.get(state);
+    }
+
+    // Compute the failure states breadth first, so that they are known for all shallower states.
+    int[] queue = new int[stateCount];
+    int queueHead = 0;
+    int queueTail = 0;
+    for (int childState : transitionStates[0]) {
+      failureStates[childState] = 0;
+      queue[queueTail++] = childState;
+    }
+    while (queueHead < queueTail) {
+      int state = queue[queueHead++];
+      for (int transitionIndex = 0;
+          transitionIndex < transitionCharacters[state].length;
+          transitionIndex++) {
+        char character = transitionCharacters[state][transitionIndex];
+        int childState = transitionStates[state][transitionIndex];
+        int failureState = failureStates[state];
+        int nextState;
+        while ((nextState = getTransition(
+            transitionCharacters,
+            transitionStates,
+            failureState,
+            character
+        )) == -1 && failureState != 0) {
+          failureState = failureStates[failureState];
+        }
+        failureStates[childState] = Math.max(nextState, 0);
+        // A state also matches the patterns which are suffixes of it.
+        if (matchedPatterns[childState] == -1) {
+          matchedPatterns[childState] = matchedPatterns[failureStates[childState]];
+        }
+        queue[queueTail++] = childState;
+      }
+    }
+
+    return new MultiPatternMatcher(
+        literals.length,
+        transitionCharacters,
+        transitionStates,
+        failureStates,
+        matchedPatterns,
+        Arrays.stream(literals).mapToInt(String::length).toArray(),
+        null
+    );
+  }
+
+  /**
+   * Compiles a matcher searching for any of the specified regular expressions.
+   *
+   * @param regularExpressions  Regular expressions to search for.
+   * @return                    The compiled matcher.
+   */
+  public static MultiPatternMatcher ofRegularExpressions(String... regularExpressions) {
+    validatePatterns(regularExpressions);
+    return new MultiPatternMatcher(
+        regularExpressions.length,
+        null,
+        null,
+        null,
+        null,
+        null,
+        Arrays.stream(regularExpressions)
+            .map(Pattern::compile)
+            .toArray(Pattern[]::new)
+    );
+  }
+
+  /**
+   * Retrieves the number of patterns being searched for.
+   *
+   * @return Number of patterns being searched for.
+   */
+  public int getPatternCount() {
+    return patternCount;
+  }
+
+  /**
+   * Searches for the patterns in the specified input.
+   *
+   * @param input Input to search in.
+   * @return      Index of the pattern found first while scanning the input, or -1 if none of
+   *              the patterns are found.
+   */
+  public int indexOfMatchingPattern(CharSequence input) {
+    Objects.requireNonNull(
+        input,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Input"
+        )
+    );
+    if (regularExpressionPatterns != null) {
+      Matcher matcher = find(input);
+      return (matcher == null) ? -1 : getMatchedPattern(matcher);
+    }
+
+    int state = 0;
+    for (int index = 0; index < input.length(); index++) {
+      state = getNextState(state, input.charAt(index));
+      if (matchedPatterns[state] != -1) {
+        return matchedPatterns[state];
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Checks if any of the patterns is found in the specified line.
+   *
+   * @param line  Line to search in.
+   * @return      true if any of the patterns is found, else false.
+   */
+  @Override
+  public boolean test(String line) {
+    return indexOfMatchingPattern(line) != -1;
+  }
+
+  /**
+   * Checks if the patterns are literal strings, which are matched using the automaton.
+   *
+   * @return true if the patterns are literal strings, else false if they are regular
+   *         expressions.
+   */
+  boolean isLiteral() {
+    return regularExpressionPatterns == null;
+  }
+
+  /**
+   * Retrieves the length of the specified literal pattern.
+   *
+   * @param patternIndex  Index of the literal pattern.
+   * @return              Length of the pattern.
+   */
+  int getPatternLength(int patternIndex) {
+    return patternLengths[patternIndex];
+  }
+
+  /**
+   * Retrieves the index of the literal pattern matched on reaching the specified state of the
+   * automaton. As the state persists across calls, the automaton can be fed an input piecemeal
+   * without rescanning it.
+   *
+   * @param state State of the automaton.
+   * @return      Index of the pattern matched, or -1 if none.
+   */
+  int getMatchedPattern(int state) {
+    return matchedPatterns[state];
+  }
+
+  /**
+   * Searches for the regular expressions in the specified input. As with an alternation, the
+   * match starting earliest wins, and ties go to the regular expression specified first.
+   *
+   * @param input Input to search in.
+   * @return      The matcher of the regular expression found, or null if none of them is found.
+   */
+  Matcher find(CharSequence input) {
+    Matcher earliestMatcher = null;
+    for (Pattern pattern : regularExpressionPatterns) {
+      Matcher matcher = pattern.matcher(input);
+      if (matcher.find() && (earliestMatcher == null
+          || matcher.start() < earliestMatcher.start())) {
+        earliestMatcher = matcher;
+        if (matcher.start() == 0) {
+          break;
+        }
+      }
+    }
+    return earliestMatcher;
+  }
+
+  /**
+   * Retrieves the index of the regular expression found by the specified matcher.
+   *
+   * @param matcher Matcher returned by find(CharSequence).
+   * @return        Index of the regular expression found, or -1 if none.
+   */
+  int getMatchedPattern(Matcher matcher) {
+    for (int patternIndex = 0; patternIndex < patternCount; patternIndex++) {
+      if (matcher.pattern() == regularExpressionPatterns[patternIndex]) {
+        return patternIndex;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Retrieves the state of the automaton reached on consuming the specified character.
+   *
+   * @param state     Current state.
+   * @param character Character consumed.
+   * @return          The next state.
+   */
+  int getNextState(int state, char character) {
+    int nextState;
+    while ((nextState = getTransition(transitionCharacters, transitionStates, state, character))
+        == -1) {
+      if (state == 0) {
+        return 0;
+      }
+      state = failureStates[state];
+    }
+    return nextState;
+  }
+
+  /**
+   * Retrieves the target of the transition from the specified state on the specified character.
+   *
+   * @param transitionCharacters  Sorted transition characters of each state.
+   * @param transitionStates      Target states of the transitions of each state.
+   * @param state                 State to transition from.
+   * @param character             Character to transition on.
+   * @return                      The target state, or -1 if there is no such transition.
+   */
+  private static int getTransition(
+      char[][] transitionCharacters,
+      int[][] transitionStates,
+      int state,
+      char character
+  ) {
+    int transitionIndex = Arrays.binarySearch(transitionCharacters[state], character);
+    return (transitionIndex < 0) ? -1 : transitionStates[state][transitionIndex];
+  }
+
+  /**
+   * Validates the specified patterns.
+   *
+   * @param patterns Patterns to validate.
+   */
+  private static void validatePatterns(String[] patterns) {
+    Objects.requireNonNull(
+        patterns,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Patterns"
+        )
+    );
+    if (patterns.length == 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getString("CommandLineUtility.input.validation.noPatterns")
+      );
+    }
+    for (int patternIndex = 0; patternIndex < patterns.length; patternIndex++) {
+      Objects.requireNonNull(
+          patterns[patternIndex],
+          () -> I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.nonNull",
+              "Pattern"
+          )
+      );
+      if (patterns[patternIndex].isEmpty()) {
+        throw new IllegalArgumentException(
+            I18nUtility.getFormattedString(
+                "CommandLineUtility.input.validation.emptyPattern",
+                patternIndex
+            )
+        );
+      }
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+import jdk.jfr.FlightRecorder;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+import org.padaiyal.utilities.commandline.events.StreamDrainEvent;
+
+/**
+ * Drains an output of an execution in flight, recording the bytes captured so far in the
+ * process registry. Notifications are passed on to an optional delegate.
+ */
+final class OutputDrain implements Callable<String>, DrainListener {
+
+  /**
+   * Type of the output to drain.
+   */
+  private final StdType stdType;
+  /**
+   * Filter deciding which lines are retained, or null to retain all of them.
+   */
+  private final Predicate<String> lineFilter;
+  /**
+   * Listener to pass the notifications on to, or null if none.
+   */
+  private final DrainListener delegate;
+  /**
+   * Execution producing the output.
+   */
+  private final RunningExecution runningExecution;
+  /**
+   * Charset the output is decoded with.
+   */
+  private final Charset charset;
+
+  /**
+   * Constructor used to initialize an OutputDrain object.
+   *
+   * @param stdType           Type of the output to drain.
+   * @param lineFilter        Filter deciding which lines are retained, or null to retain all of
+   *                          them.
+   * @param delegate          Listener to pass the notifications on to, or null if none.
+   * @param runningExecution  Execution producing the output.
+   * @param charset           Charset the output is decoded with.
+   */
+  OutputDrain(
+      StdType stdType,
+      Predicate<String> lineFilter,
+      DrainListener delegate,
+      RunningExecution runningExecution,
+      Charset charset
+  ) {
+    this.stdType = stdType;
+    this.lineFilter = lineFilter;
+    this.delegate = delegate;
+    this.runningExecution = runningExecution;
+    this.charset = charset;
+  }
+
+  /**
+   * Drains the output.
+   *
+   * @return              The retained output.
+   * @throws Exception    Thrown if there is an issue draining the output.
+   */
+  @Override
+  public String call() throws Exception {
+    // The output is looked up rather than held so that a drain is as small as possible.
+    Process process = runningExecution.getProcess();
+    InputStream inputStream = (stdType == StdType.STDOUT)
+        ? process.getInputStream()
+        : process.getErrorStream();
+    // Events aren't created at all unless the flight recorder has been started.
+    StreamDrainEvent drainEvent = null;
+    if (FlightRecorder.isInitialized()) {
+      drainEvent = new StreamDrainEvent();
+      drainEvent.begin();
+    }
+    String output = StreamUtility.convertInputStreamToString(
+        inputStream,
+        stdType,
+        runningExecution.getCommandKey(),
+        lineFilter,
+        this,
+        charset
+    );
+    if (drainEvent != null && drainEvent.shouldCommit()) {
+      drainEvent.setPid(process.pid());
+      drainEvent.setStdType(stdType.name());
+      drainEvent.setDrainedBytes(runningExecution.getCapturedBytes(stdType));
+      drainEvent.commit();
+    }
+    return output;
+  }
+
+  /**
+   * Records the bytes captured so far and passes the notification on to the delegate.
+   *
+   * @param dataReadFromStreamInBytes Total number of bytes read from the stream so far.
+   * @return                          true to continue draining, else false.
+   */
+  @Override
+  public boolean onData(long dataReadFromStreamInBytes) {
+    runningExecution.recordCapturedBytes(stdType, dataReadFromStreamInBytes);
+    return (delegate == null) || delegate.onData(dataReadFromStreamInBytes);
+  }
+
+  /**
+   * Passes the line on to the delegate.
+   *
+   * @param line      Line read, without its line terminator.
+   * @param retained  true if the line is retained in the output, else false.
+   * @return          true to continue draining, else false.
+   */
+  @Override
+  public boolean onLine(String line, boolean retained) {
+    return (delegate == null) || delegate.onLine(line, retained);
+  }
+
+  /**
+   * Checks if the delegate needs to be notified of every line.
+   *
+   * @return true if the delegate needs to be notified of every line, else false.
+   */
+  @Override
+  public boolean isNotifiedOfLines() {
+    return delegate != null && delegate.isNotifiedOfLines();
+  }
+}
@@ -0,0 +1,19 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.IOException;
+import org.padaiyal.utilities.commandline.abstractions.LaunchRequest;
+
+/**
+ * Backend used by CommandLineUtility to spawn processes.
+ */
+public interface ProcessLauncher {
+
+  /**
+   * Spawns a process as per the specified request.
+   *
+   * @param launchRequest Arguments, environment, working directory and redirects of the process.
+   * @return              The spawned process.
+   * @throws IOException  Thrown if there is an issue spawning the process.
+   */
+  Process launch(LaunchRequest launchRequest) throws IOException;
+}
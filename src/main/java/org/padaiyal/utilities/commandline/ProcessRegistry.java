@@ -0,0 +1,182 @@
+package org.padaiyal.utilities.commandline;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Registry of the command executions in flight. Registering and unregistering an execution
+ * only updates a concurrent set, hence executions don't contend with each other while being
+ * spawned. Looking up, listing and terminating executions walk the set instead.
+ */
+public final class ProcessRegistry {
+
+  /**
+   * Executions in flight.
+   */
+  private final Set<RunningExecution> runningExecutions;
+  /**
+   * Identifier of the next registered execution.
+   */
+  private final AtomicLong nextId;
+
+  /**
+   * Constructor used to initialize a ProcessRegistry object.
+   */
+  ProcessRegistry() {
+    this.runningExecutions = ConcurrentHashMap.newKeySet();
+    this.nextId = new AtomicLong();
+  }
+
+  /**
+   * Registers an execution which has been launched.
+   *
+   * @param splitCommand    Command being executed.
+   * @param process         Process executing the command.
+   * @param startTimestamp  Timestamp when the execution started.
+   * @return                The registered execution.
+   */
+  RunningExecution register(String[] splitCommand, Process process, Instant startTimestamp) {
+    RunningExecution runningExecution = new RunningExecution(
+        nextId.incrementAndGet(),
+        splitCommand,
+        process,
+        startTimestamp
+    );
+    runningExecutions.add(runningExecution);
+    return runningExecution;
+  }
+
+  /**
+   * Unregisters an execution which has completed, waking up the threads waiting for it.
+   *
+   * @param runningExecution Execution which has completed.
+   */
+  void unregister(RunningExecution runningExecution) {
+    runningExecutions.remove(runningExecution);
+    runningExecution.complete();
+  }
+
+  /**
+   * Lists the executions in flight.
+   *
+   * @return The executions in flight, in the order they started.
+   */
+  public List<RunningExecution> getRunningExecutions() {
+    List<RunningExecution> executions = new ArrayList<>(runningExecutions);
+    executions.sort(Comparator.comparingLong(RunningExecution::getId));
+    return executions;
+  }
+
+  /**
+   * Looks up the execution in flight with the specified identifier.
+   *
+   * @param id  Identifier of the execution.
+   * @return    The execution, or an empty optional if no such execution is in flight.
+   */
+  public Optional<RunningExecution> getRunningExecution(long id) {
+    return runningExecutions.stream()
+        .filter(runningExecution -> runningExecution.getId() == id)
+        .findAny();
+  }
+
+  /**
+   * Cancels the execution in flight with the specified identifier.
+   *
+   * @param id  Identifier of the execution.
+   * @return    true if the execution was in flight, else false.
+   */
+  public boolean cancel(long id) {
+    Optional<RunningExecution> runningExecution = getRunningExecution(id);
+    runningExecution.ifPresent(RunningExecution::cancel);
+    return runningExecution.isPresent();
+  }
+
+  /**
+   * Cancels all the executions in flight.
+   */
+  public void cancelAll() {
+    runningExecutions.forEach(RunningExecution::cancel);
+  }
+
+  /**
+   * Waits for all the executions in flight to complete.
+   *
+   * @param timeOutDuration       Maximum duration to wait for.
+   * @return                      true if all the executions completed, else false.
+   * @throws InterruptedException Thrown if waiting for the executions is interrupted.
+   */
+  public boolean awaitCompletion(Duration timeOutDuration) throws InterruptedException {
+    Objects.requireNonNull(
+        timeOutDuration,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Duration"
+        )
+    );
+    final long deadlineNanoTime = System.nanoTime() + timeOutDuration.toNanos();
+    for (RunningExecution runningExecution : getRunningExecutions()) {
+      if (!runningExecution.awaitCompletion(
+          Duration.ofNanos(Math.max(deadlineNanoTime - System.nanoTime(), 0))
+      )) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Terminates all the executions in flight. Their process trees are first asked to terminate,
+   * and those still running after the grace period are killed.
+   *
+   * @param gracePeriod Duration the process trees are given to terminate.
+   */
+  public void terminateAll(Duration gracePeriod) {
+    Objects.requireNonNull(
+        gracePeriod,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Grace period"
+        )
+    );
+    List<RunningExecution> executions = getRunningExecutions();
+    List<ProcessHandle> processHandles = new ArrayList<>();
+    for (RunningExecution runningExecution : executions) {
+      runningExecution.markCancelled();
+      // Descendants are captured upfront so that those outliving their parent are still killed.
+      Process process = runningExecution.getProcess();
+      process.descendants()
+          .forEach(processHandles::add);
+      processHandles.add(process.toHandle());
+    }
+    processHandles.forEach(ProcessHandle::destroy);
+    final long deadlineNanoTime = System.nanoTime() + gracePeriod.toNanos();
+    for (ProcessHandle processHandle : processHandles) {
+      try {
+        processHandle.onExit().get(
+            Math.max(deadlineNanoTime - System.nanoTime(), 0),
+            TimeUnit.NANOSECONDS
+        );
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (ExecutionException | TimeoutException e) {
+        // The process is killed below.
+      }
+    }
+    processHandles.forEach(ProcessHandle::destroyForcibly);
+    // Destroying the processes also closes their pipes.
+    executions.forEach(runningExecution -> runningExecution.getProcess().destroyForcibly());
+  }
+}
@@ -0,0 +1,265 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.padaiyal.utilities.I18nUtility;
+import org.padaiyal.utilities.commandline.abstractions.OperatingSystem;
+import org.padaiyal.utilities.commandline.abstractions.ResourceLimit;
+import org.padaiyal.utilities.commandline.abstractions.ResourceLimits;
+import org.padaiyal.utilities.commandline.abstractions.ResourceUsage;
+
+/**
+ * Applies resource limits to commands by wrapping them with prlimit, nice and ionice, falling
+ * back to the ulimit builtin of sh where prlimit isn't available.
+ */
+final class ResourceLimiter {
+
+  /**
+   * Exit code of a process killed by SIGXCPU.
+   */
+  private static final int cpuTimeExceededExitCode = 128 + 24;
+  /**
+   * Exit code of a process killed by SIGKILL, as done on reaching the hard CPU time limit.
+   */
+  private static final int killedExitCode = 128 + 9;
+  /**
+   * Messages reported by common tools on failing to allocate memory, in lower case.
+   */
+  private static final List<String> addressSpaceExceededMessages = List.of(
+      "cannot allocate",
+      "memory exhausted",
+      "out of memory",
+      "bad_alloc",
+      "memoryerror"
+  );
+  /**
+   * Messages reported by common tools on exceeding the open files limit, in lower case. They are
+   * the description of EMFILE, and the report of the dynamic loader which prints its number
+   * instead. The number alone is too common to be telling.
+   */
+  private static final List<String> openFilesExceededMessages = List.of(
+      "too many open files",
+      "cannot open shared object file: error 24"
+  );
+  /**
+   * Messages reported by common tools on failing to fork, in lower case.
+   */
+  private static final List<String> processesExceededMessages = List.of(
+      "fork: resource temporarily unavailable",
+      "fork: retry",
+      "cannot fork"
+  );
+  /**
+   * Path of prlimit, or null if it isn't available.
+   */
+  private static final String prlimitPath = findExecutable("prlimit");
+  /**
+   * Path of ionice, or null if it isn't available.
+   */
+  private static final String ionicePath = findExecutable("ionice");
+
+  /**
+   * Empty private constructor as this utility class is not meant to be used as an instance.
+   */
+  private ResourceLimiter() {
+  }
+
+  /**
+   * Wraps the specified command so that it is executed with the specified limits.
+   *
+   * @param splitCommand    Command to wrap.
+   * @param resourceLimits  Limits to execute the command with.
+   * @return                The wrapped command.
+   */
+  static String[] wrap(String[] splitCommand, ResourceLimits resourceLimits) {
+    OperatingSystem operatingSystem = OperatingSystem.getOperatingSystem();
+    if (operatingSystem == OperatingSystem.WINDOWS) {
+      throw new UnsupportedOperationException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.exception.resourceLimitsUnsupported",
+              operatingSystem
+          )
+      );
+    }
+    List<String> wrappedCommand = new ArrayList<>();
+    if (prlimitPath != null) {
+      wrappedCommand.add(prlimitPath);
+      addPrlimitOption(wrappedCommand, "--as=", resourceLimits, ResourceLimit.ADDRESS_SPACE);
+      long cpuTimeInSeconds = resourceLimits.getLimit(ResourceLimit.CPU_TIME);
+      if (cpuTimeInSeconds != -1) {
+        // The hard limit exceeds the soft one so that the process is sent SIGXCPU first.
+        wrappedCommand.add("--cpu=" + cpuTimeInSeconds + ":" + (cpuTimeInSeconds + 1));
+      }
+      addPrlimitOption(wrappedCommand, "--nofile=", resourceLimits, ResourceLimit.OPEN_FILES);
+      addPrlimitOption(wrappedCommand, "--nproc=", resourceLimits, ResourceLimit.PROCESSES);
+      wrappedCommand.add("--");
+    } else {
+      StringBuilder script = new StringBuilder();
+      addUlimitOption(script, resourceLimits, ResourceLimit.ADDRESS_SPACE, 1024, "-v");
+      addUlimitOption(script, resourceLimits, ResourceLimit.CPU_TIME, 1, "-S -t");
+      addUlimitOption(script, resourceLimits, ResourceLimit.OPEN_FILES, 1, "-n");
+      // The option limiting the processes is -u in bash and ksh, but -p in dash.
+      addUlimitOption(script, resourceLimits, ResourceLimit.PROCESSES, 1, "-u", "-p");
+      script.append("exec \"$@\"");
+      wrappedCommand.addAll(List.of("/bin/sh", "-c", script.toString(), "sh"));
+    }
+    if (resourceLimits.getNiceness() != null) {
+      wrappedCommand.addAll(List.of("nice", "-n", resourceLimits.getNiceness().toString()));
+    }
+    if (resourceLimits.getIoPriority() != null && ionicePath != null) {
+      wrappedCommand.addAll(
+          List.of(ionicePath, "-c", "2", "-n", resourceLimits.getIoPriority().toString())
+      );
+    }
+    wrappedCommand.addAll(Arrays.asList(splitCommand));
+    return wrappedCommand.toArray(new String[0]);
+  }
+
+  /**
+   * Determines the resource limit which a command executed with the specified limits exceeded.
+   * This is a best effort. The CPU time is detected from the command being killed by SIGXCPU, or
+   * by SIGKILL if the sampled CPU time confirms that it reached the limit, as SIGKILL may as well
+   * have been sent for another reason. The other limits are detected from the error messages of
+   * common tools.
+   *
+   * @param resourceLimits  Limits the command was executed with.
+   * @param returnCode      Return code of the command.
+   * @param stderr          Output of the command from STDERR.
+   * @param terminatedEarly true if the command was terminated early on satisfying a stop
+   *                        condition, else false.
+   * @param resourceUsage   Resources sampled while the command ran, or null if they weren't.
+   * @return                The exceeded limit, or null if none of them were detected.
+   */
+  static ResourceLimit detectExceededLimit(
+      ResourceLimits resourceLimits,
+      int returnCode,
+      String stderr,
+      boolean terminatedEarly,
+      ResourceUsage resourceUsage
+  ) {
+    long cpuTimeInSeconds = resourceLimits.getLimit(ResourceLimit.CPU_TIME);
+    if (cpuTimeInSeconds != -1
+        && (returnCode == cpuTimeExceededExitCode
+        || returnCode == killedExitCode && !terminatedEarly && resourceUsage != null
+        && resourceUsage.getUserCpuTime()
+            .plus(resourceUsage.getSystemCpuTime())
+            .getSeconds() >= cpuTimeInSeconds)) {
+      return ResourceLimit.CPU_TIME;
+    }
+    if (returnCode == 0 || stderr == null || stderr.isEmpty()) {
+      return null;
+    }
+    String lowerCaseStderr = stderr.toLowerCase(Locale.ROOT);
+    if (isReported(lowerCaseStderr, resourceLimits, ResourceLimit.OPEN_FILES,
+        openFilesExceededMessages)) {
+      return ResourceLimit.OPEN_FILES;
+    }
+    if (isReported(lowerCaseStderr, resourceLimits, ResourceLimit.PROCESSES,
+        processesExceededMessages)) {
+      return ResourceLimit.PROCESSES;
+    }
+    if (isReported(lowerCaseStderr, resourceLimits, ResourceLimit.ADDRESS_SPACE,
+        addressSpaceExceededMessages)) {
+      return ResourceLimit.ADDRESS_SPACE;
+    }
+    return null;
+  }
+
+  /**
+   * Checks if the specified limit is set and the output reports exceeding it.
+   *
+   * @param lowerCaseStderr Output of the command from STDERR in lower case.
+   * @param resourceLimits  Limits the command was executed with.
+   * @param resourceLimit   Limit to check.
+   * @param messages        Messages reporting exceeding the limit, in lower case.
+   * @return                true if the limit is set and exceeding it is reported, else false.
+   */
+  private static boolean isReported(
+      String lowerCaseStderr,
+      ResourceLimits resourceLimits,
+      ResourceLimit resourceLimit,
+      List<String> messages
+  ) {
+    return resourceLimits.getLimit(resourceLimit) != -1
+        && messages.stream().anyMatch(lowerCaseStderr::contains);
+  }
+
+  /**
+   * Adds the prlimit option setting the specified limit, if it is set.
+   *
+   * @param wrappedCommand  Command to add the option to.
+   * @param option          Option including the equals sign.
+   * @param resourceLimits  Limits to execute the command with.
+   * @param resourceLimit   Limit to set.
+   */
+  private static void addPrlimitOption(
+      List<String> wrappedCommand,
+      String option,
+      ResourceLimits resourceLimits,
+      ResourceLimit resourceLimit
+  ) {
+    long limit = resourceLimits.getLimit(resourceLimit);
+    if (limit != -1) {
+      wrappedCommand.add(option + limit);
+    }
+  }
+
+  /**
+   * Adds the ulimit invocation setting the specified limit to the script, if it is set. The
+   * options are tried in turn, as the shells disagree on some of them, and the script exits if
+   * none of them is accepted.
+   *
+   * @param script          Script to add the invocation to.
+   * @param resourceLimits  Limits to execute the command with.
+   * @param resourceLimit   Limit to set.
+   * @param unit            Number of units of the limit per unit expected by ulimit.
+   * @param options         Options of ulimit setting the limit, in the order to try them.
+   */
+  private static void addUlimitOption(
+      StringBuilder script,
+      ResourceLimits resourceLimits,
+      ResourceLimit resourceLimit,
+      long unit,
+      String... options
+  ) {
+    long limit = resourceLimits.getLimit(resourceLimit);
+    if (limit == -1) {
+      return;
+    }
+    long ulimitValue = Math.max(limit / unit, 1);
+    for (int index = 0; index < options.length; index++) {
+      script.append("ulimit ").append(options[index]).append(' ').append(ulimitValue);
+      // Only the failure of the last option is reported.
+      script.append((index < options.length - 1) ? " 2>/dev/null || " : " || exit 1; ");
+    }
+  }
+
+  /**
+   * Finds the specified executable in the directories of the PATH.
+   *
+   * @param name  Name of the executable.
+   * @return      Path of the executable, or null if it isn't found.
+   */
+  private static String findExecutable(String name) {
+    String path = System.getenv("PATH");
+    if (path == null) {
+      return null;
+    }
+    for (String directory : path.split(File.pathSeparator)) {
+      if (directory.isEmpty()) {
+        continue;
+      }
+      Path executablePath = Paths.get(directory, name);
+      if (Files.isRegularFile(executablePath) && Files.isExecutable(executablePath)) {
+        return executablePath.toString();
+      }
+    }
+    return null;
+  }
+}
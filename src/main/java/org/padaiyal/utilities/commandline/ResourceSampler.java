@@ -0,0 +1,443 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+import org.padaiyal.utilities.commandline.abstractions.ResourceUsage;
+
+/**
+ * Samples the resources used by running processes along with their descendants from /proc. A
+ * single thread periodically samples all the tracked processes, scanning /proc once per sample
+ * to discover their descendants.
+ */
+public final class ResourceSampler implements AutoCloseable {
+
+  /**
+   * Number of clock ticks per second in which CPU times are reported in /proc, which is 100 on
+   * all mainstream Linux architectures.
+   */
+  private static final long clockTicksPerSecond = 100;
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(ResourceSampler.class);
+  /**
+   * Interval at which the tracked processes are sampled.
+   */
+  private final Duration samplingInterval;
+  /**
+   * Root of the proc filesystem.
+   */
+  private final Path procPath;
+  /**
+   * Processes currently being tracked.
+   */
+  private final Set<Tracker> trackers;
+  /**
+   * Executor running the sampling thread.
+   */
+  private final ScheduledExecutorService samplingExecutor;
+  /**
+   * Buffer reused to read the files in /proc. Only used by the sampling thread.
+   */
+  private final byte[] readBuffer;
+  /**
+   * Indicates if the proc filesystem is available.
+   */
+  private final boolean supported;
+
+  /**
+   * Constructor used to initialize a ResourceSampler object sampling /proc.
+   *
+   * @param samplingInterval Interval at which the tracked processes are sampled.
+   */
+  public ResourceSampler(Duration samplingInterval) {
+    this(samplingInterval, Paths.get("/proc"), true);
+  }
+
+  /**
+   * Constructor used to initialize a ResourceSampler object.
+   *
+   * @param samplingInterval  Interval at which the tracked processes are sampled.
+   * @param procPath          Root of the proc filesystem.
+   * @param sampling          true to sample periodically, false if samples are only taken on
+   *                          calling sample().
+   */
+  ResourceSampler(Duration samplingInterval, Path procPath, boolean sampling) {
+    Objects.requireNonNull(
+        samplingInterval,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Duration"
+        )
+    );
+    if (samplingInterval.isZero() || samplingInterval.isNegative()) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.positive",
+              "Sampling interval (ms)",
+              samplingInterval.toMillis()
+          )
+      );
+    }
+    this.samplingInterval = samplingInterval;
+    this.procPath = procPath;
+    this.trackers = ConcurrentHashMap.newKeySet();
+    this.readBuffer = new byte[4096];
+    this.supported = Files.isDirectory(procPath.resolve("self"));
+    if (sampling) {
+      samplingExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "CommandLineUtility-resource-sampler");
+        thread.setDaemon(true);
+        return thread;
+      });
+      samplingExecutor.scheduleWithFixedDelay(
+          this::sampleSafely,
+          samplingInterval.toNanos(),
+          samplingInterval.toNanos(),
+          TimeUnit.NANOSECONDS
+      );
+    } else {
+      samplingExecutor = null;
+    }
+  }
+
+  /**
+   * Retrieves the interval at which the tracked processes are sampled.
+   *
+   * @return Interval at which the tracked processes are sampled.
+   */
+  public Duration getSamplingInterval() {
+    return samplingInterval;
+  }
+
+  /**
+   * Checks if resource usage can be sampled on this machine, which requires a proc filesystem.
+   *
+   * @return true if resource usage can be sampled, else false.
+   */
+  public boolean isSupported() {
+    return supported;
+  }
+
+  /**
+   * Starts tracking the resources used by the specified process and its descendants.
+   *
+   * @param process Process to track.
+   * @return        Tracker accumulating the samples of the process, or null if the process
+   *                can't be sampled.
+   */
+  Tracker track(Process process) {
+    if (!supported) {
+      return null;
+    }
+    try {
+      return track(process.pid());
+    } catch (UnsupportedOperationException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Starts tracking the resources used by the specified process and its descendants.
+   *
+   * @param pid PID of the process to track.
+   * @return    Tracker accumulating the samples of the process.
+   */
+  Tracker track(long pid) {
+    Tracker tracker = new Tracker(pid);
+    trackers.add(tracker);
+    return tracker;
+  }
+
+  /**
+   * Stops tracking the process and computes the resources it used.
+   *
+   * @param tracker Tracker accumulating the samples of the process.
+   * @return        The resources used by the process and its descendants.
+   */
+  ResourceUsage stopTracking(Tracker tracker) {
+    trackers.remove(tracker);
+    return tracker.getResourceUsage();
+  }
+
+  /**
+   * Stops sampling. Processes being tracked aren't sampled any more.
+   */
+  @Override
+  public void close() {
+    if (samplingExecutor != null) {
+      samplingExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * Samples the tracked processes, logging any failure so that the periodic sampling continues.
+   */
+  private void sampleSafely() {
+    try {
+      sample();
+    } catch (RuntimeException | IOException e) {
+      logger.error(e);
+    }
+  }
+
+  /**
+   * Samples the resources used by all the tracked processes and their descendants.
+   *
+   * @throws IOException Thrown if there is an issue listing the processes.
+   */
+  synchronized void sample() throws IOException {
+    if (trackers.isEmpty()) {
+      return;
+    }
+    // The parent of every process is needed to discover the descendants of the tracked ones.
+    Map<Long, List<Long>> childPids = new HashMap<>();
+    Map<Long, long[]> cpuTicks = new HashMap<>();
+    try (DirectoryStream<Path> processDirectories = Files.newDirectoryStream(procPath)) {
+      for (Path processDirectory : processDirectories) {
+        long pid = parsePid(processDirectory.getFileName().toString());
+        if (pid == -1) {
+          continue;
+        }
+        String stat = readProcFile(processDirectory.resolve("stat"));
+        if (stat == null) {
+          continue;
+        }
+        // The command name may contain spaces, hence the fields are parsed after it.
+        String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+        long parentPid = Long.parseLong(fields[1]);
+        childPids.computeIfAbsent(parentPid, key -> new ArrayList<>()).add(pid);
+        cpuTicks.put(pid, new long[]{Long.parseLong(fields[11]), Long.parseLong(fields[12])});
+      }
+    }
+
+    for (Tracker tracker : trackers) {
+      long[] rootCpuTicks = cpuTicks.get(tracker.rootPid);
+      if (rootCpuTicks == null) {
+        // The process has exited.
+        continue;
+      }
+      List<Long> treePids = new ArrayList<>();
+      treePids.add(tracker.rootPid);
+      for (int index = 0; index < treePids.size(); index++) {
+        treePids.addAll(childPids.getOrDefault(treePids.get(index), List.of()));
+      }
+      long residentSetSizeInBytes = 0;
+      long peakProcessResidentSetSizeInBytes = 0;
+      for (long pid : treePids) {
+        Path processDirectory = procPath.resolve(Long.toString(pid));
+        long[] memory = parseMemory(readProcFile(processDirectory.resolve("status")));
+        long[] io = parseIo(readProcFile(processDirectory.resolve("io")));
+        residentSetSizeInBytes += memory[0];
+        peakProcessResidentSetSizeInBytes = Math.max(peakProcessResidentSetSizeInBytes, memory[1]);
+        long[] ticks = cpuTicks.get(pid);
+        tracker.recordProcess(pid, ticks[0], ticks[1], io[0], io[1]);
+      }
+      tracker.recordSample(
+          Math.max(residentSetSizeInBytes, peakProcessResidentSetSizeInBytes),
+          treePids.size() - 1
+      );
+    }
+  }
+
+  /**
+   * Reads the specified file in /proc.
+   *
+   * @param path  Path of the file.
+   * @return      Contents of the file, or null if it can't be read, e.g. as the process exited.
+   */
+  private String readProcFile(Path path) {
+    try (InputStream inputStream = Files.newInputStream(path)) {
+      int length = inputStream.readNBytes(readBuffer, 0, readBuffer.length);
+      return new String(readBuffer, 0, length, StandardCharsets.ISO_8859_1);
+    } catch (IOException | SecurityException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Parses the PID from the name of a directory in /proc.
+   *
+   * @param fileName  Name of the directory.
+   * @return          The PID, or -1 if the directory doesn't belong to a process.
+   */
+  private static long parsePid(String fileName) {
+    for (int index = 0; index < fileName.length(); index++) {
+      if (!Character.isDigit(fileName.charAt(index))) {
+        return -1;
+      }
+    }
+    return fileName.isEmpty() ? -1 : Long.parseLong(fileName);
+  }
+
+  /**
+   * Parses the current and peak resident set size from /proc/[pid]/status.
+   *
+   * @param status  Contents of the file, or null if it couldn't be read.
+   * @return        The current and peak resident set size in bytes.
+   */
+  private static long[] parseMemory(String status) {
+    return new long[]{
+        parseField(status, "VmRSS:") * 1024,
+        parseField(status, "VmHWM:") * 1024
+    };
+  }
+
+  /**
+   * Parses the bytes read from and written to storage from /proc/[pid]/io.
+   *
+   * @param io  Contents of the file, or null if it couldn't be read.
+   * @return    The bytes read from and written to storage.
+   */
+  private static long[] parseIo(String io) {
+    return new long[]{
+        parseField(io, "read_bytes:"),
+        parseField(io, "write_bytes:")
+    };
+  }
+
+  /**
+   * Parses the numeric value of the specified field from the contents of a file in /proc, in
+   * which every line is of the form "name: value [unit]".
+   *
+   * @param contents  Contents of the file, or null if it couldn't be read.
+   * @param fieldName Name of the field including the colon.
+   * @return          Value of the field, or 0 if it isn't present.
+   */
+  private static long parseField(String contents, String fieldName) {
+    if (contents == null) {
+      return 0;
+    }
+    int fieldIndex;
+    if (contents.startsWith(fieldName)) {
+      fieldIndex = 0;
+    } else {
+      fieldIndex = contents.indexOf("\n" + fieldName);
+      if (fieldIndex == -1) {
+        return 0;
+      }
+      fieldIndex++;
+    }
+    int index = fieldIndex + fieldName.length();
+    while (index < contents.length()
+        && (contents.charAt(index) == ' ' || contents.charAt(index) == '\t')) {
+      index++;
+    }
+    long value = 0;
+    while (index < contents.length() && Character.isDigit(contents.charAt(index))) {
+      value = value * 10 + (contents.charAt(index++) - '0');
+    }
+    return value;
+  }
+
+  /**
+   * Accumulates the samples of a tracked process and its descendants.
+   */
+  static final class Tracker {
+
+    /**
+     * PID of the tracked process.
+     */
+    private final long rootPid;
+    /**
+     * Latest user and system CPU ticks, and read and written bytes of every process of the tree
+     * sampled so far, including the ones which exited since.
+     */
+    private final Map<Long, long[]> processUsages;
+    /**
+     * Peak resident set size of the process tree in bytes.
+     */
+    private long peakResidentSetSizeInBytes;
+    /**
+     * Peak number of descendants running at once.
+     */
+    private int peakChildCount;
+    /**
+     * Number of samples taken.
+     */
+    private int sampleCount;
+
+    /**
+     * Constructor used to initialize a Tracker object.
+     *
+     * @param rootPid PID of the tracked process.
+     */
+    private Tracker(long rootPid) {
+      this.rootPid = rootPid;
+      this.processUsages = new HashMap<>();
+    }
+
+    /**
+     * Records the cumulative usage of a process of the tree.
+     *
+     * @param pid           PID of the process.
+     * @param userTicks     CPU ticks spent in user mode.
+     * @param systemTicks   CPU ticks spent in kernel mode.
+     * @param readBytes     Bytes read from storage.
+     * @param writtenBytes  Bytes written to storage.
+     */
+    private synchronized void recordProcess(
+        long pid,
+        long userTicks,
+        long systemTicks,
+        long readBytes,
+        long writtenBytes
+    ) {
+      processUsages.put(pid, new long[]{userTicks, systemTicks, readBytes, writtenBytes});
+    }
+
+    /**
+     * Records a sample of the whole tree.
+     *
+     * @param residentSetSizeInBytes  Resident set size of the tree in bytes.
+     * @param childCount              Number of descendants running.
+     */
+    private synchronized void recordSample(long residentSetSizeInBytes, int childCount) {
+      peakResidentSetSizeInBytes = Math.max(peakResidentSetSizeInBytes, residentSetSizeInBytes);
+      peakChildCount = Math.max(peakChildCount, childCount);
+      sampleCount++;
+    }
+
+    /**
+     * Computes the resources used by the tree as of the latest sample.
+     *
+     * @return The resources used by the tree.
+     */
+    private synchronized ResourceUsage getResourceUsage() {
+      long[] totals = new long[4];
+      for (long[] processUsage : processUsages.values()) {
+        for (int index = 0; index < totals.length; index++) {
+          totals[index] += processUsage[index];
+        }
+      }
+      return new ResourceUsage(
+          peakResidentSetSizeInBytes,
+          Duration.ofMillis(totals[0] * 1000 / clockTicksPerSecond),
+          Duration.ofMillis(totals[1] * 1000 / clockTicksPerSecond),
+          totals[2],
+          totals[3],
+          peakChildCount,
+          sampleCount
+      );
+    }
+  }
+}
@@ -0,0 +1,538 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.padaiyal.utilities.I18nUtility;
+import org.padaiyal.utilities.commandline.abstractions.ResourceLimit;
+import org.padaiyal.utilities.commandline.abstractions.ResourceUsage;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Serializes responses into a compact, versioned binary format. All numbers are big-endian and a
+ * serialized response is laid out as follows.
+ *
+ * <pre>
+ *   int     magic number, "PDRS"
+ *   byte    format version
+ *   byte    flags denoting the optional fields present
+ *   int     return code
+ *   long    execution start timestamp, seconds since the epoch
+ *   int     execution start timestamp, nanoseconds within the second
+ *   long    execution duration in nanoseconds
+ *   [48]    resource usage, if flagged
+ *   byte    ordinal of the exceeded resource limit, if flagged
+ *   section STDOUT
+ *   section STDERR
+ * </pre>
+ *
+ * <p>Each section holds the length of the UTF-8 encoded output (-1 if there is no output), the
+ * length of the stored bytes, followed by the stored bytes. A section is stored compressed only
+ * if compression was requested and it made the section smaller, hence the stored length is below
+ * the output length exactly when the section is compressed. Uncompressed sections can be read in
+ * place, without copying, through a SerializedResponse.
+ *
+ * <p>The merged output chunks of a response aren't serialized, as their times are values of
+ * System.nanoTime(), which are meaningless outside of the JVM which read the outputs. Responses
+ * read back hence have no merged output chunks, although their STDOUT and STDERR are intact.
+ */
+public final class ResponseSerializer {
+
+  /**
+   * Magic number identifying a serialized response, "PDRS".
+   */
+  static final int MAGIC = 0x50445253;
+  /**
+   * Version of the format written.
+   */
+  static final byte FORMAT_VERSION = 1;
+  /**
+   * Flag denoting that the command was terminated early.
+   */
+  static final byte FLAG_TERMINATED_EARLY = 1;
+  /**
+   * Flag denoting that the resource usage is present.
+   */
+  static final byte FLAG_RESOURCE_USAGE = 1 << 1;
+  /**
+   * Flag denoting that the exceeded resource limit is present.
+   */
+  static final byte FLAG_EXCEEDED_RESOURCE_LIMIT = 1 << 2;
+  /**
+   * Size of the fields present in every serialized response, preceding the optional fields.
+   */
+  static final int FIXED_HEADER_SIZE = 30;
+  /**
+   * Size of the resource usage.
+   */
+  static final int RESOURCE_USAGE_SIZE = 48;
+  /**
+   * Size of the lengths preceding the bytes of a section.
+   */
+  static final int SECTION_HEADER_SIZE = 8;
+  /**
+   * Output length of a section without any output.
+   */
+  static final int NO_OUTPUT = -1;
+
+  /**
+   * Empty private constructor as this utility class is not meant to be used as an instance.
+   */
+  private ResponseSerializer() {
+
+  }
+
+  /**
+   * Writes the specified response to a channel. The outputs are written as they are, without
+   * being copied into an intermediate buffer, unless they are compressed.
+   *
+   * @param response      Response to write.
+   * @param channel       Channel to write the response to.
+   * @param compressed    true to compress the outputs, else false.
+   * @return              Number of bytes written.
+   * @throws IOException  Thrown if there is an issue writing to the channel.
+   */
+  public static long write(Response response, WritableByteChannel channel, boolean compressed)
+      throws IOException {
+    Objects.requireNonNull(
+        response,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Response"
+        )
+    );
+    Objects.requireNonNull(
+        channel,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Channel"
+        )
+    );
+    ResourceUsage resourceUsage = response.getResourceUsage();
+    ResourceLimit exceededResourceLimit = response.getExceededResourceLimit();
+    byte flags = 0;
+    int headerSize = FIXED_HEADER_SIZE;
+    if (response.isTerminatedEarly()) {
+      flags |= FLAG_TERMINATED_EARLY;
+    }
+    if (resourceUsage != null) {
+      flags |= FLAG_RESOURCE_USAGE;
+      headerSize += RESOURCE_USAGE_SIZE;
+    }
+    if (exceededResourceLimit != null) {
+      flags |= FLAG_EXCEEDED_RESOURCE_LIMIT;
+      headerSize++;
+    }
+    ByteBuffer header = ByteBuffer.allocate(headerSize);
+    Instant executionStartTimestamp = response.getExecutionStartTimestamp();
+    header.putInt(MAGIC)
+        .put(FORMAT_VERSION)
+        .put(flags)
+        .putInt(response.getReturnCode())
+        .putLong(executionStartTimestamp.getEpochSecond())
+        .putInt(executionStartTimestamp.getNano())
+        .putLong(response.getExecutionDuration().toNanos());
+    if (resourceUsage != null) {
+      header.putLong(resourceUsage.getPeakResidentSetSizeInBytes())
+          .putLong(resourceUsage.getUserCpuTime().toNanos())
+          .putLong(resourceUsage.getSystemCpuTime().toNanos())
+          .putLong(resourceUsage.getReadBytes())
+          .putLong(resourceUsage.getWrittenBytes())
+          .putInt(resourceUsage.getPeakChildCount())
+          .putInt(resourceUsage.getSampleCount());
+    }
+    if (exceededResourceLimit != null) {
+      header.put((byte) exceededResourceLimit.ordinal());
+    }
+    header.flip();
+
+    ByteBuffer[] buffers = {
+        header,
+        ByteBuffer.allocate(SECTION_HEADER_SIZE),
+        null,
+        ByteBuffer.allocate(SECTION_HEADER_SIZE),
+        null
+    };
+    prepareSection(response.getOutput(StdType.STDOUT), compressed, buffers, 1);
+    prepareSection(response.getOutput(StdType.STDERR), compressed, buffers, 3);
+    long totalBytes = 0;
+    for (ByteBuffer buffer : buffers) {
+      totalBytes += buffer.remaining();
+    }
+    if (channel instanceof GatheringByteChannel) {
+      GatheringByteChannel gatheringChannel = (GatheringByteChannel) channel;
+      long bytesWritten = 0;
+      while (bytesWritten < totalBytes) {
+        bytesWritten += gatheringChannel.write(buffers);
+      }
+    } else {
+      for (ByteBuffer buffer : buffers) {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+    }
+    return totalBytes;
+  }
+
+  /**
+   * Reads a response from a channel.
+   *
+   * @param channel       Channel to read the response from.
+   * @return              The response read, or an empty optional if the channel is at its end.
+   * @throws IOException  Thrown if there is an issue reading from the channel, or if the data
+   *                      read isn't a valid serialized response.
+   */
+  public static Optional<Response> read(ReadableByteChannel channel) throws IOException {
+    Objects.requireNonNull(
+        channel,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Channel"
+        )
+    );
+    ByteBuffer fixedHeader = ByteBuffer.allocate(FIXED_HEADER_SIZE);
+    if (!readFully(channel, fixedHeader, true)) {
+      return Optional.empty();
+    }
+    fixedHeader.flip();
+    validateMagicAndVersion(fixedHeader);
+    final byte flags = fixedHeader.get();
+    final int returnCode = fixedHeader.getInt();
+    final Instant executionStartTimestamp = Instant.ofEpochSecond(
+        fixedHeader.getLong(),
+        fixedHeader.getInt()
+    );
+    final Duration executionDuration = Duration.ofNanos(fixedHeader.getLong());
+
+    int optionalHeaderSize = 0;
+    if ((flags & FLAG_RESOURCE_USAGE) != 0) {
+      optionalHeaderSize += RESOURCE_USAGE_SIZE;
+    }
+    if ((flags & FLAG_EXCEEDED_RESOURCE_LIMIT) != 0) {
+      optionalHeaderSize++;
+    }
+    ByteBuffer optionalHeader = ByteBuffer.allocate(optionalHeaderSize);
+    readFully(channel, optionalHeader, false);
+    optionalHeader.flip();
+    final ResourceUsage resourceUsage = ((flags & FLAG_RESOURCE_USAGE) != 0)
+        ? readResourceUsage(optionalHeader)
+        : null;
+    final ResourceLimit exceededResourceLimit = ((flags & FLAG_EXCEEDED_RESOURCE_LIMIT) != 0)
+        ? readResourceLimit(optionalHeader)
+        : null;
+
+    String stdout = readSection(channel);
+    String stderr = readSection(channel);
+    return Optional.of(
+        new Response(
+            returnCode,
+            stdout,
+            stderr,
+            executionStartTimestamp,
+            executionDuration,
+            (flags & FLAG_TERMINATED_EARLY) != 0,
+            resourceUsage,
+            exceededResourceLimit
+        )
+    );
+  }
+
+  /**
+   * Creates a view of the response serialized at the current position of the specified buffer,
+   * such as a buffer mapping a file. The buffer isn't modified, and the view shares its content
+   * rather than copying it.
+   *
+   * @param buffer        Buffer holding the serialized response.
+   * @return              View of the serialized response.
+   * @throws IOException  Thrown if the buffer doesn't hold a valid serialized response.
+   */
+  public static SerializedResponse view(ByteBuffer buffer) throws IOException {
+    Objects.requireNonNull(
+        buffer,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "ByteBuffer"
+        )
+    );
+    return new SerializedResponse(buffer);
+  }
+
+  /**
+   * Validates the magic number and format version at the current position of the buffer,
+   * leaving the buffer positioned after them.
+   *
+   * @param buffer        Buffer holding a serialized response.
+   * @throws IOException  Thrown if the magic number or format version isn't supported.
+   */
+  static void validateMagicAndVersion(ByteBuffer buffer) throws IOException {
+    int magic = buffer.getInt();
+    if (magic != MAGIC) {
+      throw new IOException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.serialization.error.invalidMagic",
+              Integer.toHexString(magic)
+          )
+      );
+    }
+    byte formatVersion = buffer.get();
+    if (formatVersion != FORMAT_VERSION) {
+      throw new IOException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.serialization.error.unsupportedVersion",
+              formatVersion,
+              FORMAT_VERSION
+          )
+      );
+    }
+  }
+
+  /**
+   * Reads the resource usage at the current position of the buffer.
+   *
+   * @param buffer  Buffer holding the resource usage.
+   * @return        The resource usage.
+   */
+  static ResourceUsage readResourceUsage(ByteBuffer buffer) {
+    return new ResourceUsage(
+        buffer.getLong(),
+        Duration.ofNanos(buffer.getLong()),
+        Duration.ofNanos(buffer.getLong()),
+        buffer.getLong(),
+        buffer.getLong(),
+        buffer.getInt(),
+        buffer.getInt()
+    );
+  }
+
+  /**
+   * Reads the exceeded resource limit at the current position of the buffer.
+   *
+   * @param buffer        Buffer holding the exceeded resource limit.
+   * @return              The exceeded resource limit.
+   * @throws IOException  Thrown if the resource limit isn't known.
+   */
+  static ResourceLimit readResourceLimit(ByteBuffer buffer) throws IOException {
+    int ordinal = buffer.get();
+    ResourceLimit[] resourceLimits = ResourceLimit.values();
+    if (ordinal < 0 || ordinal >= resourceLimits.length) {
+      throw new IOException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.serialization.error.corrupted",
+              "ResourceLimit"
+          )
+      );
+    }
+    return resourceLimits[ordinal];
+  }
+
+  /**
+   * Validates the lengths of a section.
+   *
+   * @param outputLength  Length of the UTF-8 encoded output, or NO_OUTPUT.
+   * @param storedLength  Length of the stored bytes.
+   * @throws IOException  Thrown if the lengths are inconsistent.
+   */
+  static void validateSectionLengths(int outputLength, int storedLength) throws IOException {
+    if (outputLength < NO_OUTPUT || storedLength < 0
+        || storedLength > Math.max(outputLength, 0)) {
+      throw new IOException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.serialization.error.corrupted",
+              "Section"
+          )
+      );
+    }
+  }
+
+  /**
+   * Decodes an UTF-8 encoded output. The bytes are decoded from an array, where the String
+   * constructor has fast paths for ASCII that a CharsetDecoder lacks.
+   *
+   * @param outputBytes UTF-8 encoded output, or null if there is no output.
+   * @return            The output, or null if there is no output.
+   */
+  static String decodeOutput(ByteBuffer outputBytes) {
+    if (outputBytes == null) {
+      return null;
+    }
+    if (outputBytes.hasArray()) {
+      return new String(
+          outputBytes.array(),
+          outputBytes.arrayOffset() + outputBytes.position(),
+          outputBytes.remaining(),
+          StandardCharsets.UTF_8
+      );
+    }
+    byte[] output = new byte[outputBytes.remaining()];
+    outputBytes.duplicate().get(output);
+    return new String(output, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Decodes the stored bytes of a section.
+   *
+   * @param storedBytes   Stored bytes of the section.
+   * @param outputLength  Length of the UTF-8 encoded output, or NO_OUTPUT.
+   * @return              The UTF-8 encoded output, or null if there is no output.
+   * @throws IOException  Thrown if the stored bytes can't be decompressed.
+   */
+  static ByteBuffer decodeSection(ByteBuffer storedBytes, int outputLength) throws IOException {
+    if (outputLength == NO_OUTPUT) {
+      return null;
+    }
+    if (storedBytes.remaining() == outputLength) {
+      return storedBytes;
+    }
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(storedBytes);
+      byte[] output = new byte[outputLength];
+      int inflatedBytes = 0;
+      while (inflatedBytes < outputLength && !inflater.finished()) {
+        int bytesInflated = inflater.inflate(output, inflatedBytes, outputLength - inflatedBytes);
+        if (bytesInflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        inflatedBytes += bytesInflated;
+      }
+      if (inflatedBytes != outputLength || !inflater.finished()) {
+        throw new IOException(
+            I18nUtility.getFormattedString(
+                "CommandLineUtility.serialization.error.corrupted",
+                "Section"
+            )
+        );
+      }
+      return ByteBuffer.wrap(output);
+    } catch (DataFormatException e) {
+      throw new IOException(e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /**
+   * Prepares the lengths and stored bytes of a section for writing.
+   *
+   * @param output      Output to store, or null if there is none.
+   * @param compressed  true to compress the output if that makes it smaller, else false.
+   * @param buffers     Buffers to write, the section header is at the index and the stored bytes
+   *                    follow it.
+   * @param index       Index of the section header in the buffers.
+   */
+  private static void prepareSection(
+      String output,
+      boolean compressed,
+      ByteBuffer[] buffers,
+      int index
+  ) {
+    ByteBuffer sectionHeader = buffers[index];
+    if (output == null) {
+      sectionHeader.putInt(NO_OUTPUT).putInt(0).flip();
+      buffers[index + 1] = ByteBuffer.allocate(0);
+      return;
+    }
+    byte[] outputBytes = output.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer storedBytes = ByteBuffer.wrap(outputBytes);
+    if (compressed && outputBytes.length > 0) {
+      byte[] compressedBytes = compress(outputBytes);
+      if (compressedBytes != null) {
+        storedBytes = ByteBuffer.wrap(compressedBytes);
+      }
+    }
+    sectionHeader.putInt(outputBytes.length)
+        .putInt(storedBytes.remaining())
+        .flip();
+    buffers[index + 1] = storedBytes;
+  }
+
+  /**
+   * Compresses the specified bytes.
+   *
+   * @param bytes Bytes to compress.
+   * @return      The compressed bytes, or null if compressing doesn't make them smaller.
+   */
+  private static byte[] compress(byte[] bytes) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+      // Compressing is abandoned as soon as the output is no smaller than the input.
+      ByteArrayOutputStream compressedBytes = new ByteArrayOutputStream(bytes.length / 2 + 16);
+      byte[] chunk = new byte[Math.min(bytes.length, 8192)];
+      while (!deflater.finished()) {
+        int bytesDeflated = deflater.deflate(chunk);
+        compressedBytes.write(chunk, 0, bytesDeflated);
+        if (compressedBytes.size() >= bytes.length) {
+          return null;
+        }
+      }
+      return compressedBytes.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Reads a section from the channel.
+   *
+   * @param channel       Channel to read the section from.
+   * @return              The output held by the section, or null if there is none.
+   * @throws IOException  Thrown if there is an issue reading the section.
+   */
+  private static String readSection(ReadableByteChannel channel) throws IOException {
+    ByteBuffer sectionHeader = ByteBuffer.allocate(SECTION_HEADER_SIZE);
+    readFully(channel, sectionHeader, false);
+    sectionHeader.flip();
+    int outputLength = sectionHeader.getInt();
+    int storedLength = sectionHeader.getInt();
+    validateSectionLengths(outputLength, storedLength);
+    ByteBuffer storedBytes = ByteBuffer.allocate(storedLength);
+    readFully(channel, storedBytes, false);
+    storedBytes.flip();
+    return decodeOutput(decodeSection(storedBytes, outputLength));
+  }
+
+  /**
+   * Reads from the channel until the buffer is full.
+   *
+   * @param channel       Channel to read from.
+   * @param buffer        Buffer to fill.
+   * @param endAllowed    true if the channel may be at its end before anything is read, else
+   *                      false.
+   * @return              true if the buffer was filled, false if the channel was at its end.
+   * @throws IOException  Thrown if there is an issue reading from the channel, or if it ends
+   *                      before the buffer is filled.
+   */
+  private static boolean readFully(
+      ReadableByteChannel channel,
+      ByteBuffer buffer,
+      boolean endAllowed
+  ) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) == -1) {
+        if (endAllowed && buffer.position() == 0) {
+          return false;
+        }
+        throw new EOFException(
+            I18nUtility.getString("CommandLineUtility.serialization.error.truncated")
+        );
+      }
+    }
+    return true;
+  }
+}
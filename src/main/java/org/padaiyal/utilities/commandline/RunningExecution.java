@@ -0,0 +1,231 @@
+package org.padaiyal.utilities.commandline;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.padaiyal.utilities.I18nUtility;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Represents a command execution which is in flight, as recorded in the process registry.
+ */
+public final class RunningExecution {
+
+  /**
+   * Identifier of the execution, unique within the process registry.
+   */
+  private final long id;
+  /**
+   * Command being executed.
+   */
+  private final String[] splitCommand;
+  /**
+   * Process executing the command.
+   */
+  private final Process process;
+  /**
+   * Timestamp when the execution started.
+   */
+  private final Instant startTimestamp;
+  /**
+   * Number of bytes captured from STDOUT so far.
+   */
+  private volatile long capturedStdoutBytes;
+  /**
+   * Number of bytes captured from STDERR so far.
+   */
+  private volatile long capturedStderrBytes;
+  /**
+   * Whether the execution has been cancelled.
+   */
+  private volatile boolean cancelled;
+  /**
+   * Whether the execution has completed.
+   */
+  private volatile boolean completed;
+  /**
+   * Whether any thread has waited for the execution to complete.
+   */
+  private volatile boolean awaited;
+
+  /**
+   * Constructor used to initialize a RunningExecution object.
+   *
+   * @param id              Identifier of the execution.
+   * @param splitCommand    Command being executed.
+   * @param process         Process executing the command.
+   * @param startTimestamp  Timestamp when the execution started.
+   */
+  RunningExecution(long id, String[] splitCommand, Process process, Instant startTimestamp) {
+    this.id = id;
+    this.splitCommand = splitCommand;
+    this.process = process;
+    this.startTimestamp = startTimestamp;
+  }
+
+  /**
+   * Retrieves the identifier of the execution.
+   *
+   * @return Identifier of the execution.
+   */
+  public long getId() {
+    return id;
+  }
+
+  /**
+   * Retrieves the command being executed.
+   *
+   * @return Command being executed.
+   */
+  public List<String> getCommand() {
+    return List.of(splitCommand);
+  }
+
+  /**
+   * Retrieves the PID of the process executing the command.
+   *
+   * @return PID of the process.
+   */
+  public long getPid() {
+    return process.pid();
+  }
+
+  /**
+   * Retrieves the timestamp when the execution started.
+   *
+   * @return Timestamp when the execution started.
+   */
+  public Instant getStartTimestamp() {
+    return startTimestamp;
+  }
+
+  /**
+   * Retrieves the number of bytes captured from the specified output so far.
+   *
+   * @param stdType Type of output.
+   * @return        Number of bytes captured so far.
+   */
+  public long getCapturedBytes(StdType stdType) {
+    Objects.requireNonNull(
+        stdType,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "StdType"
+        )
+    );
+    return (stdType == StdType.STDOUT) ? capturedStdoutBytes : capturedStderrBytes;
+  }
+
+  /**
+   * Checks if the execution has been cancelled.
+   *
+   * @return true if the execution has been cancelled, else false.
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Cancels the execution, killing its process tree. The execution then throws a
+   * CancellationException.
+   */
+  public void cancel() {
+    cancelled = true;
+    CommandLineUtility.destroyProcessTree(process);
+  }
+
+  /**
+   * Checks if the execution has completed.
+   *
+   * @return true if the execution has completed, else false.
+   */
+  public boolean isCompleted() {
+    return completed;
+  }
+
+  /**
+   * Waits for the execution to complete.
+   *
+   * @param timeOutDuration       Maximum duration to wait for.
+   * @return                      true if the execution completed, else false.
+   * @throws InterruptedException Thrown if waiting for the execution is interrupted.
+   */
+  public boolean awaitCompletion(Duration timeOutDuration) throws InterruptedException {
+    Objects.requireNonNull(
+        timeOutDuration,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Duration"
+        )
+    );
+    final long deadlineNanoTime = System.nanoTime() + timeOutDuration.toNanos();
+    synchronized (this) {
+      awaited = true;
+      while (!completed) {
+        long remainingNanos = deadlineNanoTime - System.nanoTime();
+        if (remainingNanos <= 0) {
+          return false;
+        }
+        // Rounded up so that a remaining duration below a millisecond doesn't wait forever.
+        wait((remainingNanos + 999_999) / 1_000_000);
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Retrieves the key identifying the command being executed, which is used to size the buffers
+   * its outputs are drained into.
+   *
+   * @return Key identifying the command.
+   */
+  int getCommandKey() {
+    return Arrays.hashCode(splitCommand);
+  }
+
+  /**
+   * Retrieves the process executing the command.
+   *
+   * @return Process executing the command.
+   */
+  Process getProcess() {
+    return process;
+  }
+
+  /**
+   * Marks the execution as cancelled without terminating its process, which is terminated by
+   * the caller.
+   */
+  void markCancelled() {
+    cancelled = true;
+  }
+
+  /**
+   * Records the number of bytes captured from the specified output so far.
+   *
+   * @param stdType       Type of output.
+   * @param capturedBytes Number of bytes captured so far.
+   */
+  void recordCapturedBytes(StdType stdType, long capturedBytes) {
+    if (stdType == StdType.STDOUT) {
+      capturedStdoutBytes = capturedBytes;
+    } else {
+      capturedStderrBytes = capturedBytes;
+    }
+  }
+
+  /**
+   * Marks the execution as completed, waking up the threads waiting for it.
+   */
+  void complete() {
+    completed = true;
+    // Most executions are never waited for, hence their monitor isn't touched at all.
+    if (awaited) {
+      synchronized (this) {
+        notifyAll();
+      }
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package org.padaiyal.utilities.commandline;
+
+import org.padaiyal.utilities.commandline.abstractions.ScheduledRun;
+
+/**
+ * Listener notified by CommandScheduler of the runs of a scheduled command. Notifications of a
+ * command are never concurrent and follow the order in which its runs complete.
+ */
+@FunctionalInterface
+public interface ScheduledRunListener {
+
+  /**
+   * Invoked after a run completes.
+   *
+   * @param run The completed run.
+   */
+  void onRun(ScheduledRun run);
+
+  /**
+   * Invoked after a run fails, e.g. as it timed out. A failed run doesn't change the baseline the
+   * deltas are computed against.
+   *
+   * @param runNumber Sequence number of the failed run.
+   * @param exception Exception the run failed with.
+   */
+  default void onFailure(long runNumber, Exception exception) {
+  }
+}
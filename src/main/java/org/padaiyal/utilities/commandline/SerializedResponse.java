@@ -0,0 +1,274 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import org.padaiyal.utilities.I18nUtility;
+import org.padaiyal.utilities.commandline.abstractions.ResourceLimit;
+import org.padaiyal.utilities.commandline.abstractions.ResourceUsage;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * View of a response serialized by ResponseSerializer, held in a buffer such as one mapping a
+ * file. The fields are parsed when the view is created, whereas the outputs are only located, so
+ * that uncompressed outputs are read in place without being copied or decoded.
+ */
+public final class SerializedResponse {
+
+  /**
+   * Flags denoting the optional fields present.
+   */
+  private final byte flags;
+  /**
+   * Return code of the executed command.
+   */
+  private final int returnCode;
+  /**
+   * Timestamp denoting the start of the command execution.
+   */
+  private final Instant executionStartTimestamp;
+  /**
+   * Time taken to execute the command.
+   */
+  private final Duration executionDuration;
+  /**
+   * Resources used by the command, or null if they weren't sampled.
+   */
+  private final ResourceUsage resourceUsage;
+  /**
+   * Resource limit the command was detected to have exceeded, or null if none.
+   */
+  private final ResourceLimit exceededResourceLimit;
+  /**
+   * Stored bytes of the STDOUT section.
+   */
+  private final ByteBuffer stdoutSection;
+  /**
+   * Length of the UTF-8 encoded STDOUT, or NO_OUTPUT if there is none.
+   */
+  private final int stdoutLength;
+  /**
+   * Stored bytes of the STDERR section.
+   */
+  private final ByteBuffer stderrSection;
+  /**
+   * Length of the UTF-8 encoded STDERR, or NO_OUTPUT if there is none.
+   */
+  private final int stderrLength;
+  /**
+   * Number of bytes the serialized response occupies.
+   */
+  private final int serializedLength;
+
+  /**
+   * Constructor used to initialize a SerializedResponse object.
+   *
+   * @param buffer        Buffer holding the serialized response at its current position.
+   * @throws IOException  Thrown if the buffer doesn't hold a valid serialized response.
+   */
+  SerializedResponse(ByteBuffer buffer) throws IOException {
+    ByteBuffer content = buffer.duplicate();
+    final int startPosition = content.position();
+    try {
+      ResponseSerializer.validateMagicAndVersion(content);
+      flags = content.get();
+      returnCode = content.getInt();
+      executionStartTimestamp = Instant.ofEpochSecond(content.getLong(), content.getInt());
+      executionDuration = Duration.ofNanos(content.getLong());
+      resourceUsage = ((flags & ResponseSerializer.FLAG_RESOURCE_USAGE) != 0)
+          ? ResponseSerializer.readResourceUsage(content)
+          : null;
+      exceededResourceLimit = ((flags & ResponseSerializer.FLAG_EXCEEDED_RESOURCE_LIMIT) != 0)
+          ? ResponseSerializer.readResourceLimit(content)
+          : null;
+      stdoutLength = content.getInt();
+      stdoutSection = locateSection(content, stdoutLength);
+      stderrLength = content.getInt();
+      stderrSection = locateSection(content, stderrLength);
+    } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+      throw new IOException(
+          I18nUtility.getString("CommandLineUtility.serialization.error.truncated"),
+          e
+      );
+    }
+    serializedLength = content.position() - startPosition;
+  }
+
+  /**
+   * Retrieves the return code of the executed command.
+   *
+   * @return Return code of the executed command.
+   */
+  public int getReturnCode() {
+    return returnCode;
+  }
+
+  /**
+   * Retrieves the timestamp corresponding to when the command execution began.
+   *
+   * @return Timestamp denoting the beginning of the command execution.
+   */
+  public Instant getExecutionStartTimestamp() {
+    return executionStartTimestamp;
+  }
+
+  /**
+   * Retrieves the duration taken for the command to execute.
+   *
+   * @return Duration taken for the command to execute.
+   */
+  public Duration getExecutionDuration() {
+    return executionDuration;
+  }
+
+  /**
+   * Checks if the command was terminated early on satisfying a stop condition.
+   *
+   * @return true if the command was terminated early, else false.
+   */
+  public boolean isTerminatedEarly() {
+    return (flags & ResponseSerializer.FLAG_TERMINATED_EARLY) != 0;
+  }
+
+  /**
+   * Retrieves the resources used by the command and its descendants.
+   *
+   * @return Resources used by the command, or null if they weren't sampled.
+   */
+  public ResourceUsage getResourceUsage() {
+    return resourceUsage;
+  }
+
+  /**
+   * Retrieves the resource limit the command was detected to have exceeded.
+   *
+   * @return The exceeded resource limit, or null if none was detected.
+   */
+  public ResourceLimit getExceededResourceLimit() {
+    return exceededResourceLimit;
+  }
+
+  /**
+   * Retrieves the number of bytes the serialized response occupies, which is where the next
+   * serialized response begins when several are written one after the other.
+   *
+   * @return Number of bytes the serialized response occupies.
+   */
+  public int getSerializedLength() {
+    return serializedLength;
+  }
+
+  /**
+   * Checks if the specified output is stored compressed, in which case reading it requires
+   * decompressing it into a new buffer.
+   *
+   * @param stdType Type of output.
+   * @return        true if the output is stored compressed, else false.
+   */
+  public boolean isCompressed(StdType stdType) {
+    return (stdType == StdType.STDOUT)
+        ? isCompressed(stdoutSection, stdoutLength)
+        : isCompressed(stderrSection, stderrLength);
+  }
+
+  /**
+   * Retrieves the UTF-8 encoded bytes of the specified output. Uncompressed outputs are returned
+   * as a read only slice of the underlying buffer, without being copied.
+   *
+   * @param stdType       Type of output.
+   * @return              Read only buffer holding the bytes of the output, or null if there is
+   *                      no output.
+   * @throws IOException  Thrown if the output can't be decompressed.
+   */
+  public ByteBuffer getOutputBytes(StdType stdType) throws IOException {
+    Objects.requireNonNull(
+        stdType,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "StdType"
+        )
+    );
+    ByteBuffer outputBytes = (stdType == StdType.STDOUT)
+        ? ResponseSerializer.decodeSection(stdoutSection.duplicate(), stdoutLength)
+        : ResponseSerializer.decodeSection(stderrSection.duplicate(), stderrLength);
+    return (outputBytes == null) ? null : outputBytes.asReadOnlyBuffer();
+  }
+
+  /**
+   * Decodes the specified output.
+   *
+   * @param stdType       Type of output.
+   * @return              The output, or null if there is none.
+   * @throws IOException  Thrown if the output can't be decompressed.
+   */
+  public String getOutput(StdType stdType) throws IOException {
+    Objects.requireNonNull(
+        stdType,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "StdType"
+        )
+    );
+    // The section isn't made read only, so that heap buffers are decoded from their array.
+    return ResponseSerializer.decodeOutput(
+        (stdType == StdType.STDOUT)
+            ? ResponseSerializer.decodeSection(stdoutSection.duplicate(), stdoutLength)
+            : ResponseSerializer.decodeSection(stderrSection.duplicate(), stderrLength)
+    );
+  }
+
+  /**
+   * Decodes the serialized response.
+   *
+   * @return              The response.
+   * @throws IOException  Thrown if the outputs can't be decompressed.
+   */
+  public Response toResponse() throws IOException {
+    return new Response(
+        returnCode,
+        getOutput(StdType.STDOUT),
+        getOutput(StdType.STDERR),
+        executionStartTimestamp,
+        executionDuration,
+        isTerminatedEarly(),
+        resourceUsage,
+        exceededResourceLimit
+    );
+  }
+
+  /**
+   * Locates the stored bytes of the section at the current position of the buffer, leaving the
+   * buffer positioned after the section.
+   *
+   * @param content       Buffer positioned after the output length of the section.
+   * @param outputLength  Length of the UTF-8 encoded output, or NO_OUTPUT.
+   * @return              Slice of the buffer holding the stored bytes of the section.
+   * @throws IOException  Thrown if the lengths of the section are inconsistent.
+   */
+  private static ByteBuffer locateSection(ByteBuffer content, int outputLength)
+      throws IOException {
+    int storedLength = content.getInt();
+    ResponseSerializer.validateSectionLengths(outputLength, storedLength);
+    if (storedLength > content.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    ByteBuffer section = content.slice().limit(storedLength);
+    content.position(content.position() + storedLength);
+    return section;
+  }
+
+  /**
+   * Checks if the specified section is stored compressed.
+   *
+   * @param section       Stored bytes of the section.
+   * @param outputLength  Length of the UTF-8 encoded output, or NO_OUTPUT.
+   * @return              true if the section is stored compressed, else false.
+   */
+  private static boolean isCompressed(ByteBuffer section, int outputLength) {
+    return outputLength != ResponseSerializer.NO_OUTPUT && section.remaining() < outputLength;
+  }
+}
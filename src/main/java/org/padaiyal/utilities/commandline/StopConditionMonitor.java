@@ -0,0 +1,150 @@
+package org.padaiyal.utilities.commandline;
+
+import java.util.List;
+import java.util.function.Predicate;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+import org.padaiyal.utilities.commandline.abstractions.StopCondition;
+
+/**
+ * Evaluates the stop conditions of an output while it is drained, and runs the stop action once
+ * any of them is satisfied.
+ */
+final class StopConditionMonitor implements DrainListener {
+
+  /**
+   * Number of retained lines after which the output is stopped, or Long.MAX_VALUE if none.
+   */
+  private final long lineCount;
+  /**
+   * Number of bytes after which the output is stopped, or Long.MAX_VALUE if none.
+   */
+  private final long byteCount;
+  /**
+   * Predicates stopping the output on accepting a line.
+   */
+  private final Predicate<String>[] linePredicates;
+  /**
+   * Action run once any of the conditions is satisfied.
+   */
+  private final Runnable stopAction;
+  /**
+   * Number of lines retained so far.
+   */
+  private long retainedLineCount;
+  /**
+   * Indicates if any of the conditions has been satisfied.
+   */
+  private boolean stopped;
+
+  /**
+   * Constructor used to initialize a StopConditionMonitor object.
+   *
+   * @param lineCount       Number of retained lines after which the output is stopped.
+   * @param byteCount       Number of bytes after which the output is stopped.
+   * @param linePredicates  Predicates stopping the output on accepting a line.
+   * @param stopAction      Action run once any of the conditions is satisfied.
+   */
+  private StopConditionMonitor(
+      long lineCount,
+      long byteCount,
+      Predicate<String>[] linePredicates,
+      Runnable stopAction
+  ) {
+    this.lineCount = lineCount;
+    this.byteCount = byteCount;
+    this.linePredicates = linePredicates;
+    this.stopAction = stopAction;
+  }
+
+  /**
+   * Creates a monitor evaluating the conditions applicable to the specified output.
+   *
+   * @param stopConditions  Stop conditions of all the outputs.
+   * @param stdType         Type of output to monitor.
+   * @param stopAction      Action run once any of the conditions is satisfied.
+   * @return                The monitor, or null if none of the conditions apply to the output.
+   */
+  @SuppressWarnings("unchecked")
+  static StopConditionMonitor of(
+      List<StopCondition> stopConditions,
+      StdType stdType,
+      Runnable stopAction
+  ) {
+    long lineCount = Long.MAX_VALUE;
+    long byteCount = Long.MAX_VALUE;
+    int linePredicateCount = 0;
+    boolean applicable = false;
+    for (StopCondition stopCondition : stopConditions) {
+      if (stopCondition.getStdType() != stdType) {
+        continue;
+      }
+      applicable = true;
+      if (stopCondition.getLineCount() != -1) {
+        lineCount = Math.min(lineCount, stopCondition.getLineCount());
+      }
+      if (stopCondition.getByteCount() != -1) {
+        byteCount = Math.min(byteCount, stopCondition.getByteCount());
+      }
+      if (stopCondition.getLinePredicate() != null) {
+        linePredicateCount++;
+      }
+    }
+    if (!applicable) {
+      return null;
+    }
+    Predicate<String>[] linePredicates = (Predicate<String>[]) new Predicate<?>[linePredicateCount];
+    int linePredicateIndex = 0;
+    for (StopCondition stopCondition : stopConditions) {
+      if (stopCondition.getStdType() == stdType && stopCondition.getLinePredicate() != null) {
+        linePredicates[linePredicateIndex++] = stopCondition.getLinePredicate();
+      }
+    }
+    return new StopConditionMonitor(lineCount, byteCount, linePredicates, stopAction);
+  }
+
+  /**
+   * Stops the output once the byte count is reached.
+   *
+   * @param dataReadFromStreamInBytes Total number of bytes read from the stream so far.
+   * @return                          true to continue draining, else false.
+   */
+  @Override
+  public boolean onData(long dataReadFromStreamInBytes) {
+    if (dataReadFromStreamInBytes >= byteCount) {
+      stop();
+    }
+    return !stopped;
+  }
+
+  /**
+   * Stops the output once the line count is reached or a line predicate accepts the line.
+   *
+   * @param line      Line read, without its line terminator.
+   * @param retained  true if the line is retained in the output, else false.
+   * @return          true to continue draining, else false.
+   */
+  @Override
+  public boolean onLine(String line, boolean retained) {
+    if (retained && ++retainedLineCount >= lineCount) {
+      stop();
+      return false;
+    }
+    for (Predicate<String> linePredicate : linePredicates) {
+      if (linePredicate.test(line)) {
+        stop();
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Runs the stop action, if it hasn't been run already.
+   */
+  private void stop() {
+    if (!stopped) {
+      stopped = true;
+      stopAction.run();
+    }
+  }
+}
@@ -1,13 +1,17 @@
 package org.padaiyal.utilities.commandline;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Arrays;
+import java.nio.charset.Charset;
+import java.util.EnumMap;
 import java.util.Locale;
+import java.util.function.Predicate;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.padaiyal.utilities.I18nUtility;
 import org.padaiyal.utilities.PropertyUtility;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
 
 /**
  * Utility to manipulate streams.
@@ -31,12 +35,31 @@ public final class StreamUtility {
       "StreamUtility.maxStreamSize.bytes"
   );
   /**
-   * Size of buffer to use to read data from the input stream.
+   * Pools of buffers used to read data from the input streams, one per type of output.
    */
-  private static final int bufferSize = PropertyUtility.getTypedProperty(
-      Integer.class,
-      "StreamUtility.bufferSize.bytes"
-  );
+  private static final EnumMap<StdType, BufferPool> bufferPools = new EnumMap<>(StdType.class);
+
+  static {
+    for (StdType stdType : StdType.values()) {
+      bufferPools.put(
+          stdType,
+          new BufferPool(
+              PropertyUtility.getTypedProperty(
+                  Integer.class,
+                  "StreamUtility.bufferPool." + stdType.name() + ".initialBufferSize.bytes"
+              ),
+              PropertyUtility.getTypedProperty(
+                  Integer.class,
+                  "StreamUtility.bufferPool.maximumBufferSize.bytes"
+              ),
+              PropertyUtility.getTypedProperty(
+                  Integer.class,
+                  "StreamUtility.bufferPool.capacity"
+              )
+          )
+      );
+    }
+  }
 
   /**
    * Empty private constructor as this utility class is not meant to be used as an instance.
@@ -66,39 +89,472 @@ public final class StreamUtility {
   }
 
   /**
-   * Extracts the information from a given InputStream as a string.
+   * Retrieves the pool of buffers used to read the specified type of output.
+   *
+   * @param stdType Type of output.
+   * @return        The pool of buffers used to read the specified type of output.
+   */
+  public static BufferPool getBufferPool(StdType stdType) {
+    return bufferPools.get(stdType);
+  }
+
+  /**
+   * Extracts the information from a given InputStream as a string, reading it using a pooled
+   * buffer sized for the output volume previously observed for the command.
    *
    * @param inputStream           The InputStream to parse.
+   * @param stdType               Type of output the InputStream provides.
+   * @param commandKey            Key identifying the command producing the output.
    * @param maxStreamSizeInBytes  Maximum size of stream to process in bytes.
    * @return                      The string extracted from the provided InputStream.
    * @throws IOException          Thrown when there is an issue reading from the stream.
    */
   public static String convertInputStreamToString(
       InputStream inputStream,
+      StdType stdType,
+      int commandKey,
       long maxStreamSizeInBytes
   ) throws IOException {
-    byte[] buffer = new byte[bufferSize];
+    return drainStream(
+        inputStream,
+        stdType,
+        commandKey,
+        maxStreamSizeInBytes,
+        null,
+        Charset.defaultCharset()
+    );
+  }
+
+  /**
+   * Extracts the information from a given InputStream as a string without splitting it into
+   * lines, notifying the specified listener of the data read.
+   *
+   * @param inputStream           The InputStream to parse.
+   * @param stdType               Type of output the InputStream provides.
+   * @param commandKey            Key identifying the command producing the output.
+   * @param maxStreamSizeInBytes  Maximum size of stream to process in bytes.
+   * @param dataListener          Listener to notify of the data read, or null if none. It isn't
+   *                              notified of lines.
+   * @param charset               Charset the data is decoded with.
+   * @return                      The string extracted from the provided InputStream.
+   * @throws IOException          Thrown when there is an issue reading from the stream.
+   */
+  private static String drainStream(
+      InputStream inputStream,
+      StdType stdType,
+      int commandKey,
+      long maxStreamSizeInBytes,
+      DrainListener dataListener,
+      Charset charset
+  ) throws IOException {
+    BufferPool bufferPool = bufferPools.get(stdType);
+    byte[] buffer = bufferPool.acquire(commandKey);
+    // Only used if the data doesn't fit in the buffer, which avoids copying small outputs.
+    ByteArrayOutputStream overflowBuffer = null;
     long dataReadFromStreamInBytes = 0;
-    StringBuilder resultBuffer = new StringBuilder();
-    int bytesRead;
-    while ((bytesRead = inputStream.read(buffer)) != -1) {
-      if ((dataReadFromStreamInBytes + bytesRead) > maxStreamSizeInBytes) {
-        throw new IOException(
-            I18nUtility.getFormattedString(
-                "StreamUtility.error.exceededMaximumDataToReadFromStream",
-                dataReadFromStreamInBytes + bytesRead,
-                maxStreamSizeInBytes
-            )
-        );
-      } else {
-        if (bufferSize > bytesRead) {
-          resultBuffer.append(new String(Arrays.copyOf(buffer, bytesRead)));
-        } else {
-          resultBuffer.append(new String(buffer));
+    int bufferedBytes = 0;
+    try {
+      int bytesRead;
+      while ((bytesRead = inputStream.read(buffer, bufferedBytes, buffer.length - bufferedBytes))
+          != -1) {
+        if ((dataReadFromStreamInBytes + bytesRead) > maxStreamSizeInBytes) {
+          throw new IOException(
+              I18nUtility.getFormattedString(
+                  "StreamUtility.error.exceededMaximumDataToReadFromStream",
+                  dataReadFromStreamInBytes + bytesRead,
+                  maxStreamSizeInBytes
+              )
+          );
+        }
+        dataReadFromStreamInBytes += bytesRead;
+        bufferedBytes += bytesRead;
+        if (bufferedBytes == buffer.length) {
+          if (overflowBuffer == null) {
+            overflowBuffer = new ByteArrayOutputStream(buffer.length * 2);
+          }
+          overflowBuffer.write(buffer, 0, bufferedBytes);
+          bufferedBytes = 0;
+        }
+        if (dataListener != null && !dataListener.onData(dataReadFromStreamInBytes)) {
+          break;
+        }
+      }
+      if (overflowBuffer == null) {
+        return (bufferedBytes == 0) ? "" : new String(buffer, 0, bufferedBytes, charset);
+      }
+      overflowBuffer.write(buffer, 0, bufferedBytes);
+      // The data is decoded as a whole so that multi-byte characters spanning reads remain intact.
+      return overflowBuffer.toString(charset);
+    } finally {
+      bufferPool.release(commandKey, buffer, dataReadFromStreamInBytes);
+    }
+  }
+
+  /**
+   * Extracts the lines accepted by the specified filter from a given InputStream as a string. The
+   * lines are filtered while the stream is drained, hence only the retained lines and the line
+   * being read are held in memory and count towards the maximum stream size. The specified
+   * listener is notified as the data and lines are read, and can stop the draining early.
+   *
+   * @param inputStream           The InputStream to parse.
+   * @param stdType               Type of output the InputStream provides.
+   * @param commandKey            Key identifying the command producing the output.
+   * @param maxStreamSizeInBytes  Maximum size of the retained lines and the line being read in
+   *                              bytes.
+   * @param lineFilter            Filter deciding which lines are retained, or null to retain all
+   *                              of them. Lines are passed to it without their line terminator.
+   * @param drainListener         Listener to notify as the stream is drained, or null if none.
+   * @return                      The retained lines along with their line terminators.
+   * @throws IOException          Thrown when there is an issue reading from the stream.
+   */
+  public static String convertInputStreamToString(
+      InputStream inputStream,
+      StdType stdType,
+      int commandKey,
+      long maxStreamSizeInBytes,
+      Predicate<String> lineFilter,
+      DrainListener drainListener
+  ) throws IOException {
+    return convertInputStreamToString(
+        inputStream,
+        stdType,
+        commandKey,
+        maxStreamSizeInBytes,
+        lineFilter,
+        drainListener,
+        Charset.defaultCharset()
+    );
+  }
+
+  /**
+   * Extracts the lines accepted by the specified filter from a given InputStream as a string,
+   * decoding them with the specified charset. The lines are split on '\n' bytes, hence the
+   * charset is expected to be ASCII compatible.
+   *
+   * @param inputStream           The InputStream to parse.
+   * @param stdType               Type of output the InputStream provides.
+   * @param commandKey            Key identifying the command producing the output.
+   * @param maxStreamSizeInBytes  Maximum size of the retained lines and the line being read in
+   *                              bytes.
+   * @param lineFilter            Filter deciding which lines are retained, or null to retain all
+   *                              of them. Lines are passed to it without their line terminator.
+   * @param drainListener         Listener to notify as the stream is drained, or null if none.
+   * @param charset               Charset the data is decoded with.
+   * @return                      The retained lines along with their line terminators.
+   * @throws IOException          Thrown when there is an issue reading from the stream.
+   */
+  public static String convertInputStreamToString(
+      InputStream inputStream,
+      StdType stdType,
+      int commandKey,
+      long maxStreamSizeInBytes,
+      Predicate<String> lineFilter,
+      DrainListener drainListener,
+      Charset charset
+  ) throws IOException {
+    if (lineFilter == null && (drainListener == null || !drainListener.isNotifiedOfLines())) {
+      return drainStream(
+          inputStream,
+          stdType,
+          commandKey,
+          maxStreamSizeInBytes,
+          drainListener,
+          charset
+      );
+    }
+    BufferPool bufferPool = bufferPools.get(stdType);
+    byte[] buffer = bufferPool.acquire(commandKey);
+    // Holds the beginning of lines which don't fit in the buffer.
+    ByteArrayOutputStream lineOverflowBuffer = null;
+    RetainedLines retainedLines = new RetainedLines();
+    long dataReadFromStreamInBytes = 0;
+    int bufferedBytes = 0;
+    boolean draining = true;
+    boolean stoppedOnLine = false;
+    try {
+      int bytesRead;
+      while (draining
+          && (bytesRead = inputStream.read(buffer, bufferedBytes, buffer.length - bufferedBytes))
+          != -1) {
+        dataReadFromStreamInBytes += bytesRead;
+        if (drainListener != null && !drainListener.onData(dataReadFromStreamInBytes)) {
+          // The data already read is still processed.
+          draining = false;
+        }
+        int lineStart = 0;
+        for (int index = bufferedBytes; index < bufferedBytes + bytesRead; index++) {
+          if (buffer[index] != '\n') {
+            continue;
+          }
+          String line;
+          int lineSizeInBytes;
+          if (lineOverflowBuffer != null && lineOverflowBuffer.size() > 0) {
+            lineOverflowBuffer.write(buffer, lineStart, index + 1 - lineStart);
+            line = lineOverflowBuffer.toString(charset);
+            lineSizeInBytes = lineOverflowBuffer.size();
+            lineOverflowBuffer.reset();
+          } else {
+            line = new String(buffer, lineStart, index + 1 - lineStart, charset);
+            lineSizeInBytes = index + 1 - lineStart;
+          }
+          lineStart = index + 1;
+          if (!processLine(line, lineSizeInBytes, lineFilter, drainListener, retainedLines)) {
+            stoppedOnLine = true;
+            break;
+          }
+          validateRetainedDataSize(retainedLines.sizeInBytes, maxStreamSizeInBytes);
         }
+        bufferedBytes += bytesRead;
+        if (stoppedOnLine) {
+          // The data following the line on which the draining stopped is discarded.
+          draining = false;
+          bufferedBytes = 0;
+          lineOverflowBuffer = null;
+        } else if (lineStart == 0 && bufferedBytes == buffer.length) {
+          // The line doesn't fit in the buffer.
+          if (lineOverflowBuffer == null) {
+            lineOverflowBuffer = new ByteArrayOutputStream(buffer.length * 2);
+          }
+          lineOverflowBuffer.write(buffer, 0, bufferedBytes);
+          validateRetainedDataSize(
+              retainedLines.sizeInBytes + lineOverflowBuffer.size(),
+              maxStreamSizeInBytes
+          );
+          bufferedBytes = 0;
+        } else if (lineStart > 0) {
+          // Move the incomplete line to the beginning of the buffer.
+          System.arraycopy(buffer, lineStart, buffer, 0, bufferedBytes - lineStart);
+          bufferedBytes -= lineStart;
+        }
+      }
+      if (lineOverflowBuffer != null && lineOverflowBuffer.size() > 0) {
+        lineOverflowBuffer.write(buffer, 0, bufferedBytes);
+        processLine(
+            lineOverflowBuffer.toString(charset),
+            lineOverflowBuffer.size(),
+            lineFilter,
+            drainListener,
+            retainedLines
+        );
+      } else if (bufferedBytes > 0) {
+        processLine(
+            new String(buffer, 0, bufferedBytes, charset),
+            bufferedBytes,
+            lineFilter,
+            drainListener,
+            retainedLines
+        );
+      }
+      validateRetainedDataSize(retainedLines.sizeInBytes, maxStreamSizeInBytes);
+      return retainedLines.lines.toString();
+    } finally {
+      bufferPool.release(commandKey, buffer, dataReadFromStreamInBytes);
+    }
+  }
+
+  /**
+   * Extracts the lines accepted by the specified filter from a given InputStream as a string.
+   *
+   * @param inputStream           The InputStream to parse.
+   * @param stdType               Type of output the InputStream provides.
+   * @param commandKey            Key identifying the command producing the output.
+   * @param maxStreamSizeInBytes  Maximum size of the retained lines and the line being read in
+   *                              bytes.
+   * @param lineFilter            Filter deciding which lines are retained, or null to retain all
+   *                              of them. Lines are passed to it without their line terminator.
+   * @return                      The retained lines along with their line terminators.
+   * @throws IOException          Thrown when there is an issue reading from the stream.
+   */
+  public static String convertInputStreamToString(
+      InputStream inputStream,
+      StdType stdType,
+      int commandKey,
+      long maxStreamSizeInBytes,
+      Predicate<String> lineFilter
+  ) throws IOException {
+    return convertInputStreamToString(
+        inputStream,
+        stdType,
+        commandKey,
+        maxStreamSizeInBytes,
+        lineFilter,
+        null
+    );
+  }
+
+  /**
+   * Extracts the lines accepted by the specified filter from a given InputStream as a string.
+   *
+   * @param inputStream   The InputStream to parse.
+   * @param stdType       Type of output the InputStream provides.
+   * @param commandKey    Key identifying the command producing the output.
+   * @param lineFilter    Filter deciding which lines are retained, or null to retain all of them.
+   * @param drainListener Listener to notify as the stream is drained, or null if none.
+   * @return              The retained lines along with their line terminators.
+   * @throws IOException  Thrown when there is an issue reading from the stream.
+   */
+  public static String convertInputStreamToString(
+      InputStream inputStream,
+      StdType stdType,
+      int commandKey,
+      Predicate<String> lineFilter,
+      DrainListener drainListener
+  ) throws IOException {
+    return convertInputStreamToString(
+        inputStream,
+        stdType,
+        commandKey,
+        maxStreamSizeInBytes,
+        lineFilter,
+        drainListener
+    );
+  }
+
+  /**
+   * Extracts the lines accepted by the specified filter from a given InputStream as a string,
+   * decoding them with the specified charset.
+   *
+   * @param inputStream   The InputStream to parse.
+   * @param stdType       Type of output the InputStream provides.
+   * @param commandKey    Key identifying the command producing the output.
+   * @param lineFilter    Filter deciding which lines are retained, or null to retain all of them.
+   * @param drainListener Listener to notify as the stream is drained, or null if none.
+   * @param charset       Charset the data is decoded with.
+   * @return              The retained lines along with their line terminators.
+   * @throws IOException  Thrown when there is an issue reading from the stream.
+   */
+  public static String convertInputStreamToString(
+      InputStream inputStream,
+      StdType stdType,
+      int commandKey,
+      Predicate<String> lineFilter,
+      DrainListener drainListener,
+      Charset charset
+  ) throws IOException {
+    return convertInputStreamToString(
+        inputStream,
+        stdType,
+        commandKey,
+        maxStreamSizeInBytes,
+        lineFilter,
+        drainListener,
+        charset
+    );
+  }
+
+  /**
+   * Extracts the lines accepted by the specified filter from a given InputStream as a string.
+   *
+   * @param inputStream   The InputStream to parse.
+   * @param stdType       Type of output the InputStream provides.
+   * @param commandKey    Key identifying the command producing the output.
+   * @param lineFilter    Filter deciding which lines are retained, or null to retain all of them.
+   * @return              The retained lines along with their line terminators.
+   * @throws IOException  Thrown when there is an issue reading from the stream.
+   */
+  public static String convertInputStreamToString(
+      InputStream inputStream,
+      StdType stdType,
+      int commandKey,
+      Predicate<String> lineFilter
+  ) throws IOException {
+    return convertInputStreamToString(
+        inputStream,
+        stdType,
+        commandKey,
+        maxStreamSizeInBytes,
+        lineFilter,
+        null
+    );
+  }
+
+  /**
+   * Appends the specified line to the retained lines if the filter accepts it, and notifies the
+   * listener of it.
+   *
+   * @param line            Line including its line terminator, if any.
+   * @param lineSizeInBytes Size of the line as read from the stream, in bytes.
+   * @param lineFilter      Filter deciding if the line is retained, or null to retain it.
+   * @param drainListener   Listener to notify of the line, or null if none.
+   * @param retainedLines   Lines retained so far.
+   * @return                true if the draining is to continue, else false.
+   */
+  private static boolean processLine(
+      String line,
+      int lineSizeInBytes,
+      Predicate<String> lineFilter,
+      DrainListener drainListener,
+      RetainedLines retainedLines
+  ) {
+    int contentLength = line.length();
+    if (contentLength > 0 && line.charAt(contentLength - 1) == '\n') {
+      contentLength--;
+      if (contentLength > 0 && line.charAt(contentLength - 1) == '\r') {
+        contentLength--;
       }
     }
-    return resultBuffer.toString();
+    String lineContent = line.substring(0, contentLength);
+    boolean retained = (lineFilter == null) || lineFilter.test(lineContent);
+    if (retained) {
+      retainedLines.lines.append(line);
+      retainedLines.sizeInBytes += lineSizeInBytes;
+    }
+    return (drainListener == null) || drainListener.onLine(lineContent, retained);
+  }
+
+  /**
+   * Validates that the data retained from a stream doesn't exceed the maximum size.
+   *
+   * @param retainedDataInBytes   Size of the data retained.
+   * @param maxStreamSizeInBytes  Maximum size of the data retained.
+   * @throws IOException          Thrown if the maximum size is exceeded.
+   */
+  private static void validateRetainedDataSize(
+      long retainedDataInBytes,
+      long maxStreamSizeInBytes
+  ) throws IOException {
+    if (retainedDataInBytes > maxStreamSizeInBytes) {
+      throw new IOException(
+          I18nUtility.getFormattedString(
+              "StreamUtility.error.exceededMaximumDataToReadFromStream",
+              retainedDataInBytes,
+              maxStreamSizeInBytes
+          )
+      );
+    }
+  }
+
+  /**
+   * Extracts the information from a given InputStream as a string, reading it using a pooled
+   * buffer sized for the output volume previously observed for the command.
+   *
+   * @param inputStream   The InputStream to parse.
+   * @param stdType       Type of output the InputStream provides.
+   * @param commandKey    Key identifying the command producing the output.
+   * @return              The string extracted from the provided InputStream.
+   * @throws IOException  Thrown when there is an issue reading from the stream.
+   */
+  public static String convertInputStreamToString(
+      InputStream inputStream,
+      StdType stdType,
+      int commandKey
+  ) throws IOException {
+    return convertInputStreamToString(inputStream, stdType, commandKey, maxStreamSizeInBytes);
+  }
+
+  /**
+   * Extracts the information from a given InputStream as a string.
+   *
+   * @param inputStream           The InputStream to parse.
+   * @param maxStreamSizeInBytes  Maximum size of stream to process in bytes.
+   * @return                      The string extracted from the provided InputStream.
+   * @throws IOException          Thrown when there is an issue reading from the stream.
+   */
+  public static String convertInputStreamToString(
+      InputStream inputStream,
+      long maxStreamSizeInBytes
+  ) throws IOException {
+    return convertInputStreamToString(inputStream, StdType.STDOUT, 0, maxStreamSizeInBytes);
   }
 
   /**
@@ -112,5 +568,20 @@ public final class StreamUtility {
       throws IOException {
     return convertInputStreamToString(inputStream, maxStreamSizeInBytes);
   }
-}
 
+  /**
+   * Lines retained from a stream, along with their size as read from the stream. The size is
+   * counted in bytes, as the maximum stream size is, rather than in decoded characters.
+   */
+  private static final class RetainedLines {
+
+    /**
+     * Retained lines along with their line terminators.
+     */
+    private final StringBuilder lines = new StringBuilder();
+    /**
+     * Size of the retained lines as read from the stream, in bytes.
+     */
+    private long sizeInBytes;
+  }
+}
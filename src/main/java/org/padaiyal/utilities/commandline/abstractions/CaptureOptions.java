@@ -0,0 +1,157 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Represents the options used to capture the outputs of a command while they are drained.
+ */
+public class CaptureOptions {
+
+  /**
+   * Stores the filters deciding which lines of each output are retained.
+   */
+  private final EnumMap<StdType, Predicate<String>> lineFilters;
+  /**
+   * Stores the conditions on satisfying any of which the command is terminated early.
+   */
+  private final List<StopCondition> stopConditions;
+  /**
+   * Read only view of stopConditions.
+   */
+  private final List<StopCondition> unmodifiableStopConditions;
+  /**
+   * Maximum duration for which the command may not produce any output, or null if unbounded.
+   */
+  private Duration idleTimeout;
+  /**
+   * Mode in which STDOUT and STDERR are merged in the order they were produced.
+   */
+  private OutputMergeMode outputMergeMode;
+
+  /**
+   * Abstraction storing the options used to capture the outputs of a command. By default, the
+   * outputs are captured completely.
+   */
+  public CaptureOptions() {
+    lineFilters = new EnumMap<>(StdType.class);
+    stopConditions = new ArrayList<>();
+    unmodifiableStopConditions = Collections.unmodifiableList(stopConditions);
+    outputMergeMode = OutputMergeMode.SEPARATE;
+  }
+
+  /**
+   * Set the filter deciding which lines of the specified output are retained. Lines are passed to
+   * the filter without their line terminator, and only the lines it accepts are retained in the
+   * response along with their line terminator.
+   *
+   * @param stdType     Type of output to filter.
+   * @param lineFilter  Filter deciding which lines are retained, or null to retain all of them.
+   */
+  public void setLineFilter(StdType stdType, Predicate<String> lineFilter) {
+    if (lineFilter == null) {
+      lineFilters.remove(stdType);
+    } else {
+      lineFilters.put(stdType, lineFilter);
+    }
+  }
+
+  /**
+   * Get the filter deciding which lines of the specified output are retained.
+   *
+   * @param stdType Type of output.
+   * @return        Filter deciding which lines are retained, or null if all of them are.
+   */
+  public Predicate<String> getLineFilter(StdType stdType) {
+    return lineFilters.get(stdType);
+  }
+
+  /**
+   * Add a condition on satisfying which the command is terminated early. The process tree of the
+   * command is then killed and the response contains the output captured until then.
+   *
+   * @param stopCondition Condition on satisfying which the command is terminated early.
+   */
+  public void addStopCondition(StopCondition stopCondition) {
+    stopConditions.add(
+        Objects.requireNonNull(
+            stopCondition,
+            () -> I18nUtility.getFormattedString(
+                "CommandLineUtility.input.validation.nonNull",
+                "StopCondition"
+            )
+        )
+    );
+  }
+
+  /**
+   * Get the conditions on satisfying any of which the command is terminated early.
+   *
+   * @return Read only list of the stop conditions.
+   */
+  public List<StopCondition> getStopConditions() {
+    return unmodifiableStopConditions;
+  }
+
+  /**
+   * Set the maximum duration for which the command may not produce any output on either STDOUT
+   * or STDERR. The deadline is reset whenever output arrives, and on exceeding it the process
+   * tree of the command is killed. This is independent of the total timeout of the command.
+   *
+   * @param idleTimeout Maximum duration without any output, or null to not bound it.
+   */
+  public void setIdleTimeout(Duration idleTimeout) {
+    if (idleTimeout != null && (idleTimeout.isZero() || idleTimeout.isNegative())) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.positive",
+              "Idle timeout (ms)",
+              idleTimeout.toMillis()
+          )
+      );
+    }
+    this.idleTimeout = idleTimeout;
+  }
+
+  /**
+   * Get the maximum duration for which the command may not produce any output.
+   *
+   * @return Maximum duration without any output, or null if it isn't bounded.
+   */
+  public Duration getIdleTimeout() {
+    return idleTimeout;
+  }
+
+  /**
+   * Set the mode in which STDOUT and STDERR are merged in the order they were produced. When
+   * REDIRECTED, the response STDOUT holds both outputs and its STDERR is empty. When
+   * TIMESTAMPED, the retained lines of both outputs are also available from the response as a
+   * merged sequence of chunks.
+   *
+   * @param outputMergeMode Mode in which the outputs are merged.
+   */
+  public void setOutputMergeMode(OutputMergeMode outputMergeMode) {
+    this.outputMergeMode = Objects.requireNonNull(
+        outputMergeMode,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "OutputMergeMode"
+        )
+    );
+  }
+
+  /**
+   * Get the mode in which STDOUT and STDERR are merged in the order they were produced.
+   *
+   * @return Mode in which the outputs are merged.
+   */
+  public OutputMergeMode getOutputMergeMode() {
+    return outputMergeMode;
+  }
+}
@@ -0,0 +1,434 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Represents the context commands are executed in - their environment, working directory,
+ * standard stream redirects, the charset their outputs are decoded with and their timeout. A
+ * context is immutable, hence it is built once and reused across executions. Its environment is
+ * computed when it is built, so that launching a process doesn't copy and merge the environment
+ * of this JVM every time.
+ */
+public final class ExecutionContext {
+
+  /**
+   * Context inheriting the environment and working directory of this JVM, piping all standard
+   * streams and decoding the outputs with the default charset.
+   */
+  private static final ExecutionContext inheritedContext = new Builder().build();
+
+  /**
+   * Complete environment of the processes as "NAME=value" entries, or null if the environment
+   * of this JVM is inherited.
+   */
+  private final String[] environment;
+  /**
+   * Working directory of the processes, or null if the one of this JVM is inherited.
+   */
+  private final Path workingDirectory;
+  /**
+   * Charset the outputs of the processes are decoded with.
+   */
+  private final Charset charset;
+  /**
+   * Redirect for the standard input of the processes.
+   */
+  private final Redirect stdinRedirect;
+  /**
+   * Redirect for the standard output of the processes.
+   */
+  private final Redirect stdoutRedirect;
+  /**
+   * Redirect for the standard error of the processes.
+   */
+  private final Redirect stderrRedirect;
+  /**
+   * Flag to denote if the standard error is to be merged into the standard output.
+   */
+  private final boolean redirectErrorStream;
+  /**
+   * Time out for the executions, or null if the default time out applies.
+   */
+  private final Duration timeOutDuration;
+
+  /**
+   * Constructor used to initialize an ExecutionContext object from a builder.
+   *
+   * @param builder Builder holding the properties of the context.
+   */
+  private ExecutionContext(Builder builder) {
+    this.environment = builder.computeEnvironment();
+    this.workingDirectory = builder.workingDirectory;
+    this.charset = builder.charset;
+    this.stdinRedirect = builder.stdinRedirect;
+    this.stdoutRedirect = builder.stdoutRedirect;
+    this.stderrRedirect = builder.stderrRedirect;
+    this.redirectErrorStream = builder.redirectErrorStream;
+    this.timeOutDuration = builder.timeOutDuration;
+  }
+
+  /**
+   * Creates a builder for a context which, unless configured otherwise, inherits the environment
+   * and working directory of this JVM, pipes all standard streams and decodes the outputs with
+   * the default charset.
+   *
+   * @return The builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Retrieves the context inheriting the environment and working directory of this JVM, piping
+   * all standard streams and decoding the outputs with the default charset.
+   *
+   * @return The inherited context.
+   */
+  public static ExecutionContext inherited() {
+    return inheritedContext;
+  }
+
+  /**
+   * Creates the request used to launch a process executing the specified command in this
+   * context.
+   *
+   * @param splitCommand  Command and its arguments.
+   * @return              The launch request.
+   */
+  public LaunchRequest createLaunchRequest(String[] splitCommand) {
+    return new LaunchRequest(
+        splitCommand,
+        environment,
+        workingDirectory,
+        stdinRedirect,
+        stdoutRedirect,
+        stderrRedirect,
+        redirectErrorStream
+    );
+  }
+
+  /**
+   * Checks if the processes inherit the environment and working directory of this JVM and pipe
+   * all their standard streams, which is what commands executed in-process assume.
+   *
+   * @return true if the processes inherit the state of this JVM, else false.
+   */
+  public boolean isInherited() {
+    return environment == null && workingDirectory == null
+        && stdinRedirect == Redirect.PIPE && stdoutRedirect == Redirect.PIPE
+        && stderrRedirect == Redirect.PIPE && !redirectErrorStream;
+  }
+
+  /**
+   * Retrieves the complete environment of the processes.
+   *
+   * @return The environment as "NAME=value" entries, or null if the one of this JVM is inherited.
+   */
+  public String[] getEnvironment() {
+    return (environment == null) ? null : environment.clone();
+  }
+
+  /**
+   * Retrieves the working directory of the processes.
+   *
+   * @return The working directory, or null if the one of this JVM is inherited.
+   */
+  public Path getWorkingDirectory() {
+    return workingDirectory;
+  }
+
+  /**
+   * Retrieves the charset the outputs of the processes are decoded with.
+   *
+   * @return Charset the outputs are decoded with.
+   */
+  public Charset getCharset() {
+    return charset;
+  }
+
+  /**
+   * Retrieves the redirect for the standard input of the processes.
+   *
+   * @return Redirect for the standard input.
+   */
+  public Redirect getStdinRedirect() {
+    return stdinRedirect;
+  }
+
+  /**
+   * Retrieves the redirect for the specified standard output stream of the processes.
+   *
+   * @param stdType Type of output stream.
+   * @return        Redirect for the specified output stream.
+   */
+  public Redirect getOutputRedirect(StdType stdType) {
+    return (stdType == StdType.STDOUT) ? stdoutRedirect : stderrRedirect;
+  }
+
+  /**
+   * Retrieves if the standard error is to be merged into the standard output.
+   *
+   * @return true if the standard error is to be merged into the standard output, else false.
+   */
+  public boolean isRedirectErrorStream() {
+    return redirectErrorStream;
+  }
+
+  /**
+   * Retrieves the time out for the executions.
+   *
+   * @return Time out for the executions, or null if the default time out applies.
+   */
+  public Duration getTimeOutDuration() {
+    return timeOutDuration;
+  }
+
+  /**
+   * Builds execution contexts. A builder may be reused to build several contexts.
+   */
+  public static final class Builder {
+
+    /**
+     * Environment variables overriding those of this JVM. A null value removes the variable.
+     */
+    private final Map<String, String> environmentOverrides;
+    /**
+     * Flag to denote if the environment of this JVM is cleared rather than inherited.
+     */
+    private boolean environmentCleared;
+    /**
+     * Working directory of the processes, or null if the one of this JVM is inherited.
+     */
+    private Path workingDirectory;
+    /**
+     * Charset the outputs of the processes are decoded with.
+     */
+    private Charset charset;
+    /**
+     * Redirect for the standard input of the processes.
+     */
+    private Redirect stdinRedirect;
+    /**
+     * Redirect for the standard output of the processes.
+     */
+    private Redirect stdoutRedirect;
+    /**
+     * Redirect for the standard error of the processes.
+     */
+    private Redirect stderrRedirect;
+    /**
+     * Flag to denote if the standard error is to be merged into the standard output.
+     */
+    private boolean redirectErrorStream;
+    /**
+     * Time out for the executions, or null if the default time out applies.
+     */
+    private Duration timeOutDuration;
+
+    /**
+     * Constructor used to initialize a Builder object with the properties of the inherited
+     * context.
+     */
+    private Builder() {
+      environmentOverrides = new LinkedHashMap<>();
+      charset = Charset.defaultCharset();
+      stdinRedirect = Redirect.PIPE;
+      stdoutRedirect = Redirect.PIPE;
+      stderrRedirect = Redirect.PIPE;
+    }
+
+    /**
+     * Sets an environment variable of the processes, overriding the one of this JVM.
+     *
+     * @param name  Name of the environment variable.
+     * @param value Value of the environment variable, or null to remove it from the environment.
+     * @return      This builder.
+     */
+    public Builder setEnvironmentVariable(String name, String value) {
+      Objects.requireNonNull(
+          name,
+          () -> I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.nonNull",
+              "Environment variable name"
+          )
+      );
+      if (name.isEmpty() || name.indexOf('=') != -1) {
+        throw new IllegalArgumentException(
+            I18nUtility.getFormattedString(
+                "CommandLineUtility.input.validation.environmentVariableName",
+                name
+            )
+        );
+      }
+      environmentOverrides.put(name, value);
+      return this;
+    }
+
+    /**
+     * Clears the environment of this JVM, so that the processes only get the environment
+     * variables set on this builder.
+     *
+     * @return This builder.
+     */
+    public Builder clearEnvironment() {
+      environmentCleared = true;
+      return this;
+    }
+
+    /**
+     * Sets the working directory of the processes.
+     *
+     * @param workingDirectory  Working directory, or null to inherit the one of this JVM.
+     * @return                  This builder.
+     */
+    public Builder setWorkingDirectory(Path workingDirectory) {
+      this.workingDirectory = workingDirectory;
+      return this;
+    }
+
+    /**
+     * Sets the charset the outputs of the processes are decoded with. The lines of the outputs
+     * are split on '\n' bytes, hence the charset is expected to be ASCII compatible.
+     *
+     * @param charset Charset the outputs are decoded with.
+     * @return        This builder.
+     */
+    public Builder setCharset(Charset charset) {
+      this.charset = Objects.requireNonNull(
+          charset,
+          () -> I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.nonNull",
+              "Charset"
+          )
+      );
+      return this;
+    }
+
+    /**
+     * Sets the redirect for the standard input of the processes.
+     *
+     * @param stdinRedirect Redirect for the standard input.
+     * @return              This builder.
+     */
+    public Builder setStdinRedirect(Redirect stdinRedirect) {
+      this.stdinRedirect = requireNonNullRedirect(stdinRedirect);
+      return this;
+    }
+
+    /**
+     * Sets the redirect for the specified standard output stream of the processes. The output
+     * captured in the response of a redirected stream is empty.
+     *
+     * @param stdType   Type of output stream.
+     * @param redirect  Redirect for the output stream.
+     * @return          This builder.
+     */
+    public Builder setOutputRedirect(StdType stdType, Redirect redirect) {
+      Objects.requireNonNull(
+          stdType,
+          () -> I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.nonNull",
+              "StdType"
+          )
+      );
+      if (stdType == StdType.STDOUT) {
+        stdoutRedirect = requireNonNullRedirect(redirect);
+      } else {
+        stderrRedirect = requireNonNullRedirect(redirect);
+      }
+      return this;
+    }
+
+    /**
+     * Sets if the standard error is to be merged into the standard output.
+     *
+     * @param redirectErrorStream true to merge the standard error into the standard output,
+     *                            else false.
+     * @return                    This builder.
+     */
+    public Builder setRedirectErrorStream(boolean redirectErrorStream) {
+      this.redirectErrorStream = redirectErrorStream;
+      return this;
+    }
+
+    /**
+     * Sets the time out for the executions.
+     *
+     * @param timeOutDuration Time out for the executions, or null to apply the default time out.
+     * @return                This builder.
+     */
+    public Builder setTimeOutDuration(Duration timeOutDuration) {
+      if (timeOutDuration != null && (timeOutDuration.isZero() || timeOutDuration.isNegative())) {
+        throw new IllegalArgumentException(
+            I18nUtility.getFormattedString(
+                "CommandLineUtility.input.validation.positive",
+                "Time out (ms)",
+                timeOutDuration.toMillis()
+            )
+        );
+      }
+      this.timeOutDuration = timeOutDuration;
+      return this;
+    }
+
+    /**
+     * Builds the context, computing its environment.
+     *
+     * @return The built context.
+     */
+    public ExecutionContext build() {
+      return new ExecutionContext(this);
+    }
+
+    /**
+     * Computes the complete environment of the processes from the environment of this JVM and
+     * the overrides.
+     *
+     * @return The environment as "NAME=value" entries, or null if the one of this JVM is
+     *         inherited unchanged.
+     */
+    private String[] computeEnvironment() {
+      if (!environmentCleared && environmentOverrides.isEmpty()) {
+        return null;
+      }
+      Map<String, String> environmentVariables = environmentCleared
+          ? new LinkedHashMap<>()
+          : new LinkedHashMap<>(System.getenv());
+      environmentOverrides.forEach((name, value) -> {
+        if (value == null) {
+          environmentVariables.remove(name);
+        } else {
+          environmentVariables.put(name, value);
+        }
+      });
+      return environmentVariables.entrySet()
+          .stream()
+          .map(environmentVariable -> environmentVariable.getKey() + "="
+              + environmentVariable.getValue())
+          .toArray(String[]::new);
+    }
+
+    /**
+     * Validates that the specified redirect isn't null.
+     *
+     * @param redirect  Redirect to validate.
+     * @return          The redirect.
+     */
+    private static Redirect requireNonNullRedirect(Redirect redirect) {
+      return Objects.requireNonNull(
+          redirect,
+          () -> I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.nonNull",
+              "Redirect"
+          )
+      );
+    }
+  }
+}
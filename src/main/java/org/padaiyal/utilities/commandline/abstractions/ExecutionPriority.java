@@ -0,0 +1,10 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+/**
+ * Enum to represent the priority class of a command execution, from the highest to the lowest.
+ */
+public enum ExecutionPriority {
+  CRITICAL,
+  NORMAL,
+  BATCH
+}
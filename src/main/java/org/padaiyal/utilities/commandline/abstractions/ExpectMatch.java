@@ -0,0 +1,77 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+/**
+ * Represents a pattern found on an output of an interactive session. The text up to the end of
+ * the match is consumed, hence the next expectation is only searched for after it.
+ */
+public class ExpectMatch {
+
+  /**
+   * Type of output the pattern was found on.
+   */
+  private final StdType stdType;
+  /**
+   * Index of the pattern found, amongst the patterns expected.
+   */
+  private final int patternIndex;
+  /**
+   * Text which matched the pattern.
+   */
+  private final String matchedText;
+  /**
+   * Text consumed before the match.
+   */
+  private final String textBefore;
+
+  /**
+   * Constructor used to initialize an ExpectMatch object.
+   *
+   * @param stdType       Type of output the pattern was found on.
+   * @param patternIndex  Index of the pattern found, amongst the patterns expected.
+   * @param matchedText   Text which matched the pattern.
+   * @param textBefore    Text consumed before the match.
+   */
+  public ExpectMatch(StdType stdType, int patternIndex, String matchedText, String textBefore) {
+    this.stdType = stdType;
+    this.patternIndex = patternIndex;
+    this.matchedText = matchedText;
+    this.textBefore = textBefore;
+  }
+
+  /**
+   * Retrieves the type of output the pattern was found on.
+   *
+   * @return Type of output the pattern was found on.
+   */
+  public StdType getStdType() {
+    return stdType;
+  }
+
+  /**
+   * Retrieves the index of the pattern found.
+   *
+   * @return Index of the pattern found, amongst the patterns expected.
+   */
+  public int getPatternIndex() {
+    return patternIndex;
+  }
+
+  /**
+   * Retrieves the text which matched the pattern.
+   *
+   * @return Text which matched the pattern.
+   */
+  public String getMatchedText() {
+    return matchedText;
+  }
+
+  /**
+   * Retrieves the text consumed before the match, since the previous match on the same output.
+   * Text discarded to keep the scan buffer bounded isn't included.
+   *
+   * @return Text consumed before the match.
+   */
+  public String getTextBefore() {
+    return textBefore;
+  }
+}
@@ -0,0 +1,12 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+/**
+ * Enum to represent whether the first line of a column output names its columns. DETECTED
+ * treats the first line as a header unless one of its fields is a number, PRESENT always treats
+ * it as a header and ABSENT never does.
+ */
+public enum HeaderMode {
+  DETECTED,
+  PRESENT,
+  ABSENT
+}
@@ -0,0 +1,100 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+import java.time.Duration;
+import java.util.Objects;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Represents an opt-in policy to hedge the execution of idempotent commands. If the first
+ * execution of a command hasn't completed within the specified percentile of its recently
+ * observed latencies, a second identical execution is launched and the first one to complete
+ * wins.
+ */
+public class HedgingPolicy {
+
+  /**
+   * Percentile of the recently observed latencies after which a hedged execution is launched.
+   */
+  private final double hedgePercentile;
+  /**
+   * Minimum number of latency samples needed before the percentile is used as the hedge delay.
+   */
+  private final int minimumSampleCount;
+  /**
+   * Hedge delay to use until enough latency samples have been observed.
+   */
+  private final Duration initialHedgeDelay;
+
+  /**
+   * Constructor used to initialize a HedgingPolicy object.
+   *
+   * @param hedgePercentile     Percentile (0, 100] of the recently observed latencies after which
+   *                            a hedged execution is launched.
+   * @param minimumSampleCount  Minimum number of latency samples needed before the percentile is
+   *                            used as the hedge delay.
+   * @param initialHedgeDelay   Hedge delay to use until enough latency samples have been
+   *                            observed.
+   */
+  public HedgingPolicy(
+      double hedgePercentile,
+      int minimumSampleCount,
+      Duration initialHedgeDelay
+  ) {
+    Objects.requireNonNull(
+        initialHedgeDelay,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Duration"
+        )
+    );
+    if (hedgePercentile <= 0 || hedgePercentile > 100) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.percentile",
+              hedgePercentile
+          )
+      );
+    }
+    if (minimumSampleCount < 1 || initialHedgeDelay.isNegative()) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.hedgingPolicy",
+              minimumSampleCount,
+              initialHedgeDelay
+          )
+      );
+    }
+    this.hedgePercentile = hedgePercentile;
+    this.minimumSampleCount = minimumSampleCount;
+    this.initialHedgeDelay = initialHedgeDelay;
+  }
+
+  /**
+   * Retrieves the percentile of the recently observed latencies after which a hedged execution
+   * is launched.
+   *
+   * @return Percentile after which a hedged execution is launched.
+   */
+  public double getHedgePercentile() {
+    return hedgePercentile;
+  }
+
+  /**
+   * Retrieves the minimum number of latency samples needed before the percentile is used as the
+   * hedge delay.
+   *
+   * @return Minimum number of latency samples.
+   */
+  public int getMinimumSampleCount() {
+    return minimumSampleCount;
+  }
+
+  /**
+   * Retrieves the hedge delay to use until enough latency samples have been observed.
+   *
+   * @return Initial hedge delay.
+   */
+  public Duration getInitialHedgeDelay() {
+    return initialHedgeDelay;
+  }
+}
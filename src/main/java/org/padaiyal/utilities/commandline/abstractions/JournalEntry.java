@@ -0,0 +1,45 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+/**
+ * Represents an executed command recorded in an execution journal, along with its response.
+ */
+public class JournalEntry {
+
+  /**
+   * Command and its arguments.
+   */
+  private final String[] splitCommand;
+  /**
+   * Response of the command, with its outputs truncated as configured for the journal.
+   */
+  private final Response response;
+
+  /**
+   * Constructor used to initialize a JournalEntry object.
+   *
+   * @param splitCommand  Command and its arguments.
+   * @param response      Response of the command.
+   */
+  public JournalEntry(String[] splitCommand, Response response) {
+    this.splitCommand = splitCommand.clone();
+    this.response = response;
+  }
+
+  /**
+   * Retrieves the executed command.
+   *
+   * @return Command and its arguments.
+   */
+  public String[] getSplitCommand() {
+    return splitCommand.clone();
+  }
+
+  /**
+   * Retrieves the response of the executed command.
+   *
+   * @return Response of the command.
+   */
+  public Response getResponse() {
+    return response;
+  }
+}
@@ -0,0 +1,13 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+/**
+ * Enum to represent when an execution journal forces the entries it wrote to storage.
+ * NONE leaves it to the operating system, EVERY_BATCH forces each batch once it is written so
+ * that concurrent executions share a single force, and PERIODIC forces at most once per sync
+ * interval.
+ */
+public enum JournalSyncPolicy {
+  NONE,
+  EVERY_BATCH,
+  PERIODIC
+}
@@ -0,0 +1,195 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Represents everything a process launcher needs to spawn a process - its arguments, environment,
+ * working directory and standard stream redirects.
+ */
+public class LaunchRequest {
+
+  /**
+   * Command and its arguments.
+   */
+  private final List<String> command;
+  /**
+   * Complete environment of the process as "NAME=value" entries. If null, the environment of the
+   * launcher is inherited.
+   */
+  private final String[] environment;
+  /**
+   * Working directory of the process. If null, the working directory of the launcher is
+   * inherited.
+   */
+  private final Path workingDirectory;
+  /**
+   * Redirect for the standard input of the process.
+   */
+  private final Redirect stdinRedirect;
+  /**
+   * Redirect for the standard output of the process.
+   */
+  private final Redirect stdoutRedirect;
+  /**
+   * Redirect for the standard error of the process.
+   */
+  private final Redirect stderrRedirect;
+  /**
+   * Flag to denote if the standard error is to be merged into the standard output.
+   */
+  private final boolean redirectErrorStream;
+
+  /**
+   * Constructor used to initialize a LaunchRequest object which inherits the environment and
+   * working directory, and pipes all standard streams.
+   *
+   * @param splitCommand Command and its arguments.
+   */
+  public LaunchRequest(String[] splitCommand) {
+    this(
+        splitCommand,
+        null,
+        null,
+        Redirect.PIPE,
+        Redirect.PIPE,
+        Redirect.PIPE,
+        false
+    );
+  }
+
+  /**
+   * Constructor used to initialize a LaunchRequest object.
+   *
+   * @param splitCommand        Command and its arguments.
+   * @param environment         Complete environment of the process as "NAME=value" entries. If
+   *                            null, the environment of the launcher is inherited.
+   * @param workingDirectory    Working directory of the process. If null, the working directory
+   *                            of the launcher is inherited.
+   * @param stdinRedirect       Redirect for the standard input of the process.
+   * @param stdoutRedirect      Redirect for the standard output of the process.
+   * @param stderrRedirect      Redirect for the standard error of the process.
+   * @param redirectErrorStream true if the standard error is to be merged into the standard
+   *                            output, else false.
+   */
+  public LaunchRequest(
+      String[] splitCommand,
+      String[] environment,
+      Path workingDirectory,
+      Redirect stdinRedirect,
+      Redirect stdoutRedirect,
+      Redirect stderrRedirect,
+      boolean redirectErrorStream
+  ) {
+    Objects.requireNonNull(
+        splitCommand,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Command"
+        )
+    );
+    Objects.requireNonNull(
+        stdinRedirect,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Redirect"
+        )
+    );
+    Objects.requireNonNull(
+        stdoutRedirect,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Redirect"
+        )
+    );
+    Objects.requireNonNull(
+        stderrRedirect,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Redirect"
+        )
+    );
+    this.command = List.of(splitCommand);
+    this.environment = (environment == null) ? null : environment.clone();
+    this.workingDirectory = workingDirectory;
+    this.stdinRedirect = stdinRedirect;
+    this.stdoutRedirect = stdoutRedirect;
+    this.stderrRedirect = stderrRedirect;
+    this.redirectErrorStream = redirectErrorStream;
+  }
+
+  /**
+   * Retrieves the command and its arguments.
+   *
+   * @return Unmodifiable list of the command and its arguments.
+   */
+  public List<String> getCommand() {
+    return command;
+  }
+
+  /**
+   * Retrieves the complete environment of the process.
+   *
+   * @return The environment as "NAME=value" entries, or null if it is to be inherited.
+   */
+  public String[] getEnvironment() {
+    return (environment == null) ? null : environment.clone();
+  }
+
+  /**
+   * Retrieves the working directory of the process.
+   *
+   * @return The working directory, or null if it is to be inherited.
+   */
+  public Path getWorkingDirectory() {
+    return workingDirectory;
+  }
+
+  /**
+   * Retrieves the redirect for the standard input of the process.
+   *
+   * @return Redirect for the standard input.
+   */
+  public Redirect getStdinRedirect() {
+    return stdinRedirect;
+  }
+
+  /**
+   * Retrieves the redirect for the specified standard output stream of the process.
+   *
+   * @param stdType Type of output stream.
+   * @return        Redirect for the specified output stream.
+   */
+  public Redirect getOutputRedirect(StdType stdType) {
+    return (stdType == StdType.STDOUT) ? stdoutRedirect : stderrRedirect;
+  }
+
+  /**
+   * Retrieves if the standard error is to be merged into the standard output.
+   *
+   * @return true if the standard error is to be merged into the standard output, else false.
+   */
+  public boolean isRedirectErrorStream() {
+    return redirectErrorStream;
+  }
+
+  /**
+   * Creates a copy of this request which merges the standard error into the standard output.
+   *
+   * @return The request merging the standard error into the standard output.
+   */
+  public LaunchRequest withRedirectedErrorStream() {
+    return new LaunchRequest(
+        command.toArray(new String[0]),
+        environment,
+        workingDirectory,
+        stdinRedirect,
+        stdoutRedirect,
+        stderrRedirect,
+        true
+    );
+  }
+}
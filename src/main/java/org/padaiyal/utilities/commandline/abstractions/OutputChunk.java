@@ -0,0 +1,61 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+/**
+ * Represents a line of an output of a command tagged with the output it was produced on and
+ * when it was read, as captured in the merged output of a response.
+ */
+public class OutputChunk {
+
+  /**
+   * Type of output the line was produced on.
+   */
+  private final StdType stdType;
+  /**
+   * Value of System.nanoTime() when the line was read.
+   */
+  private final long nanoTime;
+  /**
+   * Line read, without its line terminator.
+   */
+  private final String text;
+
+  /**
+   * Constructor used to initialize an OutputChunk object.
+   *
+   * @param stdType   Type of output the line was produced on.
+   * @param nanoTime  Value of System.nanoTime() when the line was read.
+   * @param text      Line read, without its line terminator.
+   */
+  public OutputChunk(StdType stdType, long nanoTime, String text) {
+    this.stdType = stdType;
+    this.nanoTime = nanoTime;
+    this.text = text;
+  }
+
+  /**
+   * Retrieves the type of output the line was produced on.
+   *
+   * @return Type of output the line was produced on.
+   */
+  public StdType getStdType() {
+    return stdType;
+  }
+
+  /**
+   * Retrieves when the line was read, which is only meaningful relative to the other chunks.
+   *
+   * @return Value of System.nanoTime() when the line was read.
+   */
+  public long getNanoTime() {
+    return nanoTime;
+  }
+
+  /**
+   * Retrieves the line read.
+   *
+   * @return Line read, without its line terminator.
+   */
+  public String getText() {
+    return text;
+  }
+}
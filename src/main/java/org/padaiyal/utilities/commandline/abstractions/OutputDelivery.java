@@ -0,0 +1,11 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+/**
+ * Enum to represent what a scheduled command delivers for each run. FULL delivers the whole
+ * response, and DELTA additionally delivers the STDOUT lines added and removed since the
+ * previous successful run.
+ */
+public enum OutputDelivery {
+  FULL,
+  DELTA
+}
@@ -0,0 +1,14 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+/**
+ * Enum to represent how the STDOUT and STDERR of a command are merged in the order they were
+ * produced. SEPARATE captures them separately without their relative order. REDIRECTED has the
+ * operating system redirect STDERR into STDOUT, which needs a single pipe and reader, but the
+ * lines can't be told apart. TIMESTAMPED drains both outputs and tags each retained line with
+ * its output and the monotonic time it was read at, from which the merged sequence is built.
+ */
+public enum OutputMergeMode {
+  SEPARATE,
+  REDIRECTED,
+  TIMESTAMPED
+}
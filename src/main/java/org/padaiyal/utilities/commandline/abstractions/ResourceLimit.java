@@ -0,0 +1,11 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+/**
+ * Enum to represent the type of resource limit which can be applied to a command.
+ */
+public enum ResourceLimit {
+  ADDRESS_SPACE,
+  CPU_TIME,
+  OPEN_FILES,
+  PROCESSES
+}
@@ -0,0 +1,177 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Represents the limits on the resources a command and its descendants may use, along with the
+ * scheduling priorities they are executed with.
+ */
+public class ResourceLimits {
+
+  /**
+   * Stores the value of each resource limit which is set.
+   */
+  private final EnumMap<ResourceLimit, Long> limits;
+  /**
+   * Niceness to execute the command with, or null to inherit it.
+   */
+  private Integer niceness;
+  /**
+   * Best effort I/O priority to execute the command with, or null to inherit it.
+   */
+  private Integer ioPriority;
+
+  /**
+   * Abstraction storing the limits on the resources a command may use. By default, none of the
+   * resources are limited.
+   */
+  public ResourceLimits() {
+    limits = new EnumMap<>(ResourceLimit.class);
+  }
+
+  /**
+   * Set the CPU time the command may use. On exceeding it, the command is sent SIGXCPU and then
+   * killed a second later if it is still running.
+   *
+   * @param cpuTime CPU time rounded up to whole seconds, or null to not limit it.
+   */
+  public void setCpuTime(Duration cpuTime) {
+    if (cpuTime == null) {
+      limits.remove(ResourceLimit.CPU_TIME);
+      return;
+    }
+    long cpuTimeInSeconds = cpuTime.getSeconds() + ((cpuTime.getNano() > 0) ? 1 : 0);
+    // Negative durations are rejected rather than being mistaken for an unset limit.
+    setLimit(ResourceLimit.CPU_TIME, Math.max(cpuTimeInSeconds, 0));
+  }
+
+  /**
+   * Set the maximum size of the virtual address space of each process of the command.
+   *
+   * @param addressSpaceInBytes Maximum size of the address space in bytes, or -1 to not limit it.
+   */
+  public void setAddressSpaceInBytes(long addressSpaceInBytes) {
+    setLimit(ResourceLimit.ADDRESS_SPACE, addressSpaceInBytes);
+  }
+
+  /**
+   * Set the maximum number of files each process of the command may have open.
+   *
+   * @param openFiles Maximum number of open files, or -1 to not limit it.
+   */
+  public void setOpenFiles(long openFiles) {
+    setLimit(ResourceLimit.OPEN_FILES, openFiles);
+  }
+
+  /**
+   * Set the maximum number of processes the user executing the command may have. This isn't
+   * enforced for privileged users.
+   *
+   * @param processes Maximum number of processes, or -1 to not limit it.
+   */
+  public void setProcesses(long processes) {
+    setLimit(ResourceLimit.PROCESSES, processes);
+  }
+
+  /**
+   * Get the value of the specified resource limit.
+   *
+   * @param resourceLimit Type of resource limit. The CPU time is in seconds, the address space in
+   *                      bytes.
+   * @return              Value of the limit, or -1 if it isn't set.
+   */
+  public long getLimit(ResourceLimit resourceLimit) {
+    return limits.getOrDefault(resourceLimit, -1L);
+  }
+
+  /**
+   * Set the niceness to execute the command with.
+   *
+   * @param niceness  Niceness within [-20, 19], or null to inherit it. Negative values require
+   *                  privileges.
+   */
+  public void setNiceness(Integer niceness) {
+    if (niceness != null) {
+      validateRange("Niceness", niceness, -20, 19);
+    }
+    this.niceness = niceness;
+  }
+
+  /**
+   * Get the niceness to execute the command with.
+   *
+   * @return Niceness to execute the command with, or null if it is inherited.
+   */
+  public Integer getNiceness() {
+    return niceness;
+  }
+
+  /**
+   * Set the best effort I/O priority to execute the command with. This is only applied where
+   * ionice is available.
+   *
+   * @param ioPriority  I/O priority within [0, 7], 0 being the highest, or null to inherit it.
+   */
+  public void setIoPriority(Integer ioPriority) {
+    if (ioPriority != null) {
+      validateRange("I/O priority", ioPriority, 0, 7);
+    }
+    this.ioPriority = ioPriority;
+  }
+
+  /**
+   * Get the best effort I/O priority to execute the command with.
+   *
+   * @return I/O priority to execute the command with, or null if it is inherited.
+   */
+  public Integer getIoPriority() {
+    return ioPriority;
+  }
+
+  /**
+   * Sets the value of the specified resource limit.
+   *
+   * @param resourceLimit Type of resource limit.
+   * @param value         Value of the limit, or -1 to not limit the resource.
+   */
+  private void setLimit(ResourceLimit resourceLimit, long value) {
+    if (value == -1) {
+      limits.remove(resourceLimit);
+      return;
+    }
+    if (value < 1) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.positive",
+              resourceLimit,
+              value
+          )
+      );
+    }
+    limits.put(resourceLimit, value);
+  }
+
+  /**
+   * Validates that the specified value is within the specified range.
+   *
+   * @param name          Name of the value.
+   * @param value         Value to validate.
+   * @param minimumValue  Minimum value allowed.
+   * @param maximumValue  Maximum value allowed.
+   */
+  private static void validateRange(String name, int value, int minimumValue, int maximumValue) {
+    if (value < minimumValue || value > maximumValue) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.range",
+              name,
+              minimumValue,
+              maximumValue,
+              value
+          )
+      );
+    }
+  }
+}
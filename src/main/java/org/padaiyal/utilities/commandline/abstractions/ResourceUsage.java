@@ -0,0 +1,137 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+import java.time.Duration;
+
+/**
+ * Represents the resources used by an executed command along with its descendants, as sampled
+ * while it executed.
+ */
+public class ResourceUsage {
+
+  /**
+   * Peak resident set size of the command and its descendants in bytes.
+   */
+  private final long peakResidentSetSizeInBytes;
+  /**
+   * CPU time spent by the command and its descendants in user mode.
+   */
+  private final Duration userCpuTime;
+  /**
+   * CPU time spent by the command and its descendants in kernel mode.
+   */
+  private final Duration systemCpuTime;
+  /**
+   * Number of bytes the command and its descendants read from storage.
+   */
+  private final long readBytes;
+  /**
+   * Number of bytes the command and its descendants wrote to storage.
+   */
+  private final long writtenBytes;
+  /**
+   * Peak number of descendants of the command running at once.
+   */
+  private final int peakChildCount;
+  /**
+   * Number of samples the usage is derived from.
+   */
+  private final int sampleCount;
+
+  /**
+   * Constructor used to initialize a ResourceUsage object.
+   *
+   * @param peakResidentSetSizeInBytes  Peak resident set size of the command and its descendants
+   *                                    in bytes.
+   * @param userCpuTime                 CPU time spent in user mode.
+   * @param systemCpuTime               CPU time spent in kernel mode.
+   * @param readBytes                   Number of bytes read from storage.
+   * @param writtenBytes                Number of bytes written to storage.
+   * @param peakChildCount              Peak number of descendants running at once.
+   * @param sampleCount                 Number of samples the usage is derived from.
+   */
+  public ResourceUsage(
+      long peakResidentSetSizeInBytes,
+      Duration userCpuTime,
+      Duration systemCpuTime,
+      long readBytes,
+      long writtenBytes,
+      int peakChildCount,
+      int sampleCount
+  ) {
+    this.peakResidentSetSizeInBytes = peakResidentSetSizeInBytes;
+    this.userCpuTime = userCpuTime;
+    this.systemCpuTime = systemCpuTime;
+    this.readBytes = readBytes;
+    this.writtenBytes = writtenBytes;
+    this.peakChildCount = peakChildCount;
+    this.sampleCount = sampleCount;
+  }
+
+  /**
+   * Retrieves the peak resident set size of the command and its descendants.
+   *
+   * @return Peak resident set size in bytes.
+   */
+  public long getPeakResidentSetSizeInBytes() {
+    return peakResidentSetSizeInBytes;
+  }
+
+  /**
+   * Retrieves the CPU time spent by the command and its descendants in user mode, as of the last
+   * sample.
+   *
+   * @return CPU time spent in user mode.
+   */
+  public Duration getUserCpuTime() {
+    return userCpuTime;
+  }
+
+  /**
+   * Retrieves the CPU time spent by the command and its descendants in kernel mode, as of the
+   * last sample.
+   *
+   * @return CPU time spent in kernel mode.
+   */
+  public Duration getSystemCpuTime() {
+    return systemCpuTime;
+  }
+
+  /**
+   * Retrieves the number of bytes the command and its descendants read from storage, as of the
+   * last sample.
+   *
+   * @return Number of bytes read from storage.
+   */
+  public long getReadBytes() {
+    return readBytes;
+  }
+
+  /**
+   * Retrieves the number of bytes the command and its descendants wrote to storage, as of the
+   * last sample.
+   *
+   * @return Number of bytes written to storage.
+   */
+  public long getWrittenBytes() {
+    return writtenBytes;
+  }
+
+  /**
+   * Retrieves the peak number of descendants of the command running at once.
+   *
+   * @return Peak number of descendants running at once.
+   */
+  public int getPeakChildCount() {
+    return peakChildCount;
+  }
+
+  /**
+   * Retrieves the number of samples the usage is derived from. Commands completing within the
+   * sampling interval may not have been sampled at all.
+   *
+   * @return Number of samples the usage is derived from.
+   */
+  public int getSampleCount() {
+    return sampleCount;
+  }
+}
@@ -2,25 +2,34 @@ package org.padaiyal.utilities.commandline.abstractions;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
 
 /**
- * Represents the response of an executed command.
+ * Represents the response of an executed command. The lines of an output can be accessed
+ * randomly without splitting the whole output: the offsets of its lines are indexed on first
+ * access, and lines are only extracted from the output when retrieved.
  */
 public class Response {
 
   /**
-   * Stores the command outputs from different standard output streams.
+   * Output of the command from STDOUT.
    */
-  private final HashMap<StdType, String> output;
+  private final String stdout;
   /**
-   * Timestamp denoting the start of the command execution.
+   * Output of the command from STDERR.
    */
-  private final Instant executionStartTimestamp;
+  private final String stderr;
   /**
-   * Timestamp denoting the end of the command execution.
+   * Timestamp denoting the start of the command execution.
    */
-  private final Instant executionEndTimestamp;
+  private final Instant executionStartTimestamp;
   /**
    * Time taken to execute the command.
    */
@@ -29,6 +38,35 @@ public class Response {
    * Return code for the executed command.
    */
   private final int returnCode;
+  /**
+   * Indicates if the command was terminated early on satisfying a stop condition.
+   */
+  private final boolean terminatedEarly;
+  /**
+   * Resources used by the command and its descendants, or null if they weren't sampled.
+   */
+  private final ResourceUsage resourceUsage;
+  /**
+   * Resource limit the command was detected to have exceeded, or null if none.
+   */
+  private final ResourceLimit exceededResourceLimit;
+  /**
+   * Retained lines of both outputs in the order they were produced, or null if the outputs
+   * weren't merged with timestamps.
+   */
+  private final List<OutputChunk> mergedOutputChunks;
+  /**
+   * Offsets of the lines of the STDOUT, or null if not indexed yet.
+   *
+   * @see Response#indexLines(String)
+   */
+  private volatile int[] stdoutLineOffsets;
+  /**
+   * Offsets of the lines of the STDERR, or null if not indexed yet.
+   *
+   * @see Response#indexLines(String)
+   */
+  private volatile int[] stderrLineOffsets;
 
   /**
    * Constructor used to initialize a Response object.
@@ -40,11 +78,150 @@ public class Response {
    */
   public Response(int returnCode, HashMap<StdType, String> output,
       Instant executionStartTimestamp, Instant executionEndTimestamp) {
-    this.output = new HashMap<>(output);
+    this.stdout = output.get(StdType.STDOUT);
+    this.stderr = output.get(StdType.STDERR);
     this.returnCode = returnCode;
     this.executionStartTimestamp = executionStartTimestamp;
-    this.executionEndTimestamp = executionEndTimestamp;
     this.executionDuration = Duration.between(executionStartTimestamp, executionEndTimestamp);
+    this.terminatedEarly = false;
+    this.resourceUsage = null;
+    this.exceededResourceLimit = null;
+    this.mergedOutputChunks = null;
+  }
+
+  /**
+   * Constructor used to initialize a Response object without an intermediate output map.
+   *
+   * @param returnCode              Return code of the executed command.
+   * @param stdout                  Output of the executed command from STDOUT.
+   * @param stderr                  Output of the executed command from STDERR.
+   * @param executionStartTimestamp Start timestamp of the executed command.
+   * @param executionDuration       Time taken to execute the command.
+   */
+  public Response(int returnCode, String stdout, String stderr,
+      Instant executionStartTimestamp, Duration executionDuration) {
+    this(returnCode, stdout, stderr, executionStartTimestamp, executionDuration, false);
+  }
+
+  /**
+   * Constructor used to initialize a Response object of a command which may have been terminated
+   * early.
+   *
+   * @param returnCode              Return code of the executed command.
+   * @param stdout                  Output of the executed command from STDOUT.
+   * @param stderr                  Output of the executed command from STDERR.
+   * @param executionStartTimestamp Start timestamp of the executed command.
+   * @param executionDuration       Time taken to execute the command.
+   * @param terminatedEarly         true if the command was terminated early on satisfying a stop
+   *                                condition, else false.
+   */
+  public Response(int returnCode, String stdout, String stderr,
+      Instant executionStartTimestamp, Duration executionDuration, boolean terminatedEarly) {
+    this(
+        returnCode,
+        stdout,
+        stderr,
+        executionStartTimestamp,
+        executionDuration,
+        terminatedEarly,
+        null
+    );
+  }
+
+  /**
+   * Constructor used to initialize a Response object along with the resources used by the
+   * command.
+   *
+   * @param returnCode              Return code of the executed command.
+   * @param stdout                  Output of the executed command from STDOUT.
+   * @param stderr                  Output of the executed command from STDERR.
+   * @param executionStartTimestamp Start timestamp of the executed command.
+   * @param executionDuration       Time taken to execute the command.
+   * @param terminatedEarly         true if the command was terminated early on satisfying a stop
+   *                                condition, else false.
+   * @param resourceUsage           Resources used by the command and its descendants, or null if
+   *                                they weren't sampled.
+   */
+  public Response(int returnCode, String stdout, String stderr,
+      Instant executionStartTimestamp, Duration executionDuration, boolean terminatedEarly,
+      ResourceUsage resourceUsage) {
+    this(
+        returnCode,
+        stdout,
+        stderr,
+        executionStartTimestamp,
+        executionDuration,
+        terminatedEarly,
+        resourceUsage,
+        null
+    );
+  }
+
+  /**
+   * Constructor used to initialize a Response object of a command executed with resource limits.
+   *
+   * @param returnCode              Return code of the executed command.
+   * @param stdout                  Output of the executed command from STDOUT.
+   * @param stderr                  Output of the executed command from STDERR.
+   * @param executionStartTimestamp Start timestamp of the executed command.
+   * @param executionDuration       Time taken to execute the command.
+   * @param terminatedEarly         true if the command was terminated early on satisfying a stop
+   *                                condition, else false.
+   * @param resourceUsage           Resources used by the command and its descendants, or null if
+   *                                they weren't sampled.
+   * @param exceededResourceLimit   Resource limit the command was detected to have exceeded, or
+   *                                null if none.
+   */
+  public Response(int returnCode, String stdout, String stderr,
+      Instant executionStartTimestamp, Duration executionDuration, boolean terminatedEarly,
+      ResourceUsage resourceUsage, ResourceLimit exceededResourceLimit) {
+    this(
+        returnCode,
+        stdout,
+        stderr,
+        executionStartTimestamp,
+        executionDuration,
+        terminatedEarly,
+        resourceUsage,
+        exceededResourceLimit,
+        null
+    );
+  }
+
+  /**
+   * Constructor used to initialize a Response object along with the lines of both outputs merged
+   * in the order they were produced.
+   *
+   * @param returnCode              Return code of the executed command.
+   * @param stdout                  Output of the executed command from STDOUT.
+   * @param stderr                  Output of the executed command from STDERR.
+   * @param executionStartTimestamp Start timestamp of the executed command.
+   * @param executionDuration       Time taken to execute the command.
+   * @param terminatedEarly         true if the command was terminated early on satisfying a stop
+   *                                condition, else false.
+   * @param resourceUsage           Resources used by the command and its descendants, or null if
+   *                                they weren't sampled.
+   * @param exceededResourceLimit   Resource limit the command was detected to have exceeded, or
+   *                                null if none.
+   * @param mergedOutputChunks      Retained lines of both outputs in the order they were
+   *                                produced, or null if the outputs weren't merged with
+   *                                timestamps.
+   */
+  public Response(int returnCode, String stdout, String stderr,
+      Instant executionStartTimestamp, Duration executionDuration, boolean terminatedEarly,
+      ResourceUsage resourceUsage, ResourceLimit exceededResourceLimit,
+      List<OutputChunk> mergedOutputChunks) {
+    this.stdout = stdout;
+    this.stderr = stderr;
+    this.returnCode = returnCode;
+    this.executionStartTimestamp = executionStartTimestamp;
+    this.executionDuration = executionDuration;
+    this.terminatedEarly = terminatedEarly;
+    this.resourceUsage = resourceUsage;
+    this.exceededResourceLimit = exceededResourceLimit;
+    this.mergedOutputChunks = (mergedOutputChunks == null)
+        ? null
+        : Collections.unmodifiableList(mergedOutputChunks);
   }
 
   /**
@@ -63,7 +240,13 @@ public class Response {
    * @return              The desired output of the executed command.
    */
   public String getOutput(StdType typeOfOutput) {
-    return output.get(typeOfOutput);
+    if (typeOfOutput == null) {
+      return null;
+    }
+    return switch (typeOfOutput) {
+      case STDOUT -> stdout;
+      case STDERR -> stderr;
+    };
   }
 
   /**
@@ -81,7 +264,8 @@ public class Response {
    * @return Timestamp denoting the end of the command execution.
    */
   public Instant getExecutionEndTimestamp() {
-    return executionEndTimestamp;
+    // The timestamp is derived rather than stored, as most responses are never asked for it.
+    return executionStartTimestamp.plus(executionDuration);
   }
 
   /**
@@ -93,4 +277,249 @@ public class Response {
     return executionDuration;
   }
 
+  /**
+   * Used to check if the command was terminated early on satisfying a stop condition. If so, the
+   * outputs are truncated and the return code is the one of the killed process.
+   *
+   * @return true if the command was terminated early, else false.
+   */
+  public boolean isTerminatedEarly() {
+    return terminatedEarly;
+  }
+
+  /**
+   * Used to get the resources used by the command and its descendants, as sampled while it
+   * executed.
+   *
+   * @return Resources used by the command, or null if resource sampling is disabled or not
+   *         supported.
+   */
+  public ResourceUsage getResourceUsage() {
+    return resourceUsage;
+  }
+
+  /**
+   * Used to get the resource limit the command was detected to have exceeded. This is a best
+   * effort. Exceeding the CPU time is detected from the command being killed by SIGXCPU, or by
+   * SIGKILL if resource sampling confirms it, whereas the other limits are detected from the error
+   * messages of common tools.
+   *
+   * @return The exceeded resource limit, or null if none was detected.
+   */
+  public ResourceLimit getExceededResourceLimit() {
+    return exceededResourceLimit;
+  }
+
+  /**
+   * Retrieves the retained lines of both outputs in the order they were produced, each tagged
+   * with its output and the time it was read, as captured in the TIMESTAMPED merge mode. They
+   * aren't serialized, hence responses which are deserialized, read from an ExecutionJournal or
+   * replayed have none.
+   *
+   * @return Unmodifiable list of the merged lines, or null if the outputs weren't merged with
+   *         timestamps.
+   */
+  public List<OutputChunk> getMergedOutputChunks() {
+    return mergedOutputChunks;
+  }
+
+  /**
+   * Retrieves the retained lines of both outputs in the order they were produced, each followed
+   * by a line feed, as captured in the TIMESTAMPED merge mode. Outputs merged in the REDIRECTED
+   * mode are the STDOUT instead.
+   *
+   * @return The merged output, or null if the outputs weren't merged with timestamps.
+   */
+  public String getMergedOutput() {
+    if (mergedOutputChunks == null) {
+      return null;
+    }
+    StringBuilder mergedOutput = new StringBuilder();
+    for (OutputChunk outputChunk : mergedOutputChunks) {
+      mergedOutput.append(outputChunk.getText()).append('\n');
+    }
+    return mergedOutput.toString();
+  }
+
+  /**
+   * Retrieves the number of lines in the specified type of output. Lines are terminated by a
+   * line feed, optionally preceded by a carriage return, and a terminator ending the output
+   * doesn't start another line.
+   *
+   * @param typeOfOutput  Type of command output. Can be STDERR or STDOUT.
+   * @return              Number of lines in the output, 0 if it is empty or null.
+   */
+  public int getLineCount(StdType typeOfOutput) {
+    return getLineOffsets(typeOfOutput).length - 1;
+  }
+
+  /**
+   * Retrieves a line of the specified type of output.
+   *
+   * @param typeOfOutput  Type of command output. Can be STDERR or STDOUT.
+   * @param lineIndex     Index of the line, starting at 0.
+   * @return              The line, without its terminator.
+   * @throws IndexOutOfBoundsException Thrown if the output has no line at the specified index.
+   */
+  public String getLine(StdType typeOfOutput, int lineIndex) {
+    int[] lineOffsets = getLineOffsets(typeOfOutput);
+    Objects.checkIndex(lineIndex, lineOffsets.length - 1);
+    return extractLine(getOutput(typeOfOutput), lineOffsets, lineIndex);
+  }
+
+  /**
+   * Retrieves a range of lines of the specified type of output. The returned list is a view
+   * extracting each line from the output when it is retrieved, hence retrieving a few lines of a
+   * huge output doesn't split the rest of it.
+   *
+   * @param typeOfOutput  Type of command output. Can be STDERR or STDOUT.
+   * @param fromIndex     Index of the first line, inclusive.
+   * @param toIndex       Index of the last line, exclusive.
+   * @return              Unmodifiable view of the lines, without their terminators.
+   * @throws IndexOutOfBoundsException Thrown if the range is out of the lines of the output.
+   */
+  public List<String> getLines(StdType typeOfOutput, int fromIndex, int toIndex) {
+    int[] lineOffsets = getLineOffsets(typeOfOutput);
+    Objects.checkFromToIndex(fromIndex, toIndex, lineOffsets.length - 1);
+    return new OutputLines(getOutput(typeOfOutput), lineOffsets, fromIndex, toIndex);
+  }
+
+  /**
+   * Retrieves a spliterator over the lines of the specified type of output, which splits the
+   * lines into halves so that a parallel stream can process them across cores, e.g.
+   * StreamSupport.stream(response.getLineSpliterator(StdType.STDOUT), true).
+   *
+   * @param typeOfOutput  Type of command output. Can be STDERR or STDOUT.
+   * @return              Sized and ordered spliterator over the lines, without their
+   *                      terminators.
+   */
+  public Spliterator<String> getLineSpliterator(StdType typeOfOutput) {
+    return getLines(typeOfOutput, 0, getLineCount(typeOfOutput)).spliterator();
+  }
+
+  /**
+   * Retrieves the offsets of the lines of the specified type of output, indexing them on first
+   * access. Concurrent first accesses may each index the output, which is harmless.
+   *
+   * @param typeOfOutput  Type of command output. Can be STDERR or STDOUT.
+   * @return              Offsets of the lines.
+   */
+  private int[] getLineOffsets(StdType typeOfOutput) {
+    Objects.requireNonNull(typeOfOutput);
+    int[] lineOffsets = (typeOfOutput == StdType.STDOUT) ? stdoutLineOffsets : stderrLineOffsets;
+    if (lineOffsets == null) {
+      lineOffsets = indexLines(getOutput(typeOfOutput));
+      if (typeOfOutput == StdType.STDOUT) {
+        stdoutLineOffsets = lineOffsets;
+      } else {
+        stderrLineOffsets = lineOffsets;
+      }
+    }
+    return lineOffsets;
+  }
+
+  /**
+   * Indexes the lines of the specified output. Each line starts at its offset and ends right
+   * before the offset of the next line, less the line feed terminating it; an output not ending
+   * with a line feed is indexed as if it did.
+   *
+   * @param output  Output to index.
+   * @return        Offsets of the lines, followed by the offset past the last one.
+   */
+  private static int[] indexLines(String output) {
+    if (output == null || output.isEmpty()) {
+      return new int[]{0};
+    }
+    int[] lineOffsets = new int[16];
+    int lineCount = 0;
+    int lineStart = 0;
+    while (lineStart < output.length()) {
+      if (lineCount + 1 == lineOffsets.length) {
+        lineOffsets = Arrays.copyOf(lineOffsets, lineOffsets.length * 2);
+      }
+      lineOffsets[lineCount++] = lineStart;
+      int lineFeedIndex = output.indexOf('\n', lineStart);
+      lineStart = (lineFeedIndex == -1) ? output.length() + 1 : lineFeedIndex + 1;
+    }
+    lineOffsets[lineCount] = lineStart;
+    return Arrays.copyOf(lineOffsets, lineCount + 1);
+  }
+
+  /**
+   * Extracts a line from an output.
+   *
+   * @param output      Output holding the line.
+   * @param lineOffsets Offsets of the lines of the output.
+   * @param lineIndex   Index of the line.
+   * @return            The line, without its terminator.
+   */
+  private static String extractLine(String output, int[] lineOffsets, int lineIndex) {
+    int lineStart = lineOffsets[lineIndex];
+    int lineEnd = lineOffsets[lineIndex + 1] - 1;
+    if (lineEnd > lineStart && output.charAt(lineEnd - 1) == '\r') {
+      lineEnd--;
+    }
+    return output.substring(lineStart, lineEnd);
+  }
+
+  /**
+   * View of a range of lines of an output, extracting each line when it is retrieved.
+   */
+  private static final class OutputLines extends AbstractList<String> implements RandomAccess {
+
+    /**
+     * Output holding the lines.
+     */
+    private final String output;
+    /**
+     * Offsets of the lines of the output.
+     */
+    private final int[] lineOffsets;
+    /**
+     * Index of the first line in the view.
+     */
+    private final int fromIndex;
+    /**
+     * Number of lines in the view.
+     */
+    private final int size;
+
+    /**
+     * Constructor used to initialize an OutputLines object.
+     *
+     * @param output      Output holding the lines.
+     * @param lineOffsets Offsets of the lines of the output.
+     * @param fromIndex   Index of the first line, inclusive.
+     * @param toIndex     Index of the last line, exclusive.
+     */
+    private OutputLines(String output, int[] lineOffsets, int fromIndex, int toIndex) {
+      this.output = output;
+      this.lineOffsets = lineOffsets;
+      this.fromIndex = fromIndex;
+      this.size = toIndex - fromIndex;
+    }
+
+    @Override
+    public String get(int index) {
+      Objects.checkIndex(index, size);
+      return extractLine(output, lineOffsets, fromIndex + index);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public List<String> subList(int fromIndex, int toIndex) {
+      Objects.checkFromToIndex(fromIndex, toIndex, size);
+      return new OutputLines(
+          output,
+          lineOffsets,
+          this.fromIndex + fromIndex,
+          this.fromIndex + toIndex
+      );
+    }
+  }
+
 }
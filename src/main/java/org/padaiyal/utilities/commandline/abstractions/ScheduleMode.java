@@ -0,0 +1,11 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+/**
+ * Enum to represent how the runs of a scheduled command are spaced. FIXED_RATE starts a run
+ * every period, anchored to when the command was scheduled so that late runs don't accumulate
+ * drift, and FIXED_DELAY starts a run a period after the previous one completes.
+ */
+public enum ScheduleMode {
+  FIXED_RATE,
+  FIXED_DELAY
+}
@@ -0,0 +1,120 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+import java.time.Duration;
+import java.util.Objects;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Represents when the runs of a scheduled command start. Each run is delayed by a random jitter
+ * up to the specified maximum, which spreads the load of commands sharing the same period. A run
+ * due while the previous one is still running can be skipped instead of overlapping with it.
+ */
+public class SchedulePolicy {
+
+  /**
+   * How the runs are spaced.
+   */
+  private final ScheduleMode mode;
+  /**
+   * Period between the runs.
+   */
+  private final Duration period;
+  /**
+   * Maximum random delay added to each run.
+   */
+  private final Duration maximumJitter;
+  /**
+   * Flag to denote if a run due while the previous one is still running is skipped.
+   */
+  private final boolean skippedIfRunning;
+
+  /**
+   * Constructor used to initialize a SchedulePolicy object.
+   *
+   * @param mode              How the runs are spaced.
+   * @param period            Period between the runs.
+   * @param maximumJitter     Maximum random delay added to each run, which has to be shorter
+   *                          than the period.
+   * @param skippedIfRunning  true if a run due while the previous one is still running is
+   *                          skipped, false if they overlap. Runs spaced with a fixed delay never
+   *                          overlap.
+   */
+  public SchedulePolicy(
+      ScheduleMode mode,
+      Duration period,
+      Duration maximumJitter,
+      boolean skippedIfRunning
+  ) {
+    Objects.requireNonNull(
+        mode,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "ScheduleMode"
+        )
+    );
+    Objects.requireNonNull(
+        period,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Duration"
+        )
+    );
+    Objects.requireNonNull(
+        maximumJitter,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Duration"
+        )
+    );
+    if (period.isNegative() || period.isZero() || maximumJitter.isNegative()
+        || maximumJitter.compareTo(period) >= 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.schedulePolicy",
+              period,
+              maximumJitter
+          )
+      );
+    }
+    this.mode = mode;
+    this.period = period;
+    this.maximumJitter = maximumJitter;
+    this.skippedIfRunning = skippedIfRunning;
+  }
+
+  /**
+   * Retrieves how the runs are spaced.
+   *
+   * @return How the runs are spaced.
+   */
+  public ScheduleMode getMode() {
+    return mode;
+  }
+
+  /**
+   * Retrieves the period between the runs.
+   *
+   * @return Period between the runs.
+   */
+  public Duration getPeriod() {
+    return period;
+  }
+
+  /**
+   * Retrieves the maximum random delay added to each run.
+   *
+   * @return Maximum jitter.
+   */
+  public Duration getMaximumJitter() {
+    return maximumJitter;
+  }
+
+  /**
+   * Checks if a run due while the previous one is still running is skipped.
+   *
+   * @return true if such runs are skipped, false if they overlap.
+   */
+  public boolean isSkippedIfRunning() {
+    return skippedIfRunning;
+  }
+}
@@ -0,0 +1,96 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a completed run of a scheduled command. Runs delivering deltas carry the STDOUT
+ * lines added and removed since the previous successful run, every line being added on the
+ * first run, so that consumers can process the changes instead of whole snapshots.
+ */
+public class ScheduledRun {
+
+  /**
+   * Sequence number of the run, starting at 1.
+   */
+  private final long runNumber;
+  /**
+   * Response of the run.
+   */
+  private final Response response;
+  /**
+   * STDOUT lines added since the previous successful run, in their order of appearance.
+   */
+  private final List<String> addedLines;
+  /**
+   * STDOUT lines removed since the previous successful run, in their previous order.
+   */
+  private final List<String> removedLines;
+
+  /**
+   * Constructor used to initialize a ScheduledRun object.
+   *
+   * @param runNumber     Sequence number of the run, starting at 1.
+   * @param response      Response of the run.
+   * @param addedLines    STDOUT lines added since the previous successful run, or null if the
+   *                      run doesn't deliver deltas.
+   * @param removedLines  STDOUT lines removed since the previous successful run, or null if the
+   *                      run doesn't deliver deltas.
+   */
+  public ScheduledRun(
+      long runNumber,
+      Response response,
+      List<String> addedLines,
+      List<String> removedLines
+  ) {
+    this.runNumber = runNumber;
+    this.response = response;
+    this.addedLines = (addedLines == null) ? null : Collections.unmodifiableList(addedLines);
+    this.removedLines = (removedLines == null) ? null : Collections.unmodifiableList(removedLines);
+  }
+
+  /**
+   * Retrieves the sequence number of the run.
+   *
+   * @return Sequence number of the run, starting at 1.
+   */
+  public long getRunNumber() {
+    return runNumber;
+  }
+
+  /**
+   * Retrieves the response of the run.
+   *
+   * @return Response of the run.
+   */
+  public Response getResponse() {
+    return response;
+  }
+
+  /**
+   * Checks if the run delivers the STDOUT lines added and removed since the previous run.
+   *
+   * @return true if the run delivers deltas, else false.
+   */
+  public boolean isDelta() {
+    return addedLines != null;
+  }
+
+  /**
+   * Retrieves the STDOUT lines added since the previous successful run.
+   *
+   * @return Added lines in their order of appearance, or null if the run doesn't deliver deltas.
+   */
+  public List<String> getAddedLines() {
+    return addedLines;
+  }
+
+  /**
+   * Retrieves the STDOUT lines removed since the previous successful run.
+   *
+   * @return Removed lines in their previous order, or null if the run doesn't deliver deltas.
+   */
+  public List<String> getRemovedLines() {
+    return removedLines;
+  }
+}
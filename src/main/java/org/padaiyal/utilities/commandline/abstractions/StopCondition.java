@@ -0,0 +1,156 @@
+package org.padaiyal.utilities.commandline.abstractions;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Represents a condition evaluated on an output of a command while it executes, on satisfying
+ * which the command is terminated early.
+ */
+public final class StopCondition {
+
+  /**
+   * Type of output the condition is evaluated on.
+   */
+  private final StdType stdType;
+  /**
+   * Number of retained lines after which the condition is satisfied, or -1 if not applicable.
+   */
+  private final long lineCount;
+  /**
+   * Number of bytes after which the condition is satisfied, or -1 if not applicable.
+   */
+  private final long byteCount;
+  /**
+   * Predicate satisfying the condition on accepting a line, or null if not applicable.
+   */
+  private final Predicate<String> linePredicate;
+
+  /**
+   * Constructor used to initialize a StopCondition object.
+   *
+   * @param stdType       Type of output the condition is evaluated on.
+   * @param lineCount     Number of retained lines after which the condition is satisfied.
+   * @param byteCount     Number of bytes after which the condition is satisfied.
+   * @param linePredicate Predicate satisfying the condition on accepting a line.
+   */
+  private StopCondition(
+      StdType stdType,
+      long lineCount,
+      long byteCount,
+      Predicate<String> linePredicate
+  ) {
+    this.stdType = Objects.requireNonNull(
+        stdType,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "StdType"
+        )
+    );
+    this.lineCount = lineCount;
+    this.byteCount = byteCount;
+    this.linePredicate = linePredicate;
+  }
+
+  /**
+   * Creates a condition satisfied once the specified number of lines have been retained from the
+   * output. The response then contains exactly those lines.
+   *
+   * @param stdType   Type of output the condition is evaluated on.
+   * @param lineCount Number of retained lines after which the condition is satisfied.
+   * @return          The condition.
+   */
+  public static StopCondition afterLines(StdType stdType, long lineCount) {
+    validatePositive("Line count", lineCount);
+    return new StopCondition(stdType, lineCount, -1, null);
+  }
+
+  /**
+   * Creates a condition satisfied once the specified number of bytes have been read from the
+   * output. As the output is read in chunks, the response may contain slightly more data.
+   *
+   * @param stdType   Type of output the condition is evaluated on.
+   * @param byteCount Number of bytes after which the condition is satisfied.
+   * @return          The condition.
+   */
+  public static StopCondition afterBytes(StdType stdType, long byteCount) {
+    validatePositive("Byte count", byteCount);
+    return new StopCondition(stdType, -1, byteCount, null);
+  }
+
+  /**
+   * Creates a condition satisfied once a line of the output is accepted by the specified
+   * predicate, for example a MultiPatternMatcher. The response then contains the output up to
+   * and including that line, if it is retained.
+   *
+   * @param stdType       Type of output the condition is evaluated on.
+   * @param linePredicate Predicate evaluated on every line, without its line terminator.
+   * @return              The condition.
+   */
+  public static StopCondition onLine(StdType stdType, Predicate<String> linePredicate) {
+    Objects.requireNonNull(
+        linePredicate,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Predicate"
+        )
+    );
+    return new StopCondition(stdType, -1, -1, linePredicate);
+  }
+
+  /**
+   * Retrieves the type of output the condition is evaluated on.
+   *
+   * @return Type of output the condition is evaluated on.
+   */
+  public StdType getStdType() {
+    return stdType;
+  }
+
+  /**
+   * Retrieves the number of retained lines after which the condition is satisfied.
+   *
+   * @return Number of retained lines after which the condition is satisfied, or -1 if not
+   *         applicable.
+   */
+  public long getLineCount() {
+    return lineCount;
+  }
+
+  /**
+   * Retrieves the number of bytes after which the condition is satisfied.
+   *
+   * @return Number of bytes after which the condition is satisfied, or -1 if not applicable.
+   */
+  public long getByteCount() {
+    return byteCount;
+  }
+
+  /**
+   * Retrieves the predicate satisfying the condition on accepting a line.
+   *
+   * @return Predicate satisfying the condition on accepting a line, or null if not applicable.
+   */
+  public Predicate<String> getLinePredicate() {
+    return linePredicate;
+  }
+
+  /**
+   * Validates that the specified value is positive.
+   *
+   * @param name  Name of the value.
+   * @param value Value to validate.
+   */
+  private static void validatePositive(String name, long value) {
+    if (value < 1) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.positive",
+              name,
+              value
+          )
+      );
+    }
+  }
+}
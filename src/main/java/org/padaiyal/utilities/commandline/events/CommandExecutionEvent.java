@@ -0,0 +1,124 @@
+package org.padaiyal.utilities.commandline.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event emitted when a command execution completes. Its duration spans from the
+ * launch of the process until its outputs are captured.
+ */
+@Name("org.padaiyal.commandline.CommandExecution")
+@Label("Command Execution")
+@Category({"Padaiyal", "Command Line"})
+@Description("Completed execution of a command")
+@StackTrace(true)
+@Threshold("0 ms")
+public final class CommandExecutionEvent extends Event {
+
+  /**
+   * Command executed.
+   */
+  @Label("Command")
+  private String command;
+  /**
+   * Type of command line which executed the command, or null if it isn't a command line.
+   */
+  @Label("Command Line")
+  private String commandLine;
+  /**
+   * PID of the process which executed the command.
+   */
+  @Label("PID")
+  private long pid;
+  /**
+   * Return code of the command.
+   */
+  @Label("Return Code")
+  private int returnCode;
+  /**
+   * Number of bytes captured from STDOUT.
+   */
+  @Label("STDOUT Bytes")
+  @DataAmount(DataAmount.BYTES)
+  private long stdoutBytes;
+  /**
+   * Number of bytes captured from STDERR.
+   */
+  @Label("STDERR Bytes")
+  @DataAmount(DataAmount.BYTES)
+  private long stderrBytes;
+  /**
+   * Whether the command was terminated early on satisfying a stop condition.
+   */
+  @Label("Terminated Early")
+  private boolean terminatedEarly;
+
+  /**
+   * Sets the command executed.
+   *
+   * @param command Command executed.
+   */
+  public void setCommand(String command) {
+    this.command = command;
+  }
+
+  /**
+   * Sets the type of command line which executed the command.
+   *
+   * @param commandLine Type of command line, or null if it isn't a command line.
+   */
+  public void setCommandLine(String commandLine) {
+    this.commandLine = commandLine;
+  }
+
+  /**
+   * Sets the PID of the process which executed the command.
+   *
+   * @param pid PID of the process.
+   */
+  public void setPid(long pid) {
+    this.pid = pid;
+  }
+
+  /**
+   * Sets the return code of the command.
+   *
+   * @param returnCode Return code of the command.
+   */
+  public void setReturnCode(int returnCode) {
+    this.returnCode = returnCode;
+  }
+
+  /**
+   * Sets the number of bytes captured from STDOUT.
+   *
+   * @param stdoutBytes Number of bytes captured from STDOUT.
+   */
+  public void setStdoutBytes(long stdoutBytes) {
+    this.stdoutBytes = stdoutBytes;
+  }
+
+  /**
+   * Sets the number of bytes captured from STDERR.
+   *
+   * @param stderrBytes Number of bytes captured from STDERR.
+   */
+  public void setStderrBytes(long stderrBytes) {
+    this.stderrBytes = stderrBytes;
+  }
+
+  /**
+   * Sets whether the command was terminated early on satisfying a stop condition.
+   *
+   * @param terminatedEarly true if the command was terminated early, else false.
+   */
+  public void setTerminatedEarly(boolean terminatedEarly) {
+    this.terminatedEarly = terminatedEarly;
+  }
+}
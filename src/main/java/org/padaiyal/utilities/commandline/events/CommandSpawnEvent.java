@@ -0,0 +1,66 @@
+package org.padaiyal.utilities.commandline.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event emitted when a process executing a command is launched. Its duration is
+ * the time taken to launch the process. Like every event of this package, it is recorded along
+ * with its stack trace and its threshold can be overridden in the recording settings.
+ */
+@Name("org.padaiyal.commandline.CommandSpawn")
+@Label("Command Spawn")
+@Category({"Padaiyal", "Command Line"})
+@Description("Launch of a process executing a command")
+@StackTrace(true)
+@Threshold("0 ms")
+public final class CommandSpawnEvent extends Event {
+
+  /**
+   * Command being executed.
+   */
+  @Label("Command")
+  private String command;
+  /**
+   * Type of command line executing the command, or null if it isn't a command line.
+   */
+  @Label("Command Line")
+  private String commandLine;
+  /**
+   * PID of the launched process.
+   */
+  @Label("PID")
+  private long pid;
+
+  /**
+   * Sets the command being executed.
+   *
+   * @param command Command being executed.
+   */
+  public void setCommand(String command) {
+    this.command = command;
+  }
+
+  /**
+   * Sets the type of command line executing the command.
+   *
+   * @param commandLine Type of command line, or null if it isn't a command line.
+   */
+  public void setCommandLine(String commandLine) {
+    this.commandLine = commandLine;
+  }
+
+  /**
+   * Sets the PID of the launched process.
+   *
+   * @param pid PID of the launched process.
+   */
+  public void setPid(long pid) {
+    this.pid = pid;
+  }
+}
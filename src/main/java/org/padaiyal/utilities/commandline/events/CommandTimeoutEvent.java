@@ -0,0 +1,108 @@
+package org.padaiyal.utilities.commandline.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event emitted when a command execution exceeds its total or idle timeout. It is
+ * an instant event, the time the command had been executing for is recorded as a field instead.
+ */
+@Name("org.padaiyal.commandline.CommandTimeout")
+@Label("Command Timeout")
+@Category({"Padaiyal", "Command Line"})
+@Description("Execution of a command which exceeded its timeout")
+@StackTrace(true)
+public final class CommandTimeoutEvent extends Event {
+
+  /**
+   * Command which timed out.
+   */
+  @Label("Command")
+  private String command;
+  /**
+   * Type of command line which executed the command, or null if it isn't a command line.
+   */
+  @Label("Command Line")
+  private String commandLine;
+  /**
+   * PID of the process which executed the command.
+   */
+  @Label("PID")
+  private long pid;
+  /**
+   * Timeout which was exceeded.
+   */
+  @Label("Timeout")
+  @Timespan(Timespan.MILLISECONDS)
+  private long timeout;
+  /**
+   * Time the command had been executing for when the timeout was detected.
+   */
+  @Label("Elapsed")
+  @Timespan(Timespan.MILLISECONDS)
+  private long elapsed;
+  /**
+   * Whether the idle timeout was exceeded rather than the total one.
+   */
+  @Label("Idle")
+  private boolean idle;
+
+  /**
+   * Sets the command which timed out.
+   *
+   * @param command Command which timed out.
+   */
+  public void setCommand(String command) {
+    this.command = command;
+  }
+
+  /**
+   * Sets the type of command line which executed the command.
+   *
+   * @param commandLine Type of command line, or null if it isn't a command line.
+   */
+  public void setCommandLine(String commandLine) {
+    this.commandLine = commandLine;
+  }
+
+  /**
+   * Sets the PID of the process which executed the command.
+   *
+   * @param pid PID of the process.
+   */
+  public void setPid(long pid) {
+    this.pid = pid;
+  }
+
+  /**
+   * Sets the timeout which was exceeded.
+   *
+   * @param timeout Timeout in milliseconds.
+   */
+  public void setTimeout(long timeout) {
+    this.timeout = timeout;
+  }
+
+  /**
+   * Sets the time the command had been executing for when the timeout was detected.
+   *
+   * @param elapsed Time elapsed in milliseconds.
+   */
+  public void setElapsed(long elapsed) {
+    this.elapsed = elapsed;
+  }
+
+  /**
+   * Sets whether the idle timeout was exceeded rather than the total one.
+   *
+   * @param idle true if the idle timeout was exceeded, else false.
+   */
+  public void setIdle(boolean idle) {
+    this.idle = idle;
+  }
+}
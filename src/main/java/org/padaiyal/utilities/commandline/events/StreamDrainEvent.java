@@ -0,0 +1,67 @@
+package org.padaiyal.utilities.commandline.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event emitted when an output of a command has been drained. Its duration is
+ * the time spent draining the output.
+ */
+@Name("org.padaiyal.commandline.StreamDrain")
+@Label("Stream Drain")
+@Category({"Padaiyal", "Command Line"})
+@Description("Draining of an output of a command")
+@StackTrace(true)
+@Threshold("0 ms")
+public final class StreamDrainEvent extends Event {
+
+  /**
+   * PID of the process producing the output.
+   */
+  @Label("PID")
+  private long pid;
+  /**
+   * Type of the output.
+   */
+  @Label("Output")
+  private String stdType;
+  /**
+   * Number of bytes drained from the output.
+   */
+  @Label("Drained Bytes")
+  @DataAmount(DataAmount.BYTES)
+  private long drainedBytes;
+
+  /**
+   * Sets the PID of the process producing the output.
+   *
+   * @param pid PID of the process.
+   */
+  public void setPid(long pid) {
+    this.pid = pid;
+  }
+
+  /**
+   * Sets the type of the output.
+   *
+   * @param stdType Type of the output.
+   */
+  public void setStdType(String stdType) {
+    this.stdType = stdType;
+  }
+
+  /**
+   * Sets the number of bytes drained from the output.
+   *
+   * @param drainedBytes Number of bytes drained.
+   */
+  public void setDrainedBytes(long drainedBytes) {
+    this.drainedBytes = drainedBytes;
+  }
+}
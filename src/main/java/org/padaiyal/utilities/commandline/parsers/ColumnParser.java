@@ -0,0 +1,254 @@
+package org.padaiyal.utilities.commandline.parsers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import org.padaiyal.utilities.I18nUtility;
+import org.padaiyal.utilities.commandline.abstractions.HeaderMode;
+
+/**
+ * Parses column outputs, such as the ones of ps, df, free or lsblk, into a record per line.
+ * Columns are separated by whitespace unless their offsets are specified, in which case they have
+ * a fixed width. The first line names the columns if it is a header, and the fields of the
+ * following lines are named after them. Data lines having more fields than the header, such as
+ * the ones of free which start with an unnamed label, have their leading fields unnamed.
+ */
+public final class ColumnParser extends OutputParser {
+
+  /**
+   * Whether the first line names the columns.
+   */
+  private HeaderMode headerMode;
+  /**
+   * Maximum number of whitespace separated columns, the last column holding the rest of the
+   * line, or 0 if unbounded.
+   */
+  private int maximumColumnCount;
+  /**
+   * Offsets of the fixed width columns, or null if the columns are separated by whitespace.
+   */
+  private int[] columnOffsets;
+  /**
+   * Flag to denote if the first line has been read.
+   */
+  private boolean headerResolved;
+  /**
+   * Names of the columns, or null if there is no header.
+   */
+  private String[] columnNames;
+  /**
+   * Indexes of the column names, or null if there is no header.
+   */
+  private Map<String, Integer> columnIndexes;
+  /**
+   * Bounds of the fields of the line being parsed, reused across lines.
+   */
+  private int[] fieldBounds;
+
+  /**
+   * Constructor used to initialize a ColumnParser object. By default, the columns are separated
+   * by whitespace and the header is detected.
+   *
+   * @param recordConsumer  Consumer the parsed records are handed to.
+   */
+  public ColumnParser(Consumer<ParsedRecord> recordConsumer) {
+    super(recordConsumer);
+    this.headerMode = HeaderMode.DETECTED;
+    this.fieldBounds = new int[32];
+  }
+
+  /**
+   * Sets whether the first line names the columns.
+   *
+   * @param headerMode  Whether the first line names the columns.
+   */
+  public void setHeaderMode(HeaderMode headerMode) {
+    this.headerMode = Objects.requireNonNull(
+        headerMode,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "HeaderMode"
+        )
+    );
+  }
+
+  /**
+   * Sets the maximum number of whitespace separated columns, the last column holding the rest of
+   * the line including its whitespace, e.g. the arguments of the processes listed by ps.
+   *
+   * @param maximumColumnCount  Maximum number of columns, or 0 if unbounded.
+   */
+  public void setMaximumColumnCount(int maximumColumnCount) {
+    if (maximumColumnCount < 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CommandLineUtility.input.validation.range",
+              "Maximum column count",
+              0,
+              Integer.MAX_VALUE,
+              maximumColumnCount
+          )
+      );
+    }
+    this.maximumColumnCount = maximumColumnCount;
+  }
+
+  /**
+   * Sets the offsets at which the fixed width columns start, each column ending where the next
+   * one starts. The fields are trimmed of their surrounding whitespace.
+   *
+   * @param columnOffsets Increasing offsets of the columns, or null to separate the columns by
+   *                      whitespace.
+   */
+  public void setColumnOffsets(int... columnOffsets) {
+    if (columnOffsets != null) {
+      for (int index = 0; index < columnOffsets.length; index++) {
+        if (columnOffsets[index] < 0
+            || (index > 0 && columnOffsets[index] <= columnOffsets[index - 1])) {
+          throw new IllegalArgumentException(
+              I18nUtility.getFormattedString(
+                  "CommandLineUtility.input.validation.columnOffsets",
+                  Arrays.toString(columnOffsets)
+              )
+          );
+        }
+      }
+    }
+    this.columnOffsets = (columnOffsets == null) ? null : columnOffsets.clone();
+  }
+
+  /**
+   * Retrieves the names of the columns read from the header.
+   *
+   * @return Names of the columns, empty if there is no header or it hasn't been read yet.
+   */
+  public List<String> getColumnNames() {
+    return (columnNames == null) ? List.of() : Collections.unmodifiableList(
+        Arrays.asList(columnNames)
+    );
+  }
+
+  @Override
+  ParsedRecord parseLine(String line) {
+    if (line.isBlank()) {
+      return null;
+    }
+    int fieldCount = (columnOffsets == null)
+        ? splitOnWhitespace(line)
+        : splitOnOffsets(line);
+    if (!headerResolved) {
+      headerResolved = true;
+      if (headerMode == HeaderMode.PRESENT
+          || (headerMode == HeaderMode.DETECTED && !hasNumericField(line, fieldCount))) {
+        columnNames = new String[fieldCount];
+        columnIndexes = new HashMap<>((int) (fieldCount / 0.75f) + 1);
+        for (int index = 0; index < fieldCount; index++) {
+          columnNames[index] = line.substring(fieldBounds[2 * index], fieldBounds[2 * index + 1]);
+          columnIndexes.putIfAbsent(columnNames[index], index);
+        }
+        return null;
+      }
+    }
+    return new ParsedRecord(
+        line,
+        Arrays.copyOf(fieldBounds, 2 * fieldCount),
+        null,
+        columnNames,
+        columnIndexes,
+        (columnNames == null) ? 0 : Math.max(0, fieldCount - columnNames.length)
+    );
+  }
+
+  /**
+   * Splits the specified line into whitespace separated fields, recording their bounds.
+   *
+   * @param line  Line to split.
+   * @return      Number of fields.
+   */
+  private int splitOnWhitespace(String line) {
+    int fieldCount = 0;
+    int index = 0;
+    int length = line.length();
+    while (true) {
+      while (index < length && Character.isWhitespace(line.charAt(index))) {
+        index++;
+      }
+      if (index == length) {
+        return fieldCount;
+      }
+      int fieldStart = index;
+      if (fieldCount + 1 == maximumColumnCount) {
+        // The last column holds the rest of the line.
+        index = length;
+        while (Character.isWhitespace(line.charAt(index - 1))) {
+          index--;
+        }
+      } else {
+        while (index < length && !Character.isWhitespace(line.charAt(index))) {
+          index++;
+        }
+      }
+      addField(fieldCount++, fieldStart, index);
+    }
+  }
+
+  /**
+   * Splits the specified line into fixed width fields, recording their bounds. Columns past the
+   * end of the line are empty.
+   *
+   * @param line  Line to split.
+   * @return      Number of fields.
+   */
+  private int splitOnOffsets(String line) {
+    int length = line.length();
+    for (int index = 0; index < columnOffsets.length; index++) {
+      int fieldStart = Math.min(columnOffsets[index], length);
+      int fieldEnd = (index + 1 < columnOffsets.length)
+          ? Math.min(columnOffsets[index + 1], length)
+          : length;
+      while (fieldStart < fieldEnd && Character.isWhitespace(line.charAt(fieldStart))) {
+        fieldStart++;
+      }
+      while (fieldEnd > fieldStart && Character.isWhitespace(line.charAt(fieldEnd - 1))) {
+        fieldEnd--;
+      }
+      addField(index, fieldStart, fieldEnd);
+    }
+    return columnOffsets.length;
+  }
+
+  /**
+   * Records the bounds of a field, growing the bounds as needed.
+   *
+   * @param fieldIndex  Index of the field.
+   * @param fieldStart  Start of the field, inclusive.
+   * @param fieldEnd    End of the field, exclusive.
+   */
+  private void addField(int fieldIndex, int fieldStart, int fieldEnd) {
+    if (2 * fieldIndex + 1 >= fieldBounds.length) {
+      fieldBounds = Arrays.copyOf(fieldBounds, fieldBounds.length * 2);
+    }
+    fieldBounds[2 * fieldIndex] = fieldStart;
+    fieldBounds[2 * fieldIndex + 1] = fieldEnd;
+  }
+
+  /**
+   * Checks if any of the fields of the specified line is a number.
+   *
+   * @param line        Line holding the fields.
+   * @param fieldCount  Number of fields.
+   * @return            true if a field is a number, else false.
+   */
+  private boolean hasNumericField(String line, int fieldCount) {
+    for (int index = 0; index < fieldCount; index++) {
+      if (ParsedRecord.isNumber(line, fieldBounds[2 * index], fieldBounds[2 * index + 1])) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
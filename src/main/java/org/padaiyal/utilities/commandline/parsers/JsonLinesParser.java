@@ -0,0 +1,267 @@
+package org.padaiyal.utilities.commandline.parsers;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Parses JSON lines outputs, such as the ones of journalctl -o json or docker ps --format json,
+ * into a record per line, each member of the object on the line being a named field. Strings,
+ * numbers, booleans and nulls are fields of their own, whereas nested objects and arrays are
+ * fields holding their JSON text, which can be parsed further if needed.
+ */
+public final class JsonLinesParser extends OutputParser {
+
+  /**
+   * Bounds of the values of the line being parsed, reused across lines.
+   */
+  private int[] fieldBounds;
+  /**
+   * Names of the members of the line being parsed, reused across lines.
+   */
+  private String[] names;
+  /**
+   * Decoded values of the line being parsed, reused across lines.
+   */
+  private String[] decodedValues;
+  /**
+   * Flag to denote if a value of the line being parsed was decoded.
+   */
+  private boolean valueDecoded;
+
+  /**
+   * Constructor used to initialize a JsonLinesParser object.
+   *
+   * @param recordConsumer  Consumer the parsed records are handed to.
+   */
+  public JsonLinesParser(Consumer<ParsedRecord> recordConsumer) {
+    super(recordConsumer);
+    this.fieldBounds = new int[32];
+    this.names = new String[16];
+    this.decodedValues = new String[16];
+  }
+
+  @Override
+  ParsedRecord parseLine(String line) {
+    if (line.isBlank()) {
+      return null;
+    }
+    if (valueDecoded) {
+      // The values decoded for the previous line, including a malformed one, are cleared.
+      Arrays.fill(decodedValues, null);
+      valueDecoded = false;
+    }
+    int fieldCount = 0;
+    int index = expect(line, skipWhitespace(line, 0), '{');
+    index = skipWhitespace(line, index);
+    if (index < line.length() && line.charAt(index) == '}') {
+      index++;
+    } else {
+      while (true) {
+        ensureCapacity(fieldCount);
+        index = expect(line, index, '"');
+        int nameStart = index;
+        index = skipString(line, index);
+        names[fieldCount] = decodeString(line, nameStart, index - 1);
+        index = expect(line, skipWhitespace(line, index), ':');
+        index = parseValue(line, skipWhitespace(line, index), fieldCount++);
+        index = skipWhitespace(line, index);
+        if (index < line.length() && line.charAt(index) == ',') {
+          index = skipWhitespace(line, index + 1);
+          continue;
+        }
+        index = expect(line, index, '}');
+        break;
+      }
+    }
+    if (skipWhitespace(line, index) != line.length()) {
+      throw createMalformedLineException(line, index);
+    }
+    return new ParsedRecord(
+        line,
+        Arrays.copyOf(fieldBounds, 2 * fieldCount),
+        valueDecoded ? Arrays.copyOf(decodedValues, fieldCount) : null,
+        Arrays.copyOf(names, fieldCount),
+        null,
+        0
+    );
+  }
+
+  /**
+   * Parses the value of a member, recording its bounds.
+   *
+   * @param line        Line holding the value.
+   * @param index       Index at which the value starts.
+   * @param fieldIndex  Index of the field holding the value.
+   * @return            Index following the value.
+   * @throws IllegalArgumentException Thrown if the value is malformed.
+   */
+  private int parseValue(String line, int index, int fieldIndex) {
+    if (index >= line.length()) {
+      throw createMalformedLineException(line, index);
+    }
+    int valueStart = index;
+    int valueEnd;
+    char character = line.charAt(index);
+    if (character == '"') {
+      valueStart = index + 1;
+      index = skipString(line, valueStart);
+      valueEnd = index - 1;
+      if (line.lastIndexOf('\\', valueEnd - 1) >= valueStart) {
+        decodedValues[fieldIndex] = decodeString(line, valueStart, valueEnd);
+        valueDecoded = true;
+      }
+    } else if (character == '{' || character == '[') {
+      index = skipContainer(line, index);
+      valueEnd = index;
+    } else if (line.startsWith("null", index)) {
+      index += 4;
+      valueStart = -1;
+      valueEnd = -1;
+    } else if (line.startsWith("true", index) || line.startsWith("false", index)) {
+      index += (character == 't') ? 4 : 5;
+      valueEnd = index;
+    } else {
+      while (index < line.length() && "+-.eE0123456789".indexOf(line.charAt(index)) != -1) {
+        index++;
+      }
+      if (!ParsedRecord.isNumber(line, valueStart, index)) {
+        throw createMalformedLineException(line, valueStart);
+      }
+      valueEnd = index;
+    }
+    fieldBounds[2 * fieldIndex] = valueStart;
+    fieldBounds[2 * fieldIndex + 1] = valueEnd;
+    return index;
+  }
+
+  /**
+   * Skips the rest of a string.
+   *
+   * @param line  Line holding the string.
+   * @param index Index following the opening quote.
+   * @return      Index following the closing quote.
+   * @throws IllegalArgumentException Thrown if the string isn't terminated.
+   */
+  private static int skipString(String line, int index) {
+    while (index < line.length()) {
+      char character = line.charAt(index++);
+      if (character == '"') {
+        return index;
+      }
+      if (character == '\\') {
+        index++;
+      }
+    }
+    throw createMalformedLineException(line, index);
+  }
+
+  /**
+   * Skips a nested object or array, along with the strings and containers it holds.
+   *
+   * @param line  Line holding the container.
+   * @param index Index of the opening bracket.
+   * @return      Index following the closing bracket.
+   * @throws IllegalArgumentException Thrown if the container isn't terminated.
+   */
+  private static int skipContainer(String line, int index) {
+    int depth = 0;
+    while (index < line.length()) {
+      char character = line.charAt(index++);
+      if (character == '"') {
+        index = skipString(line, index);
+      } else if (character == '{' || character == '[') {
+        depth++;
+      } else if ((character == '}' || character == ']') && --depth == 0) {
+        return index;
+      }
+    }
+    throw createMalformedLineException(line, index);
+  }
+
+  /**
+   * Decodes the escape sequences of a string.
+   *
+   * @param line  Line holding the string.
+   * @param start Index following the opening quote.
+   * @param end   Index of the closing quote.
+   * @return      The decoded string.
+   * @throws IllegalArgumentException Thrown if an escape sequence is invalid.
+   */
+  private static String decodeString(String line, int start, int end) {
+    if (line.indexOf('\\', start) == -1 || line.indexOf('\\', start) >= end) {
+      return line.substring(start, end);
+    }
+    StringBuilder value = new StringBuilder(end - start);
+    for (int index = start; index < end; index++) {
+      char character = line.charAt(index);
+      if (character != '\\') {
+        value.append(character);
+        continue;
+      }
+      char escaped = line.charAt(++index);
+      switch (escaped) {
+        case 'b' -> value.append('\b');
+        case 'f' -> value.append('\f');
+        case 'n' -> value.append('\n');
+        case 'r' -> value.append('\r');
+        case 't' -> value.append('\t');
+        case 'u' -> {
+          if (index + 4 >= end) {
+            throw createMalformedLineException(line, index);
+          }
+          try {
+            value.append((char) Integer.parseInt(line, index + 1, index + 5, 16));
+          } catch (NumberFormatException e) {
+            throw createMalformedLineException(line, index);
+          }
+          index += 4;
+        }
+        default -> value.append(escaped);
+      }
+    }
+    return value.toString();
+  }
+
+  /**
+   * Checks that the specified character is at the specified index.
+   *
+   * @param line      Line to check.
+   * @param index     Index of the character.
+   * @param character Expected character.
+   * @return          Index following the character.
+   * @throws IllegalArgumentException Thrown if the character isn't at the index.
+   */
+  private static int expect(String line, int index, char character) {
+    if (index >= line.length() || line.charAt(index) != character) {
+      throw createMalformedLineException(line, index);
+    }
+    return index + 1;
+  }
+
+  /**
+   * Skips the whitespace starting at the specified index.
+   *
+   * @param line  Line holding the whitespace.
+   * @param index Index to start from.
+   * @return      Index of the first character which isn't whitespace, or the line length.
+   */
+  private static int skipWhitespace(String line, int index) {
+    while (index < line.length() && Character.isWhitespace(line.charAt(index))) {
+      index++;
+    }
+    return index;
+  }
+
+  /**
+   * Grows the buffers so that they can hold the specified field.
+   *
+   * @param fieldIndex  Index of the field.
+   */
+  private void ensureCapacity(int fieldIndex) {
+    if (fieldIndex >= names.length) {
+      names = Arrays.copyOf(names, names.length * 2);
+      decodedValues = Arrays.copyOf(decodedValues, decodedValues.length * 2);
+      fieldBounds = Arrays.copyOf(fieldBounds, fieldBounds.length * 2);
+    }
+  }
+}
@@ -0,0 +1,260 @@
+package org.padaiyal.utilities.commandline.parsers;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Parses key value outputs into a record per line, each pair being a named field. By default a
+ * line holds whitespace separated pairs such as NAME="sda" SIZE="8G", as printed by lsblk -P or
+ * systemctl show, values being optionally double quoted with backslash escapes. A line may
+ * instead hold a single pair whose value is the rest of the line, such as the ones of sysctl -a
+ * or /proc/meminfo.
+ */
+public final class KeyValueParser extends OutputParser {
+
+  /**
+   * Character separating a key from its value.
+   */
+  private char separator;
+  /**
+   * Flag to denote if a line holds a single pair whose value is the rest of the line.
+   */
+  private boolean onePairPerLine;
+  /**
+   * Bounds of the values of the line being parsed, reused across lines.
+   */
+  private int[] fieldBounds;
+  /**
+   * Keys of the line being parsed, reused across lines.
+   */
+  private String[] keys;
+  /**
+   * Decoded values of the line being parsed, reused across lines.
+   */
+  private String[] decodedValues;
+  /**
+   * Flag to denote if a value of the line being parsed was decoded.
+   */
+  private boolean valueDecoded;
+
+  /**
+   * Constructor used to initialize a KeyValueParser object. By default, keys are separated from
+   * their values by '=' and a line holds whitespace separated pairs.
+   *
+   * @param recordConsumer  Consumer the parsed records are handed to.
+   */
+  public KeyValueParser(Consumer<ParsedRecord> recordConsumer) {
+    super(recordConsumer);
+    this.separator = '=';
+    this.fieldBounds = new int[32];
+    this.keys = new String[16];
+    this.decodedValues = new String[16];
+  }
+
+  /**
+   * Sets the character separating a key from its value, e.g. ':' for /proc/meminfo.
+   *
+   * @param separator Character separating a key from its value.
+   */
+  public void setSeparator(char separator) {
+    this.separator = separator;
+  }
+
+  /**
+   * Sets if a line holds a single pair whose value is the rest of the line, trimmed of its
+   * surrounding whitespace.
+   *
+   * @param onePairPerLine  true if a line holds a single pair, false if it holds whitespace
+   *                        separated pairs.
+   */
+  public void setOnePairPerLine(boolean onePairPerLine) {
+    this.onePairPerLine = onePairPerLine;
+  }
+
+  @Override
+  ParsedRecord parseLine(String line) {
+    if (line.isBlank()) {
+      return null;
+    }
+    if (valueDecoded) {
+      // The values decoded for the previous line, including a malformed one, are cleared.
+      Arrays.fill(decodedValues, null);
+      valueDecoded = false;
+    }
+    int fieldCount = onePairPerLine ? parsePair(line) : parsePairs(line);
+    return new ParsedRecord(
+        line,
+        Arrays.copyOf(fieldBounds, 2 * fieldCount),
+        valueDecoded ? Arrays.copyOf(decodedValues, fieldCount) : null,
+        Arrays.copyOf(keys, fieldCount),
+        null,
+        0
+    );
+  }
+
+  /**
+   * Parses a line holding a single pair.
+   *
+   * @param line  Line to parse.
+   * @return      Number of fields, i.e. 1.
+   * @throws IllegalArgumentException Thrown if the line has no key.
+   */
+  private int parsePair(String line) {
+    int separatorIndex = line.indexOf(separator);
+    int keyStart = skipWhitespace(line, 0);
+    int keyEnd = trimEnd(line, keyStart, separatorIndex);
+    if (separatorIndex == -1 || keyEnd == keyStart) {
+      throw createMalformedLineException(line, Math.max(separatorIndex, 0));
+    }
+    int valueStart = skipWhitespace(line, separatorIndex + 1);
+    int valueEnd = trimEnd(line, valueStart, line.length());
+    if (valueEnd - valueStart >= 2 && line.charAt(valueStart) == '"'
+        && line.charAt(valueEnd - 1) == '"') {
+      valueStart++;
+      valueEnd--;
+      if (line.indexOf('\\', valueStart) != -1) {
+        decodedValues[0] = unescape(line, valueStart, valueEnd);
+        valueDecoded = true;
+      }
+    }
+    addField(0, line.substring(keyStart, keyEnd), valueStart, valueEnd);
+    return 1;
+  }
+
+  /**
+   * Parses a line holding whitespace separated pairs.
+   *
+   * @param line  Line to parse.
+   * @return      Number of fields.
+   * @throws IllegalArgumentException Thrown if a pair has no key or a quoted value isn't
+   *                                  terminated.
+   */
+  private int parsePairs(String line) {
+    int fieldCount = 0;
+    int length = line.length();
+    int index = skipWhitespace(line, 0);
+    while (index < length) {
+      int keyStart = index;
+      while (index < length && line.charAt(index) != separator
+          && !Character.isWhitespace(line.charAt(index))) {
+        index++;
+      }
+      if (index == keyStart || index == length || line.charAt(index) != separator) {
+        throw createMalformedLineException(line, index);
+      }
+      String key = line.substring(keyStart, index);
+      index++;
+      int valueStart = index;
+      int valueEnd;
+      if (index < length && line.charAt(index) == '"') {
+        valueStart = ++index;
+        boolean escaped = false;
+        while (index < length && line.charAt(index) != '"') {
+          if (line.charAt(index) == '\\') {
+            escaped = true;
+            index++;
+          }
+          index++;
+        }
+        if (index >= length) {
+          throw createMalformedLineException(line, valueStart - 1);
+        }
+        valueEnd = index++;
+        if (escaped) {
+          ensureCapacity(fieldCount);
+          decodedValues[fieldCount] = unescape(line, valueStart, valueEnd);
+          valueDecoded = true;
+        }
+      } else {
+        while (index < length && !Character.isWhitespace(line.charAt(index))) {
+          index++;
+        }
+        valueEnd = index;
+      }
+      addField(fieldCount++, key, valueStart, valueEnd);
+      if (index < length && !Character.isWhitespace(line.charAt(index))) {
+        throw createMalformedLineException(line, index);
+      }
+      index = skipWhitespace(line, index);
+    }
+    return fieldCount;
+  }
+
+  /**
+   * Records a field, growing the buffers as needed.
+   *
+   * @param fieldIndex  Index of the field.
+   * @param key         Key of the field.
+   * @param valueStart  Start of the value, inclusive.
+   * @param valueEnd    End of the value, exclusive.
+   */
+  private void addField(int fieldIndex, String key, int valueStart, int valueEnd) {
+    ensureCapacity(fieldIndex);
+    keys[fieldIndex] = key;
+    fieldBounds[2 * fieldIndex] = valueStart;
+    fieldBounds[2 * fieldIndex + 1] = valueEnd;
+  }
+
+  /**
+   * Grows the buffers so that they can hold the specified field.
+   *
+   * @param fieldIndex  Index of the field.
+   */
+  private void ensureCapacity(int fieldIndex) {
+    if (fieldIndex >= keys.length) {
+      keys = Arrays.copyOf(keys, keys.length * 2);
+      decodedValues = Arrays.copyOf(decodedValues, decodedValues.length * 2);
+      fieldBounds = Arrays.copyOf(fieldBounds, fieldBounds.length * 2);
+    }
+  }
+
+  /**
+   * Skips the whitespace starting at the specified index.
+   *
+   * @param line  Line holding the whitespace.
+   * @param index Index to start from.
+   * @return      Index of the first character which isn't whitespace, or the line length.
+   */
+  private static int skipWhitespace(String line, int index) {
+    while (index < line.length() && Character.isWhitespace(line.charAt(index))) {
+      index++;
+    }
+    return index;
+  }
+
+  /**
+   * Trims the whitespace ending the specified range.
+   *
+   * @param line  Line holding the range.
+   * @param start Start of the range, inclusive.
+   * @param end   End of the range, exclusive.
+   * @return      End of the range without its trailing whitespace.
+   */
+  private static int trimEnd(String line, int start, int end) {
+    while (end > start && Character.isWhitespace(line.charAt(end - 1))) {
+      end--;
+    }
+    return end;
+  }
+
+  /**
+   * Decodes the backslash escapes of a quoted value, a backslash escaping the character
+   * following it.
+   *
+   * @param line  Line holding the value.
+   * @param start Start of the value, inclusive.
+   * @param end   End of the value, exclusive.
+   * @return      The decoded value.
+   */
+  private static String unescape(String line, int start, int end) {
+    StringBuilder value = new StringBuilder(end - start);
+    for (int index = start; index < end; index++) {
+      char character = line.charAt(index);
+      if (character == '\\' && index + 1 < end) {
+        character = line.charAt(++index);
+      }
+      value.append(character);
+    }
+    return value.toString();
+  }
+}
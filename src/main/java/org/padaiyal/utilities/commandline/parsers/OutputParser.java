@@ -0,0 +1,161 @@
+package org.padaiyal.utilities.commandline.parsers;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Parses the lines of an output into records as the output is drained, handing each record to a
+ * consumer as soon as its line is read. A parser is installed as the line filter of an output
+ * through CaptureOptions::setLineFilter(StdType, Predicate), and by default retains none of the
+ * lines it parses, hence the output is never accumulated into a string. Lines which can't be
+ * parsed are counted and skipped.
+ *
+ * <p>A parser is stateful, e.g. it remembers the header of a column output, hence it parses the
+ * output of a single execution. It is invoked by the thread draining the output, and its counts
+ * can be read once the execution completes.
+ */
+public abstract class OutputParser implements Predicate<String> {
+
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(OutputParser.class);
+
+  /**
+   * Consumer the parsed records are handed to.
+   */
+  private final Consumer<ParsedRecord> recordConsumer;
+  /**
+   * Flag to denote if the parsed lines are retained in the response as well.
+   */
+  private boolean linesRetained;
+  /**
+   * Number of lines parsed.
+   */
+  private long lineCount;
+  /**
+   * Number of records handed to the consumer.
+   */
+  private long recordCount;
+  /**
+   * Number of lines which couldn't be parsed.
+   */
+  private long malformedLineCount;
+
+  /**
+   * Constructor used to initialize an OutputParser object.
+   *
+   * @param recordConsumer  Consumer the parsed records are handed to.
+   */
+  OutputParser(Consumer<ParsedRecord> recordConsumer) {
+    this.recordConsumer = Objects.requireNonNull(
+        recordConsumer,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Consumer"
+        )
+    );
+  }
+
+  /**
+   * Parses the specified line, handing the record it holds, if any, to the consumer.
+   *
+   * @param line  Line to parse, without its terminator.
+   * @return      true if the line is to be retained in the response, else false.
+   */
+  @Override
+  public final boolean test(String line) {
+    lineCount++;
+    ParsedRecord parsedRecord;
+    try {
+      parsedRecord = parseLine(line);
+    } catch (IllegalArgumentException e) {
+      malformedLineCount++;
+      logger.debug(
+          I18nUtility.getFormattedString("CommandLineUtility.parser.malformedLine", lineCount),
+          e
+      );
+      return linesRetained;
+    }
+    if (parsedRecord != null) {
+      recordCount++;
+      recordConsumer.accept(parsedRecord);
+    }
+    return linesRetained;
+  }
+
+  /**
+   * Sets if the parsed lines are retained in the response as well.
+   *
+   * @param linesRetained true to retain the lines, false to only hand the records over.
+   */
+  public void setLinesRetained(boolean linesRetained) {
+    this.linesRetained = linesRetained;
+  }
+
+  /**
+   * Checks if the parsed lines are retained in the response as well.
+   *
+   * @return true if the lines are retained, else false.
+   */
+  public boolean isLinesRetained() {
+    return linesRetained;
+  }
+
+  /**
+   * Retrieves the number of lines parsed.
+   *
+   * @return Number of lines parsed.
+   */
+  public long getLineCount() {
+    return lineCount;
+  }
+
+  /**
+   * Retrieves the number of records handed to the consumer.
+   *
+   * @return Number of records.
+   */
+  public long getRecordCount() {
+    return recordCount;
+  }
+
+  /**
+   * Retrieves the number of lines which couldn't be parsed.
+   *
+   * @return Number of malformed lines.
+   */
+  public long getMalformedLineCount() {
+    return malformedLineCount;
+  }
+
+  /**
+   * Parses a line into a record.
+   *
+   * @param line  Line to parse, without its terminator.
+   * @return      The record, or null if the line holds none, e.g. as it is blank or a header.
+   * @throws IllegalArgumentException Thrown if the line is malformed.
+   */
+  abstract ParsedRecord parseLine(String line);
+
+  /**
+   * Creates the exception thrown on parsing a malformed line.
+   *
+   * @param line    The malformed line.
+   * @param offset  Offset in the line at which it is malformed.
+   * @return        The exception.
+   */
+  static IllegalArgumentException createMalformedLineException(String line, int offset) {
+    return new IllegalArgumentException(
+        I18nUtility.getFormattedString(
+            "CommandLineUtility.parser.malformedOffset",
+            offset,
+            line
+        )
+    );
+  }
+}
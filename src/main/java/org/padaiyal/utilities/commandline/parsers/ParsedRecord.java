@@ -0,0 +1,351 @@
+package org.padaiyal.utilities.commandline.parsers;
+
+import java.util.Map;
+import java.util.Objects;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Represents a record parsed from a line of output. The fields aren't extracted from the line
+ * when it is parsed, only their bounds are recorded, so that fields which are never retrieved
+ * cost nothing and numeric fields are parsed straight from the line into primitives.
+ */
+public final class ParsedRecord {
+
+  /**
+   * Line the record was parsed from.
+   */
+  private final String line;
+  /**
+   * Start and end offsets of each field in the line, a start of -1 denoting a null field.
+   */
+  private final int[] fieldBounds;
+  /**
+   * Values of the fields which differ from their text in the line, e.g. as escape sequences were
+   * decoded, or null if every field is its text in the line.
+   */
+  private final String[] decodedValues;
+  /**
+   * Names of the fields, or null if they are unnamed.
+   */
+  private final String[] names;
+  /**
+   * Indexes of the names, or null if they are looked up by scanning them.
+   */
+  private final Map<String, Integer> nameIndexes;
+  /**
+   * Index of the field named by the first name.
+   */
+  private final int nameOffset;
+
+  /**
+   * Constructor used to initialize a ParsedRecord object.
+   *
+   * @param line          Line the record was parsed from.
+   * @param fieldBounds   Start and end offsets of each field in the line, a start of -1 denoting
+   *                      a null field.
+   * @param decodedValues Values of the fields which differ from their text in the line, or null
+   *                      if there are none.
+   * @param names         Names of the fields, or null if they are unnamed.
+   * @param nameIndexes   Indexes of the names, or null to look them up by scanning them.
+   * @param nameOffset    Index of the field named by the first name.
+   */
+  ParsedRecord(
+      String line,
+      int[] fieldBounds,
+      String[] decodedValues,
+      String[] names,
+      Map<String, Integer> nameIndexes,
+      int nameOffset
+  ) {
+    this.line = line;
+    this.fieldBounds = fieldBounds;
+    this.decodedValues = decodedValues;
+    this.names = names;
+    this.nameIndexes = nameIndexes;
+    this.nameOffset = nameOffset;
+  }
+
+  /**
+   * Retrieves the line the record was parsed from.
+   *
+   * @return The line, without its terminator.
+   */
+  public String getLine() {
+    return line;
+  }
+
+  /**
+   * Retrieves the number of fields in the record.
+   *
+   * @return Number of fields.
+   */
+  public int getFieldCount() {
+    return fieldBounds.length / 2;
+  }
+
+  /**
+   * Retrieves the name of a field.
+   *
+   * @param fieldIndex  Index of the field.
+   * @return            Name of the field, or null if it is unnamed.
+   */
+  public String getName(int fieldIndex) {
+    Objects.checkIndex(fieldIndex, getFieldCount());
+    int nameIndex = fieldIndex - nameOffset;
+    return (names == null || nameIndex < 0 || nameIndex >= names.length)
+        ? null
+        : names[nameIndex];
+  }
+
+  /**
+   * Retrieves the index of the field with the specified name.
+   *
+   * @param name  Name of the field.
+   * @return      Index of the field, or -1 if the record has no such field.
+   */
+  public int getFieldIndex(String name) {
+    Objects.requireNonNull(
+        name,
+        () -> I18nUtility.getFormattedString(
+            "CommandLineUtility.input.validation.nonNull",
+            "Name"
+        )
+    );
+    int fieldIndex = -1;
+    if (nameIndexes != null) {
+      Integer nameIndex = nameIndexes.get(name);
+      fieldIndex = (nameIndex == null) ? -1 : nameIndex + nameOffset;
+    } else if (names != null) {
+      for (int nameIndex = 0; nameIndex < names.length; nameIndex++) {
+        if (names[nameIndex].equals(name)) {
+          fieldIndex = nameIndex + nameOffset;
+          break;
+        }
+      }
+    }
+    return (fieldIndex < getFieldCount()) ? fieldIndex : -1;
+  }
+
+  /**
+   * Checks if the record has a field with the specified name.
+   *
+   * @param name  Name of the field.
+   * @return      true if the record has such a field, else false.
+   */
+  public boolean hasField(String name) {
+    return getFieldIndex(name) != -1;
+  }
+
+  /**
+   * Checks if a field is null, e.g. a JSON null.
+   *
+   * @param fieldIndex  Index of the field.
+   * @return            true if the field is null, else false.
+   */
+  public boolean isNull(int fieldIndex) {
+    Objects.checkIndex(fieldIndex, getFieldCount());
+    return fieldBounds[2 * fieldIndex] == -1;
+  }
+
+  /**
+   * Retrieves the value of a field as a string.
+   *
+   * @param fieldIndex  Index of the field.
+   * @return            Value of the field, or null if the field is null.
+   */
+  public String getString(int fieldIndex) {
+    Objects.checkIndex(fieldIndex, getFieldCount());
+    if (decodedValues != null && decodedValues[fieldIndex] != null) {
+      return decodedValues[fieldIndex];
+    }
+    int start = fieldBounds[2 * fieldIndex];
+    return (start == -1) ? null : line.substring(start, fieldBounds[2 * fieldIndex + 1]);
+  }
+
+  /**
+   * Retrieves the value of the field with the specified name as a string.
+   *
+   * @param name  Name of the field.
+   * @return      Value of the field, or null if the field is null.
+   * @throws IllegalArgumentException Thrown if the record has no such field.
+   */
+  public String getString(String name) {
+    return getString(getExistingFieldIndex(name));
+  }
+
+  /**
+   * Retrieves the value of a field as a long, parsing it straight from the line.
+   *
+   * @param fieldIndex  Index of the field.
+   * @return            Value of the field.
+   * @throws NumberFormatException Thrown if the field isn't an integer.
+   */
+  public long getLong(int fieldIndex) {
+    Objects.checkIndex(fieldIndex, getFieldCount());
+    int start = fieldBounds[2 * fieldIndex];
+    if (start == -1 || (decodedValues != null && decodedValues[fieldIndex] != null)) {
+      return Long.parseLong(getString(fieldIndex));
+    }
+    return Long.parseLong(line, start, fieldBounds[2 * fieldIndex + 1], 10);
+  }
+
+  /**
+   * Retrieves the value of the field with the specified name as a long.
+   *
+   * @param name  Name of the field.
+   * @return      Value of the field.
+   * @throws IllegalArgumentException Thrown if the record has no such field, or a
+   *                                  NumberFormatException if it isn't an integer.
+   */
+  public long getLong(String name) {
+    return getLong(getExistingFieldIndex(name));
+  }
+
+  /**
+   * Retrieves the value of a field as a double.
+   *
+   * @param fieldIndex  Index of the field.
+   * @return            Value of the field.
+   * @throws NumberFormatException Thrown if the field isn't a number.
+   */
+  public double getDouble(int fieldIndex) {
+    Objects.checkIndex(fieldIndex, getFieldCount());
+    int start = fieldBounds[2 * fieldIndex];
+    int end = fieldBounds[2 * fieldIndex + 1];
+    if (start != -1 && (decodedValues == null || decodedValues[fieldIndex] == null)
+        && isInteger(line, start, end)) {
+      // Integers, which most numeric columns hold, are parsed without extracting them.
+      return Long.parseLong(line, start, end, 10);
+    }
+    String value = getString(fieldIndex);
+    if (value == null) {
+      throw new NumberFormatException();
+    }
+    return Double.parseDouble(value);
+  }
+
+  /**
+   * Retrieves the value of the field with the specified name as a double.
+   *
+   * @param name  Name of the field.
+   * @return      Value of the field.
+   * @throws IllegalArgumentException Thrown if the record has no such field, or a
+   *                                  NumberFormatException if it isn't a number.
+   */
+  public double getDouble(String name) {
+    return getDouble(getExistingFieldIndex(name));
+  }
+
+  /**
+   * Checks if a field is a number, i.e. if it can be retrieved as a double.
+   *
+   * @param fieldIndex  Index of the field.
+   * @return            true if the field is a number, else false.
+   */
+  public boolean isNumeric(int fieldIndex) {
+    Objects.checkIndex(fieldIndex, getFieldCount());
+    int start = fieldBounds[2 * fieldIndex];
+    if (start == -1) {
+      return false;
+    }
+    if (decodedValues != null && decodedValues[fieldIndex] != null) {
+      String value = decodedValues[fieldIndex];
+      return isNumber(value, 0, value.length());
+    }
+    return isNumber(line, start, fieldBounds[2 * fieldIndex + 1]);
+  }
+
+  /**
+   * Retrieves the index of the field with the specified name, failing if there is none.
+   *
+   * @param name  Name of the field.
+   * @return      Index of the field.
+   * @throws IllegalArgumentException Thrown if the record has no such field.
+   */
+  private int getExistingFieldIndex(String name) {
+    int fieldIndex = getFieldIndex(name);
+    if (fieldIndex == -1) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString("CommandLineUtility.parser.unknownField", name)
+      );
+    }
+    return fieldIndex;
+  }
+
+  /**
+   * Checks if the specified range of text is an integer fitting a long, with an optional sign.
+   *
+   * @param text  Text holding the range.
+   * @param start Start of the range, inclusive.
+   * @param end   End of the range, exclusive.
+   * @return      true if the range is an integer, else false.
+   */
+  static boolean isInteger(CharSequence text, int start, int end) {
+    int index = start;
+    if (index < end && (text.charAt(index) == '-' || text.charAt(index) == '+')) {
+      index++;
+    }
+    // Up to 18 digits always fit in a long.
+    if (index == end || end - index > 18) {
+      return false;
+    }
+    for (; index < end; index++) {
+      if (!isDigit(text.charAt(index))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks if the specified range of text is a decimal number, with an optional sign, fraction
+   * and exponent.
+   *
+   * @param text  Text holding the range.
+   * @param start Start of the range, inclusive.
+   * @param end   End of the range, exclusive.
+   * @return      true if the range is a number, else false.
+   */
+  static boolean isNumber(CharSequence text, int start, int end) {
+    int index = start;
+    if (index < end && (text.charAt(index) == '-' || text.charAt(index) == '+')) {
+      index++;
+    }
+    int digitCount = 0;
+    for (; index < end && isDigit(text.charAt(index)); index++) {
+      digitCount++;
+    }
+    if (index < end && text.charAt(index) == '.') {
+      for (index++; index < end && isDigit(text.charAt(index)); index++) {
+        digitCount++;
+      }
+    }
+    if (digitCount == 0) {
+      return false;
+    }
+    if (index < end && (text.charAt(index) == 'e' || text.charAt(index) == 'E')) {
+      index++;
+      if (index < end && (text.charAt(index) == '-' || text.charAt(index) == '+')) {
+        index++;
+      }
+      int exponentStart = index;
+      while (index < end && isDigit(text.charAt(index))) {
+        index++;
+      }
+      if (index == exponentStart) {
+        return false;
+      }
+    }
+    return index == end;
+  }
+
+  /**
+   * Checks if the specified character is an ASCII digit, as numbers in outputs are.
+   *
+   * @param character Character to check.
+   * @return          true if the character is an ASCII digit, else false.
+   */
+  private static boolean isDigit(char character) {
+    return character >= '0' && character <= '9';
+  }
+}
@@ -0,0 +1,97 @@
+package org.padaiyal.utilities.commandline;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Tests for BufferPool.
+ */
+class BufferPoolTest {
+
+  /**
+   * Loads the resources used for the validation messages.
+   */
+  @BeforeAll
+  static void prepare() {
+    CommandLineUtility.initializeDependantValues();
+  }
+
+  /**
+   * Tests that released buffers are reused, and that hits and misses are counted.
+   */
+  @Test
+  void testBufferReuse() {
+    BufferPool bufferPool = new BufferPool(512, 4096, 2);
+
+    byte[] buffer = bufferPool.acquire(1);
+    Assertions.assertEquals(512, buffer.length);
+    Assertions.assertEquals(0, bufferPool.getHitCount());
+    Assertions.assertEquals(1, bufferPool.getMissCount());
+
+    bufferPool.release(1, buffer, 100);
+    Assertions.assertEquals(1, bufferPool.getPooledBufferCount());
+    Assertions.assertSame(buffer, bufferPool.acquire(1));
+    Assertions.assertEquals(1, bufferPool.getHitCount());
+    Assertions.assertEquals(1, bufferPool.getMissCount());
+    Assertions.assertEquals(0, bufferPool.getPooledBufferCount());
+  }
+
+  /**
+   * Tests that the buffer size adapts to the output volume observed for each command.
+   *
+   * @param drainedSizeInBytes    Output volume drained for the command.
+   * @param expectedBufferSize    Expected size of the next buffer acquired for the command.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "0, 512",
+      "100, 512",
+      "513, 1024",
+      "3000, 4096",
+      "1000000, 4096"
+  })
+  void testAdaptiveBufferSize(long drainedSizeInBytes, int expectedBufferSize) {
+    BufferPool bufferPool = new BufferPool(512, 4096, 2);
+
+    bufferPool.release(42, bufferPool.acquire(42), drainedSizeInBytes);
+    Assertions.assertEquals(expectedBufferSize, bufferPool.acquire(42).length);
+    // Other commands still start with the initial buffer size.
+    Assertions.assertEquals(512, bufferPool.acquire(43).length);
+  }
+
+  /**
+   * Tests that the pool retains at most its capacity of buffers per size class, and discards
+   * buffers it couldn't have handed out.
+   */
+  @Test
+  void testBoundedCapacity() {
+    BufferPool bufferPool = new BufferPool(512, 4096, 2);
+
+    Set<byte[]> buffers = new HashSet<>();
+    for (int index = 0; index < 3; index++) {
+      buffers.add(bufferPool.acquire(1));
+    }
+    buffers.forEach(buffer -> bufferPool.release(1, buffer, 0));
+    Assertions.assertEquals(2, bufferPool.getPooledBufferCount());
+
+    bufferPool.release(1, new byte[100], 0);
+    bufferPool.release(1, new byte[8192], 0);
+    bufferPool.release(1, new byte[256], 0);
+    Assertions.assertEquals(2, bufferPool.getPooledBufferCount());
+  }
+
+  /**
+   * Tests creating a buffer pool with invalid parameters.
+   */
+  @Test
+  void testInvalidParameters() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new BufferPool(0, 4096, 2));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new BufferPool(512, 0, 2));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new BufferPool(512, 4096, 0));
+  }
+}
@@ -0,0 +1,241 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Tests for BuiltinRegistry.
+ */
+@DisabledOnOs(OS.WINDOWS)
+class BuiltinRegistryTest {
+
+  /**
+   * Registry with the default builtins.
+   */
+  private static BuiltinRegistry builtinRegistry;
+
+  /**
+   * Prepares the registry used for the tests.
+   */
+  @BeforeAll
+  static void prepare() {
+    CommandLineUtility.initializeDependantValues();
+    builtinRegistry = BuiltinRegistry.withDefaultBuiltins();
+  }
+
+  /**
+   * Tests that the default builtins produce the same response as the commands they replace,
+   * when executed both directly and via a shell.
+   *
+   * @param command               Command to test.
+   * @throws IOException          If there is an issue executing the command.
+   * @throws InterruptedException If the command execution is interrupted.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "echo",
+      "echo hello   world",
+      "true",
+      "false",
+      "pwd",
+      "which sh",
+      "test -e /",
+      "test -d /",
+      "test -f /",
+      "test -e /non/existent/path",
+      "printenv PATH",
+      "printenv PATH NON_EXISTENT_VARIABLE_FOR_TEST"
+  })
+  void testBuiltinsMatchSpawnedCommands(String command)
+      throws IOException, InterruptedException {
+    String[] shellCommand = new String[]{"sh", "-c", command};
+    assertMatchesSpawnedCommand(shellCommand);
+    if (!command.startsWith("test") && !command.startsWith("echo")) {
+      // test and echo are shell builtins without a standalone executable on some systems.
+      assertMatchesSpawnedCommand(command.split(" +"));
+    }
+  }
+
+  /**
+   * Tests the cat builtin against the cat command.
+   *
+   * @param temporaryDirectory    Directory in which the files to cat are created.
+   * @throws IOException          If there is an issue executing the command.
+   * @throws InterruptedException If the command execution is interrupted.
+   */
+  @Test
+  void testCat(@TempDir Path temporaryDirectory) throws IOException, InterruptedException {
+    Path firstFile = Files.writeString(temporaryDirectory.resolve("first.txt"), "first\nline");
+    Path secondFile = Files.writeString(temporaryDirectory.resolve("second.txt"), "second\n");
+    assertMatchesSpawnedCommand(
+        new String[]{"sh", "-c", "cat " + firstFile + " " + secondFile}
+    );
+
+    // Missing files are left to the cat command.
+    Assertions.assertEquals(
+        Optional.empty(),
+        builtinRegistry.execute(new String[]{"cat", temporaryDirectory.resolve("missing") + ""})
+    );
+  }
+
+  /**
+   * Tests that commands which aren't simple or whose arguments the builtins can't handle are not
+   * executed as builtins.
+   *
+   * @param command Command to test.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "echo $HOME",
+      "echo 'quoted'",
+      "echo hi > /dev/null",
+      "echo -n hi",
+      "echo hi; echo there",
+      "FOO=bar echo hi",
+      "cat",
+      "true --help",
+      "ls -a",
+      "printenv",
+      "printenv SHLVL",
+      "test -x /",
+      "which non-existent-command-for-test"
+  })
+  void testCommandsNotMatchingBuiltins(String command) {
+    Assertions.assertEquals(
+        Optional.empty(),
+        builtinRegistry.execute(new String[]{"/bin/bash", "-c", command})
+    );
+    Assertions.assertEquals(
+        Optional.empty(),
+        builtinRegistry.execute(new String[]{"/bin/csh", "-c", "echo hi"})
+    );
+  }
+
+  /**
+   * Tests that commands with an empty path operand are not executed as builtins, as the empty path
+   * would resolve to the current directory.
+   *
+   * @param operator File operator of test.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"-e", "-f", "-d"})
+  void testEmptyPathOperand(String operator) {
+    Assertions.assertEquals(
+        Optional.empty(),
+        builtinRegistry.execute(new String[]{"test", operator, ""})
+    );
+    Assertions.assertEquals(
+        Optional.empty(),
+        builtinRegistry.execute(new String[]{"cat", ""})
+    );
+  }
+
+  /**
+   * Tests that simple commands executed via zsh are not executed as builtins, as zsh has its own
+   * implementations of them.
+   *
+   * @param command Command to test.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"which sh", "pwd", "test -e /", "true"})
+  void testZshCommandsNotMatchingBuiltins(String command) {
+    Assertions.assertEquals(
+        Optional.empty(),
+        builtinRegistry.execute(new String[]{"zsh", "-c", command})
+    );
+  }
+
+  /**
+   * Tests registering and unregistering custom builtins.
+   */
+  @Test
+  void testCustomBuiltins() {
+    BuiltinRegistry customBuiltinRegistry = new BuiltinRegistry();
+    Assertions.assertEquals(
+        Optional.empty(),
+        customBuiltinRegistry.execute(new String[]{"hostname"})
+    );
+
+    customBuiltinRegistry.register("hostname", (arguments, stdout, stderr) -> {
+      stdout.append("host\n");
+      stderr.append(arguments.size());
+      return OptionalInt.of(7);
+    });
+    Assertions.assertTrue(customBuiltinRegistry.getBuiltin("hostname").isPresent());
+    Response response = customBuiltinRegistry.execute(new String[]{"sh", "-c", "hostname -s"})
+        .orElseThrow();
+    Assertions.assertEquals(7, response.getReturnCode());
+    Assertions.assertEquals("host\n", response.getOutput(StdType.STDOUT));
+    Assertions.assertEquals("1", response.getOutput(StdType.STDERR));
+    Assertions.assertNotNull(response.getExecutionDuration());
+
+    customBuiltinRegistry.unregister("hostname");
+    Assertions.assertEquals(Optional.empty(), customBuiltinRegistry.getBuiltin("hostname"));
+    customBuiltinRegistry.register("hostname", (arguments, stdout, stderr) -> OptionalInt.empty());
+    Assertions.assertEquals(
+        Optional.empty(),
+        customBuiltinRegistry.execute(new String[]{"hostname"})
+    );
+    customBuiltinRegistry.clear();
+    Assertions.assertEquals(Optional.empty(), customBuiltinRegistry.getBuiltin("hostname"));
+
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> customBuiltinRegistry.register(null, (arguments, stdout, stderr) -> null)
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> customBuiltinRegistry.register("hostname", null)
+    );
+  }
+
+  /**
+   * Tests splitting simple shell commands into words.
+   */
+  @Test
+  void testSplitSimpleCommand() {
+    Assertions.assertArrayEquals(
+        new String[]{"test", "-e", "/tmp/a.b"},
+        BuiltinRegistry.splitSimpleCommand("  test\t-e  /tmp/a.b ")
+    );
+    Assertions.assertNull(BuiltinRegistry.splitSimpleCommand("   "));
+    Assertions.assertNull(BuiltinRegistry.splitSimpleCommand("echo *"));
+    Assertions.assertEquals(
+        List.of("echo", "a=b"),
+        List.of(BuiltinRegistry.splitSimpleCommand("echo a=b"))
+    );
+  }
+
+  /**
+   * Asserts that the builtin response for a command matches the response of spawning it.
+   *
+   * @param splitCommand          Command to execute.
+   * @throws IOException          If there is an issue executing the command.
+   * @throws InterruptedException If the command execution is interrupted.
+   */
+  private static void assertMatchesSpawnedCommand(String[] splitCommand)
+      throws IOException, InterruptedException {
+    Response builtinResponse = builtinRegistry.execute(splitCommand)
+        .orElseThrow();
+    Process process = new ProcessBuilder(splitCommand).start();
+    String stdout = StreamUtility.convertInputStreamToString(process.getInputStream());
+    String stderr = StreamUtility.convertInputStreamToString(process.getErrorStream());
+    Assertions.assertEquals(process.waitFor(), builtinResponse.getReturnCode());
+    Assertions.assertEquals(stdout, builtinResponse.getOutput(StdType.STDOUT));
+    Assertions.assertEquals(stderr, builtinResponse.getOutput(StdType.STDERR));
+  }
+}
@@ -0,0 +1,37 @@
+package org.padaiyal.utilities.commandline;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for CancellationToken.
+ */
+class CancellationTokenTest {
+
+  /**
+   * Tests that the registered actions are run exactly once on cancellation.
+   */
+  @Test
+  void testCancel() {
+    CancellationToken cancellationToken = new CancellationToken();
+    AtomicInteger runCount = new AtomicInteger();
+    Runnable action = runCount::incrementAndGet;
+    Runnable unregisteredAction = () -> Assertions.fail("Unregistered action was run.");
+    cancellationToken.register(action);
+    cancellationToken.register(unregisteredAction);
+    cancellationToken.unregister(unregisteredAction);
+    Assertions.assertFalse(cancellationToken.isCancelled());
+    Assertions.assertEquals(0, runCount.get());
+
+    cancellationToken.cancel();
+    Assertions.assertTrue(cancellationToken.isCancelled());
+    Assertions.assertEquals(1, runCount.get());
+    cancellationToken.cancel();
+    Assertions.assertEquals(1, runCount.get());
+
+    // Actions registered after cancellation are run right away.
+    cancellationToken.register(action);
+    Assertions.assertEquals(2, runCount.get());
+  }
+}
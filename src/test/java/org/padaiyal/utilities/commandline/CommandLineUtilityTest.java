@@ -1,27 +1,68 @@
 package org.padaiyal.utilities.commandline;
 
 import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentMatchers;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.padaiyal.utilities.I18nUtility;
 import org.padaiyal.utilities.PropertyUtility;
+import org.padaiyal.utilities.commandline.abstractions.CaptureOptions;
 import org.padaiyal.utilities.commandline.abstractions.Command;
 import org.padaiyal.utilities.commandline.abstractions.CommandLine;
+import org.padaiyal.utilities.commandline.abstractions.ExecutionContext;
+import org.padaiyal.utilities.commandline.abstractions.ExecutionPriority;
+import org.padaiyal.utilities.commandline.abstractions.HedgingPolicy;
+import org.padaiyal.utilities.commandline.abstractions.JournalEntry;
 import org.padaiyal.utilities.commandline.abstractions.OperatingSystem;
+import org.padaiyal.utilities.commandline.abstractions.OutputChunk;
+import org.padaiyal.utilities.commandline.abstractions.OutputMergeMode;
+import org.padaiyal.utilities.commandline.abstractions.ResourceLimit;
+import org.padaiyal.utilities.commandline.abstractions.ResourceLimits;
+import org.padaiyal.utilities.commandline.abstractions.ResourceUsage;
 import org.padaiyal.utilities.commandline.abstractions.Response;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+import org.padaiyal.utilities.commandline.abstractions.StopCondition;
+import org.padaiyal.utilities.commandline.events.CommandExecutionEvent;
+import org.padaiyal.utilities.commandline.events.CommandSpawnEvent;
+import org.padaiyal.utilities.commandline.events.CommandTimeoutEvent;
+import org.padaiyal.utilities.commandline.events.StreamDrainEvent;
 import org.padaiyal.utilities.commandline.exceptions.CommandLineNotFoundException;
 
 /**
@@ -357,6 +398,1315 @@ class CommandLineUtilityTest {
     );
   }
 
+  /**
+   * Tests CommandLineUtility::executeCommand(Command, CommandLine, Duration, HedgingPolicy).
+   *
+   * @throws IOException                  If there is an issue executing the command.
+   * @throws InterruptedException         If the command execution is interrupted.
+   * @throws TimeoutException             If the command execution times out.
+   * @throws CommandLineNotFoundException If the command line to be used to execute the command
+   *                                      is not found.
+   */
+  @Test
+  void testExecuteCommandWithHedging()
+      throws IOException,
+      InterruptedException,
+      TimeoutException,
+      CommandLineNotFoundException {
+    // A zero hedge delay ensures that a hedged execution is always launched.
+    HedgingPolicy hedgingPolicy = new HedgingPolicy(95, 1, Duration.ZERO);
+
+    // Test with terminating command.
+    Response response = CommandLineUtility.executeCommand(
+        terminatingCommand,
+        commandLine,
+        timeoutDuration,
+        hedgingPolicy
+    );
+    Assertions.assertEquals(0, response.getReturnCode());
+    Assertions.assertNotNull(response.getOutput(StdType.STDOUT));
+
+    // Test with non terminating command.
+    Assertions.assertThrows(
+        TimeoutException.class,
+        () -> CommandLineUtility.executeCommand(
+            nonTerminatingCommand,
+            commandLine,
+            timeoutDuration,
+            hedgingPolicy
+        )
+    );
+
+    // Test with null inputs.
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> CommandLineUtility.executeCommand(
+            terminatingCommand,
+            commandLine,
+            timeoutDuration,
+            (HedgingPolicy) null
+        )
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> CommandLineUtility.executeCommand(
+            (String[]) null,
+            timeoutDuration,
+            hedgingPolicy
+        )
+    );
+
+    // Test with invalid hedging policies.
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new HedgingPolicy(0, 1, Duration.ZERO)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new HedgingPolicy(95, 0, Duration.ZERO)
+    );
+  }
+
+  /**
+   * Tests that the outputs of hedged executions are drained while they run, so that commands
+   * whose outputs exceed the capacity of a pipe complete instead of timing out.
+   *
+   * @throws Exception If there is an issue executing the command.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testExecuteCommandWithHedgingAndLargeOutputs() throws Exception {
+    String[] splitCommand = {"sh", "-c", "head -c 200000 /dev/zero | tr '\\0' a;"
+        + " head -c 100000 /dev/zero | tr '\\0' b >&2"};
+    // A zero hedge delay ensures that a hedged execution is launched and drained as well.
+    for (Duration initialHedgeDelay : List.of(Duration.ZERO, Duration.ofSeconds(30))) {
+      Response response = CommandLineUtility.executeCommand(
+          splitCommand,
+          Duration.ofSeconds(5),
+          new HedgingPolicy(95, Integer.MAX_VALUE, initialHedgeDelay)
+      );
+      Assertions.assertEquals(0, response.getReturnCode());
+      Assertions.assertEquals("a".repeat(200000), response.getOutput(StdType.STDOUT));
+      Assertions.assertEquals("b".repeat(100000), response.getOutput(StdType.STDERR));
+    }
+  }
+
+  /**
+   * Tests that the hedge delay doesn't shrink under a bimodal latency, as the latency recorded
+   * when the hedged execution completes first is the one the primary execution had reached.
+   *
+   * @param tempDirectory Temporary directory holding the marker of the slow executions.
+   * @throws Exception    If there is an issue executing the command.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testExecuteCommandWithHedgingAndBimodalLatency(@TempDir Path tempDirectory)
+      throws Exception {
+    // The primary execution is slow whereas the hedged one, finding its marker, is fast.
+    Path marker = tempDirectory.resolve("marker");
+    String[] splitCommand = {"sh", "-c", "if [ -e " + marker + " ]; then rm " + marker + ";"
+        + " else touch " + marker + "; sleep 5; fi"};
+    Duration initialHedgeDelay = Duration.ofMillis(300);
+    HedgingPolicy hedgingPolicy = new HedgingPolicy(50, 1, initialHedgeDelay);
+    for (int index = 0; index < 3; index++) {
+      Assertions.assertEquals(
+          0,
+          CommandLineUtility.executeCommand(splitCommand, timeoutDuration, hedgingPolicy)
+              .getReturnCode()
+      );
+      Duration hedgeDelay = CommandLineUtility.getLatencyTracker()
+          .getPercentileLatency(Arrays.toString(splitCommand), 50)
+          .orElseThrow();
+      Assertions.assertTrue(hedgeDelay.compareTo(initialHedgeDelay) >= 0, hedgeDelay::toString);
+    }
+  }
+
+  /**
+   * Tests CommandLineUtility::executeCommand(Command, CommandLine, Duration, CaptureOptions).
+   *
+   * @throws IOException                  If there is an issue executing the command.
+   * @throws InterruptedException         If the command execution is interrupted.
+   * @throws TimeoutException             If the command execution times out.
+   * @throws CommandLineNotFoundException If the command line to be used to execute the command
+   *                                      is not found.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testExecuteCommandWithLineFilters()
+      throws IOException,
+      InterruptedException,
+      TimeoutException,
+      CommandLineNotFoundException {
+    CaptureOptions captureOptions = new CaptureOptions();
+    captureOptions.setLineFilter(StdType.STDOUT, MultiPatternMatcher.ofLiterals("alp", "gam"));
+    captureOptions.setLineFilter(StdType.STDERR, line -> line.endsWith("2"));
+    Command command = new Command();
+    command.setCommand(
+        commandLine,
+        "printf 'alpha\\nbeta\\ngamma\\n'; printf 'error1\\nerror2\\n' 1>&2"
+    );
+
+    Response response = CommandLineUtility.executeCommand(
+        command,
+        commandLine,
+        timeoutDuration,
+        captureOptions
+    );
+    Assertions.assertEquals(0, response.getReturnCode());
+    Assertions.assertEquals("alpha\ngamma\n", response.getOutput(StdType.STDOUT));
+    Assertions.assertEquals("error2\n", response.getOutput(StdType.STDERR));
+
+    // Output exceeding the pipe capacity is drained while the command executes.
+    captureOptions.setLineFilter(
+        StdType.STDOUT,
+        MultiPatternMatcher.ofRegularExpressions("^1999")
+    );
+    command.setCommand(commandLine, "seq 1 200000");
+    response = CommandLineUtility.executeCommand(
+        command,
+        commandLine,
+        timeoutDuration,
+        captureOptions
+    );
+    Assertions.assertEquals(0, response.getReturnCode());
+    Assertions.assertEquals(111, response.getOutput(StdType.STDOUT).lines().count());
+
+    // Test with null inputs.
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> CommandLineUtility.executeCommand(
+            command,
+            commandLine,
+            timeoutDuration,
+            (CaptureOptions) null
+        )
+    );
+  }
+
+  /**
+   * Tests executing commands with stop conditions, which terminate them early.
+   *
+   * @throws IOException                  If there is an issue executing the command.
+   * @throws InterruptedException         If the command execution is interrupted.
+   * @throws TimeoutException             If the command execution times out.
+   * @throws CommandLineNotFoundException If the command line to be used to execute the command
+   *                                      is not found.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testExecuteCommandWithStopConditions()
+      throws IOException,
+      InterruptedException,
+      TimeoutException,
+      CommandLineNotFoundException {
+    // Commands producing endless output would otherwise time out.
+    Command command = new Command();
+    command.setCommand(commandLine, "yes line");
+    CaptureOptions captureOptions = new CaptureOptions();
+    captureOptions.addStopCondition(StopCondition.afterLines(StdType.STDOUT, 5));
+    Response response = CommandLineUtility.executeCommand(
+        command,
+        commandLine,
+        timeoutDuration,
+        captureOptions
+    );
+    Assertions.assertTrue(response.isTerminatedEarly());
+    Assertions.assertEquals("line\n".repeat(5), response.getOutput(StdType.STDOUT));
+
+    captureOptions = new CaptureOptions();
+    captureOptions.addStopCondition(StopCondition.afterBytes(StdType.STDOUT, 100_000));
+    response = CommandLineUtility.executeCommand(
+        command,
+        commandLine,
+        timeoutDuration,
+        captureOptions
+    );
+    Assertions.assertTrue(response.isTerminatedEarly());
+    Assertions.assertTrue(response.getOutput(StdType.STDOUT).length() >= 100_000);
+
+    // Stop on a pattern, with a line count which isn't reached.
+    command.setCommand(commandLine, "seq 1 100000000");
+    captureOptions = new CaptureOptions();
+    captureOptions.addStopCondition(
+        StopCondition.onLine(StdType.STDOUT, MultiPatternMatcher.ofLiterals("500"))
+    );
+    captureOptions.addStopCondition(StopCondition.afterLines(StdType.STDOUT, 1000));
+    response = CommandLineUtility.executeCommand(
+        command,
+        commandLine,
+        timeoutDuration,
+        captureOptions
+    );
+    Assertions.assertTrue(response.isTerminatedEarly());
+    Assertions.assertEquals(500, response.getOutput(StdType.STDOUT).lines().count());
+    Assertions.assertTrue(response.getOutput(StdType.STDOUT).endsWith("\n500\n"));
+
+    // Stop on a pattern in STDERR, the line filter deciding what is retained.
+    command.setCommand(
+        commandLine,
+        "while true; do echo progress 1>&2; echo ready 1>&2; sleep 1; done"
+    );
+    captureOptions = new CaptureOptions();
+    captureOptions.setLineFilter(StdType.STDERR, line -> !line.equals("progress"));
+    captureOptions.addStopCondition(
+        StopCondition.onLine(StdType.STDERR, line -> line.equals("ready"))
+    );
+    response = CommandLineUtility.executeCommand(
+        command,
+        commandLine,
+        timeoutDuration,
+        captureOptions
+    );
+    Assertions.assertTrue(response.isTerminatedEarly());
+    Assertions.assertEquals("ready\n", response.getOutput(StdType.STDERR));
+
+    // Commands completing before any condition is satisfied aren't terminated.
+    command.setCommand(commandLine, "echo done");
+    captureOptions = new CaptureOptions();
+    captureOptions.addStopCondition(StopCondition.afterLines(StdType.STDOUT, 5));
+    response = CommandLineUtility.executeCommand(
+        command,
+        commandLine,
+        timeoutDuration,
+        captureOptions
+    );
+    Assertions.assertFalse(response.isTerminatedEarly());
+    Assertions.assertEquals(0, response.getReturnCode());
+    Assertions.assertEquals("done\n", response.getOutput(StdType.STDOUT));
+
+    // Test with invalid stop conditions.
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> StopCondition.afterLines(StdType.STDOUT, 0)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> StopCondition.afterBytes(StdType.STDERR, -1)
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> StopCondition.onLine(null, line -> true)
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> new CaptureOptions().addStopCondition(null)
+    );
+  }
+
+  /**
+   * Tests executing commands with an idle timeout, which is reset whenever output arrives.
+   *
+   * @throws IOException                  If there is an issue executing the command.
+   * @throws InterruptedException         If the command execution is interrupted.
+   * @throws TimeoutException             If the command execution times out.
+   * @throws CommandLineNotFoundException If the command line to be used to execute the command
+   *                                      is not found.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testExecuteCommandWithIdleTimeout()
+      throws IOException,
+      InterruptedException,
+      TimeoutException,
+      CommandLineNotFoundException {
+    CaptureOptions captureOptions = new CaptureOptions();
+    captureOptions.setIdleTimeout(Duration.ofMillis(1500));
+    Command command = new Command();
+
+    // Commands producing output regularly may run longer than the idle timeout.
+    command.setCommand(commandLine, "for i in 1 2 3 4 5 6; do echo $i; sleep 0.5; done");
+    Response response = CommandLineUtility.executeCommand(
+        command,
+        commandLine,
+        timeoutDuration,
+        captureOptions
+    );
+    Assertions.assertEquals(0, response.getReturnCode());
+    Assertions.assertEquals("1\n2\n3\n4\n5\n6\n", response.getOutput(StdType.STDOUT));
+    Assertions.assertTrue(
+        response.getExecutionDuration().compareTo(captureOptions.getIdleTimeout()) > 0
+    );
+
+    // Commands which stop producing output are timed out well before the total timeout.
+    for (String commandString : List.of("sleep 30", "echo started; echo started 1>&2; sleep 30")) {
+      command.setCommand(commandLine, commandString);
+      long startNanoTime = System.nanoTime();
+      TimeoutException timeoutException = Assertions.assertThrows(
+          TimeoutException.class,
+          () -> CommandLineUtility.executeCommand(
+              command,
+              commandLine,
+              timeoutDuration,
+              captureOptions
+          )
+      );
+      Assertions.assertTrue(timeoutException.getMessage().contains("idle timeout"));
+      Assertions.assertTrue(
+          Duration.ofNanos(System.nanoTime() - startNanoTime).compareTo(timeoutDuration) < 0
+      );
+    }
+
+    // The total timeout still applies to commands producing output regularly.
+    command.setCommand(commandLine, "while true; do echo tick; sleep 0.1; done");
+    TimeoutException timeoutException = Assertions.assertThrows(
+        TimeoutException.class,
+        () -> CommandLineUtility.executeCommand(
+            command,
+            commandLine,
+            Duration.ofSeconds(2),
+            captureOptions
+        )
+    );
+    Assertions.assertTrue(timeoutException.getMessage().contains("total timeout"));
+
+    // Test with invalid idle timeouts.
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> captureOptions.setIdleTimeout(Duration.ZERO)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> captureOptions.setIdleTimeout(Duration.ofSeconds(-1))
+    );
+  }
+
+  /**
+   * Tests sampling the resources used by commands.
+   *
+   * @throws IOException                  If there is an issue executing the command.
+   * @throws InterruptedException         If the command execution is interrupted.
+   * @throws TimeoutException             If the command execution times out.
+   * @throws CommandLineNotFoundException If the command line to be used to execute the command
+   *                                      is not found.
+   */
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testExecuteCommandWithResourceSampling()
+      throws IOException,
+      InterruptedException,
+      TimeoutException,
+      CommandLineNotFoundException {
+    Command command = new Command();
+    command.setCommand(commandLine, "sleep 0.5; true");
+
+    // Resource sampling is disabled by default.
+    Assertions.assertNull(CommandLineUtility.getResourceSampler());
+    Response response = CommandLineUtility.executeCommand(command, commandLine, timeoutDuration);
+    Assertions.assertNull(response.getResourceUsage());
+
+    CommandLineUtility.setResourceSampler(new ResourceSampler(Duration.ofMillis(10)));
+    try {
+      response = CommandLineUtility.executeCommand(command, commandLine, timeoutDuration);
+      Assertions.assertEquals(0, response.getReturnCode());
+      ResourceUsage resourceUsage = response.getResourceUsage();
+      Assertions.assertNotNull(resourceUsage);
+      Assertions.assertTrue(resourceUsage.getSampleCount() > 0);
+      Assertions.assertTrue(resourceUsage.getPeakResidentSetSizeInBytes() > 0);
+      Assertions.assertEquals(1, resourceUsage.getPeakChildCount());
+    } finally {
+      CommandLineUtility.setResourceSampler(null);
+    }
+  }
+
+  /**
+   * Tests executing commands with resource limits.
+   *
+   * @throws IOException                  If there is an issue executing the command.
+   * @throws InterruptedException         If the command execution is interrupted.
+   * @throws TimeoutException             If the command execution times out.
+   * @throws CommandLineNotFoundException If the command line to be used to execute the command
+   *                                      is not found.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testExecuteCommandWithResourceLimits()
+      throws IOException,
+      InterruptedException,
+      TimeoutException,
+      CommandLineNotFoundException {
+    CaptureOptions captureOptions = new CaptureOptions();
+    Command command = new Command();
+
+    ResourceLimits resourceLimits = new ResourceLimits();
+    resourceLimits.setCpuTime(Duration.ofMillis(500));
+    Assertions.assertEquals(1, resourceLimits.getLimit(ResourceLimit.CPU_TIME));
+    command.setCommand(commandLine, "while :; do :; done");
+    Response response = CommandLineUtility.executeCommand(
+        command,
+        commandLine,
+        timeoutDuration,
+        captureOptions,
+        resourceLimits
+    );
+    Assertions.assertNotEquals(0, response.getReturnCode());
+    Assertions.assertEquals(ResourceLimit.CPU_TIME, response.getExceededResourceLimit());
+
+    // Being killed for another reason isn't mistaken for exceeding the CPU time.
+    command.setCommand(commandLine, "kill -9 $$");
+    response = CommandLineUtility.executeCommand(
+        command,
+        commandLine,
+        timeoutDuration,
+        captureOptions,
+        resourceLimits
+    );
+    Assertions.assertEquals(128 + 9, response.getReturnCode());
+    Assertions.assertNull(response.getExceededResourceLimit());
+
+    resourceLimits = new ResourceLimits();
+    resourceLimits.setOpenFiles(6);
+    command.setCommand(
+        commandLine,
+        "exec 3</dev/null 4</dev/null 5</dev/null; cat /dev/null"
+    );
+    response = CommandLineUtility.executeCommand(
+        command,
+        commandLine,
+        timeoutDuration,
+        captureOptions,
+        resourceLimits
+    );
+    Assertions.assertNotEquals(0, response.getReturnCode());
+    Assertions.assertEquals(ResourceLimit.OPEN_FILES, response.getExceededResourceLimit());
+
+    // Commands within their limits are executed with the requested niceness.
+    command.setCommand(commandLine, "nice");
+    int inheritedNiceness = Integer.parseInt(
+        CommandLineUtility.executeCommand(command, commandLine, timeoutDuration)
+            .getOutput(StdType.STDOUT)
+            .trim()
+    );
+    resourceLimits = new ResourceLimits();
+    resourceLimits.setNiceness(5);
+    resourceLimits.setIoPriority(7);
+    resourceLimits.setAddressSpaceInBytes(1L << 40);
+    resourceLimits.setProcesses(1000);
+    response = CommandLineUtility.executeCommand(
+        command,
+        commandLine,
+        timeoutDuration,
+        captureOptions,
+        resourceLimits
+    );
+    Assertions.assertEquals(0, response.getReturnCode());
+    Assertions.assertNull(response.getExceededResourceLimit());
+    Assertions.assertEquals(
+        Math.min(inheritedNiceness + 5, 19),
+        Integer.parseInt(response.getOutput(StdType.STDOUT).trim())
+    );
+
+    // Test with invalid limits.
+    ResourceLimits invalidResourceLimits = new ResourceLimits();
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> invalidResourceLimits.setOpenFiles(0)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> invalidResourceLimits.setCpuTime(Duration.ZERO)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> invalidResourceLimits.setNiceness(20)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> invalidResourceLimits.setIoPriority(-1)
+    );
+  }
+
+  /**
+   * Tests executing commands concurrently, as admitted by the execution scheduler as per their
+   * priority class.
+   *
+   * @throws Exception If there is an issue executing the commands.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testExecuteCommandWithPriority() throws Exception {
+    Command command = new Command();
+    command.setCommand(commandLine, "sleep 1");
+    ExecutorService executorService = Executors.newCachedThreadPool();
+    ExecutionScheduler defaultExecutionScheduler = CommandLineUtility.getExecutionScheduler();
+    try {
+      // Executions aren't serialized, hence they all complete in about the time of one.
+      long startNanoTime = System.nanoTime();
+      List<Future<Response>> responses = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        responses.add(executorService.submit(
+            () -> CommandLineUtility.executeCommand(command, commandLine, timeoutDuration)
+        ));
+      }
+      for (Future<Response> response : responses) {
+        Assertions.assertEquals(0, response.get().getReturnCode());
+      }
+      Assertions.assertTrue(
+          Duration.ofNanos(System.nanoTime() - startNanoTime).compareTo(Duration.ofSeconds(3)) < 0
+      );
+
+      ExecutionScheduler executionScheduler = new ExecutionScheduler(1);
+      CommandLineUtility.setExecutionScheduler(executionScheduler);
+      Future<Response> normalResponse = executorService.submit(
+          () -> CommandLineUtility.executeCommand(command, commandLine, timeoutDuration)
+      );
+      while (executionScheduler.getRunningCount(ExecutionPriority.NORMAL) == 0) {
+        Thread.sleep(1);
+      }
+
+      // Executions which can't be admitted before their timeout are dropped.
+      Command echoCommand = new Command();
+      echoCommand.setCommand(commandLine, "echo admitted; true");
+      Assertions.assertThrows(
+          TimeoutException.class,
+          () -> CommandLineUtility.executeCommand(
+              echoCommand,
+              commandLine,
+              Duration.ofMillis(100),
+              new CaptureOptions(),
+              null,
+              ExecutionPriority.BATCH
+          )
+      );
+      Assertions.assertEquals(1, executionScheduler.getExpiredCount(ExecutionPriority.BATCH));
+
+      Response criticalResponse = CommandLineUtility.executeCommand(
+          echoCommand,
+          commandLine,
+          timeoutDuration,
+          new CaptureOptions(),
+          null,
+          ExecutionPriority.CRITICAL
+      );
+      Assertions.assertEquals("admitted", criticalResponse.getOutput(StdType.STDOUT).trim());
+      Assertions.assertEquals(0, normalResponse.get().getReturnCode());
+      Assertions.assertEquals(1, executionScheduler.getAdmittedCount(ExecutionPriority.CRITICAL));
+      Assertions.assertTrue(
+          executionScheduler.getMaximumWaitTime(ExecutionPriority.CRITICAL).toNanos() > 0
+      );
+      Assertions.assertEquals(0, executionScheduler.getRunningCount(ExecutionPriority.CRITICAL));
+
+      Assertions.assertThrows(
+          NullPointerException.class,
+          () -> CommandLineUtility.executeCommand(
+              echoCommand,
+              commandLine,
+              timeoutDuration,
+              new CaptureOptions(),
+              null,
+              null
+          )
+      );
+      Assertions.assertThrows(
+          NullPointerException.class,
+          () -> CommandLineUtility.setExecutionScheduler(null)
+      );
+    } finally {
+      CommandLineUtility.setExecutionScheduler(defaultExecutionScheduler);
+      executorService.shutdownNow();
+    }
+  }
+
+  /**
+   * Tests that cancelling an execution, by a token or by interrupting it, kills its process tree.
+   *
+   * @param tempDir     Directory in which the PID of the descendant of the command is written.
+   * @throws Exception  If there is an issue executing the commands.
+   */
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testExecuteCommandWithCancellation(@TempDir Path tempDir) throws Exception {
+    Path pidPath = tempDir.resolve("pid");
+    Command command = new Command();
+    command.setCommand(commandLine, "sleep 30 & echo $! > " + pidPath + "; wait");
+    ExecutorService executorService = Executors.newCachedThreadPool();
+    long cancelledExecutionCount = CommandLineUtility.getCancelledExecutionCount();
+    try {
+      CancellationToken cancellationToken = new CancellationToken();
+      Future<Response> response = executorService.submit(
+          () -> CommandLineUtility.executeCommand(
+              command,
+              commandLine,
+              timeoutDuration,
+              new CaptureOptions(),
+              null,
+              ExecutionPriority.NORMAL,
+              cancellationToken
+          )
+      );
+      long descendantPid = waitForPid(pidPath);
+      cancellationToken.cancel();
+      ExecutionException executionException = Assertions.assertThrows(
+          ExecutionException.class,
+          () -> response.get(timeoutDuration.toMillis(), TimeUnit.MILLISECONDS)
+      );
+      Assertions.assertTrue(executionException.getCause() instanceof CancellationException);
+      assertTerminated(descendantPid);
+
+      // Cancelling the future interrupts the execution.
+      Files.delete(pidPath);
+      Future<Response> interruptedResponse = executorService.submit(
+          () -> CommandLineUtility.executeCommand(command, commandLine, timeoutDuration)
+      );
+      descendantPid = waitForPid(pidPath);
+      interruptedResponse.cancel(true);
+      assertTerminated(descendantPid);
+
+      // Executions with an already cancelled token aren't launched.
+      Files.delete(pidPath);
+      Assertions.assertThrows(
+          CancellationException.class,
+          () -> CommandLineUtility.executeCommand(
+              command,
+              commandLine,
+              timeoutDuration,
+              new CaptureOptions(),
+              null,
+              ExecutionPriority.NORMAL,
+              cancellationToken
+          )
+      );
+      Assertions.assertFalse(Files.exists(pidPath));
+      Assertions.assertEquals(
+          cancelledExecutionCount + 3,
+          CommandLineUtility.getCancelledExecutionCount()
+      );
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  /**
+   * Tests inspecting and cancelling an execution in flight through the process registry.
+   *
+   * @throws Exception If there is an issue executing the command.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testExecuteCommandWithProcessRegistry() throws Exception {
+    Command command = new Command();
+    command.setCommand(commandLine, "echo started; sleep 30");
+    ProcessRegistry processRegistry = CommandLineUtility.getProcessRegistry();
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    try {
+      Future<Response> response = executorService.submit(
+          () -> CommandLineUtility.executeCommand(command, commandLine, timeoutDuration)
+      );
+      RunningExecution runningExecution = null;
+      while (runningExecution == null
+          || runningExecution.getCapturedBytes(StdType.STDOUT) < "started".length()) {
+        Thread.sleep(10);
+        runningExecution = processRegistry.getRunningExecutions().stream()
+            .filter(execution -> execution.getCommand().contains("echo started; sleep 30"))
+            .findAny()
+            .orElse(null);
+      }
+      Assertions.assertTrue(runningExecution.getPid() > 0);
+      Assertions.assertFalse(runningExecution.isCompleted());
+
+      Assertions.assertTrue(processRegistry.cancel(runningExecution.getId()));
+      ExecutionException executionException = Assertions.assertThrows(
+          ExecutionException.class,
+          () -> response.get(timeoutDuration.toMillis(), TimeUnit.MILLISECONDS)
+      );
+      Assertions.assertTrue(executionException.getCause() instanceof CancellationException);
+      Assertions.assertTrue(runningExecution.awaitCompletion(Duration.ZERO));
+      Assertions.assertTrue(
+          processRegistry.getRunningExecution(runningExecution.getId()).isEmpty()
+      );
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  /**
+   * Tests that flight recorder events are emitted for spawning, completing, draining and timing
+   * out command executions.
+   *
+   * @param tempDirectory Temporary directory the recording is dumped to.
+   * @throws Exception    If there is an issue executing the commands or reading the recording.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testExecuteCommandWithFlightRecorderEvents(@TempDir Path tempDirectory) throws Exception {
+    Command command = new Command();
+    command.setCommand(commandLine, "echo recorded; true");
+    Command timingOutCommand = new Command();
+    timingOutCommand.setCommand(commandLine, "sleep 30; true");
+    Path recordingPath = tempDirectory.resolve("executions.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(CommandSpawnEvent.class);
+      recording.enable(CommandExecutionEvent.class);
+      recording.enable(CommandTimeoutEvent.class);
+      recording.enable(StreamDrainEvent.class);
+      recording.start();
+      Response response = CommandLineUtility.executeCommand(command, commandLine, timeoutDuration);
+      Assertions.assertEquals(0, response.getReturnCode());
+      Assertions.assertThrows(
+          TimeoutException.class,
+          () -> CommandLineUtility.executeCommand(
+              timingOutCommand,
+              commandLine,
+              Duration.ofMillis(200)
+          )
+      );
+      recording.stop();
+      recording.dump(recordingPath);
+    }
+
+    List<RecordedEvent> recordedEvents = RecordingFile.readAllEvents(recordingPath);
+    RecordedEvent executionEvent = recordedEvents.stream()
+        .filter(event -> event.getEventType().getName()
+            .equals("org.padaiyal.commandline.CommandExecution"))
+        .filter(event -> event.getString("command").contains("echo recorded; true"))
+        .findAny()
+        .orElseThrow();
+    Assertions.assertEquals(0, executionEvent.getInt("returnCode"));
+    Assertions.assertEquals(commandLine.name(), executionEvent.getString("commandLine"));
+    Assertions.assertTrue(executionEvent.getLong("stdoutBytes") >= "recorded".length());
+    Assertions.assertEquals(0, executionEvent.getLong("stderrBytes"));
+    Assertions.assertNotNull(executionEvent.getStackTrace());
+    Assertions.assertTrue(recordedEvents.stream()
+        .anyMatch(event -> event.getEventType().getName()
+            .equals("org.padaiyal.commandline.CommandSpawn")
+            && event.getLong("pid") == executionEvent.getLong("pid")));
+    Assertions.assertTrue(recordedEvents.stream()
+        .anyMatch(event -> event.getEventType().getName()
+            .equals("org.padaiyal.commandline.StreamDrain")
+            && event.getLong("pid") == executionEvent.getLong("pid")
+            && event.getString("stdType").equals(StdType.STDOUT.name())));
+    RecordedEvent timeoutEvent = recordedEvents.stream()
+        .filter(event -> event.getEventType().getName()
+            .equals("org.padaiyal.commandline.CommandTimeout"))
+        .findAny()
+        .orElseThrow();
+    Assertions.assertTrue(timeoutEvent.getString("command").contains("sleep 30; true"));
+    Assertions.assertEquals(Duration.ofMillis(200), timeoutEvent.getDuration("timeout"));
+    Assertions.assertTrue(timeoutEvent.getDuration("elapsed").toMillis() >= 200);
+    Assertions.assertFalse(timeoutEvent.getBoolean("idle"));
+  }
+
+  /**
+   * Tests that executed commands, including builtins, are recorded in the execution journal
+   * while one is set.
+   *
+   * @param tempDirectory Temporary directory holding the journal.
+   * @throws Exception    If there is an issue executing the commands or reading the journal.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testExecuteCommandWithExecutionJournal(@TempDir Path tempDirectory) throws Exception {
+    Command command = new Command();
+    command.setCommand(commandLine, "echo journaled; true");
+    Command builtinCommand = new Command();
+    builtinCommand.setCommand(commandLine, "echo builtin");
+    Response response;
+    Response builtinResponse;
+    try (ExecutionJournal journal = ExecutionJournal.builder(tempDirectory).build()) {
+      CommandLineUtility.setExecutionJournal(journal);
+      try {
+        Assertions.assertSame(journal, CommandLineUtility.getExecutionJournal());
+        response = CommandLineUtility.executeCommand(command, commandLine, timeoutDuration);
+        builtinResponse = CommandLineUtility.executeCommand(
+            builtinCommand,
+            commandLine,
+            timeoutDuration
+        );
+      } finally {
+        CommandLineUtility.setExecutionJournal(null);
+      }
+      CommandLineUtility.executeCommand(command, commandLine, timeoutDuration);
+    }
+
+    List<JournalEntry> entries = ExecutionJournalTest.readEntries(tempDirectory);
+    Assertions.assertEquals(2, entries.size());
+    String[] splitCommand = entries.get(0).getSplitCommand();
+    Assertions.assertEquals("echo journaled; true", splitCommand[splitCommand.length - 1]);
+    Assertions.assertEquals(
+        response.getOutput(StdType.STDOUT),
+        entries.get(0).getResponse().getOutput(StdType.STDOUT)
+    );
+    Assertions.assertEquals(
+        response.getExecutionStartTimestamp(),
+        entries.get(0).getResponse().getExecutionStartTimestamp()
+    );
+    Assertions.assertEquals(
+        builtinResponse.getOutput(StdType.STDOUT),
+        entries.get(1).getResponse().getOutput(StdType.STDOUT)
+    );
+  }
+
+  /**
+   * Tests that recorded executions are replayed through the static API without spawning
+   * processes, simulating their latencies.
+   *
+   * @param tempDirectory Temporary directory holding the recording.
+   * @throws Exception    If there is an issue recording or replaying the commands.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testExecuteCommandWithExecutionReplayer(@TempDir Path tempDirectory) throws Exception {
+    Command command = new Command();
+    command.setCommand(commandLine, "date +%s%N; true");
+    Response recordedResponse;
+    try (ExecutionJournal journal = ExecutionJournal.builder(tempDirectory)
+        .setMaxOutputLength(Integer.MAX_VALUE)
+        .build()) {
+      CommandLineUtility.setExecutionJournal(journal);
+      try {
+        recordedResponse = CommandLineUtility.executeCommand(command, commandLine, timeoutDuration);
+      } finally {
+        CommandLineUtility.setExecutionJournal(null);
+      }
+      String[] slowCommand = {"/bin/sh", "-c", "sleep 2"};
+      journal.record(
+          slowCommand,
+          new Response(0, "", "", Instant.now(), Duration.ofSeconds(2))
+      );
+      journal.record(
+          new String[]{
+              commandLine.toString().toLowerCase(),
+              CommandLine.getCommandLineSwitch(commandLine),
+              "sleep 1"
+          },
+          new Response(0, "", "", Instant.now(), Duration.ofSeconds(1))
+      );
+    }
+
+    CommandLineUtility.setExecutionReplayer(
+        ExecutionReplayer.builder(tempDirectory)
+            .setLatencySimulated(true)
+            .setStrict(true)
+            .build()
+    );
+    try {
+      Assertions.assertNotNull(CommandLineUtility.getExecutionReplayer());
+      ProcessLauncher processLauncher = CommandLineUtility.getProcessLauncher();
+      AtomicLong launchCount = new AtomicLong();
+      CommandLineUtility.setProcessLauncher(launchRequest -> {
+        launchCount.incrementAndGet();
+        return processLauncher.launch(launchRequest);
+      });
+      try {
+        for (int index = 0; index < 3; index++) {
+          Response replayedResponse = CommandLineUtility.executeCommand(
+              command,
+              commandLine,
+              timeoutDuration
+          );
+          Assertions.assertEquals(
+              recordedResponse.getOutput(StdType.STDOUT),
+              replayedResponse.getOutput(StdType.STDOUT)
+          );
+          Assertions.assertEquals(
+              recordedResponse.getExecutionDuration(),
+              replayedResponse.getExecutionDuration()
+          );
+        }
+        Assertions.assertEquals(
+            recordedResponse.getOutput(StdType.STDOUT),
+            CommandLineUtility.executeAll(List.of(command), commandLine)
+                .get(0)
+                .getOutput(StdType.STDOUT)
+        );
+      } finally {
+        CommandLineUtility.setProcessLauncher(processLauncher);
+      }
+      Assertions.assertEquals(0, launchCount.get());
+
+      long startNanoTime = System.nanoTime();
+      Assertions.assertThrows(
+          TimeoutException.class,
+          () -> CommandLineUtility.executeCommand(
+              new String[]{"sh", "-c", "sleep 2"},
+              Duration.ofMillis(300)
+          )
+      );
+      Assertions.assertTrue(System.nanoTime() - startNanoTime >= Duration.ofMillis(300).toNanos());
+      startNanoTime = System.nanoTime();
+      CommandLineUtility.executeCommand(new String[]{"sh", "-c", "sleep 2"}, timeoutDuration);
+      Assertions.assertTrue(System.nanoTime() - startNanoTime >= Duration.ofSeconds(2).toNanos());
+
+      // The simulated latencies of the commands executed together count towards a single time out.
+      Command sleepCommand = new Command();
+      sleepCommand.setCommand(commandLine, "sleep 1");
+      startNanoTime = System.nanoTime();
+      Assertions.assertThrows(
+          TimeoutException.class,
+          () -> CommandLineUtility.executeAll(
+              List.of(sleepCommand, sleepCommand),
+              commandLine,
+              Duration.ofMillis(1500)
+          )
+      );
+      Assertions.assertTrue(
+          System.nanoTime() - startNanoTime < Duration.ofMillis(1900).toNanos()
+      );
+
+      Command unrecordedCommand = new Command();
+      unrecordedCommand.setCommand(commandLine, "echo unrecorded; true");
+      Assertions.assertThrows(
+          IOException.class,
+          () -> CommandLineUtility.executeCommand(unrecordedCommand, commandLine, timeoutDuration)
+      );
+    } finally {
+      CommandLineUtility.setExecutionReplayer(null);
+    }
+  }
+
+  /**
+   * Tests randomly accessing the lines of the outputs of a command through the line index of its
+   * response.
+   *
+   * @throws Exception If there is an issue executing the command.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testResponseLineAccess() throws Exception {
+    Command command = new Command();
+    command.setCommand(
+        commandLine,
+        "seq 1 100000; printf 'last\\r\\n'; printf 'error 1\\n\\nerror 3' >&2"
+    );
+    Response response = CommandLineUtility.executeCommand(command, commandLine, timeoutDuration);
+
+    Assertions.assertEquals(100001, response.getLineCount(StdType.STDOUT));
+    Assertions.assertEquals("1", response.getLine(StdType.STDOUT, 0));
+    Assertions.assertEquals("50000", response.getLine(StdType.STDOUT, 49999));
+    Assertions.assertEquals("last", response.getLine(StdType.STDOUT, 100000));
+    Assertions.assertEquals(
+        List.of("99999", "100000", "last"),
+        response.getLines(StdType.STDOUT, 99998, 100001)
+    );
+    Assertions.assertEquals(
+        List.of("100000"),
+        response.getLines(StdType.STDOUT, 99990, 100001).subList(9, 10)
+    );
+    Assertions.assertEquals(
+        List.of("error 1", "", "error 3"),
+        response.getLines(StdType.STDERR, 0, response.getLineCount(StdType.STDERR))
+    );
+    Assertions.assertEquals(
+        Arrays.asList(response.getOutput(StdType.STDOUT).split("\\r?\\n")),
+        StreamSupport.stream(response.getLineSpliterator(StdType.STDOUT), true)
+            .collect(Collectors.toList())
+    );
+    Assertions.assertEquals(
+        5000050000L,
+        StreamSupport.stream(response.getLineSpliterator(StdType.STDOUT), true)
+            .limit(100000)
+            .mapToLong(Long::parseLong)
+            .sum()
+    );
+
+    Assertions.assertThrows(
+        IndexOutOfBoundsException.class,
+        () -> response.getLine(StdType.STDOUT, 100001)
+    );
+    Assertions.assertThrows(
+        IndexOutOfBoundsException.class,
+        () -> response.getLines(StdType.STDERR, 2, 4)
+    );
+    Assertions.assertThrows(
+        UnsupportedOperationException.class,
+        () -> response.getLines(StdType.STDOUT, 0, 1).set(0, "2")
+    );
+
+    Response emptyResponse = new Response(0, "", null, Instant.now(), Duration.ZERO);
+    Assertions.assertEquals(0, emptyResponse.getLineCount(StdType.STDOUT));
+    Assertions.assertEquals(0, emptyResponse.getLineCount(StdType.STDERR));
+    Response terminatedResponse = new Response(0, "\n\n", "", Instant.now(), Duration.ZERO);
+    Assertions.assertEquals(
+        List.of("", ""),
+        terminatedResponse.getLines(StdType.STDOUT, 0, 2)
+    );
+  }
+
+  /**
+   * Tests merging the outputs of a command in the order they were produced, by redirecting
+   * STDERR into STDOUT and by timestamping the lines of both outputs.
+   *
+   * @throws Exception If there is an issue executing the command.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testOutputMergeModes() throws Exception {
+    String[] splitCommand = {"bash", "-c", "for i in 1 2 3; do echo \"out $i\"; sleep 0.05;"
+        + " echo \"err $i\" >&2; sleep 0.05; done"};
+    CaptureOptions captureOptions = new CaptureOptions();
+    Assertions.assertEquals(OutputMergeMode.SEPARATE, captureOptions.getOutputMergeMode());
+    Response response = CommandLineUtility.executeCommand(
+        splitCommand,
+        timeoutDuration,
+        captureOptions
+    );
+    Assertions.assertNull(response.getMergedOutputChunks());
+    Assertions.assertNull(response.getMergedOutput());
+
+    captureOptions.setOutputMergeMode(OutputMergeMode.REDIRECTED);
+    response = CommandLineUtility.executeCommand(splitCommand, timeoutDuration, captureOptions);
+    Assertions.assertEquals(
+        "out 1\nerr 1\nout 2\nerr 2\nout 3\nerr 3\n",
+        response.getOutput(StdType.STDOUT)
+    );
+    Assertions.assertEquals("", response.getOutput(StdType.STDERR));
+    Assertions.assertNull(response.getMergedOutputChunks());
+
+    captureOptions.setOutputMergeMode(OutputMergeMode.TIMESTAMPED);
+    captureOptions.setLineFilter(StdType.STDERR, line -> !line.equals("err 2"));
+    response = CommandLineUtility.executeCommand(splitCommand, timeoutDuration, captureOptions);
+    Assertions.assertEquals("out 1\nout 2\nout 3\n", response.getOutput(StdType.STDOUT));
+    Assertions.assertEquals("err 1\nerr 3\n", response.getOutput(StdType.STDERR));
+    Assertions.assertEquals(
+        "out 1\nerr 1\nout 2\nout 3\nerr 3\n",
+        response.getMergedOutput()
+    );
+    List<OutputChunk> mergedOutputChunks = response.getMergedOutputChunks();
+    Assertions.assertEquals(
+        List.of(StdType.STDOUT, StdType.STDERR, StdType.STDOUT, StdType.STDOUT, StdType.STDERR),
+        mergedOutputChunks.stream()
+            .map(OutputChunk::getStdType)
+            .collect(Collectors.toList())
+    );
+    for (int chunkIndex = 1; chunkIndex < mergedOutputChunks.size(); chunkIndex++) {
+      Assertions.assertTrue(
+          mergedOutputChunks.get(chunkIndex).getNanoTime()
+              - mergedOutputChunks.get(chunkIndex - 1).getNanoTime() >= 0
+      );
+    }
+    Assertions.assertThrows(
+        UnsupportedOperationException.class,
+        () -> mergedOutputChunks.remove(0)
+    );
+
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> captureOptions.setOutputMergeMode(null)
+    );
+  }
+
+  /**
+   * Tests executing commands in contexts setting their environment, working directory, output
+   * charset, redirects and time out.
+   *
+   * @param tempDirectory Temporary directory used as the working directory.
+   * @throws Exception    If there is an issue executing the commands.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testExecuteCommandWithExecutionContext(@TempDir Path tempDirectory) throws Exception {
+    ExecutionContext executionContext = ExecutionContext.builder()
+        .setEnvironmentVariable("CONTEXT_VARIABLE", "overridden")
+        .setWorkingDirectory(tempDirectory)
+        .setCharset(StandardCharsets.ISO_8859_1)
+        .build();
+    Command command = new Command();
+    command.setCommand(commandLine, "echo \"$CONTEXT_VARIABLE\"; pwd; printf '\\351'");
+    // The context is reused across executions.
+    for (int execution = 0; execution < 2; execution++) {
+      Response response = CommandLineUtility.executeCommand(
+          executionContext,
+          command,
+          commandLine
+      );
+      Assertions.assertEquals(0, response.getReturnCode());
+      Assertions.assertEquals(
+          "overridden\n" + tempDirectory.toRealPath() + "\n\u00e9",
+          response.getOutput(StdType.STDOUT)
+      );
+    }
+    Assertions.assertFalse(executionContext.isInherited());
+    Assertions.assertTrue(ExecutionContext.inherited().isInherited());
+
+    // Builtins aren't used outside the inherited context, as they'd see the state of this JVM.
+    String[] splitCommand = {"printenv", "CONTEXT_VARIABLE"};
+    Assertions.assertEquals(
+        "overridden\n",
+        CommandLineUtility.executeCommand(executionContext, splitCommand)
+            .getOutput(StdType.STDOUT)
+    );
+    HedgingPolicy hedgingPolicy = new HedgingPolicy(95, 1, Duration.ofSeconds(5));
+    Assertions.assertEquals(
+        "overridden\n",
+        CommandLineUtility.executeCommand(executionContext, splitCommand, hedgingPolicy)
+            .getOutput(StdType.STDOUT)
+    );
+
+    ExecutionContext clearedContext = ExecutionContext.builder()
+        .clearEnvironment()
+        .setEnvironmentVariable("CONTEXT_VARIABLE", "only")
+        .build();
+    command.setCommand(commandLine, "echo \"${HOME:-unset} $CONTEXT_VARIABLE\"");
+    Assertions.assertEquals(
+        "unset only\n",
+        CommandLineUtility.executeCommand(clearedContext, command, commandLine)
+            .getOutput(StdType.STDOUT)
+    );
+
+    Path outputPath = tempDirectory.resolve("output.txt");
+    ExecutionContext redirectingContext = ExecutionContext.builder()
+        .setOutputRedirect(StdType.STDOUT, Redirect.to(outputPath.toFile()))
+        .setRedirectErrorStream(true)
+        .build();
+    command.setCommand(commandLine, "echo redirected; echo merged >&2");
+    Response response = CommandLineUtility.executeCommand(redirectingContext, command, commandLine);
+    Assertions.assertEquals("", response.getOutput(StdType.STDOUT));
+    Assertions.assertEquals("", response.getOutput(StdType.STDERR));
+    Assertions.assertEquals("redirected\nmerged\n", Files.readString(outputPath));
+
+    ExecutionContext timingOutContext = ExecutionContext.builder()
+        .setTimeOutDuration(Duration.ofMillis(200))
+        .build();
+    command.setCommand(commandLine, "sleep 30; true");
+    Assertions.assertThrows(
+        TimeoutException.class,
+        () -> CommandLineUtility.executeCommand(timingOutContext, command, commandLine)
+    );
+
+    ExecutionContext.Builder builder = ExecutionContext.builder();
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> builder.setEnvironmentVariable("NAME=VALUE", "value")
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> builder.setEnvironmentVariable("", "value")
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> builder.setTimeOutDuration(Duration.ZERO)
+    );
+    Assertions.assertThrows(NullPointerException.class, () -> builder.setCharset(null));
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> CommandLineUtility.executeCommand((ExecutionContext) null, splitCommand)
+    );
+  }
+
+  /**
+   * Waits until the PID written by a command is available.
+   *
+   * @param pidPath               File the PID is written to.
+   * @return                      The written PID.
+   * @throws IOException          If there is an issue reading the PID.
+   * @throws InterruptedException If waiting for the PID is interrupted.
+   */
+  private static long waitForPid(Path pidPath) throws IOException, InterruptedException {
+    while (!Files.exists(pidPath) || Files.readString(pidPath).isBlank()) {
+      Thread.sleep(10);
+    }
+    return Long.parseLong(Files.readString(pidPath).trim());
+  }
+
+  /**
+   * Asserts that the specified process terminates promptly. Processes which have terminated but
+   * aren't reaped yet are considered to have terminated.
+   *
+   * @param pid                   PID of the process.
+   * @throws IOException          If there is an issue reading the state of the process.
+   * @throws InterruptedException If waiting for the process to terminate is interrupted.
+   */
+  private static void assertTerminated(long pid) throws IOException, InterruptedException {
+    Path statPath = Paths.get("/proc", Long.toString(pid), "stat");
+    long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+    while (System.nanoTime() - deadline < 0) {
+      String stat;
+      try {
+        stat = Files.readString(statPath);
+      } catch (NoSuchFileException e) {
+        return;
+      }
+      if (stat.charAt(stat.lastIndexOf(')') + 2) == 'Z') {
+        return;
+      }
+      Thread.sleep(10);
+    }
+    Assertions.fail("Process " + pid + " is still running.");
+  }
+
+  /**
+   * Tests CommandLineUtility::executeAll(List, CommandLine, Duration).
+   *
+   * @throws IOException                  If there is an issue executing the commands.
+   * @throws InterruptedException         If the command execution is interrupted.
+   * @throws TimeoutException             If the command execution times out.
+   * @throws CommandLineNotFoundException If the command line to be used to execute the commands
+   *                                      is not found.
+   */
+  @Test
+  void testExecuteAll()
+      throws IOException,
+      InterruptedException,
+      TimeoutException,
+      CommandLineNotFoundException {
+    List<Command> commands = Stream.of(
+        "echo first",
+        "echo second 1>&2",
+        "exit 3",
+        terminatingCommand.getCommand(commandLine)
+    ).map(commandString -> {
+      Command command = new Command();
+      command.setCommand(commandLine, commandString);
+      return command;
+    }).collect(Collectors.toList());
+
+    // The responses of the batch must match those of executing the commands individually.
+    List<Response> responses = CommandLineUtility.executeAll(
+        commands,
+        commandLine,
+        timeoutDuration
+    );
+    Assertions.assertEquals(commands.size(), responses.size());
+    for (int index = 0; index < commands.size(); index++) {
+      Response expectedResponse = CommandLineUtility.executeCommand(
+          commands.get(index),
+          commandLine,
+          timeoutDuration
+      );
+      Response response = responses.get(index);
+      Assertions.assertEquals(expectedResponse.getReturnCode(), response.getReturnCode());
+      Assertions.assertEquals(
+          expectedResponse.getOutput(StdType.STDOUT),
+          response.getOutput(StdType.STDOUT)
+      );
+      Assertions.assertEquals(
+          expectedResponse.getOutput(StdType.STDERR),
+          response.getOutput(StdType.STDERR)
+      );
+      Assertions.assertNotNull(response.getExecutionStartTimestamp());
+      Assertions.assertFalse(
+          response.getExecutionEndTimestamp().isBefore(response.getExecutionStartTimestamp())
+      );
+    }
+    Assertions.assertEquals(3, responses.get(2).getReturnCode());
+    Assertions.assertTrue(
+        CommandLineUtility.executeAll(List.of(), commandLine, timeoutDuration).isEmpty()
+    );
+
+    // Test with non terminating command.
+    Assertions.assertThrows(
+        TimeoutException.class,
+        () -> CommandLineUtility.executeAll(
+            List.of(terminatingCommand, nonTerminatingCommand),
+            commandLine,
+            timeoutDuration
+        )
+    );
+
+    // Test with null inputs.
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> CommandLineUtility.executeAll(null, commandLine, timeoutDuration)
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> CommandLineUtility.executeAll(commands, null, timeoutDuration)
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> CommandLineUtility.executeAll(commands, commandLine, null)
+    );
+  }
+
   /**
    * Test executing a command using a Command object with no command string supplied for the
    * specified command line.
@@ -0,0 +1,337 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.padaiyal.utilities.commandline.CommandScheduler.ScheduledCommand;
+import org.padaiyal.utilities.commandline.abstractions.OutputDelivery;
+import org.padaiyal.utilities.commandline.abstractions.ScheduleMode;
+import org.padaiyal.utilities.commandline.abstractions.SchedulePolicy;
+import org.padaiyal.utilities.commandline.abstractions.ScheduledRun;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Tests for CommandScheduler.
+ */
+class CommandSchedulerTest {
+
+  /**
+   * Time out of the scheduled commands.
+   */
+  private static final Duration timeOutDuration = Duration.ofSeconds(5);
+
+  /**
+   * Loads the properties and resource bundles used by the scheduler.
+   */
+  @BeforeAll
+  static void prepare() {
+    CommandLineUtility.initializeDependantValues();
+  }
+
+  /**
+   * Tests that runs at a fixed rate are anchored to when the command was scheduled and deliver
+   * the full responses.
+   *
+   * @throws InterruptedException If waiting for the runs is interrupted.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testFixedRate() throws InterruptedException {
+    BlockingQueue<ScheduledRun> runs = new LinkedBlockingQueue<>();
+    try (CommandScheduler scheduler = new CommandScheduler()) {
+      ScheduledCommand scheduledCommand = scheduler.schedule(
+          new String[]{"bash", "-c", "echo tick; true"},
+          new SchedulePolicy(
+              ScheduleMode.FIXED_RATE,
+              Duration.ofMillis(200),
+              Duration.ofMillis(50),
+              true
+          ),
+          timeOutDuration,
+          OutputDelivery.FULL,
+          runs::add
+      );
+      long firstRunNanoTime = 0;
+      for (long runNumber = 1; runNumber <= 5; runNumber++) {
+        ScheduledRun run = runs.poll(timeOutDuration.toMillis(), TimeUnit.MILLISECONDS);
+        Assertions.assertNotNull(run);
+        Assertions.assertEquals(runNumber, run.getRunNumber());
+        Assertions.assertFalse(run.isDelta());
+        Assertions.assertNull(run.getAddedLines());
+        Assertions.assertEquals("tick", run.getResponse().getOutput(StdType.STDOUT).trim());
+        if (runNumber == 1) {
+          firstRunNanoTime = System.nanoTime();
+        }
+      }
+      // Four periods separate the first and the fifth runs, give or take the jitter.
+      long elapsedMillis = Duration.ofNanos(System.nanoTime() - firstRunNanoTime).toMillis();
+      Assertions.assertTrue(elapsedMillis >= 600, () -> "Elapsed " + elapsedMillis + "ms");
+      Assertions.assertTrue(elapsedMillis < 1500, () -> "Elapsed " + elapsedMillis + "ms");
+
+      scheduledCommand.cancel();
+      Assertions.assertTrue(scheduledCommand.isCancelled());
+      Thread.sleep(400);
+      runs.clear();
+      Thread.sleep(400);
+      Assertions.assertTrue(runs.isEmpty());
+    }
+  }
+
+  /**
+   * Tests that runs at a fixed rate due while the previous one is still running are skipped,
+   * and that runs at a fixed delay are spaced from the completion of the previous one.
+   *
+   * @throws InterruptedException If waiting for the runs is interrupted.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testOverlapPrevention() throws InterruptedException {
+    BlockingQueue<ScheduledRun> fixedRateRuns = new LinkedBlockingQueue<>();
+    BlockingQueue<ScheduledRun> fixedDelayRuns = new LinkedBlockingQueue<>();
+    try (CommandScheduler scheduler = new CommandScheduler()) {
+      ScheduledCommand fixedRateCommand = scheduler.schedule(
+          new String[]{"bash", "-c", "sleep 0.35; true"},
+          new SchedulePolicy(ScheduleMode.FIXED_RATE, Duration.ofMillis(100), Duration.ZERO, true),
+          timeOutDuration,
+          OutputDelivery.FULL,
+          fixedRateRuns::add
+      );
+      ScheduledCommand fixedDelayCommand = scheduler.schedule(
+          new String[]{"bash", "-c", "sleep 0.2; true"},
+          new SchedulePolicy(
+              ScheduleMode.FIXED_DELAY,
+              Duration.ofMillis(100),
+              Duration.ZERO,
+              false
+          ),
+          timeOutDuration,
+          OutputDelivery.FULL,
+          fixedDelayRuns::add
+      );
+      Thread.sleep(1500);
+      fixedRateCommand.cancel();
+      fixedDelayCommand.cancel();
+      Assertions.assertTrue(fixedRateCommand.getSkippedRunCount() > 0);
+      Assertions.assertEquals(0, fixedDelayCommand.getSkippedRunCount());
+    }
+
+    assertSpacing(fixedRateRuns, Duration.ZERO);
+    assertSpacing(fixedDelayRuns, Duration.ofMillis(100));
+  }
+
+  /**
+   * Tests that the runs deliver the STDOUT lines added and removed since the previous
+   * successful run.
+   *
+   * @param tempDirectory         Directory holding the file polled.
+   * @throws IOException          If there is an issue writing the file polled.
+   * @throws InterruptedException If waiting for the runs is interrupted.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testDeltaDelivery(@TempDir Path tempDirectory) throws IOException, InterruptedException {
+    Path polledFile = tempDirectory.resolve("polled.txt");
+    Files.writeString(polledFile, "a\nb\nb\n");
+    BlockingQueue<ScheduledRun> runs = new LinkedBlockingQueue<>();
+    List<String> nextContents = List.of("b\nc\nb\n", "b\nc\nb\n", "");
+    try (CommandScheduler scheduler = new CommandScheduler()) {
+      scheduler.schedule(
+          new String[]{"bash", "-c", "cat '" + polledFile + "'; true"},
+          new SchedulePolicy(
+              ScheduleMode.FIXED_DELAY,
+              Duration.ofMillis(50),
+              Duration.ofMillis(10),
+              false
+          ),
+          timeOutDuration,
+          OutputDelivery.DELTA,
+          run -> {
+            // Runs at a fixed delay don't start before the listener returns.
+            try {
+              int runIndex = (int) run.getRunNumber() - 1;
+              if (runIndex < nextContents.size()) {
+                Files.writeString(polledFile, nextContents.get(runIndex));
+              }
+            } catch (IOException e) {
+              throw new IllegalStateException(e);
+            }
+            runs.add(run);
+          }
+      );
+      assertDelta(runs.poll(5, TimeUnit.SECONDS), List.of("a", "b", "b"), List.of());
+      assertDelta(runs.poll(5, TimeUnit.SECONDS), List.of("c"), List.of("a"));
+      assertDelta(runs.poll(5, TimeUnit.SECONDS), List.of(), List.of());
+      assertDelta(runs.poll(5, TimeUnit.SECONDS), List.of(), List.of("b", "c", "b"));
+    }
+  }
+
+  /**
+   * Tests that runs exceeding the time out are reported as failures without stopping the
+   * command, and that failing listeners don't stop it either.
+   *
+   * @throws InterruptedException If waiting for the runs is interrupted.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testFailures() throws InterruptedException {
+    BlockingQueue<Exception> failures = new LinkedBlockingQueue<>();
+    BlockingQueue<ScheduledRun> runs = new LinkedBlockingQueue<>();
+    try (CommandScheduler scheduler = new CommandScheduler()) {
+      ScheduledCommand timingOutCommand = scheduler.schedule(
+          new String[]{"bash", "-c", "sleep 5; true"},
+          new SchedulePolicy(ScheduleMode.FIXED_RATE, Duration.ofMillis(100), Duration.ZERO, true),
+          Duration.ofMillis(200),
+          OutputDelivery.FULL,
+          new ScheduledRunListener() {
+            @Override
+            public void onRun(ScheduledRun run) {
+              Assertions.fail("Run " + run.getRunNumber() + " should have timed out.");
+            }
+
+            @Override
+            public void onFailure(long runNumber, Exception exception) {
+              failures.add(exception);
+            }
+          }
+      );
+      scheduler.schedule(
+          new String[]{"bash", "-c", "echo tick; true"},
+          new SchedulePolicy(ScheduleMode.FIXED_RATE, Duration.ofMillis(100), Duration.ZERO, true),
+          timeOutDuration,
+          OutputDelivery.FULL,
+          run -> {
+            runs.add(run);
+            throw new IllegalStateException("Listener failure");
+          }
+      );
+      for (int index = 0; index < 2; index++) {
+        Exception failure = failures.poll(5, TimeUnit.SECONDS);
+        Assertions.assertTrue(failure instanceof TimeoutException, () -> "Failed with " + failure);
+        Assertions.assertNotNull(runs.poll(5, TimeUnit.SECONDS));
+      }
+      Assertions.assertTrue(timingOutCommand.getCompletedRunCount() >= 2);
+    }
+  }
+
+  /**
+   * Tests the lines subtracted from one output to compute deltas.
+   */
+  @Test
+  void testSubtractLines() {
+    Assertions.assertEquals(
+        List.of("c", "a"),
+        CommandScheduler.subtractLines(List.of("a", "c", "b", "a", "a"), List.of("b", "a", "a"))
+    );
+    Assertions.assertEquals(List.of(), CommandScheduler.subtractLines(List.of(), List.of("a")));
+    Assertions.assertEquals(List.of("a"), CommandScheduler.subtractLines(List.of("a"), List.of()));
+  }
+
+  /**
+   * Tests scheduling commands with invalid inputs.
+   */
+  @Test
+  void testInvalidInputs() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new SchedulePolicy(ScheduleMode.FIXED_RATE, Duration.ZERO, Duration.ZERO, true)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new SchedulePolicy(
+            ScheduleMode.FIXED_RATE,
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(1),
+            true
+        )
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new SchedulePolicy(
+            ScheduleMode.FIXED_DELAY,
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(-1),
+            true
+        )
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> new SchedulePolicy(null, Duration.ofSeconds(1), Duration.ZERO, true)
+    );
+    SchedulePolicy schedulePolicy = new SchedulePolicy(
+        ScheduleMode.FIXED_DELAY,
+        Duration.ofSeconds(1),
+        Duration.ZERO,
+        false
+    );
+    try (CommandScheduler scheduler = new CommandScheduler()) {
+      Assertions.assertThrows(
+          NullPointerException.class,
+          () -> scheduler.schedule(
+              null,
+              schedulePolicy,
+              timeOutDuration,
+              OutputDelivery.FULL,
+              run -> { }
+          )
+      );
+      Assertions.assertThrows(
+          NullPointerException.class,
+          () -> scheduler.schedule(
+              new String[]{"true"},
+              schedulePolicy,
+              timeOutDuration,
+              OutputDelivery.FULL,
+              null
+          )
+      );
+    }
+  }
+
+  /**
+   * Asserts that each run started at least the specified duration after the previous one ended.
+   *
+   * @param runs    Runs in the order they completed.
+   * @param spacing Minimum duration between the end of a run and the start of the next one.
+   */
+  private static void assertSpacing(BlockingQueue<ScheduledRun> runs, Duration spacing) {
+    ScheduledRun[] completedRuns = runs.toArray(new ScheduledRun[0]);
+    Assertions.assertTrue(completedRuns.length >= 2);
+    for (int index = 1; index < completedRuns.length; index++) {
+      Duration gap = Duration.between(
+          completedRuns[index - 1].getResponse().getExecutionEndTimestamp(),
+          completedRuns[index].getResponse().getExecutionStartTimestamp()
+      );
+      Assertions.assertTrue(gap.compareTo(spacing) >= 0, () -> "Runs spaced by " + gap);
+    }
+  }
+
+  /**
+   * Asserts that the specified run delivers the specified delta.
+   *
+   * @param run           Run to check.
+   * @param addedLines    Expected added lines.
+   * @param removedLines  Expected removed lines.
+   */
+  private static void assertDelta(
+      ScheduledRun run,
+      List<String> addedLines,
+      List<String> removedLines
+  ) {
+    Assertions.assertNotNull(run);
+    Assertions.assertTrue(run.isDelta());
+    Assertions.assertEquals(addedLines, run.getAddedLines());
+    Assertions.assertEquals(removedLines, run.getRemovedLines());
+  }
+}
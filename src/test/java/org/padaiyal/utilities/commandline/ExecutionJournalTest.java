@@ -0,0 +1,352 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.padaiyal.utilities.commandline.abstractions.JournalEntry;
+import org.padaiyal.utilities.commandline.abstractions.JournalSyncPolicy;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Tests for ExecutionJournal and JournalReader.
+ */
+class ExecutionJournalTest {
+
+  /**
+   * Loads the properties and resource bundles used by the journal.
+   */
+  @BeforeAll
+  static void prepare() {
+    CommandLineUtility.initializeDependantValues();
+    ExecutionJournal.initializeDependantValues();
+  }
+
+  /**
+   * Tests that recorded entries are read back in order with each sync policy.
+   *
+   * @param syncPolicy            Sync policy of the journal.
+   * @param tempDirectory         Directory holding the journal.
+   * @throws IOException          If there is an issue writing or reading the journal.
+   * @throws InterruptedException If waiting for the journal is interrupted.
+   */
+  @ParameterizedTest
+  @EnumSource(JournalSyncPolicy.class)
+  void testRecordAndRead(JournalSyncPolicy syncPolicy, @TempDir Path tempDirectory)
+      throws IOException, InterruptedException {
+    List<Response> responses = new ArrayList<>();
+    try (ExecutionJournal journal = ExecutionJournal.builder(tempDirectory)
+        .setSyncPolicy(syncPolicy)
+        .setSyncInterval(Duration.ofMinutes(1))
+        .setBatchSize(16)
+        .build()) {
+      for (int index = 0; index < 100; index++) {
+        Response response = createResponse(index, "output " + index + "\n");
+        responses.add(response);
+        Assertions.assertTrue(journal.record(new String[]{"echo", "ü" + index}, response));
+      }
+      // A flush forces the entries to storage whatever the sync policy.
+      journal.flush();
+      Assertions.assertEquals(100, readEntries(tempDirectory).size());
+      Assertions.assertEquals(0, journal.getDroppedEntryCount());
+    }
+
+    List<JournalEntry> entries = readEntries(tempDirectory);
+    Assertions.assertEquals(responses.size(), entries.size());
+    for (int index = 0; index < entries.size(); index++) {
+      JournalEntry entry = entries.get(index);
+      Assertions.assertArrayEquals(new String[]{"echo", "ü" + index}, entry.getSplitCommand());
+      assertResponsesEqual(responses.get(index), entry.getResponse());
+    }
+  }
+
+  /**
+   * Tests that entries recorded concurrently are all written, in the order each thread recorded
+   * them.
+   *
+   * @param tempDirectory Directory holding the journal.
+   * @throws Exception    If there is an issue recording or reading the entries.
+   */
+  @Test
+  void testConcurrentRecording(@TempDir Path tempDirectory) throws Exception {
+    final int threadCount = 8;
+    final int entryCountPerThread = 500;
+    ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+    try (ExecutionJournal journal = ExecutionJournal.builder(tempDirectory)
+        .setCompressed(true)
+        .build()) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < threadCount; thread++) {
+        final String threadName = String.valueOf(thread);
+        futures.add(executorService.submit(() -> {
+          for (int index = 0; index < entryCountPerThread; index++) {
+            journal.record(
+                new String[]{threadName, String.valueOf(index)},
+                createResponse(index, "output".repeat(index))
+            );
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executorService.shutdown();
+      Assertions.assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+    }
+
+    List<JournalEntry> entries = readEntries(tempDirectory);
+    Assertions.assertEquals(threadCount * entryCountPerThread, entries.size());
+    int[] nextIndices = new int[threadCount];
+    for (JournalEntry entry : entries) {
+      String[] splitCommand = entry.getSplitCommand();
+      int thread = Integer.parseInt(splitCommand[0]);
+      int index = Integer.parseInt(splitCommand[1]);
+      Assertions.assertEquals(nextIndices[thread]++, index);
+      Assertions.assertEquals(index, entry.getResponse().getReturnCode());
+    }
+  }
+
+  /**
+   * Tests that outputs longer than the maximum output length are truncated.
+   *
+   * @param tempDirectory Directory holding the journal.
+   * @throws IOException  If there is an issue writing or reading the journal.
+   */
+  @Test
+  void testOutputTruncation(@TempDir Path tempDirectory) throws IOException {
+    try (ExecutionJournal journal = ExecutionJournal.builder(tempDirectory)
+        .setMaxOutputLength(5)
+        .build()) {
+      journal.record(new String[]{"a"}, new Response(0, "0123456789", null, Instant.EPOCH,
+          Duration.ZERO));
+      journal.record(new String[]{"b"}, new Response(0, "01234", "", Instant.EPOCH,
+          Duration.ZERO));
+    }
+
+    List<JournalEntry> entries = readEntries(tempDirectory);
+    Assertions.assertEquals("01234", entries.get(0).getResponse().getOutput(StdType.STDOUT));
+    Assertions.assertNull(entries.get(0).getResponse().getOutput(StdType.STDERR));
+    Assertions.assertEquals("01234", entries.get(1).getResponse().getOutput(StdType.STDOUT));
+    Assertions.assertEquals("", entries.get(1).getResponse().getOutput(StdType.STDERR));
+  }
+
+  /**
+   * Tests that segments are rotated once they reach the segment size, that the oldest ones are
+   * deleted beyond the retained count and that a new journal starts after the existing
+   * segments.
+   *
+   * @param tempDirectory         Directory holding the journal.
+   * @throws IOException          If there is an issue writing or reading the journal.
+   * @throws InterruptedException If waiting for the journal is interrupted.
+   */
+  @Test
+  void testSegmentRotation(@TempDir Path tempDirectory)
+      throws IOException, InterruptedException {
+    try (ExecutionJournal journal = ExecutionJournal.builder(tempDirectory)
+        .setSegmentSizeInBytes(1)
+        .setMaxSegmentCount(3)
+        .setBatchSize(1)
+        .build()) {
+      for (int index = 0; index < 10; index++) {
+        journal.record(new String[]{String.valueOf(index)}, createResponse(index, ""));
+        // Flushing after each entry ensures each one is written in its own batch.
+        journal.flush();
+      }
+    }
+
+    List<Path> segments = ExecutionJournal.listSegments(tempDirectory);
+    Assertions.assertEquals(3, segments.size());
+    Assertions.assertEquals(
+        "journal-00000000000000000010.seg",
+        segments.get(2).getFileName().toString()
+    );
+    List<JournalEntry> entries = readEntries(tempDirectory);
+    Assertions.assertEquals(2, entries.size());
+    Assertions.assertEquals("8", entries.get(0).getSplitCommand()[0]);
+    Assertions.assertEquals("9", entries.get(1).getSplitCommand()[0]);
+
+    // Files which aren't segments are left alone.
+    Files.writeString(tempDirectory.resolve("journal-notes.seg"), "notes");
+    try (ExecutionJournal journal = ExecutionJournal.builder(tempDirectory).build()) {
+      journal.record(new String[]{"10"}, createResponse(10, ""));
+    }
+    segments = ExecutionJournal.listSegments(tempDirectory);
+    Assertions.assertEquals(4, segments.size());
+    Assertions.assertEquals(
+        "journal-00000000000000000011.seg",
+        segments.get(3).getFileName().toString()
+    );
+    Assertions.assertEquals(3, readEntries(tempDirectory).size());
+  }
+
+  /**
+   * Tests that an entry cut short at the end of a segment is skipped.
+   *
+   * @param tempDirectory Directory holding the journal.
+   * @throws IOException  If there is an issue writing or reading the journal.
+   */
+  @Test
+  void testTruncatedSegment(@TempDir Path tempDirectory) throws IOException {
+    try (ExecutionJournal journal = ExecutionJournal.builder(tempDirectory).build()) {
+      for (int index = 0; index < 3; index++) {
+        journal.record(new String[]{String.valueOf(index)}, createResponse(index, "output"));
+      }
+    }
+    Path segment = ExecutionJournal.listSegments(tempDirectory).get(0);
+    try (FileChannel fileChannel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      fileChannel.truncate(fileChannel.size() - 3);
+    }
+    // A segment whose header never made it to storage holds no entries.
+    Files.write(tempDirectory.resolve("journal-00000000000000000005.seg"), new byte[2]);
+
+    List<JournalEntry> entries = readEntries(tempDirectory);
+    Assertions.assertEquals(2, entries.size());
+    Assertions.assertEquals("1", entries.get(1).getSplitCommand()[0]);
+  }
+
+  /**
+   * Tests reading files which aren't valid segments.
+   *
+   * @param tempDirectory Directory holding the journal.
+   * @throws IOException  If there is an issue writing the files.
+   */
+  @Test
+  void testInvalidSegments(@TempDir Path tempDirectory) throws IOException {
+    Path segment = tempDirectory.resolve("journal-00000000000000000000.seg");
+    Files.writeString(segment, "not a journal segment", StandardCharsets.UTF_8);
+    Assertions.assertThrows(IOException.class, () -> readEntries(tempDirectory));
+
+    byte unsupportedVersion = ExecutionJournal.SEGMENT_FORMAT_VERSION + 1;
+    Files.write(segment, new byte[]{0x50, 0x44, 0x4A, 0x53, unsupportedVersion});
+    Assertions.assertThrows(IOException.class, () -> readEntries(tempDirectory));
+
+    Files.write(segment, new byte[]{0x50, 0x44, 0x4A, 0x53, 1, -1, -1, -1, -1});
+    Assertions.assertThrows(IOException.class, () -> readEntries(tempDirectory));
+  }
+
+  /**
+   * Tests that nothing is recorded once the journal is closed and the validation of the
+   * journal properties.
+   *
+   * @param tempDirectory         Directory holding the journal.
+   * @throws IOException          If there is an issue writing the journal.
+   * @throws InterruptedException If waiting for the journal is interrupted.
+   */
+  @Test
+  void testClosedJournalAndInvalidInputs(@TempDir Path tempDirectory)
+      throws IOException, InterruptedException {
+    ExecutionJournal journal = ExecutionJournal.builder(tempDirectory).build();
+    journal.close();
+    Assertions.assertFalse(journal.record(new String[]{"a"}, createResponse(0, "")));
+    journal.flush();
+    journal.close();
+    Assertions.assertTrue(readEntries(tempDirectory).isEmpty());
+
+    // Closing while interrupted returns with the interrupt status kept.
+    ExecutionJournal interruptedJournal = ExecutionJournal.builder(tempDirectory).build();
+    Thread.currentThread().interrupt();
+    interruptedJournal.close();
+    Assertions.assertTrue(Thread.interrupted());
+
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> journal.record(null, createResponse(0, ""))
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> journal.record(new String[]{"a"}, null)
+    );
+    Assertions.assertThrows(NullPointerException.class, () -> ExecutionJournal.builder(null));
+    ExecutionJournal.Builder builder = ExecutionJournal.builder(tempDirectory);
+    Assertions.assertThrows(IllegalArgumentException.class, () -> builder.setBatchSize(0));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> builder.setSegmentSizeInBytes(-1)
+    );
+    Assertions.assertThrows(IllegalArgumentException.class, () -> builder.setMaxSegmentCount(-1));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> builder.setMaxOutputLength(-1));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> builder.setSyncInterval(Duration.ZERO)
+    );
+    Assertions.assertThrows(NullPointerException.class, () -> builder.setSyncPolicy(null));
+  }
+
+  /**
+   * Reads all the entries of the journal in the specified directory.
+   *
+   * @param directory     Directory holding the journal.
+   * @return              The entries.
+   * @throws IOException  If there is an issue reading the journal.
+   */
+  static List<JournalEntry> readEntries(Path directory) throws IOException {
+    List<JournalEntry> entries = new ArrayList<>();
+    try (JournalReader journalReader = new JournalReader(directory)) {
+      Optional<JournalEntry> entry;
+      while ((entry = journalReader.read()).isPresent()) {
+        entries.add(entry.get());
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * Creates a response with the specified return code and STDOUT.
+   *
+   * @param returnCode  Return code of the response.
+   * @param stdout      STDOUT of the response.
+   * @return            The response.
+   */
+  private static Response createResponse(int returnCode, String stdout) {
+    return new Response(
+        returnCode,
+        stdout,
+        "",
+        Instant.ofEpochSecond(1_700_000_000L + returnCode, returnCode),
+        Duration.ofMillis(returnCode)
+    );
+  }
+
+  /**
+   * Asserts that the specified responses hold the same values.
+   *
+   * @param expectedResponse  Expected response.
+   * @param actualResponse    Actual response.
+   */
+  private static void assertResponsesEqual(Response expectedResponse, Response actualResponse) {
+    Assertions.assertEquals(expectedResponse.getReturnCode(), actualResponse.getReturnCode());
+    for (StdType stdType : StdType.values()) {
+      Assertions.assertEquals(
+          expectedResponse.getOutput(stdType),
+          actualResponse.getOutput(stdType)
+      );
+    }
+    Assertions.assertEquals(
+        expectedResponse.getExecutionStartTimestamp(),
+        actualResponse.getExecutionStartTimestamp()
+    );
+    Assertions.assertEquals(
+        expectedResponse.getExecutionDuration(),
+        actualResponse.getExecutionDuration()
+    );
+  }
+}
@@ -0,0 +1,93 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Tests for ExecutionReplayer.
+ */
+class ExecutionReplayerTest {
+
+  /**
+   * Loads the properties and resource bundles used by the replayer.
+   */
+  @BeforeAll
+  static void prepare() {
+    CommandLineUtility.initializeDependantValues();
+    ExecutionJournal.initializeDependantValues();
+  }
+
+  /**
+   * Tests that the responses recorded for a command are served in turn, matching the executable
+   * by its file name.
+   *
+   * @param tempDirectory Directory holding the recording.
+   * @throws IOException  If there is an issue recording or replaying the responses.
+   */
+  @Test
+  void testReplay(@TempDir Path tempDirectory) throws IOException {
+    try (ExecutionJournal journal = ExecutionJournal.builder(tempDirectory).build()) {
+      journal.record(new String[]{"/bin/bash", "-c", "date"}, createResponse(0, "first"));
+      journal.record(new String[]{"/bin/bash", "-c", "date"}, createResponse(0, "second"));
+      journal.record(new String[]{"C:\\Windows\\cmd.exe", "/C", "ver"}, createResponse(1, "ver"));
+    }
+
+    ExecutionReplayer replayer = ExecutionReplayer.builder(tempDirectory).build();
+    Assertions.assertEquals(2, replayer.getRecordedCommandCount());
+    Assertions.assertFalse(replayer.isLatencySimulated());
+    Assertions.assertFalse(replayer.isStrict());
+    String[] dateCommand = {"/usr/bin/bash", "-c", "date"};
+    Assertions.assertEquals("first", getStdout(replayer.replay(dateCommand)));
+    Assertions.assertEquals("second", getStdout(replayer.replay(dateCommand)));
+    Assertions.assertEquals("first", getStdout(replayer.replay(dateCommand)));
+    Optional<Response> verResponse = replayer.replay(new String[]{"cmd.exe", "/C", "ver"});
+    Assertions.assertEquals(1, verResponse.orElseThrow().getReturnCode());
+    Assertions.assertEquals(
+        Optional.empty(),
+        replayer.replay(new String[]{"/bin/bash", "-c", "uptime"})
+    );
+
+    ExecutionReplayer strictReplayer = ExecutionReplayer.builder(tempDirectory)
+        .setStrict(true)
+        .setLatencySimulated(true)
+        .build();
+    Assertions.assertTrue(strictReplayer.isStrict());
+    Assertions.assertTrue(strictReplayer.isLatencySimulated());
+    Assertions.assertThrows(
+        IOException.class,
+        () -> strictReplayer.replay(new String[]{"/bin/bash", "-c", "uptime"})
+    );
+    Assertions.assertThrows(NullPointerException.class, () -> strictReplayer.replay(null));
+    Assertions.assertThrows(NullPointerException.class, () -> ExecutionReplayer.builder(null));
+  }
+
+  /**
+   * Creates a response with the specified return code and STDOUT.
+   *
+   * @param returnCode  Return code of the response.
+   * @param stdout      STDOUT of the response.
+   * @return            The response.
+   */
+  private static Response createResponse(int returnCode, String stdout) {
+    return new Response(returnCode, stdout, "", Instant.EPOCH, Duration.ofMillis(10));
+  }
+
+  /**
+   * Retrieves the STDOUT of the replayed response.
+   *
+   * @param response  Replayed response.
+   * @return          STDOUT of the response.
+   */
+  private static String getStdout(Optional<Response> response) {
+    return response.orElseThrow().getOutput(StdType.STDOUT);
+  }
+}
@@ -0,0 +1,271 @@
+package org.padaiyal.utilities.commandline;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.padaiyal.utilities.commandline.abstractions.ExecutionPriority;
+
+/**
+ * Tests for ExecutionScheduler.
+ */
+class ExecutionSchedulerTest {
+
+  /**
+   * Deadline far enough in the future for executions not to expire.
+   */
+  private static final Duration distantDeadline = Duration.ofMinutes(1);
+  /**
+   * Used to run the executions waiting to be admitted.
+   */
+  private ExecutorService executorService;
+
+  /**
+   * Loads the resources used for the exception messages.
+   */
+  @BeforeAll
+  static void prepare() {
+    CommandLineUtility.initializeDependantValues();
+  }
+
+  /**
+   * Creates the executor running the executions waiting to be admitted.
+   */
+  @BeforeEach
+  void createExecutorService() {
+    executorService = Executors.newCachedThreadPool();
+  }
+
+  /**
+   * Stops the executor running the executions waiting to be admitted.
+   */
+  @AfterEach
+  void shutdownExecutorService() {
+    executorService.shutdownNow();
+  }
+
+  /**
+   * Tests that executions are admitted immediately while slots are available.
+   *
+   * @throws InterruptedException If waiting to be admitted is interrupted.
+   * @throws TimeoutException     If an execution isn't admitted before its deadline.
+   */
+  @Test
+  void testImmediateAdmission() throws InterruptedException, TimeoutException {
+    ExecutionScheduler executionScheduler = new ExecutionScheduler(2);
+    Assertions.assertEquals(2, executionScheduler.getConcurrency());
+    Assertions.assertEquals(0, executionScheduler.acquire(ExecutionPriority.NORMAL, deadline()));
+    Assertions.assertEquals(0, executionScheduler.acquire(ExecutionPriority.BATCH, deadline()));
+    Assertions.assertEquals(1, executionScheduler.getRunningCount(ExecutionPriority.NORMAL));
+    Assertions.assertEquals(1, executionScheduler.getRunningCount(ExecutionPriority.BATCH));
+    Assertions.assertFalse(executionScheduler.tryAcquire(ExecutionPriority.CRITICAL));
+
+    executionScheduler.release(ExecutionPriority.NORMAL);
+    Assertions.assertTrue(executionScheduler.tryAcquire(ExecutionPriority.CRITICAL));
+    Assertions.assertEquals(1, executionScheduler.getAdmittedCount(ExecutionPriority.CRITICAL));
+    Assertions.assertEquals(Duration.ZERO, executionScheduler.getAverageWaitTime(
+        ExecutionPriority.CRITICAL
+    ));
+  }
+
+  /**
+   * Tests that freed slots are handed to the highest priority class first, and in arrival order
+   * within a class.
+   *
+   * @throws Exception If an execution fails to be admitted.
+   */
+  @Test
+  void testAdmissionOrder() throws Exception {
+    ExecutionScheduler executionScheduler = new ExecutionScheduler(1);
+    executionScheduler.acquire(ExecutionPriority.NORMAL, deadline());
+
+    List<String> admissionOrder = new CopyOnWriteArrayList<>();
+    List<Future<?>> executions = List.of(
+        queue(executionScheduler, ExecutionPriority.BATCH, "batch1", admissionOrder),
+        queue(executionScheduler, ExecutionPriority.BATCH, "batch2", admissionOrder),
+        queue(executionScheduler, ExecutionPriority.NORMAL, "normal", admissionOrder),
+        queue(executionScheduler, ExecutionPriority.CRITICAL, "critical", admissionOrder)
+    );
+    executionScheduler.release(ExecutionPriority.NORMAL);
+    for (Future<?> execution : executions) {
+      execution.get(distantDeadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    Assertions.assertEquals(List.of("critical", "normal", "batch1", "batch2"), admissionOrder);
+    Assertions.assertEquals(0, executionScheduler.getQueueDepth(ExecutionPriority.BATCH));
+    Assertions.assertEquals(0, executionScheduler.getRunningCount(ExecutionPriority.BATCH));
+    Assertions.assertTrue(
+        executionScheduler.getMaximumWaitTime(ExecutionPriority.BATCH).compareTo(
+            executionScheduler.getMaximumWaitTime(ExecutionPriority.CRITICAL)
+        ) >= 0
+    );
+    Assertions.assertTrue(
+        executionScheduler.getAverageWaitTime(ExecutionPriority.CRITICAL).compareTo(Duration.ZERO)
+            > 0
+    );
+  }
+
+  /**
+   * Tests that a class doesn't use more than its share of the concurrency, leaving the remaining
+   * slots to the other classes.
+   *
+   * @throws Exception If an execution fails to be admitted.
+   */
+  @Test
+  void testClassConcurrency() throws Exception {
+    ExecutionScheduler executionScheduler = new ExecutionScheduler(
+        3,
+        Map.of(ExecutionPriority.BATCH, 1),
+        Map.of()
+    );
+    executionScheduler.acquire(ExecutionPriority.BATCH, deadline());
+    Assertions.assertFalse(executionScheduler.tryAcquire(ExecutionPriority.BATCH));
+
+    List<String> admissionOrder = new CopyOnWriteArrayList<>();
+    Future<?> batchExecution = queue(
+        executionScheduler,
+        ExecutionPriority.BATCH,
+        "batch",
+        admissionOrder
+    );
+    Assertions.assertTrue(executionScheduler.tryAcquire(ExecutionPriority.NORMAL));
+    Assertions.assertTrue(executionScheduler.tryAcquire(ExecutionPriority.CRITICAL));
+    Assertions.assertTrue(admissionOrder.isEmpty());
+
+    executionScheduler.release(ExecutionPriority.BATCH);
+    batchExecution.get(distantDeadline.toMillis(), TimeUnit.MILLISECONDS);
+    Assertions.assertEquals(List.of("batch"), admissionOrder);
+  }
+
+  /**
+   * Tests that executions are rejected once the queue of their class is full.
+   *
+   * @throws Exception If an execution fails to be admitted.
+   */
+  @Test
+  void testBoundedQueue() throws Exception {
+    ExecutionScheduler executionScheduler = new ExecutionScheduler(
+        1,
+        Map.of(),
+        Map.of(ExecutionPriority.BATCH, 1)
+    );
+    executionScheduler.acquire(ExecutionPriority.CRITICAL, deadline());
+    Future<?> batchExecution = queue(
+        executionScheduler,
+        ExecutionPriority.BATCH,
+        "batch",
+        new CopyOnWriteArrayList<>()
+    );
+
+    Assertions.assertThrows(
+        RejectedExecutionException.class,
+        () -> executionScheduler.acquire(ExecutionPriority.BATCH, deadline())
+    );
+    Assertions.assertEquals(1, executionScheduler.getRejectedCount(ExecutionPriority.BATCH));
+    Assertions.assertEquals(1, executionScheduler.getQueueDepth(ExecutionPriority.BATCH));
+
+    executionScheduler.release(ExecutionPriority.CRITICAL);
+    batchExecution.get(distantDeadline.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Tests that queued executions whose deadline passes are dropped instead of being admitted.
+   *
+   * @throws InterruptedException If waiting to be admitted is interrupted.
+   * @throws TimeoutException     If an execution isn't admitted before its deadline.
+   */
+  @Test
+  void testDeadlineExpiry() throws InterruptedException, TimeoutException {
+    ExecutionScheduler executionScheduler = new ExecutionScheduler(1);
+    executionScheduler.acquire(ExecutionPriority.NORMAL, deadline());
+
+    Assertions.assertThrows(
+        TimeoutException.class,
+        () -> executionScheduler.acquire(
+            ExecutionPriority.BATCH,
+            System.nanoTime() + Duration.ofMillis(100).toNanos()
+        )
+    );
+    Assertions.assertEquals(1, executionScheduler.getExpiredCount(ExecutionPriority.BATCH));
+    Assertions.assertEquals(0, executionScheduler.getQueueDepth(ExecutionPriority.BATCH));
+    Assertions.assertEquals(0, executionScheduler.getAdmittedCount(ExecutionPriority.BATCH));
+
+    // The expired execution doesn't hold on to a slot.
+    executionScheduler.release(ExecutionPriority.NORMAL);
+    Assertions.assertEquals(0, executionScheduler.acquire(ExecutionPriority.BATCH, deadline()));
+  }
+
+  /**
+   * Tests creating schedulers with invalid inputs.
+   */
+  @Test
+  void testInvalidInputs() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new ExecutionScheduler(0));
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> new ExecutionScheduler(1, null, Map.of())
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> new ExecutionScheduler(1, Map.of(), null)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new ExecutionScheduler(1, Map.of(ExecutionPriority.BATCH, 0), Map.of())
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new ExecutionScheduler(1, Map.of(), Map.of(ExecutionPriority.NORMAL, -1))
+    );
+  }
+
+  /**
+   * Queues an execution which records its name once admitted and then completes right away, and
+   * waits until it is queued.
+   *
+   * @param executionScheduler    Scheduler to queue the execution with.
+   * @param priority              Priority class of the execution.
+   * @param name                  Name of the execution.
+   * @param admissionOrder        Names of the executions in the order they were admitted.
+   * @return                      The queued execution.
+   * @throws InterruptedException If waiting for the execution to be queued is interrupted.
+   */
+  private Future<?> queue(
+      ExecutionScheduler executionScheduler,
+      ExecutionPriority priority,
+      String name,
+      List<String> admissionOrder
+  ) throws InterruptedException {
+    int queueDepth = executionScheduler.getQueueDepth(priority);
+    Future<?> execution = executorService.submit(() -> {
+      executionScheduler.acquire(priority, deadline());
+      admissionOrder.add(name);
+      executionScheduler.release(priority);
+      return null;
+    });
+    while (executionScheduler.getQueueDepth(priority) == queueDepth) {
+      Thread.sleep(1);
+    }
+    return execution;
+  }
+
+  /**
+   * Computes a deadline far enough in the future for executions not to expire.
+   *
+   * @return Value of System.nanoTime() by which the execution must complete.
+   */
+  private static long deadline() {
+    return System.nanoTime() + distantDeadline.toNanos();
+  }
+}
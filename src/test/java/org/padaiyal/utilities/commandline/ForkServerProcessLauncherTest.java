@@ -0,0 +1,281 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.padaiyal.utilities.commandline.abstractions.CaptureOptions;
+import org.padaiyal.utilities.commandline.abstractions.Command;
+import org.padaiyal.utilities.commandline.abstractions.CommandLine;
+import org.padaiyal.utilities.commandline.abstractions.LaunchRequest;
+import org.padaiyal.utilities.commandline.abstractions.OperatingSystem;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+import org.padaiyal.utilities.commandline.abstractions.StopCondition;
+import org.padaiyal.utilities.commandline.exceptions.CommandLineNotFoundException;
+
+/**
+ * Tests for ForkServerProcessLauncher.
+ */
+class ForkServerProcessLauncherTest {
+
+  /**
+   * Launcher under test.
+   */
+  private static ForkServerProcessLauncher forkServerProcessLauncher;
+
+  /**
+   * Prepares the launcher used for the tests.
+   */
+  @BeforeAll
+  static void prepare() {
+    CommandLineUtility.initializeDependantValues();
+    forkServerProcessLauncher = new ForkServerProcessLauncher();
+  }
+
+  /**
+   * Stops the fork server and restores the default launcher.
+   */
+  @AfterAll
+  static void cleanUp() {
+    CommandLineUtility.setProcessLauncher(new DefaultProcessLauncher());
+    forkServerProcessLauncher.close();
+  }
+
+  /**
+   * Tests that executing a command via the fork server yields the same response as executing it
+   * directly.
+   *
+   * @throws IOException                  If there is an issue executing the command.
+   * @throws InterruptedException         If the command execution is interrupted.
+   * @throws TimeoutException             If the command execution times out.
+   * @throws CommandLineNotFoundException If the command line to be used to execute the command
+   *                                      is not found.
+   */
+  @Test
+  void testExecuteCommandViaForkServer()
+      throws IOException,
+      InterruptedException,
+      TimeoutException,
+      CommandLineNotFoundException {
+    CommandLine commandLine = OperatingSystem.getOperatingSystem()
+        .getSupportedTypeOfCommandLines()[0];
+    Command command = new Command();
+    command.setCommand(commandLine, "echo out && echo err 1>&2 && exit 3");
+
+    Response expectedResponse = CommandLineUtility.executeCommand(command, commandLine);
+    CommandLineUtility.setProcessLauncher(forkServerProcessLauncher);
+    Response response;
+    try {
+      response = CommandLineUtility.executeCommand(command, commandLine);
+    } finally {
+      CommandLineUtility.setProcessLauncher(new DefaultProcessLauncher());
+    }
+
+    Assertions.assertEquals(3, response.getReturnCode());
+    Assertions.assertEquals(expectedResponse.getReturnCode(), response.getReturnCode());
+    Assertions.assertEquals(
+        expectedResponse.getOutput(StdType.STDOUT),
+        response.getOutput(StdType.STDOUT)
+    );
+    Assertions.assertEquals(
+        expectedResponse.getOutput(StdType.STDERR),
+        response.getOutput(StdType.STDERR)
+    );
+  }
+
+  /**
+   * Tests writing to the standard input of a process spawned by the fork server.
+   *
+   * @throws IOException          If there is an issue launching the process.
+   * @throws InterruptedException If waiting for the process is interrupted.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testStdinIsRelayed() throws IOException, InterruptedException {
+    Process process = forkServerProcessLauncher.launch(new LaunchRequest(new String[]{"cat"}));
+    Assertions.assertTrue(process.isAlive());
+    Assertions.assertTrue(process.pid() > 0);
+    try (OutputStream stdin = process.getOutputStream()) {
+      stdin.write("relayed".getBytes(StandardCharsets.UTF_8));
+    }
+    Assertions.assertEquals(
+        "relayed",
+        StreamUtility.convertInputStreamToString(process.getInputStream())
+    );
+    Assertions.assertTrue(process.waitFor(5, TimeUnit.SECONDS));
+    Assertions.assertEquals(0, process.exitValue());
+  }
+
+  /**
+   * Tests that a process which doesn't read its standard input, or whose output isn't read, only
+   * stalls itself and not the other processes spawned by the fork server.
+   *
+   * @throws Exception If there is an issue launching or interacting with the processes.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testFlowControlIsPerProcess() throws Exception {
+    final int outputSize = 10_000_000;
+    Process stalledReader = forkServerProcessLauncher.launch(
+        new LaunchRequest(new String[]{"sleep", "30"})
+    );
+    Process unreadWriter = forkServerProcessLauncher.launch(
+        new LaunchRequest(new String[]{"head", "-c", String.valueOf(outputSize), "/dev/zero"})
+    );
+    Thread stalledWriter = new Thread(() -> {
+      try (OutputStream stdin = stalledReader.getOutputStream()) {
+        stdin.write(new byte[outputSize]);
+      } catch (IOException e) {
+        // The process has been destroyed.
+      }
+    });
+    stalledWriter.start();
+    try {
+      Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+        Process process = forkServerProcessLauncher.launch(
+            new LaunchRequest(new String[]{"cat"})
+        );
+        try (OutputStream stdin = process.getOutputStream()) {
+          stdin.write("relayed".getBytes(StandardCharsets.UTF_8));
+        }
+        Assertions.assertEquals(
+            "relayed",
+            StreamUtility.convertInputStreamToString(process.getInputStream())
+        );
+        Assertions.assertEquals(0, process.waitFor());
+      });
+      // The unread output is held back by the fork server instead of being buffered here.
+      Assertions.assertFalse(unreadWriter.waitFor(500, TimeUnit.MILLISECONDS));
+      Assertions.assertEquals(outputSize, unreadWriter.getInputStream().readAllBytes().length);
+      Assertions.assertTrue(unreadWriter.waitFor(5, TimeUnit.SECONDS));
+      Assertions.assertEquals(0, unreadWriter.exitValue());
+    } finally {
+      CommandLineUtility.destroyProcessTree(stalledReader);
+      CommandLineUtility.destroyProcessTree(unreadWriter);
+    }
+    stalledWriter.join(5000);
+    Assertions.assertFalse(stalledWriter.isAlive());
+  }
+
+  /**
+   * Tests terminating a process spawned by the fork server.
+   *
+   * @throws IOException          If there is an issue launching the process.
+   * @throws InterruptedException If waiting for the process is interrupted.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testDestroy() throws IOException, InterruptedException {
+    Process process = forkServerProcessLauncher.launch(new LaunchRequest(new String[]{"cat"}));
+    Assertions.assertFalse(process.waitFor(100, TimeUnit.MILLISECONDS));
+    Assertions.assertThrows(IllegalThreadStateException.class, process::exitValue);
+    CommandLineUtility.destroyProcessTree(process);
+    Assertions.assertTrue(process.waitFor(5, TimeUnit.SECONDS));
+    Assertions.assertFalse(process.isAlive());
+  }
+
+  /**
+   * Tests the operations relying on the handles of the processes spawned by the fork server, ie.
+   * stopping a command early and terminating the registered executions.
+   *
+   * @throws IOException                  If there is an issue executing the commands.
+   * @throws InterruptedException         If the command execution is interrupted.
+   * @throws TimeoutException             If the command execution times out.
+   * @throws CommandLineNotFoundException If the command line to be used to execute the command
+   *                                      is not found.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testProcessHandleOperations()
+      throws IOException,
+      InterruptedException,
+      TimeoutException,
+      CommandLineNotFoundException {
+    CommandLine commandLine = OperatingSystem.getOperatingSystem()
+        .getSupportedTypeOfCommandLines()[0];
+    Command command = new Command();
+    command.setCommand(commandLine, "while true; do echo x; sleep 0.1; done");
+    CaptureOptions captureOptions = new CaptureOptions();
+    captureOptions.addStopCondition(StopCondition.afterLines(StdType.STDOUT, 2));
+    CommandLineUtility.setProcessLauncher(forkServerProcessLauncher);
+    Response response;
+    try {
+      response = CommandLineUtility.executeCommand(
+          command,
+          commandLine,
+          Duration.ofSeconds(10),
+          captureOptions
+      );
+    } finally {
+      CommandLineUtility.setProcessLauncher(new DefaultProcessLauncher());
+    }
+    Assertions.assertTrue(response.isTerminatedEarly());
+    Assertions.assertEquals("x\nx\n", response.getOutput(StdType.STDOUT));
+
+    String[] sleepCommand = {"sleep", "30"};
+    Process process = forkServerProcessLauncher.launch(new LaunchRequest(sleepCommand));
+    Assertions.assertEquals(process.pid(), process.toHandle().pid());
+    ProcessRegistry processRegistry = new ProcessRegistry();
+    RunningExecution runningExecution = processRegistry.register(
+        sleepCommand,
+        process,
+        Instant.now()
+    );
+    processRegistry.terminateAll(Duration.ofSeconds(2));
+    Assertions.assertTrue(process.waitFor(5, TimeUnit.SECONDS));
+    Assertions.assertEquals(128 + 15, process.exitValue());
+    Assertions.assertTrue(runningExecution.isCancelled());
+    Assertions.assertThrows(IllegalStateException.class, process::toHandle);
+  }
+
+  /**
+   * Tests launching a non existent executable via the fork server.
+   */
+  @Test
+  void testLaunchFailure() {
+    Assertions.assertThrows(
+        IOException.class,
+        () -> forkServerProcessLauncher.launch(
+            new LaunchRequest(new String[]{"non-existent-executable-" + System.nanoTime()})
+        )
+    );
+  }
+
+  /**
+   * Tests that launching fails once the launcher is closed.
+   *
+   * @throws IOException          If there is an issue launching the process.
+   * @throws InterruptedException If waiting for the process is interrupted.
+   */
+  @Test
+  void testLaunchAfterClose() throws IOException, InterruptedException {
+    ForkServerProcessLauncher processLauncher = new ForkServerProcessLauncher();
+    CommandLine commandLine = OperatingSystem.getOperatingSystem()
+        .getSupportedTypeOfCommandLines()[0];
+    Process process = processLauncher.launch(
+        new LaunchRequest(
+            new String[]{
+                commandLine.name().toLowerCase(),
+                CommandLine.getCommandLineSwitch(commandLine),
+                "exit 0"
+            }
+        )
+    );
+    Assertions.assertEquals(0, process.waitFor());
+    processLauncher.close();
+    Assertions.assertThrows(
+        IOException.class,
+        () -> processLauncher.launch(new LaunchRequest(new String[]{"exit"}))
+    );
+  }
+}
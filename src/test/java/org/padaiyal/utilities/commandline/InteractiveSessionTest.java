@@ -0,0 +1,235 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.padaiyal.utilities.commandline.abstractions.ExecutionContext;
+import org.padaiyal.utilities.commandline.abstractions.ExpectMatch;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Tests for InteractiveSession.
+ */
+class InteractiveSessionTest {
+
+  /**
+   * Maximum duration to wait for an expected pattern.
+   */
+  private static final Duration timeOutDuration = Duration.ofSeconds(10);
+
+  /**
+   * Loads the properties and resource bundles used by the sessions.
+   */
+  @BeforeAll
+  static void prepare() {
+    CommandLineUtility.initializeDependantValues();
+  }
+
+  /**
+   * Tests answering the prompts of a command, on both outputs, using literal patterns and
+   * regular expressions.
+   *
+   * @throws Exception If there is an issue interacting with the command.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testAnsweringPrompts() throws Exception {
+    MultiPatternMatcher namePrompt = MultiPatternMatcher.ofLiterals("Name? ");
+    MultiPatternMatcher greeting = MultiPatternMatcher.ofRegularExpressions(
+        "Goodbye \\w+",
+        "Hello \\w+"
+    );
+    MultiPatternMatcher confirmationPrompt = MultiPatternMatcher.ofLiterals("[y/n]? ", "done");
+    try (InteractiveSession session = CommandLineUtility.startInteractiveSession(
+        new String[]{"bash", "-c", "printf 'Name? '; read name; echo \"Hello $name\";"
+            + " printf 'Continue [y/n]? ' >&2; read answer;"
+            + " if [ \"$answer\" = y ]; then echo done; fi; exit 3"}
+    )) {
+      Assertions.assertTrue(session.isAlive());
+      Assertions.assertTrue(session.getPid() > 0);
+      ExpectMatch match = session.expect(namePrompt, timeOutDuration);
+      Assertions.assertEquals(StdType.STDOUT, match.getStdType());
+      Assertions.assertEquals(0, match.getPatternIndex());
+      Assertions.assertEquals("Name? ", match.getMatchedText());
+      Assertions.assertEquals("", match.getTextBefore());
+
+      session.sendLine("world");
+      match = session.expect(greeting, timeOutDuration);
+      Assertions.assertEquals(1, match.getPatternIndex());
+      Assertions.assertEquals("Hello world", match.getMatchedText());
+
+      match = session.expect(confirmationPrompt, timeOutDuration);
+      Assertions.assertEquals(StdType.STDERR, match.getStdType());
+      Assertions.assertEquals("Continue ", match.getTextBefore());
+
+      session.send("y");
+      session.sendLine("");
+      match = session.expect(confirmationPrompt, timeOutDuration);
+      Assertions.assertEquals(StdType.STDOUT, match.getStdType());
+      Assertions.assertEquals(1, match.getPatternIndex());
+      Assertions.assertEquals("\n", match.getTextBefore());
+      Assertions.assertEquals(3, session.awaitExit(timeOutDuration));
+      Assertions.assertThrows(
+          EOFException.class,
+          () -> session.expect(confirmationPrompt, timeOutDuration)
+      );
+    }
+  }
+
+  /**
+   * Tests that a large output is matched piecemeal, in order and without losing any text, even
+   * though the scan buffer is much smaller than the output.
+   *
+   * @throws Exception If there is an issue interacting with the command.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testMatchingLargeOutputs() throws Exception {
+    final int lineCount = 20_000;
+    MultiPatternMatcher patterns = MultiPatternMatcher.ofLiterals("\n", "END");
+    try (InteractiveSession session = CommandLineUtility.startInteractiveSession(
+        new String[]{"bash", "-c", "for i in $(seq 1 " + lineCount + "); do echo \"item $i\";"
+            + " done; printf END"},
+        ExecutionContext.inherited(),
+        256
+    )) {
+      for (int lineNumber = 1; lineNumber <= lineCount; lineNumber++) {
+        ExpectMatch match = session.expect(patterns, timeOutDuration);
+        Assertions.assertEquals(0, match.getPatternIndex());
+        Assertions.assertEquals("item " + lineNumber, match.getTextBefore());
+      }
+      ExpectMatch match = session.expect(patterns, timeOutDuration);
+      Assertions.assertEquals(1, match.getPatternIndex());
+      Assertions.assertEquals("", match.getTextBefore());
+    }
+  }
+
+  /**
+   * Tests that text which doesn't match is discarded once the scan buffer is full, so that the
+   * command proceeds and a later pattern is still found.
+   *
+   * @throws Exception If there is an issue interacting with the command.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testDiscardingUnmatchedText() throws Exception {
+    final int scanBufferCapacity = 64;
+    try (InteractiveSession session = CommandLineUtility.startInteractiveSession(
+        new String[]{"bash", "-c", "head -c 100000 /dev/zero | tr '\\0' x; echo READY"},
+        ExecutionContext.inherited(),
+        scanBufferCapacity
+    )) {
+      ExpectMatch match = session.expect(
+          MultiPatternMatcher.ofLiterals("READY"),
+          timeOutDuration
+      );
+      Assertions.assertEquals("READY", match.getMatchedText());
+      Assertions.assertTrue(match.getTextBefore().length() < scanBufferCapacity);
+      Assertions.assertTrue(match.getTextBefore().chars().allMatch(character -> character == 'x'));
+    }
+
+    try (InteractiveSession session = CommandLineUtility.startInteractiveSession(
+        new String[]{"bash", "-c", "head -c 100000 /dev/zero | tr '\\0' x; echo 'READY 42'"},
+        ExecutionContext.inherited(),
+        scanBufferCapacity
+    )) {
+      ExpectMatch match = session.expect(
+          MultiPatternMatcher.ofRegularExpressions("READY \\d+"),
+          timeOutDuration
+      );
+      Assertions.assertEquals("READY 42", match.getMatchedText());
+    }
+  }
+
+  /**
+   * Tests timing out waiting for a pattern, closing the input of a command and closing a session
+   * while its command is running.
+   *
+   * @throws Exception If there is an issue interacting with the command.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testTimeoutAndClose() throws Exception {
+    MultiPatternMatcher patterns = MultiPatternMatcher.ofLiterals("pong");
+    try (InteractiveSession session = CommandLineUtility.startInteractiveSession(
+        new String[]{"cat"}
+    )) {
+      Assertions.assertThrows(
+          TimeoutException.class,
+          () -> session.expect(patterns, Duration.ofMillis(100))
+      );
+      session.sendLine("ping pong");
+      Assertions.assertEquals("ping ", session.expect(patterns, timeOutDuration).getTextBefore());
+      session.closeInput();
+      Assertions.assertEquals(0, session.awaitExit(timeOutDuration));
+      Assertions.assertThrows(IOException.class, () -> session.send("ping"));
+    }
+
+    InteractiveSession session = CommandLineUtility.startInteractiveSession(
+        new String[]{"sleep", "30"}
+    );
+    Assertions.assertThrows(
+        TimeoutException.class,
+        () -> session.awaitExit(Duration.ofMillis(100))
+    );
+    Assertions.assertTrue(
+        CommandLineUtility.getProcessRegistry().getRunningExecutions().stream()
+            .anyMatch(runningExecution -> runningExecution.getPid() == session.getPid())
+    );
+    session.close();
+    session.close();
+    Assertions.assertFalse(
+        CommandLineUtility.getProcessRegistry().getRunningExecutions().stream()
+            .anyMatch(runningExecution -> runningExecution.getPid() == session.getPid())
+    );
+    session.awaitExit(timeOutDuration);
+    Assertions.assertFalse(session.isAlive());
+  }
+
+  /**
+   * Tests starting and using sessions with invalid inputs.
+   *
+   * @throws Exception If there is an issue interacting with the command.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testInvalidInputs() throws Exception {
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> CommandLineUtility.startInteractiveSession(null)
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> CommandLineUtility.startInteractiveSession(new String[]{"cat"}, null, 2)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> CommandLineUtility.startInteractiveSession(
+            new String[]{"cat"},
+            ExecutionContext.inherited(),
+            1
+        )
+    );
+    try (InteractiveSession session = CommandLineUtility.startInteractiveSession(
+        new String[]{"cat"}
+    )) {
+      Assertions.assertThrows(NullPointerException.class, () -> session.send(null));
+      Assertions.assertThrows(NullPointerException.class, () -> session.sendLine(null));
+      Assertions.assertThrows(
+          NullPointerException.class,
+          () -> session.expect(null, timeOutDuration)
+      );
+      Assertions.assertThrows(
+          NullPointerException.class,
+          () -> session.expect(MultiPatternMatcher.ofLiterals("x"), null)
+      );
+      Assertions.assertThrows(NullPointerException.class, () -> session.awaitExit(null));
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package org.padaiyal.utilities.commandline;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Tests for LatencyTracker.
+ */
+class LatencyTrackerTest {
+
+  /**
+   * Loads the resource bundles used by LatencyTracker.
+   */
+  @BeforeAll
+  static void prepare() {
+    CommandLineUtility.initializeDependantValues();
+  }
+
+  /**
+   * Tests LatencyTracker::getPercentileLatency() with valid inputs.
+   *
+   * @param percentile              Percentile to compute.
+   * @param expectedLatencyInMillis Expected latency at the percentile.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "1, 1",
+      "50, 50",
+      "90, 90",
+      "99.5, 100",
+      "100, 100"
+  })
+  void testGetPercentileLatency(double percentile, long expectedLatencyInMillis) {
+    LatencyTracker latencyTracker = new LatencyTracker(100);
+    LongStream.rangeClosed(1, 100)
+        .forEach(latencyInMillis -> latencyTracker.recordLatency(
+            "command",
+            Duration.ofMillis(latencyInMillis)
+        ));
+    Assertions.assertEquals(100, latencyTracker.getSampleCount("command"));
+    Assertions.assertEquals(
+        Optional.of(Duration.ofMillis(expectedLatencyInMillis)),
+        latencyTracker.getPercentileLatency("command", percentile)
+    );
+  }
+
+  /**
+   * Tests that only the most recent latencies within the window are retained.
+   */
+  @Test
+  void testOldestLatenciesAreEvicted() {
+    LatencyTracker latencyTracker = new LatencyTracker(10);
+    LongStream.rangeClosed(1, 20)
+        .forEach(latencyInMillis -> latencyTracker.recordLatency(
+            "command",
+            Duration.ofMillis(latencyInMillis)
+        ));
+    Assertions.assertEquals(10, latencyTracker.getSampleCount("command"));
+    Assertions.assertEquals(
+        Optional.of(Duration.ofMillis(11)),
+        latencyTracker.getPercentileLatency("command", 1)
+    );
+
+    latencyTracker.clear();
+    Assertions.assertEquals(0, latencyTracker.getSampleCount("command"));
+  }
+
+  /**
+   * Tests LatencyTracker with untracked commands and invalid inputs.
+   */
+  @Test
+  void testInvalidInputs() {
+    LatencyTracker latencyTracker = new LatencyTracker(10);
+    Assertions.assertEquals(
+        Optional.empty(),
+        latencyTracker.getPercentileLatency("untracked", 50)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> latencyTracker.getPercentileLatency("command", 0)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> latencyTracker.getPercentileLatency("command", 100.1)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new LatencyTracker(0)
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> latencyTracker.recordLatency(null, Duration.ZERO)
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> latencyTracker.recordLatency("command", null)
+    );
+  }
+}
@@ -0,0 +1,140 @@
+package org.padaiyal.utilities.commandline;
+
+import java.util.regex.PatternSyntaxException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Tests for MultiPatternMatcher.
+ */
+class MultiPatternMatcherTest {
+
+  /**
+   * Loads the resources used for the validation messages.
+   */
+  @BeforeAll
+  static void prepare() {
+    CommandLineUtility.initializeDependantValues();
+  }
+
+  /**
+   * Tests matching literal patterns, including patterns which overlap or are suffixes of each
+   * other.
+   *
+   * @param input                 Input to search in.
+   * @param expectedPatternIndex  Expected index of the matching pattern.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "ushers, 1",
+      "hers, 0",
+      "this, 2",
+      "shis, 2",
+      "hhhhe, 0",
+      "sh, -1",
+      "'', -1",
+      "xyz, -1"
+  })
+  void testLiterals(String input, int expectedPatternIndex) {
+    MultiPatternMatcher multiPatternMatcher = MultiPatternMatcher.ofLiterals(
+        "he",
+        "she",
+        "his",
+        "hers"
+    );
+
+    Assertions.assertEquals(4, multiPatternMatcher.getPatternCount());
+    Assertions.assertEquals(
+        expectedPatternIndex,
+        multiPatternMatcher.indexOfMatchingPattern(input)
+    );
+    Assertions.assertEquals(expectedPatternIndex != -1, multiPatternMatcher.test(input));
+  }
+
+  /**
+   * Tests matching regular expressions.
+   *
+   * @param input                 Input to search in.
+   * @param expectedPatternIndex  Expected index of the matching pattern.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "tcp LISTEN 0.0.0.0:22, 0",
+      "tcp ESTAB 10.0.0.1:443, 1",
+      "root 1 /sbin/init, 2",
+      "udp UNCONN, -1"
+  })
+  void testRegularExpressions(String input, int expectedPatternIndex) {
+    MultiPatternMatcher multiPatternMatcher = MultiPatternMatcher.ofRegularExpressions(
+        "LISTEN\\s+\\S+:22$",
+        "(ESTAB)\\s+.*:443",
+        "^root\\s+1\\s"
+    );
+
+    Assertions.assertEquals(
+        expectedPatternIndex,
+        multiPatternMatcher.indexOfMatchingPattern(input)
+    );
+    Assertions.assertEquals(expectedPatternIndex != -1, multiPatternMatcher.test(input));
+  }
+
+  /**
+   * Tests that each regular expression keeps its own group numbering, and that the regular
+   * expression found earliest in the input wins, ties going to the one specified first.
+   *
+   * @param input                 Input to search in.
+   * @param expectedPatternIndex  Expected index of the matching pattern.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "xaa, 1",
+      "xbb, 2",
+      "xab, -1",
+      "bb aa, 2",
+      "ccc, 0"
+  })
+  void testRegularExpressionsWithBackreferences(String input, int expectedPatternIndex) {
+    MultiPatternMatcher multiPatternMatcher = MultiPatternMatcher.ofRegularExpressions(
+        "(c)\\1",
+        "(a)\\1",
+        "(b)\\1",
+        "c+"
+    );
+
+    Assertions.assertEquals(
+        expectedPatternIndex,
+        multiPatternMatcher.indexOfMatchingPattern(input)
+    );
+  }
+
+  /**
+   * Tests compiling matchers with invalid patterns.
+   */
+  @Test
+  void testInvalidPatterns() {
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> MultiPatternMatcher.ofLiterals((String[]) null)
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> MultiPatternMatcher.ofLiterals("a", null)
+    );
+    Assertions.assertThrows(IllegalArgumentException.class, MultiPatternMatcher::ofLiterals);
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> MultiPatternMatcher.ofLiterals("a", "")
+    );
+    Assertions.assertThrows(
+        PatternSyntaxException.class,
+        () -> MultiPatternMatcher.ofRegularExpressions("a", "(")
+    );
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> MultiPatternMatcher.ofLiterals("a").indexOfMatchingPattern(null)
+    );
+  }
+}
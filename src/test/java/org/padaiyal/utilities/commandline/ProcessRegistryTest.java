@@ -0,0 +1,163 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Tests for ProcessRegistry.
+ */
+@DisabledOnOs(OS.WINDOWS)
+class ProcessRegistryTest {
+
+  /**
+   * Loads the resources used for the validation messages.
+   */
+  @BeforeAll
+  static void prepare() {
+    CommandLineUtility.initializeDependantValues();
+  }
+
+  /**
+   * Tests listing, looking up and cancelling registered executions.
+   *
+   * @throws IOException          If there is an issue starting the processes.
+   * @throws InterruptedException If waiting for the processes is interrupted.
+   */
+  @Test
+  void testListAndCancel() throws IOException, InterruptedException {
+    ProcessRegistry processRegistry = new ProcessRegistry();
+    String[] splitCommand = {"sleep", "30"};
+    Instant startTimestamp = Instant.now();
+    Process firstProcess = new ProcessBuilder(splitCommand).start();
+    Process secondProcess = new ProcessBuilder(splitCommand).start();
+    RunningExecution firstExecution = processRegistry.register(
+        splitCommand,
+        firstProcess,
+        startTimestamp
+    );
+    RunningExecution secondExecution = processRegistry.register(
+        splitCommand,
+        secondProcess,
+        startTimestamp
+    );
+
+    Assertions.assertEquals(
+        List.of(firstExecution, secondExecution),
+        processRegistry.getRunningExecutions()
+    );
+    RunningExecution runningExecution = processRegistry.getRunningExecution(
+        secondExecution.getId()
+    ).orElseThrow();
+    Assertions.assertEquals(secondProcess.pid(), runningExecution.getPid());
+    Assertions.assertEquals(List.of(splitCommand), runningExecution.getCommand());
+    Assertions.assertEquals(startTimestamp, runningExecution.getStartTimestamp());
+    secondExecution.recordCapturedBytes(StdType.STDERR, 42);
+    Assertions.assertEquals(0, runningExecution.getCapturedBytes(StdType.STDOUT));
+    Assertions.assertEquals(42, runningExecution.getCapturedBytes(StdType.STDERR));
+
+    Assertions.assertTrue(processRegistry.cancel(secondExecution.getId()));
+    Assertions.assertTrue(secondExecution.isCancelled());
+    Assertions.assertTrue(secondProcess.waitFor(2, TimeUnit.SECONDS));
+    Assertions.assertTrue(firstProcess.isAlive());
+    Assertions.assertFalse(processRegistry.awaitCompletion(Duration.ofMillis(10)));
+    processRegistry.unregister(secondExecution);
+    Assertions.assertTrue(secondExecution.isCompleted());
+    Assertions.assertTrue(secondExecution.awaitCompletion(Duration.ZERO));
+    Assertions.assertFalse(processRegistry.cancel(secondExecution.getId()));
+
+    processRegistry.cancelAll();
+    Assertions.assertTrue(firstProcess.waitFor(2, TimeUnit.SECONDS));
+    processRegistry.unregister(firstExecution);
+    Assertions.assertTrue(processRegistry.getRunningExecutions().isEmpty());
+    Assertions.assertTrue(processRegistry.awaitCompletion(Duration.ZERO));
+  }
+
+  /**
+   * Tests waiting for an execution completed by another thread.
+   *
+   * @throws IOException          If there is an issue starting the process.
+   * @throws InterruptedException If waiting for the execution is interrupted.
+   */
+  @Test
+  void testAwaitCompletion() throws IOException, InterruptedException {
+    ProcessRegistry processRegistry = new ProcessRegistry();
+    String[] splitCommand = {"sleep", "30"};
+    Process process = new ProcessBuilder(splitCommand).start();
+    RunningExecution runningExecution = processRegistry.register(
+        splitCommand,
+        process,
+        Instant.now()
+    );
+    try {
+      Assertions.assertFalse(runningExecution.awaitCompletion(Duration.ofMillis(10)));
+      Thread completer = new Thread(() -> {
+        try {
+          Thread.sleep(100);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        processRegistry.unregister(runningExecution);
+      });
+      completer.start();
+      Assertions.assertTrue(processRegistry.awaitCompletion(Duration.ofSeconds(5)));
+      Assertions.assertTrue(runningExecution.isCompleted());
+      completer.join();
+    } finally {
+      CommandLineUtility.destroyProcessTree(process);
+    }
+  }
+
+  /**
+   * Tests terminating the registered executions, killing those which outlive the grace period.
+   *
+   * @throws IOException          If there is an issue starting the processes.
+   * @throws InterruptedException If waiting for the processes is interrupted.
+   */
+  @Test
+  void testTerminateAll() throws IOException, InterruptedException {
+    ProcessRegistry processRegistry = new ProcessRegistry();
+    String[] terminatingCommand = {"sleep", "30"};
+    // The loop outlives its sleeps being killed, hence only killing the shell stops it.
+    String[] lingeringCommand = {
+        "sh", "-c", "trap '' TERM; echo trapped; while true; do sleep 1; done"
+    };
+    Process terminatingProcess = new ProcessBuilder(terminatingCommand).start();
+    Process lingeringProcess = new ProcessBuilder(lingeringCommand).start();
+    // Waits for the trap to be set so that the shell doesn't terminate on being asked to.
+    Assertions.assertEquals('t', lingeringProcess.getInputStream().read());
+    RunningExecution terminatingExecution = processRegistry.register(
+        terminatingCommand,
+        terminatingProcess,
+        Instant.now()
+    );
+    RunningExecution lingeringExecution = processRegistry.register(
+        lingeringCommand,
+        lingeringProcess,
+        Instant.now()
+    );
+
+    processRegistry.terminateAll(Duration.ofMillis(200));
+    Assertions.assertTrue(terminatingProcess.waitFor(2, TimeUnit.SECONDS));
+    Assertions.assertTrue(lingeringProcess.waitFor(2, TimeUnit.SECONDS));
+    // Processes asked to terminate exit on SIGTERM, those killed exit on SIGKILL.
+    Assertions.assertEquals(128 + 15, terminatingProcess.exitValue());
+    Assertions.assertEquals(128 + 9, lingeringProcess.exitValue());
+    Assertions.assertTrue(terminatingExecution.isCancelled());
+    Assertions.assertTrue(lingeringExecution.isCancelled());
+
+    Assertions.assertThrows(NullPointerException.class, () -> processRegistry.terminateAll(null));
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> processRegistry.awaitCompletion(null)
+    );
+  }
+}
@@ -0,0 +1,168 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.padaiyal.utilities.commandline.abstractions.ResourceUsage;
+
+/**
+ * Tests for ResourceSampler.
+ */
+class ResourceSamplerTest {
+
+  /**
+   * Loads the resources used for the validation messages.
+   */
+  @BeforeAll
+  static void prepare() {
+    CommandLineUtility.initializeDependantValues();
+  }
+
+  /**
+   * Tests sampling a process tree from a simulated proc filesystem.
+   *
+   * @param procPath      Directory in which the proc filesystem is simulated.
+   * @throws IOException  If there is an issue simulating or sampling the proc filesystem.
+   */
+  @Test
+  void testSampleProcessTree(@TempDir Path procPath) throws IOException {
+    Files.createDirectories(procPath.resolve("self"));
+    Files.createDirectories(procPath.resolve("sys"));
+    createProcess(procPath, 100, "sh -c", 1, 250, 50, 2000, 3000, 4096, 8192);
+    createProcess(procPath, 101, "sort", 100, 100, 10, 5000, 5000, 1024, 0);
+    createProcess(procPath, 102, "head", 101, 3, 1, 500, 600, 0, 512);
+    createProcess(procPath, 200, "unrelated", 1, 9999, 9999, 99999, 99999, 9999, 9999);
+
+    ResourceSampler resourceSampler = new ResourceSampler(Duration.ofSeconds(1), procPath, false);
+    Assertions.assertTrue(resourceSampler.isSupported());
+    ResourceSampler.Tracker tracker = resourceSampler.track(100);
+    resourceSampler.sample();
+
+    // Processes which exit are still accounted for as per their last sample.
+    createProcess(procPath, 101, "sort", 100, 400, 20, 6000, 6000, 2048, 0);
+    Files.delete(procPath.resolve("102").resolve("stat"));
+    resourceSampler.sample();
+
+    ResourceUsage resourceUsage = resourceSampler.stopTracking(tracker);
+    Assertions.assertEquals(2, resourceUsage.getSampleCount());
+    Assertions.assertEquals(2, resourceUsage.getPeakChildCount());
+    Assertions.assertEquals((2000 + 6000) * 1024, resourceUsage.getPeakResidentSetSizeInBytes());
+    Assertions.assertEquals(Duration.ofMillis(6530), resourceUsage.getUserCpuTime());
+    Assertions.assertEquals(Duration.ofMillis(710), resourceUsage.getSystemCpuTime());
+    Assertions.assertEquals(4096 + 2048, resourceUsage.getReadBytes());
+    Assertions.assertEquals(8192 + 512, resourceUsage.getWrittenBytes());
+
+    // Processes which are no longer tracked aren't sampled.
+    resourceSampler.sample();
+    Assertions.assertEquals(2, resourceSampler.stopTracking(tracker).getSampleCount());
+
+    // Processes which have exited aren't sampled.
+    tracker = resourceSampler.track(300);
+    resourceSampler.sample();
+    Assertions.assertEquals(0, resourceSampler.stopTracking(tracker).getSampleCount());
+  }
+
+  /**
+   * Tests sampling a running process from the proc filesystem of this machine.
+   *
+   * @throws IOException          If there is an issue starting or sampling the process.
+   * @throws InterruptedException If waiting for the process is interrupted.
+   */
+  @Test
+  @EnabledOnOs(OS.LINUX)
+  void testSampleRunningProcess() throws IOException, InterruptedException {
+    try (ResourceSampler resourceSampler = new ResourceSampler(Duration.ofMillis(10))) {
+      Process process = new ProcessBuilder("sh", "-c", "sleep 1; true").start();
+      ResourceSampler.Tracker tracker = resourceSampler.track(process);
+      Assertions.assertEquals(0, process.waitFor());
+
+      ResourceUsage resourceUsage = resourceSampler.stopTracking(tracker);
+      Assertions.assertTrue(resourceUsage.getSampleCount() > 0);
+      Assertions.assertTrue(resourceUsage.getPeakResidentSetSizeInBytes() > 0);
+      Assertions.assertEquals(1, resourceUsage.getPeakChildCount());
+    }
+  }
+
+  /**
+   * Tests creating samplers with invalid sampling intervals.
+   */
+  @Test
+  void testInvalidSamplingInterval() {
+    Assertions.assertThrows(NullPointerException.class, () -> new ResourceSampler(null));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new ResourceSampler(Duration.ZERO)
+    );
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new ResourceSampler(Duration.ofMillis(-1))
+    );
+  }
+
+  /**
+   * Simulates a process in the proc filesystem.
+   *
+   * @param procPath                        Directory in which the proc filesystem is simulated.
+   * @param pid                             PID of the process.
+   * @param name                            Name of the process.
+   * @param parentPid                       PID of the parent of the process.
+   * @param userTicks                       CPU ticks spent in user mode.
+   * @param systemTicks                     CPU ticks spent in kernel mode.
+   * @param residentSetSizeInKibibytes      Resident set size in KiB.
+   * @param peakResidentSetSizeInKibibytes  Peak resident set size in KiB.
+   * @param readBytes                       Bytes read from storage.
+   * @param writtenBytes                    Bytes written to storage.
+   * @throws IOException                    If there is an issue writing the files.
+   */
+  private static void createProcess(
+      Path procPath,
+      long pid,
+      String name,
+      long parentPid,
+      long userTicks,
+      long systemTicks,
+      long residentSetSizeInKibibytes,
+      long peakResidentSetSizeInKibibytes,
+      long readBytes,
+      long writtenBytes
+  ) throws IOException {
+    Path processPath = Files.createDirectories(procPath.resolve(Long.toString(pid)));
+    Files.writeString(
+        processPath.resolve("stat"),
+        String.format(
+            "%d (%s) S %d %d %d 0 -1 4194304 100 0 0 0 %d %d 0 0 20 0 1 0 1000 0 0%n",
+            pid,
+            name,
+            parentPid,
+            pid,
+            pid,
+            userTicks,
+            systemTicks
+        )
+    );
+    Files.writeString(
+        processPath.resolve("status"),
+        String.format(
+            "Name:\t%s%nVmPeak:\t   10000 kB%nVmHWM:\t%8d kB%nVmRSS:\t%8d kB%n",
+            name,
+            peakResidentSetSizeInKibibytes,
+            residentSetSizeInKibibytes
+        )
+    );
+    Files.writeString(
+        processPath.resolve("io"),
+        String.format(
+            "rchar: 1%nwchar: 2%nread_bytes: %d%nwrite_bytes: %d%ncancelled_write_bytes: 0%n",
+            readBytes,
+            writtenBytes
+        )
+    );
+  }
+}
@@ -0,0 +1,296 @@
+package org.padaiyal.utilities.commandline;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.padaiyal.utilities.commandline.abstractions.ResourceLimit;
+import org.padaiyal.utilities.commandline.abstractions.ResourceUsage;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Tests for ResponseSerializer and SerializedResponse.
+ */
+class ResponseSerializerTest {
+
+  /**
+   * Responses covering the optional fields, missing outputs and multi-byte characters.
+   */
+  private static final List<Response> responses = List.of(
+      new Response(
+          0,
+          "hello\n".repeat(1000),
+          "",
+          Instant.ofEpochSecond(1_700_000_000L, 123_456_789),
+          Duration.ofNanos(987_654_321)
+      ),
+      new Response(
+          137,
+          "naïve ✓ output\n",
+          "killed\n",
+          Instant.ofEpochSecond(-5, 1),
+          Duration.ofMillis(1500),
+          true,
+          new ResourceUsage(
+              1L << 33,
+              Duration.ofMillis(1234),
+              Duration.ofNanos(42),
+              4096,
+              8192,
+              3,
+              17
+          ),
+          ResourceLimit.CPU_TIME
+      ),
+      new Response(1, null, null, Instant.EPOCH, Duration.ZERO)
+  );
+
+  /**
+   * Loads the resource bundles used for the error messages.
+   */
+  @BeforeAll
+  static void prepare() {
+    CommandLineUtility.initializeDependantValues();
+  }
+
+  /**
+   * Tests writing responses one after the other to a stream and reading them back.
+   *
+   * @param compressed    true to compress the outputs, else false.
+   * @throws IOException  If there is an issue serializing the responses.
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testRoundTripThroughStream(boolean compressed) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    long bytesWritten = 0;
+    for (Response response : responses) {
+      bytesWritten += ResponseSerializer.write(
+          response,
+          Channels.newChannel(outputStream),
+          compressed
+      );
+    }
+    Assertions.assertEquals(outputStream.size(), bytesWritten);
+
+    ReadableByteChannel channel = Channels.newChannel(
+        new ByteArrayInputStream(outputStream.toByteArray())
+    );
+    for (Response response : responses) {
+      assertResponsesEqual(response, ResponseSerializer.read(channel).orElseThrow());
+    }
+    Assertions.assertEquals(Optional.empty(), ResponseSerializer.read(channel));
+  }
+
+  /**
+   * Tests that compression shrinks repetitive outputs and leaves the others uncompressed.
+   *
+   * @throws IOException  If there is an issue serializing the responses.
+   */
+  @Test
+  void testCompression() throws IOException {
+    ByteArrayOutputStream uncompressedStream = new ByteArrayOutputStream();
+    ByteArrayOutputStream compressedStream = new ByteArrayOutputStream();
+    Response response = responses.get(0);
+    ResponseSerializer.write(response, Channels.newChannel(uncompressedStream), false);
+    ResponseSerializer.write(response, Channels.newChannel(compressedStream), true);
+    Assertions.assertTrue(compressedStream.size() < uncompressedStream.size() / 10);
+
+    SerializedResponse serializedResponse = ResponseSerializer.view(
+        ByteBuffer.wrap(compressedStream.toByteArray())
+    );
+    Assertions.assertTrue(serializedResponse.isCompressed(StdType.STDOUT));
+    // Compressing an empty output wouldn't make it smaller.
+    Assertions.assertFalse(serializedResponse.isCompressed(StdType.STDERR));
+    assertResponsesEqual(response, serializedResponse.toResponse());
+  }
+
+  /**
+   * Tests viewing responses written to a file through a mapping of the file, and that the
+   * uncompressed outputs are read in place.
+   *
+   * @param tempDirectory Temporary directory holding the file.
+   * @throws IOException  If there is an issue serializing the responses.
+   */
+  @Test
+  void testViewOfMappedFile(@TempDir Path tempDirectory) throws IOException {
+    Path path = tempDirectory.resolve("responses.bin");
+    try (FileChannel fileChannel = FileChannel.open(
+        path,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE
+    )) {
+      for (Response response : responses) {
+        ResponseSerializer.write(response, fileChannel, false);
+      }
+    }
+
+    try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+      MappedByteBuffer mappedBuffer = fileChannel.map(
+          FileChannel.MapMode.READ_ONLY,
+          0,
+          fileChannel.size()
+      );
+      for (Response response : responses) {
+        SerializedResponse serializedResponse = ResponseSerializer.view(mappedBuffer);
+        Assertions.assertEquals(response.getReturnCode(), serializedResponse.getReturnCode());
+        Assertions.assertEquals(
+            response.getExecutionStartTimestamp(),
+            serializedResponse.getExecutionStartTimestamp()
+        );
+        ByteBuffer stdoutBytes = serializedResponse.getOutputBytes(StdType.STDOUT);
+        if (response.getOutput(StdType.STDOUT) == null) {
+          Assertions.assertNull(stdoutBytes);
+        } else {
+          // Slices of the mapping are direct buffers, whereas copies would be on the heap.
+          Assertions.assertTrue(stdoutBytes.isDirect());
+          Assertions.assertTrue(stdoutBytes.isReadOnly());
+          Assertions.assertEquals(
+              response.getOutput(StdType.STDOUT),
+              StandardCharsets.UTF_8.decode(stdoutBytes).toString()
+          );
+        }
+        assertResponsesEqual(response, serializedResponse.toResponse());
+        mappedBuffer.position(mappedBuffer.position() + serializedResponse.getSerializedLength());
+      }
+      Assertions.assertFalse(mappedBuffer.hasRemaining());
+    }
+  }
+
+  /**
+   * Tests that the outputs of a view share the content of the underlying buffer.
+   *
+   * @throws IOException  If there is an issue serializing the response.
+   */
+  @Test
+  void testViewSharesContent() throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ResponseSerializer.write(
+        new Response(0, "abc", "", Instant.EPOCH, Duration.ZERO),
+        Channels.newChannel(outputStream),
+        false
+    );
+    byte[] serializedBytes = outputStream.toByteArray();
+    SerializedResponse serializedResponse = ResponseSerializer.view(
+        ByteBuffer.wrap(serializedBytes)
+    );
+    ByteBuffer stdoutBytes = serializedResponse.getOutputBytes(StdType.STDOUT);
+    // The STDOUT section is followed by the STDERR section header.
+    serializedBytes[serializedBytes.length - ResponseSerializer.SECTION_HEADER_SIZE - 1] = 'z';
+    Assertions.assertEquals("abz", StandardCharsets.UTF_8.decode(stdoutBytes).toString());
+  }
+
+  /**
+   * Tests reading invalid serialized responses.
+   *
+   * @throws IOException  If there is an issue serializing the response.
+   */
+  @Test
+  void testInvalidInput() throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ResponseSerializer.write(responses.get(1), Channels.newChannel(outputStream), true);
+    byte[] serializedBytes = outputStream.toByteArray();
+
+    byte[] truncatedBytes = new byte[serializedBytes.length - 1];
+    System.arraycopy(serializedBytes, 0, truncatedBytes, 0, truncatedBytes.length);
+    Assertions.assertThrows(
+        EOFException.class,
+        () -> ResponseSerializer.read(
+            Channels.newChannel(new ByteArrayInputStream(truncatedBytes))
+        )
+    );
+    Assertions.assertThrows(
+        IOException.class,
+        () -> ResponseSerializer.view(ByteBuffer.wrap(truncatedBytes))
+    );
+
+    byte[] unsupportedVersionBytes = serializedBytes.clone();
+    unsupportedVersionBytes[4] = ResponseSerializer.FORMAT_VERSION + 1;
+    Assertions.assertThrows(
+        IOException.class,
+        () -> ResponseSerializer.view(ByteBuffer.wrap(unsupportedVersionBytes))
+    );
+
+    byte[] invalidMagicBytes = serializedBytes.clone();
+    invalidMagicBytes[0] = 0;
+    Assertions.assertThrows(
+        IOException.class,
+        () -> ResponseSerializer.read(
+            Channels.newChannel(new ByteArrayInputStream(invalidMagicBytes))
+        )
+    );
+
+    Assertions.assertThrows(
+        NullPointerException.class,
+        () -> ResponseSerializer.write(null, Channels.newChannel(outputStream), false)
+    );
+    Assertions.assertThrows(NullPointerException.class, () -> ResponseSerializer.view(null));
+  }
+
+  /**
+   * Asserts that the specified responses hold the same values.
+   *
+   * @param expectedResponse  Expected response.
+   * @param actualResponse    Actual response.
+   */
+  private static void assertResponsesEqual(Response expectedResponse, Response actualResponse) {
+    Assertions.assertEquals(expectedResponse.getReturnCode(), actualResponse.getReturnCode());
+    for (StdType stdType : StdType.values()) {
+      Assertions.assertEquals(
+          expectedResponse.getOutput(stdType),
+          actualResponse.getOutput(stdType)
+      );
+    }
+    Assertions.assertEquals(
+        expectedResponse.getExecutionStartTimestamp(),
+        actualResponse.getExecutionStartTimestamp()
+    );
+    Assertions.assertEquals(
+        expectedResponse.getExecutionDuration(),
+        actualResponse.getExecutionDuration()
+    );
+    Assertions.assertEquals(
+        expectedResponse.isTerminatedEarly(),
+        actualResponse.isTerminatedEarly()
+    );
+    Assertions.assertEquals(
+        expectedResponse.getExceededResourceLimit(),
+        actualResponse.getExceededResourceLimit()
+    );
+    ResourceUsage expectedUsage = expectedResponse.getResourceUsage();
+    ResourceUsage actualUsage = actualResponse.getResourceUsage();
+    if (expectedUsage == null) {
+      Assertions.assertNull(actualUsage);
+      return;
+    }
+    Assertions.assertEquals(
+        expectedUsage.getPeakResidentSetSizeInBytes(),
+        actualUsage.getPeakResidentSetSizeInBytes()
+    );
+    Assertions.assertEquals(expectedUsage.getUserCpuTime(), actualUsage.getUserCpuTime());
+    Assertions.assertEquals(expectedUsage.getSystemCpuTime(), actualUsage.getSystemCpuTime());
+    Assertions.assertEquals(expectedUsage.getReadBytes(), actualUsage.getReadBytes());
+    Assertions.assertEquals(expectedUsage.getWrittenBytes(), actualUsage.getWrittenBytes());
+    Assertions.assertEquals(expectedUsage.getPeakChildCount(), actualUsage.getPeakChildCount());
+    Assertions.assertEquals(expectedUsage.getSampleCount(), actualUsage.getSampleCount());
+  }
+}
@@ -2,6 +2,10 @@ package org.padaiyal.utilities.commandline;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -11,6 +15,7 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.padaiyal.utilities.PropertyUtility;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
 
 /**
  * Tests for StreamUtility.
@@ -71,6 +76,151 @@ class StreamUtilityTest {
     );
   }
 
+  /**
+   * Tests StreamUtility::convertInputStreamToString() with a line filter.
+   *
+   * @param lineLength    Length of each line, which may exceed the size of the pooled buffer.
+   * @param lineCount     Number of lines in the stream.
+   * @param terminator    Line terminator to use, LF or CRLF.
+   * @throws IOException  If there is an issue converting the input stream to a string.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "1, 1000, LF",
+      "10, 1000, CRLF",
+      "1000, 100, LF",
+      "100000, 10, LF"
+  })
+  void testConvertInputStreamToStringWithLineFilter(
+      int lineLength,
+      int lineCount,
+      String terminator
+  ) throws IOException {
+    String lineTerminator = "CRLF".equals(terminator) ? "\r\n" : "\n";
+    StringBuilder input = new StringBuilder();
+    StringBuilder expectedOutput = new StringBuilder();
+    for (int lineIndex = 0; lineIndex < lineCount; lineIndex++) {
+      String line = String.valueOf((char) ('a' + lineIndex % 3)).repeat(lineLength);
+      // The last line isn't terminated.
+      String terminatedLine = line + ((lineIndex < lineCount - 1) ? lineTerminator : "");
+      input.append(terminatedLine);
+      if (lineIndex % 3 == 1) {
+        expectedOutput.append(terminatedLine);
+      }
+    }
+
+    String output = StreamUtility.convertInputStreamToString(
+        new ByteArrayInputStream(input.toString().getBytes()),
+        StdType.STDOUT,
+        0,
+        line -> line.startsWith("b")
+    );
+    Assertions.assertEquals(expectedOutput.toString(), output);
+
+    // Only the retained lines and the line being read count towards the maximum stream size.
+    Assertions.assertEquals(
+        expectedOutput.toString(),
+        StreamUtility.convertInputStreamToString(
+            new ByteArrayInputStream(input.toString().getBytes()),
+            StdType.STDERR,
+            0,
+            expectedOutput.length() + lineLength + lineTerminator.length(),
+            line -> line.startsWith("b")
+        )
+    );
+    Assertions.assertThrows(
+        IOException.class,
+        () -> StreamUtility.convertInputStreamToString(
+            new ByteArrayInputStream(input.toString().getBytes()),
+            StdType.STDOUT,
+            0,
+            expectedOutput.length() - 1,
+            line -> line.startsWith("b")
+        )
+    );
+  }
+
+  /**
+   * Tests that the retained lines count towards the maximum stream size by their size in bytes
+   * rather than by their number of characters.
+   *
+   * @throws IOException  If there is an issue converting the input stream to a string.
+   */
+  @Test
+  void testConvertInputStreamToStringWithLineFilterAndMultiByteCharacters() throws IOException {
+    String input = "\u00e9\u00e9\u00e9\nabc\n";
+    int inputSizeInBytes = input.getBytes(StandardCharsets.UTF_8).length;
+    Assertions.assertEquals(
+        input,
+        StreamUtility.convertInputStreamToString(
+            new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+            StdType.STDOUT,
+            0,
+            inputSizeInBytes,
+            line -> true,
+            null,
+            StandardCharsets.UTF_8
+        )
+    );
+    Assertions.assertThrows(
+        IOException.class,
+        () -> StreamUtility.convertInputStreamToString(
+            new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+            StdType.STDOUT,
+            0,
+            inputSizeInBytes - 1,
+            line -> true,
+            null,
+            StandardCharsets.UTF_8
+        )
+    );
+  }
+
+  /**
+   * Tests StreamUtility::convertInputStreamToString() with a listener stopping the draining.
+   *
+   * @throws IOException  If there is an issue converting the input stream to a string.
+   */
+  @Test
+  void testConvertInputStreamToStringWithDrainListener() throws IOException {
+    String input = "alpha\nbeta\ngamma\ndelta\n";
+    List<String> notifiedLines = new ArrayList<>();
+    String output = StreamUtility.convertInputStreamToString(
+        new ByteArrayInputStream(input.getBytes()),
+        StdType.STDOUT,
+        0,
+        line -> !line.startsWith("b"),
+        new DrainListener() {
+          @Override
+          public boolean onLine(String line, boolean retained) {
+            notifiedLines.add(line + ":" + retained);
+            return !line.equals("gamma");
+          }
+        }
+    );
+    // The lines following the one on which the draining stopped are discarded.
+    Assertions.assertEquals("alpha\ngamma\n", output);
+    Assertions.assertEquals(List.of("alpha:true", "beta:false", "gamma:true"), notifiedLines);
+
+    // The data already read is processed when the draining stops on reading data.
+    AtomicLong notifiedDataSize = new AtomicLong();
+    output = StreamUtility.convertInputStreamToString(
+        new ByteArrayInputStream(input.getBytes()),
+        StdType.STDOUT,
+        0,
+        null,
+        new DrainListener() {
+          @Override
+          public boolean onData(long dataReadFromStreamInBytes) {
+            notifiedDataSize.set(dataReadFromStreamInBytes);
+            return false;
+          }
+        }
+    );
+    Assertions.assertEquals(input, output);
+    Assertions.assertEquals(input.length(), notifiedDataSize.get());
+  }
+
   /**
    * Tests StreamUtility::convertInputStreamToString() with a null input.
    */
@@ -0,0 +1,173 @@
+package org.padaiyal.utilities.commandline.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.padaiyal.utilities.commandline.CommandLineUtility;
+import org.padaiyal.utilities.commandline.ProcessLauncher;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+
+/**
+ * Benchmarks the memory allocated by the library for each command execution, excluding the
+ * process itself. A process launcher returning a reusable stub process is used so that only the
+ * allocations made by CommandLineUtility are measured. The output buffers are pooled, hence they
+ * aren't allocated in the steady state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionOverheadBenchmark {
+
+  /**
+   * Bytes allowed to be allocated per execution, which covers the launch request, the tasks
+   * draining the outputs, the start timestamp and duration, and the response. The end timestamp
+   * of the response is derived when asked for, hence it isn't allocated per execution.
+   */
+  private static final long allocationBudgetInBytes = 512;
+
+  /**
+   * Command to execute.
+   */
+  private final String[] splitCommand = {"benchmark-command"};
+  /**
+   * Time out for the command execution.
+   */
+  private final Duration timeOutDuration = Duration.ofSeconds(5);
+  /**
+   * Process launcher in use before the benchmark.
+   */
+  private ProcessLauncher originalProcessLauncher;
+
+  /**
+   * Replaces the process launcher with one that returns a reusable stub process.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    CommandLineUtility.initializeDependantValues();
+    originalProcessLauncher = CommandLineUtility.getProcessLauncher();
+    Process stubProcess = new StubProcess();
+    CommandLineUtility.setProcessLauncher(launchRequest -> stubProcess);
+  }
+
+  /**
+   * Restores the original process launcher.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    CommandLineUtility.setProcessLauncher(originalProcessLauncher);
+  }
+
+  /**
+   * Executes a command using the stub process.
+   *
+   * @return                      The response of the command.
+   * @throws IOException          If there is an issue executing the command.
+   * @throws InterruptedException If the command execution is interrupted.
+   * @throws TimeoutException     If the command execution times out.
+   */
+  @Benchmark
+  public Response executeCommand() throws IOException, InterruptedException, TimeoutException {
+    return CommandLineUtility.executeCommand(splitCommand, timeOutDuration);
+  }
+
+  /**
+   * Runs this benchmark with the GC profiler and verifies that the bytes allocated per execution
+   * stay within the budget.
+   *
+   * @throws RunnerException If there is an issue running the benchmark.
+   */
+  @Test
+  void runBenchmark() throws RunnerException {
+    Collection<RunResult> runResults = new Runner(
+        new OptionsBuilder()
+            .include(ExecutionOverheadBenchmark.class.getName())
+            .addProfiler(GCProfiler.class)
+            .build()
+    ).run();
+
+    for (RunResult runResult : runResults) {
+      double allocatedBytesPerExecution = runResult.getSecondaryResults()
+          .get("gc.alloc.rate.norm")
+          .getScore();
+      Assertions.assertTrue(
+          allocatedBytesPerExecution <= allocationBudgetInBytes,
+          allocatedBytesPerExecution + " B/op > " + allocationBudgetInBytes + " B/op"
+      );
+    }
+  }
+
+  /**
+   * Process which has already exited successfully without any output.
+   */
+  private static final class StubProcess extends Process {
+
+    /**
+     * Output streams of the process, which are always at their end.
+     */
+    private final InputStream emptyInputStream = InputStream.nullInputStream();
+    /**
+     * Input stream of the process, which discards everything written to it.
+     */
+    private final OutputStream discardingOutputStream = OutputStream.nullOutputStream();
+
+    @Override
+    public OutputStream getOutputStream() {
+      return discardingOutputStream;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      return emptyInputStream;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+      return emptyInputStream;
+    }
+
+    @Override
+    public int waitFor() {
+      return 0;
+    }
+
+    @Override
+    public boolean waitFor(long timeout, TimeUnit unit) {
+      return true;
+    }
+
+    @Override
+    public int exitValue() {
+      return 0;
+    }
+
+    @Override
+    public void destroy() {
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package org.padaiyal.utilities.commandline.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.padaiyal.utilities.commandline.CommandLineUtility;
+import org.padaiyal.utilities.commandline.DefaultProcessLauncher;
+import org.padaiyal.utilities.commandline.ForkServerProcessLauncher;
+import org.padaiyal.utilities.commandline.ProcessLauncher;
+import org.padaiyal.utilities.commandline.abstractions.LaunchRequest;
+import org.padaiyal.utilities.commandline.abstractions.OperatingSystem;
+
+/**
+ * Benchmarks the latency of spawning a process with each process launcher, against the amount of
+ * JVM heap in use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class ProcessLauncherBenchmark {
+
+  /**
+   * Amount of heap to occupy before spawning processes.
+   */
+  @Param({"0", "1024", "2048"})
+  public int heapOccupancyInMegabytes;
+  /**
+   * Type of process launcher to benchmark.
+   */
+  @Param({"DEFAULT", "FORK_SERVER"})
+  public String processLauncherType;
+
+  /**
+   * Used to occupy the heap.
+   */
+  private byte[][] heapBallast;
+  /**
+   * Process launcher being benchmarked.
+   */
+  private ProcessLauncher processLauncher;
+  /**
+   * Request to launch a process which exits immediately.
+   */
+  private LaunchRequest launchRequest;
+
+  /**
+   * Occupies the heap and creates the process launcher.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    CommandLineUtility.initializeDependantValues();
+    heapBallast = new byte[heapOccupancyInMegabytes][];
+    for (int index = 0; index < heapOccupancyInMegabytes; index++) {
+      heapBallast[index] = new byte[1024 * 1024];
+    }
+    processLauncher = switch (processLauncherType) {
+      case "FORK_SERVER" -> new ForkServerProcessLauncher();
+      default -> new DefaultProcessLauncher();
+    };
+    launchRequest = new LaunchRequest(
+        (OperatingSystem.getOperatingSystem() == OperatingSystem.WINDOWS)
+            ? new String[]{"cmd", "/C", "exit"}
+            : new String[]{"true"}
+    );
+  }
+
+  /**
+   * Stops the fork server, if any.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (processLauncher instanceof ForkServerProcessLauncher) {
+      ((ForkServerProcessLauncher) processLauncher).close();
+    }
+  }
+
+  /**
+   * Spawns a process which exits immediately and waits for it to exit.
+   *
+   * @return                      Exit code of the process.
+   * @throws IOException          If there is an issue spawning the process.
+   * @throws InterruptedException If waiting for the process is interrupted.
+   */
+  @Benchmark
+  public int spawn() throws IOException, InterruptedException {
+    Process process = processLauncher.launch(launchRequest);
+    int exitCode = process.waitFor();
+    process.getOutputStream().close();
+    process.getInputStream().close();
+    process.getErrorStream().close();
+    return exitCode + heapBallast.length;
+  }
+
+  /**
+   * Runs this benchmark.
+   *
+   * @throws RunnerException If there is an issue running the benchmark.
+   */
+  @Test
+  void runBenchmark() throws RunnerException {
+    new Runner(
+        new OptionsBuilder()
+            .include(ProcessLauncherBenchmark.class.getName())
+            .build()
+    ).run();
+  }
+}
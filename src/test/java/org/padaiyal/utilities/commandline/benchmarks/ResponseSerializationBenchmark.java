@@ -0,0 +1,171 @@
+package org.padaiyal.utilities.commandline.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.padaiyal.utilities.commandline.CommandLineUtility;
+import org.padaiyal.utilities.commandline.ResponseSerializer;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Benchmarks the throughput of serializing responses, deserializing them and viewing them in
+ * place, against the size of their outputs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+  /**
+   * Size of the STDOUT of the response.
+   */
+  @Param({"64", "65536"})
+  public int outputSizeInBytes;
+  /**
+   * Flag to denote if the outputs are compressed.
+   */
+  @Param({"false", "true"})
+  public boolean compressed;
+
+  /**
+   * Response being serialized.
+   */
+  private Response response;
+  /**
+   * Serialized response.
+   */
+  private ByteBuffer serializedResponse;
+  /**
+   * Channel discarding everything written to it.
+   */
+  private WritableByteChannel discardingChannel;
+
+  /**
+   * Creates the response and serializes it.
+   *
+   * @throws IOException If there is an issue serializing the response.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    CommandLineUtility.initializeDependantValues();
+    String line = "drwxr-xr-x  2 user group 4096 Jan  1 00:00 directory\n";
+    StringBuilder output = new StringBuilder(outputSizeInBytes + line.length());
+    while (output.length() < outputSizeInBytes) {
+      output.append(line);
+    }
+    output.setLength(outputSizeInBytes);
+    response = new Response(0, output.toString(), "", Instant.now(), Duration.ofMillis(5));
+    discardingChannel = new WritableByteChannel() {
+      @Override
+      public int write(ByteBuffer source) {
+        int remaining = source.remaining();
+        source.position(source.limit());
+        return remaining;
+      }
+
+      @Override
+      public boolean isOpen() {
+        return true;
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    ByteBuffer buffer = ByteBuffer.allocate(2 * outputSizeInBytes + 1024);
+    ResponseSerializer.write(
+        response,
+        new WritableByteChannel() {
+          @Override
+          public int write(ByteBuffer source) {
+            int remaining = source.remaining();
+            buffer.put(source);
+            return remaining;
+          }
+
+          @Override
+          public boolean isOpen() {
+            return true;
+          }
+
+          @Override
+          public void close() {
+          }
+        },
+        compressed
+    );
+    serializedResponse = buffer.flip();
+  }
+
+  /**
+   * Serializes the response.
+   *
+   * @return              Number of bytes written.
+   * @throws IOException  If there is an issue serializing the response.
+   */
+  @Benchmark
+  public long write() throws IOException {
+    return ResponseSerializer.write(response, discardingChannel, compressed);
+  }
+
+  /**
+   * Deserializes the response, decoding its outputs.
+   *
+   * @return              The response.
+   * @throws IOException  If there is an issue deserializing the response.
+   */
+  @Benchmark
+  public Response read() throws IOException {
+    return ResponseSerializer.view(serializedResponse).toResponse();
+  }
+
+  /**
+   * Views the response in place, locating its STDOUT without decoding it.
+   *
+   * @return              Number of bytes in the STDOUT.
+   * @throws IOException  If there is an issue viewing the response.
+   */
+  @Benchmark
+  public int view() throws IOException {
+    return ResponseSerializer.view(serializedResponse)
+        .getOutputBytes(StdType.STDOUT)
+        .remaining();
+  }
+
+  /**
+   * Runs this benchmark.
+   *
+   * @throws RunnerException If there is an issue running the benchmark.
+   */
+  @Test
+  void runBenchmark() throws RunnerException {
+    new Runner(
+        new OptionsBuilder()
+            .include(ResponseSerializationBenchmark.class.getName())
+            .build()
+    ).run();
+  }
+}
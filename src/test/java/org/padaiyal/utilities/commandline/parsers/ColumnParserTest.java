@@ -0,0 +1,172 @@
+package org.padaiyal.utilities.commandline.parsers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.padaiyal.utilities.commandline.CommandLineUtility;
+import org.padaiyal.utilities.commandline.abstractions.CaptureOptions;
+import org.padaiyal.utilities.commandline.abstractions.HeaderMode;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Tests for ColumnParser.
+ */
+class ColumnParserTest {
+
+  /**
+   * Loads the properties and resource bundles used by the parser.
+   */
+  @BeforeAll
+  static void prepare() {
+    CommandLineUtility.initializeDependantValues();
+  }
+
+  /**
+   * Tests parsing whitespace separated columns with a detected header, bounding the number of
+   * columns so that the last one keeps its whitespace.
+   */
+  @Test
+  void testWhitespaceSeparatedColumns() {
+    List<ParsedRecord> records = new ArrayList<>();
+    ColumnParser parser = new ColumnParser(records::add);
+    parser.setMaximumColumnCount(4);
+    Assertions.assertFalse(parser.test("    PID  %CPU     RSS COMMAND"));
+    Assertions.assertFalse(parser.test("      1   0.0   11892 /sbin/init splash"));
+    Assertions.assertFalse(parser.test(""));
+    Assertions.assertFalse(parser.test("  12345  12.5 1048576 bash -c sleep 10  "));
+
+    Assertions.assertEquals(List.of("PID", "%CPU", "RSS", "COMMAND"), parser.getColumnNames());
+    Assertions.assertEquals(2, records.size());
+    Assertions.assertEquals(4, parser.getLineCount());
+    Assertions.assertEquals(2, parser.getRecordCount());
+    Assertions.assertEquals(0, parser.getMalformedLineCount());
+    ParsedRecord record = records.get(1);
+    Assertions.assertEquals(4, record.getFieldCount());
+    Assertions.assertEquals(12345, record.getLong("PID"));
+    Assertions.assertEquals(12.5, record.getDouble("%CPU"));
+    Assertions.assertEquals(1048576.0, record.getDouble(2));
+    Assertions.assertTrue(record.isNumeric(1));
+    Assertions.assertFalse(record.isNumeric(3));
+    Assertions.assertEquals("bash -c sleep 10", record.getString("COMMAND"));
+    Assertions.assertEquals("RSS", record.getName(2));
+    Assertions.assertEquals("/sbin/init splash", records.get(0).getString(3));
+    Assertions.assertThrows(NumberFormatException.class, () -> record.getLong("%CPU"));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> record.getLong("USER"));
+    Assertions.assertEquals(-1, record.getFieldIndex("USER"));
+    Assertions.assertFalse(record.hasField("USER"));
+    Assertions.assertThrows(IndexOutOfBoundsException.class, () -> record.getString(4));
+  }
+
+  /**
+   * Tests that data lines having more fields than the header have their leading fields
+   * unnamed, as the ones of free.
+   */
+  @Test
+  void testUnnamedLeadingColumns() {
+    List<ParsedRecord> records = new ArrayList<>();
+    ColumnParser parser = new ColumnParser(records::add);
+    parser.test("               total        used        free");
+    parser.test("Mem:        16308964     4075620     9053828");
+    parser.test("Swap:        2097148           0     2097148");
+
+    Assertions.assertEquals(2, records.size());
+    ParsedRecord memory = records.get(0);
+    Assertions.assertNull(memory.getName(0));
+    Assertions.assertEquals("Mem:", memory.getString(0));
+    Assertions.assertEquals(16308964, memory.getLong("total"));
+    Assertions.assertEquals(9053828, memory.getLong("free"));
+    Assertions.assertEquals(0, records.get(1).getLong("used"));
+  }
+
+  /**
+   * Tests parsing fixed width columns, and the header modes.
+   */
+  @Test
+  void testFixedWidthColumns() {
+    List<ParsedRecord> records = new ArrayList<>();
+    ColumnParser parser = new ColumnParser(records::add);
+    parser.setColumnOffsets(0, 10, 20);
+    parser.setHeaderMode(HeaderMode.ABSENT);
+    parser.test("sda       disk      Samsung SSD");
+    parser.test("sda1      part");
+
+    Assertions.assertEquals(List.of(), parser.getColumnNames());
+    Assertions.assertEquals("Samsung SSD", records.get(0).getString(2));
+    Assertions.assertEquals("part", records.get(1).getString(1));
+    Assertions.assertEquals("", records.get(1).getString(2));
+    Assertions.assertNull(records.get(1).getName(0));
+
+    records.clear();
+    ColumnParser numericHeaderParser = new ColumnParser(records::add);
+    numericHeaderParser.setHeaderMode(HeaderMode.PRESENT);
+    numericHeaderParser.test("1 2");
+    numericHeaderParser.test("a b");
+    Assertions.assertEquals("b", records.get(0).getString("2"));
+
+    records.clear();
+    ColumnParser headerlessParser = new ColumnParser(records::add);
+    headerlessParser.test("1 a");
+    Assertions.assertEquals(List.of(), headerlessParser.getColumnNames());
+    Assertions.assertEquals(1, records.size());
+  }
+
+  /**
+   * Tests that the parser, installed as a line filter, parses the output of a command as it is
+   * drained without retaining it in the response.
+   *
+   * @throws Exception If there is an issue executing the command.
+   */
+  @Test
+  @DisabledOnOs(OS.WINDOWS)
+  void testParsingDrainedOutput() throws Exception {
+    List<ParsedRecord> records = new ArrayList<>();
+    ColumnParser parser = new ColumnParser(records::add);
+    CaptureOptions captureOptions = new CaptureOptions();
+    captureOptions.setLineFilter(StdType.STDOUT, parser);
+    Response response = CommandLineUtility.executeCommand(
+        new String[]{"bash", "-c", "echo 'INDEX SQUARE'; for i in $(seq 1 1000); do "
+            + "echo \"$i $((i * i))\"; done"},
+        Duration.ofSeconds(10),
+        captureOptions
+    );
+
+    Assertions.assertEquals("", response.getOutput(StdType.STDOUT));
+    Assertions.assertEquals(1000, records.size());
+    long sum = 0;
+    for (ParsedRecord record : records) {
+      Assertions.assertEquals(
+          record.getLong("INDEX") * record.getLong("INDEX"),
+          record.getLong("SQUARE")
+      );
+      sum += record.getLong(0);
+    }
+    Assertions.assertEquals(500500, sum);
+
+    parser = new ColumnParser(records::add);
+    parser.setLinesRetained(true);
+    Assertions.assertTrue(parser.isLinesRetained());
+    Assertions.assertTrue(parser.test("a b"));
+  }
+
+  /**
+   * Tests creating parsers with invalid inputs.
+   */
+  @Test
+  void testInvalidInputs() {
+    Assertions.assertThrows(NullPointerException.class, () -> new ColumnParser(null));
+    ColumnParser parser = new ColumnParser(record -> { });
+    Assertions.assertThrows(IllegalArgumentException.class, () -> parser.setColumnOffsets(0, 0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> parser.setColumnOffsets(-1));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> parser.setMaximumColumnCount(-1)
+    );
+    Assertions.assertThrows(NullPointerException.class, () -> parser.setHeaderMode(null));
+  }
+}
@@ -0,0 +1,80 @@
+package org.padaiyal.utilities.commandline.parsers;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.padaiyal.utilities.commandline.CommandLineUtility;
+
+/**
+ * Tests for JsonLinesParser.
+ */
+class JsonLinesParserTest {
+
+  /**
+   * Loads the properties and resource bundles used by the parser.
+   */
+  @BeforeAll
+  static void prepare() {
+    CommandLineUtility.initializeDependantValues();
+  }
+
+  /**
+   * Tests parsing objects holding every kind of value.
+   */
+  @Test
+  void testObjects() {
+    List<ParsedRecord> records = new ArrayList<>();
+    JsonLinesParser parser = new JsonLinesParser(records::add);
+    parser.test(
+        "{\"pid\": 42, \"cpu\":-1.5e2, \"name\":\"a \\\"b\\\"\\n\\u00e9\", \"up\": true,"
+            + " \"parent\": null, \"tags\": [\"x\", {\"y\": \"]\"}], \"\\u0061\": {}}"
+    );
+    parser.test("  {}  ");
+    parser.test("{\"escaped\\\\\": \"plain\"}");
+
+    Assertions.assertEquals(3, records.size());
+    ParsedRecord process = records.get(0);
+    Assertions.assertEquals(7, process.getFieldCount());
+    Assertions.assertEquals(42, process.getLong("pid"));
+    Assertions.assertEquals(-150.0, process.getDouble("cpu"));
+    Assertions.assertEquals("a \"b\"\n\u00e9", process.getString("name"));
+    Assertions.assertEquals("true", process.getString("up"));
+    Assertions.assertTrue(process.isNull(process.getFieldIndex("parent")));
+    Assertions.assertNull(process.getString("parent"));
+    Assertions.assertFalse(process.isNumeric(process.getFieldIndex("parent")));
+    Assertions.assertThrows(NumberFormatException.class, () -> process.getLong("parent"));
+    Assertions.assertEquals("[\"x\", {\"y\": \"]\"}]", process.getString("tags"));
+    Assertions.assertEquals("{}", process.getString("a"));
+    Assertions.assertEquals(0, records.get(1).getFieldCount());
+    Assertions.assertEquals("plain", records.get(2).getString("escaped\\"));
+  }
+
+  /**
+   * Tests that malformed lines are counted and skipped without affecting the following ones.
+   */
+  @Test
+  void testMalformedLines() {
+    List<ParsedRecord> records = new ArrayList<>();
+    JsonLinesParser parser = new JsonLinesParser(records::add);
+    List<String> malformedLines = List.of(
+        "[1, 2]",
+        "{\"a\": 1",
+        "{\"a\" 1}",
+        "{\"a\": \"\\u12\"}",
+        "{\"a\": \"unterminated}",
+        "{\"a\": nil}",
+        "{\"a\": 1} trailing",
+        "{\"a\": {\"b\": 1}",
+        "{\"a\": \"\\\"decoded\", \"b\": -}"
+    );
+    malformedLines.forEach(parser::test);
+    parser.test("{\"a\": \"plain\", \"b\": 1}");
+
+    Assertions.assertEquals(malformedLines.size(), parser.getMalformedLineCount());
+    Assertions.assertEquals(1, records.size());
+    Assertions.assertEquals("plain", records.get(0).getString("a"));
+    Assertions.assertEquals(1, records.get(0).getLong("b"));
+  }
+}
@@ -0,0 +1,75 @@
+package org.padaiyal.utilities.commandline.parsers;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.padaiyal.utilities.commandline.CommandLineUtility;
+
+/**
+ * Tests for KeyValueParser.
+ */
+class KeyValueParserTest {
+
+  /**
+   * Loads the properties and resource bundles used by the parser.
+   */
+  @BeforeAll
+  static void prepare() {
+    CommandLineUtility.initializeDependantValues();
+  }
+
+  /**
+   * Tests parsing lines of whitespace separated pairs with quoted values.
+   */
+  @Test
+  void testPairs() {
+    List<ParsedRecord> records = new ArrayList<>();
+    KeyValueParser parser = new KeyValueParser(records::add);
+    parser.test("NAME=\"sda\" SIZE=\"500107862016\" MODEL=\"Samsung \\\"Evo\\\"\" RO=0");
+    parser.test("NAME=\"sda1\" SIZE=\"536870912\" MODEL=\"\" RO=1");
+    parser.test("NAME=\"sda2 SIZE=1");
+    parser.test("NAME");
+    parser.test("NAME=\"x\"y");
+
+    Assertions.assertEquals(2, records.size());
+    Assertions.assertEquals(3, parser.getMalformedLineCount());
+    ParsedRecord disk = records.get(0);
+    Assertions.assertEquals(4, disk.getFieldCount());
+    Assertions.assertEquals("sda", disk.getString("NAME"));
+    Assertions.assertEquals(500107862016L, disk.getLong("SIZE"));
+    Assertions.assertEquals("Samsung \"Evo\"", disk.getString("MODEL"));
+    Assertions.assertEquals(0, disk.getLong("RO"));
+    Assertions.assertEquals("SIZE", disk.getName(1));
+    ParsedRecord partition = records.get(1);
+    Assertions.assertEquals("", partition.getString("MODEL"));
+    Assertions.assertEquals(1, partition.getLong(3));
+  }
+
+  /**
+   * Tests parsing lines holding a single pair whose value is the rest of the line.
+   */
+  @Test
+  void testOnePairPerLine() {
+    List<ParsedRecord> records = new ArrayList<>();
+    KeyValueParser parser = new KeyValueParser(records::add);
+    parser.setSeparator(':');
+    parser.setOnePairPerLine(true);
+    parser.test("MemTotal:       16308964 kB");
+    parser.test("Description:    \"Kernel \\\\ modules\"  ");
+    parser.test("no separator");
+    parser.test(":     1");
+
+    Assertions.assertEquals(2, records.size());
+    Assertions.assertEquals(2, parser.getMalformedLineCount());
+    Assertions.assertEquals("16308964 kB", records.get(0).getString("MemTotal"));
+    Assertions.assertEquals("Kernel \\ modules", records.get(1).getString("Description"));
+
+    records.clear();
+    KeyValueParser sysctlParser = new KeyValueParser(records::add);
+    sysctlParser.setOnePairPerLine(true);
+    sysctlParser.test("net.core.somaxconn = 4096");
+    Assertions.assertEquals(4096, records.get(0).getLong("net.core.somaxconn"));
+  }
+}
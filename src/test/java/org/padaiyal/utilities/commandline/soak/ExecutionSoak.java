@@ -0,0 +1,526 @@
+package org.padaiyal.utilities.commandline.soak;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.padaiyal.utilities.commandline.CommandLineUtility;
+import org.padaiyal.utilities.commandline.abstractions.CommandLine;
+import org.padaiyal.utilities.commandline.abstractions.Response;
+import org.padaiyal.utilities.commandline.abstractions.StdType;
+
+/**
+ * Drives CommandLineUtility::executeCommand(String, CommandLine, Duration) at a sustained rate
+ * with a mix of fast, slow, large output, timing out and failing commands, and fails if the open
+ * file descriptors, the live threads, the zombie children or the latency of the fast commands
+ * trend upwards over the run. Resources are sampled from /proc, hence the harness only runs on
+ * Linux.
+ *
+ * <p>The harness is configured through system properties, which can be passed on the command
+ * line, e.g. mvn test -P soak -Dsoak.duration=PT4H -Dsoak.rate=50:
+ * <ul>
+ *   <li>soak.duration - Duration of the load, PT5M by default.</li>
+ *   <li>soak.warmup - Initial duration excluded from the trends, PT1M by default.</li>
+ *   <li>soak.sampleInterval - Interval between samples, PT5S by default.</li>
+ *   <li>soak.rate - Executions started per second, 20 by default.</li>
+ *   <li>soak.concurrency - Maximum executions in progress, 32 by default. Executions due while
+ *   the maximum is reached are skipped and reported.</li>
+ *   <li>soak.mix - Relative weights of the command kinds, fast=60,slow=10,largeOutput=10,
+ *   timingOut=10,failing=10 by default.</li>
+ *   <li>soak.latencyDriftTolerance - Fraction by which the 99th percentile latency of the fast
+ *   commands may drift upwards, 0.5 by default.</li>
+ * </ul>
+ *
+ * <p>A resource trends upwards if its lowest value over the last third of the samples exceeds
+ * its highest value over the first third, which tolerates the pools growing and shrinking while
+ * catching steady growth.
+ */
+@DisabledOnOs({OS.WINDOWS, OS.MAC})
+class ExecutionSoak {
+
+  /**
+   * Logger object used to log information and errors.
+   */
+  private static final Logger logger = LogManager.getLogger(ExecutionSoak.class);
+  /**
+   * Size of the output of the large output commands.
+   */
+  private static final int largeOutputSizeInBytes = 1048576;
+  /**
+   * Time out for the command executions, which the timing out commands exceed.
+   */
+  private static final Duration timeOutDuration = Duration.ofSeconds(2);
+  /**
+   * Time out for the timing out commands.
+   */
+  private static final Duration shortTimeOutDuration = Duration.ofMillis(200);
+
+  /**
+   * Kinds of commands the load is made of.
+   */
+  private enum CommandKind {
+    FAST("echo fast; true", "fast"),
+    SLOW("sleep 0.5; echo slow", "slow"),
+    LARGE_OUTPUT(
+        "head -c " + largeOutputSizeInBytes + " /dev/zero | tr '\\0' 'a'",
+        "largeOutput"
+    ),
+    TIMING_OUT("sleep 5; echo late", "timingOut"),
+    FAILING("echo failing >&2; exit 3", "failing");
+
+    /**
+     * Command executed.
+     */
+    private final String command;
+    /**
+     * Name of the command kind in soak.mix.
+     */
+    private final String mixName;
+
+    /**
+     * Constructor used to initialize a CommandKind.
+     *
+     * @param command Command executed.
+     * @param mixName Name of the command kind in soak.mix.
+     */
+    CommandKind(String command, String mixName) {
+      this.command = command;
+      this.mixName = mixName;
+    }
+  }
+
+  /**
+   * Resources and latencies sampled at an instant of the run.
+   *
+   * @see ExecutionSoak#takeSample(long)
+   */
+  private static final class Sample {
+
+    /**
+     * Time elapsed since the start of the run.
+     */
+    private final Duration elapsed;
+    /**
+     * Number of open file descriptors.
+     */
+    private final long openFileDescriptorCount;
+    /**
+     * Number of live threads.
+     */
+    private final long threadCount;
+    /**
+     * Number of zombie children.
+     */
+    private final long zombieCount;
+    /**
+     * 99th percentile latency of the fast commands completed since the previous sample, in
+     * milliseconds, or NaN if none completed.
+     */
+    private final double fastLatencyP99;
+
+    /**
+     * Constructor used to initialize a Sample object.
+     *
+     * @param elapsed                 Time elapsed since the start of the run.
+     * @param openFileDescriptorCount Number of open file descriptors.
+     * @param threadCount             Number of live threads.
+     * @param zombieCount             Number of zombie children.
+     * @param fastLatencyP99          99th percentile latency of the fast commands, in
+     *                                milliseconds.
+     */
+    private Sample(
+        Duration elapsed,
+        long openFileDescriptorCount,
+        long threadCount,
+        long zombieCount,
+        double fastLatencyP99
+    ) {
+      this.elapsed = elapsed;
+      this.openFileDescriptorCount = openFileDescriptorCount;
+      this.threadCount = threadCount;
+      this.zombieCount = zombieCount;
+      this.fastLatencyP99 = fastLatencyP99;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "elapsed=%s fds=%d threads=%d zombies=%d fastP99=%.1fms",
+          elapsed,
+          openFileDescriptorCount,
+          threadCount,
+          zombieCount,
+          fastLatencyP99
+      );
+    }
+  }
+
+  /**
+   * Latencies of the fast commands completed since the previous sample, in nanoseconds.
+   */
+  private final ConcurrentLinkedQueue<Long> fastLatencies = new ConcurrentLinkedQueue<>();
+  /**
+   * Number of executions completed as expected, per command kind.
+   */
+  private final Map<CommandKind, AtomicLong> completedCounts = new EnumMap<>(CommandKind.class);
+  /**
+   * Descriptions of the executions which didn't complete as expected.
+   */
+  private final ConcurrentLinkedQueue<String> unexpectedOutcomes = new ConcurrentLinkedQueue<>();
+  /**
+   * Number of executions skipped since the maximum concurrency was reached.
+   */
+  private final AtomicLong skippedCount = new AtomicLong();
+
+  /**
+   * Runs the load and checks that none of the tracked resources trend upwards.
+   *
+   * @throws Exception If there is an issue running the load or sampling the resources.
+   */
+  @Test
+  void runSoak() throws Exception {
+    CommandLineUtility.initializeDependantValues();
+    final Duration duration = Duration.parse(System.getProperty("soak.duration", "PT5M"));
+    final Duration warmup = Duration.parse(System.getProperty("soak.warmup", "PT1M"));
+    final Duration sampleInterval = Duration.parse(
+        System.getProperty("soak.sampleInterval", "PT5S")
+    );
+    final double rate = Double.parseDouble(System.getProperty("soak.rate", "20"));
+    final int concurrency = Integer.parseInt(System.getProperty("soak.concurrency", "32"));
+    final double latencyDriftTolerance = Double.parseDouble(
+        System.getProperty("soak.latencyDriftTolerance", "0.5")
+    );
+    final CommandKind[] weightedKinds = parseMix(
+        System.getProperty(
+            "soak.mix",
+            "fast=60,slow=10,largeOutput=10,timingOut=10,failing=10"
+        )
+    );
+    Arrays.stream(CommandKind.values())
+        .forEach(kind -> completedCounts.put(kind, new AtomicLong()));
+
+    final List<Sample> samples = new ArrayList<>();
+    final Semaphore inFlight = new Semaphore(concurrency);
+    final ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+    final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    final long startNanoTime = System.nanoTime();
+    try {
+      scheduler.scheduleAtFixedRate(
+          () -> {
+            if (!inFlight.tryAcquire()) {
+              skippedCount.incrementAndGet();
+              return;
+            }
+            CommandKind kind = weightedKinds[
+                ThreadLocalRandom.current().nextInt(weightedKinds.length)
+            ];
+            workers.execute(() -> {
+              try {
+                execute(kind);
+              } finally {
+                inFlight.release();
+              }
+            });
+          },
+          0,
+          Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate)),
+          TimeUnit.NANOSECONDS
+      );
+      scheduler.scheduleAtFixedRate(
+          () -> {
+            Sample sample = takeSample(startNanoTime);
+            logger.info(sample);
+            synchronized (samples) {
+              samples.add(sample);
+            }
+          },
+          sampleInterval.toNanos(),
+          sampleInterval.toNanos(),
+          TimeUnit.NANOSECONDS
+      );
+      Thread.sleep(duration.toMillis());
+    } finally {
+      scheduler.shutdownNow();
+      scheduler.awaitTermination(1, TimeUnit.MINUTES);
+      workers.shutdown();
+      workers.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    logger.info(
+        "Completed executions: {}, skipped executions: {}",
+        completedCounts,
+        skippedCount.get()
+    );
+    Assertions.assertTrue(
+        unexpectedOutcomes.isEmpty(),
+        () -> unexpectedOutcomes.size() + " unexpected outcomes, e.g. "
+            + unexpectedOutcomes.peek()
+    );
+
+    final List<Sample> steadySamples;
+    synchronized (samples) {
+      steadySamples = samples.stream()
+          .filter(sample -> sample.elapsed.compareTo(warmup) >= 0)
+          .collect(Collectors.toList());
+    }
+    Assertions.assertTrue(
+        steadySamples.size() >= 6,
+        () -> "Too few samples after the warmup to detect trends: " + steadySamples.size()
+    );
+    assertNoUpwardTrend(
+        "Open file descriptors",
+        steadySamples,
+        sample -> sample.openFileDescriptorCount
+    );
+    assertNoUpwardTrend("Threads", steadySamples, sample -> sample.threadCount);
+    assertNoUpwardTrend("Zombie children", steadySamples, sample -> sample.zombieCount);
+
+    final int thirdSize = steadySamples.size() / 3;
+    final double initialLatencyP99 = median(steadySamples.subList(0, thirdSize));
+    final double finalLatencyP99 = median(
+        steadySamples.subList(steadySamples.size() - thirdSize, steadySamples.size())
+    );
+    Assertions.assertTrue(
+        finalLatencyP99 <= initialLatencyP99 * (1 + latencyDriftTolerance),
+        () -> String.format(
+            "99th percentile latency of the fast commands drifted from %.1fms to %.1fms.",
+            initialLatencyP99,
+            finalLatencyP99
+        )
+    );
+
+    // Once the load stops, every child has to be reaped.
+    Thread.sleep(sampleInterval.toMillis());
+    Assertions.assertEquals(0, countZombieChildren());
+  }
+
+  /**
+   * Executes a command of the specified kind and checks its outcome.
+   *
+   * @param kind Kind of command to execute.
+   */
+  private void execute(CommandKind kind) {
+    final long executionStartNanoTime = System.nanoTime();
+    try {
+      Response response = CommandLineUtility.executeCommand(
+          kind.command,
+          CommandLine.BASH,
+          (kind == CommandKind.TIMING_OUT) ? shortTimeOutDuration : timeOutDuration
+      );
+      boolean expected = switch (kind) {
+        case FAST -> response.getReturnCode() == 0
+            && response.getOutput(StdType.STDOUT).trim().equals("fast");
+        case SLOW -> response.getReturnCode() == 0
+            && response.getOutput(StdType.STDOUT).trim().equals("slow");
+        case LARGE_OUTPUT -> response.getReturnCode() == 0
+            && response.getOutput(StdType.STDOUT).length() == largeOutputSizeInBytes;
+        case FAILING -> response.getReturnCode() == 3
+            && response.getOutput(StdType.STDERR).trim().equals("failing");
+        case TIMING_OUT -> false;
+      };
+      if (!expected) {
+        unexpectedOutcomes.add(
+            kind + ": return code " + response.getReturnCode() + ", STDERR "
+                + response.getOutput(StdType.STDERR)
+        );
+        return;
+      }
+      if (kind == CommandKind.FAST) {
+        fastLatencies.add(System.nanoTime() - executionStartNanoTime);
+      }
+      completedCounts.get(kind).incrementAndGet();
+    } catch (TimeoutException e) {
+      if (kind == CommandKind.TIMING_OUT) {
+        completedCounts.get(kind).incrementAndGet();
+      } else {
+        unexpectedOutcomes.add(kind + ": " + e);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      unexpectedOutcomes.add(kind + ": " + e);
+    }
+  }
+
+  /**
+   * Samples the resources in use and the latencies of the fast commands completed since the
+   * previous sample.
+   *
+   * @param startNanoTime Value of System.nanoTime() when the run started.
+   * @return              The sample.
+   */
+  private Sample takeSample(long startNanoTime) {
+    List<Long> latencies = new ArrayList<>();
+    Long latency;
+    while ((latency = fastLatencies.poll()) != null) {
+      latencies.add(latency);
+    }
+    latencies.sort(null);
+    double fastLatencyP99 = latencies.isEmpty()
+        ? Double.NaN
+        : latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1) / 1e6;
+    try {
+      return new Sample(
+          Duration.ofNanos(System.nanoTime() - startNanoTime),
+          countOpenFileDescriptors(),
+          ManagementFactory.getThreadMXBean().getThreadCount(),
+          countZombieChildren(),
+          fastLatencyP99
+      );
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Counts the file descriptors opened by this JVM.
+   *
+   * @return              Number of open file descriptors.
+   * @throws IOException  If there is an issue listing the file descriptors.
+   */
+  private static long countOpenFileDescriptors() throws IOException {
+    try (Stream<Path> fileDescriptors = Files.list(Path.of("/proc/self/fd"))) {
+      return fileDescriptors.count();
+    }
+  }
+
+  /**
+   * Counts the children of this JVM which have exited without being reaped.
+   *
+   * @return              Number of zombie children.
+   * @throws IOException  If there is an issue listing the processes.
+   */
+  private static long countZombieChildren() throws IOException {
+    final String pid = Long.toString(ProcessHandle.current().pid());
+    try (Stream<Path> processes = Files.list(Path.of("/proc"))) {
+      return processes.filter(process -> process.getFileName().toString().matches("\\d+"))
+          .filter(process -> {
+            try {
+              String stat = Files.readString(process.resolve("stat"), StandardCharsets.UTF_8);
+              // The fields following the parenthesized executable name are the state and the
+              // parent pid.
+              String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+              return fields[0].equals("Z") && fields[1].equals(pid);
+            } catch (IOException e) {
+              // The process exited while listing.
+              return false;
+            }
+          })
+          .count();
+    }
+  }
+
+  /**
+   * Parses the relative weights of the command kinds into an array holding each kind as many
+   * times as its weight, from which kinds are picked uniformly.
+   *
+   * @param mix Comma separated weights, e.g. fast=60,slow=40.
+   * @return    The weighted command kinds.
+   */
+  private static CommandKind[] parseMix(String mix) {
+    Map<String, CommandKind> kindsByMixName = new LinkedHashMap<>();
+    Arrays.stream(CommandKind.values())
+        .forEach(kind -> kindsByMixName.put(kind.mixName, kind));
+    List<CommandKind> weightedKinds = new ArrayList<>();
+    for (String weight : mix.split(",")) {
+      String[] nameAndWeight = weight.trim().split("=");
+      CommandKind kind = kindsByMixName.get(nameAndWeight[0]);
+      if (kind == null || nameAndWeight.length != 2) {
+        throw new IllegalArgumentException(
+            "Invalid soak.mix entry '" + weight + "', expected one of "
+                + kindsByMixName.keySet() + " followed by =<weight>."
+        );
+      }
+      for (int count = Integer.parseInt(nameAndWeight[1]); count > 0; count--) {
+        weightedKinds.add(kind);
+      }
+    }
+    if (weightedKinds.isEmpty()) {
+      throw new IllegalArgumentException("soak.mix doesn't weigh any command kind.");
+    }
+    return weightedKinds.toArray(new CommandKind[0]);
+  }
+
+  /**
+   * Asserts that a resource doesn't trend upwards, i.e. that its lowest value over the last
+   * third of the samples doesn't exceed its highest value over the first third.
+   *
+   * @param resourceName  Name of the resource, used in the failure message.
+   * @param samples       Samples taken after the warmup.
+   * @param resource      Function retrieving the value of the resource from a sample.
+   */
+  private static void assertNoUpwardTrend(
+      String resourceName,
+      List<Sample> samples,
+      ToDoubleFunction<Sample> resource
+  ) {
+    final int thirdSize = samples.size() / 3;
+    final List<Sample> initialSamples = samples.subList(0, thirdSize);
+    final List<Sample> finalSamples = samples.subList(samples.size() - thirdSize, samples.size());
+    final double initialMaximum = initialSamples.stream()
+        .mapToDouble(resource)
+        .max()
+        .orElseThrow();
+    final double finalMinimum = finalSamples.stream()
+        .mapToDouble(resource)
+        .min()
+        .orElseThrow();
+    Assertions.assertTrue(
+        finalMinimum <= initialMaximum,
+        () -> String.format(
+            "%s trend upwards: at least %.0f over the last %d samples, at most %.0f over the"
+                + " first %d samples.%nInitial samples: %s%nFinal samples: %s",
+            resourceName,
+            finalMinimum,
+            thirdSize,
+            initialMaximum,
+            thirdSize,
+            initialSamples,
+            finalSamples
+        )
+    );
+  }
+
+  /**
+   * Computes the median 99th percentile latency of the fast commands over the specified samples,
+   * ignoring the samples without any fast command.
+   *
+   * @param samples Samples to compute the median over.
+   * @return        The median latency in milliseconds.
+   */
+  private static double median(List<Sample> samples) {
+    double[] latencies = samples.stream()
+        .mapToDouble(sample -> sample.fastLatencyP99)
+        .filter(latency -> !Double.isNaN(latency))
+        .sorted()
+        .toArray();
+    Assertions.assertTrue(latencies.length > 0, "No fast command completed.");
+    return latencies[latencies.length / 2];
+  }
+}